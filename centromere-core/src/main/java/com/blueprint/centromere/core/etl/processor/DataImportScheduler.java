@@ -0,0 +1,478 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blueprint.centromere.core.etl.processor;
+
+import com.blueprint.centromere.core.exceptions.DataProcessingException;
+import com.blueprint.centromere.core.exceptions.ModelRegistryException;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs a manifest of data files through their registered {@link DataProcessor} beans concurrently.
+ * Each {@link ImportTask} names a file and its data type, and the processor is resolved using
+ * {@link ModelProcessorBeanRegistry#getProcessorByDataType(String)}.  The number of files
+ * processed at once is limited globally, and per processor model type.
+ *
+ * Dependencies between model types are declared with
+ * {@link #addModelDependencies(Class, Class[])}, for example so that all {@code Gene} and
+ * {@code Sample} files are imported before any {@code GeneExpression} files.  Dependency and limit
+ * model types are matched by assignment, so an abstract model class covers all of its
+ * implementations.  If an import fails, all tasks that depend on it are skipped.
+ *
+ * Processors hold per-file state, such as record counts, failure flags, and open reader handles,
+ * so a processor instance never processes two files at once.  Prototype-scoped processor beans
+ * get a new instance for every task and may run concurrently, while tasks sharing a singleton
+ * processor bean are run one at a time.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+public class DataImportScheduler {
+
+    public static final int DEFAULT_MAX_CONCURRENT_IMPORTS
+        = Runtime.getRuntime().availableProcessors();
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DataImportScheduler.class);
+
+    private final ModelProcessorBeanRegistry<? extends DataProcessor<?>> processorRegistry;
+    private final Map<Class<?>, Set<Class<?>>> modelDependencies = new LinkedHashMap<>();
+    private final Map<Class<?>, Integer> modelConcurrencyLimits = new LinkedHashMap<>();
+    private int maxConcurrentImports = DEFAULT_MAX_CONCURRENT_IMPORTS;
+    private int maxConcurrentImportsPerModel = Integer.MAX_VALUE;
+
+    public DataImportScheduler(
+        ModelProcessorBeanRegistry<? extends DataProcessor<?>> processorRegistry) {
+        this.processorRegistry = processorRegistry;
+    }
+
+    public DataImportScheduler(
+        ModelProcessorBeanRegistry<? extends DataProcessor<?>> processorRegistry,
+        int maxConcurrentImports) {
+        this.processorRegistry = processorRegistry;
+        this.setMaxConcurrentImports(maxConcurrentImports);
+    }
+
+    /**
+     * Declares that files for the given model type may only be imported after all files for each of
+     * the dependency model types, within the same manifest, have been imported successfully.
+     *
+     * @param model model type with dependencies
+     * @param dependencies model types that must be imported first
+     * @return this scheduler
+     */
+    public DataImportScheduler addModelDependencies(Class<?> model, Class<?>... dependencies) {
+        modelDependencies.computeIfAbsent(model, m -> new LinkedHashSet<>())
+            .addAll(Arrays.asList(dependencies));
+        return this;
+    }
+
+    /**
+     * Imports all of the files in the manifest and blocks until every task has completed or been
+     * skipped.  Failed imports do not stop independent tasks from running.
+     *
+     * @param tasks files and data types to import
+     * @return results of each task, in manifest order
+     * @throws DataProcessingException if a data type has no registered processor, if the model
+     *   dependencies are circular, or if the scheduler is interrupted
+     */
+    public List<ImportResult> run(List<ImportTask> tasks) throws DataProcessingException {
+
+        int taskCount = tasks.size();
+        DataProcessor<?>[] processors = new DataProcessor<?>[taskCount];
+        boolean[] isolated = new boolean[taskCount];
+        for (int i = 0; i < taskCount; i++) {
+            String dataType = tasks.get(i).getDataType();
+            try {
+                processors[i] = processorRegistry.getProcessorByDataType(dataType);
+            } catch (ModelRegistryException e) {
+                throw new DataProcessingException(
+                    String.format("Unable to resolve processor for data type: %s", dataType), e);
+            }
+            if (processors[i] == null) {
+                throw new DataProcessingException(
+                    String.format("No processor registered for data type: %s", dataType));
+            }
+            isolated[i] = processorRegistry.isPrototypeDataType(dataType);
+        }
+
+        List<List<Integer>> dependencies = getTaskDependencies(processors);
+        checkForCycles(tasks, dependencies);
+
+        ImportResult[] results = new ImportResult[taskCount];
+        List<Integer> pending = new LinkedList<>();
+        for (int i = 0; i < taskCount; i++) {
+            pending.add(i);
+        }
+        Map<Future<ImportResult>, Integer> running = new HashMap<>();
+        Map<Class<?>, Integer> runningByModel = new HashMap<>();
+        Set<DataProcessor<?>> busyProcessors = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        LOGGER.info(String.format("Scheduling %d import tasks with %d concurrent imports",
+            taskCount, maxConcurrentImports));
+
+        ExecutorService executor = Executors.newFixedThreadPool(maxConcurrentImports);
+        CompletionService<ImportResult> completionService
+            = new ExecutorCompletionService<>(executor);
+
+        try {
+
+            while (!pending.isEmpty() || !running.isEmpty()) {
+
+                boolean skipped = false;
+                Iterator<Integer> iterator = pending.iterator();
+                while (iterator.hasNext() && running.size() < maxConcurrentImports) {
+
+                    int index = iterator.next();
+                    ImportTask task = tasks.get(index);
+                    DataProcessor<?> processor = processors[index];
+                    Class<?> model = processor.getModel();
+
+                    ImportResult failedDependency = null;
+                    boolean isReady = true;
+                    for (Integer dependency : dependencies.get(index)) {
+                        if (results[dependency] == null) {
+                            isReady = false;
+                        } else if (!results[dependency].isSuccessful()) {
+                            failedDependency = results[dependency];
+                            break;
+                        }
+                    }
+
+                    if (failedDependency != null) {
+                        LOGGER.warn(String.format("Skipping import of %s, dependency failed: %s",
+                            task.getFile().getAbsolutePath(),
+                            failedDependency.getTask().getFile().getAbsolutePath()));
+                        results[index] = new ImportResult(task, ImportStatus.SKIPPED, null);
+                        iterator.remove();
+                        skipped = true;
+                        continue;
+                    }
+
+                    if (!isReady
+                        || runningByModel.getOrDefault(model, 0) >= getModelConcurrencyLimit(model)
+                        || !isolated[index] && busyProcessors.contains(processor)) {
+                        continue;
+                    }
+
+                    iterator.remove();
+                    runningByModel.merge(model, 1, Integer::sum);
+                    if (!isolated[index]) {
+                        busyProcessors.add(processor);
+                    }
+                    boolean isIsolated = isolated[index];
+                    running.put(completionService.submit(
+                        () -> importFile(task, isIsolated ? null : processor)), index);
+
+                }
+
+                if (running.isEmpty()) {
+                    if (!skipped && !pending.isEmpty()) {
+                        throw new DataProcessingException("Unable to schedule remaining import "
+                            + "tasks, dependencies cannot be resolved.");
+                    }
+                    continue;
+                }
+
+                Future<ImportResult> future = completionService.take();
+                int index = running.remove(future);
+                DataProcessor<?> processor = processors[index];
+                runningByModel.merge(processor.getModel(), -1, Integer::sum);
+                busyProcessors.remove(processor);
+                try {
+                    results[index] = future.get();
+                } catch (ExecutionException e) {
+                    results[index] = new ImportResult(tasks.get(index), ImportStatus.FAILED,
+                        e.getCause());
+                }
+
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataProcessingException("Import scheduler was interrupted.", e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int failed = 0;
+        for (ImportResult result : results) {
+            if (!result.isSuccessful()) {
+                failed++;
+            }
+        }
+        LOGGER.info(String.format("Completed %d of %d import tasks, %d failed or skipped",
+            taskCount - failed, taskCount, failed));
+
+        return Arrays.asList(results);
+
+    }
+
+    /**
+     * Runs a single import task.  When no shared processor is supplied, a new processor instance is
+     * fetched from the registry.
+     *
+     * @param task task to run
+     * @param sharedProcessor singleton processor for the task's data type, or null
+     * @return result of the import
+     */
+    private ImportResult importFile(ImportTask task, DataProcessor<?> sharedProcessor) {
+
+        File file = task.getFile();
+        Map<String, String> args = task.getArgs();
+        DataProcessor<?> processor = sharedProcessor;
+        LOGGER.info(String.format("Importing %s file: %s", task.getDataType(),
+            file.getAbsolutePath()));
+
+        try {
+            if (processor == null) {
+                processor = processorRegistry.getProcessorInstanceByDataType(task.getDataType());
+            }
+            processor.doBefore(file, args);
+            processor.processFile(file, args);
+            processor.doOnSuccess(file, args);
+        } catch (Exception e) {
+            LOGGER.error(String.format("Import of %s file failed: %s", task.getDataType(),
+                file.getAbsolutePath()), e);
+            if (processor != null) {
+                try {
+                    processor.doOnFailure(file, args);
+                } catch (Exception ex) {
+                    LOGGER.warn(String.format("Processor failure handling failed for file: %s",
+                        file.getAbsolutePath()), ex);
+                }
+            }
+            return new ImportResult(task, ImportStatus.FAILED, e);
+        }
+
+        return new ImportResult(task, ImportStatus.SUCCESS, null);
+
+    }
+
+    /**
+     * For each task, finds the manifest tasks whose processor model satisfies one of the declared
+     * dependencies of the task's processor model.
+     */
+    private List<List<Integer>> getTaskDependencies(DataProcessor<?>[] processors) {
+        List<List<Integer>> dependencies = new ArrayList<>();
+        for (DataProcessor<?> processor : processors) {
+            Set<Class<?>> required = new LinkedHashSet<>();
+            for (Map.Entry<Class<?>, Set<Class<?>>> entry : modelDependencies.entrySet()) {
+                if (entry.getKey().isAssignableFrom(processor.getModel())) {
+                    required.addAll(entry.getValue());
+                }
+            }
+            List<Integer> taskDependencies = new ArrayList<>();
+            for (int i = 0; i < processors.length; i++) {
+                for (Class<?> dependency : required) {
+                    if (dependency.isAssignableFrom(processors[i].getModel())) {
+                        taskDependencies.add(i);
+                        break;
+                    }
+                }
+            }
+            dependencies.add(taskDependencies);
+        }
+        return dependencies;
+    }
+
+    /**
+     * Throws an exception if any task depends, directly or indirectly, on itself.
+     */
+    private static void checkForCycles(List<ImportTask> tasks, List<List<Integer>> dependencies)
+        throws DataProcessingException {
+        int[] states = new int[tasks.size()];
+        for (int i = 0; i < tasks.size(); i++) {
+            if (hasCycle(i, dependencies, states)) {
+                throw new DataProcessingException(String.format("Circular model dependency found "
+                    + "for %s file: %s", tasks.get(i).getDataType(),
+                    tasks.get(i).getFile().getAbsolutePath()));
+            }
+        }
+    }
+
+    /**
+     * Depth-first search for a task that is reachable from its own dependencies.  States are 0 for
+     * unvisited tasks, 1 for tasks on the current path, and 2 for tasks already checked.
+     */
+    private static boolean hasCycle(int index, List<List<Integer>> dependencies, int[] states) {
+        if (states[index] == 2) {
+            return false;
+        }
+        if (states[index] == 1) {
+            return true;
+        }
+        states[index] = 1;
+        for (Integer dependency : dependencies.get(index)) {
+            if (hasCycle(dependency, dependencies, states)) {
+                return true;
+            }
+        }
+        states[index] = 2;
+        return false;
+    }
+
+    /**
+     * Returns the smallest configured concurrency limit that applies to the model type, or the
+     * default per-model limit.
+     */
+    private int getModelConcurrencyLimit(Class<?> model) {
+        int limit = maxConcurrentImportsPerModel;
+        for (Map.Entry<Class<?>, Integer> entry : modelConcurrencyLimits.entrySet()) {
+            if (entry.getKey().isAssignableFrom(model)) {
+                limit = Math.min(limit, entry.getValue());
+            }
+        }
+        return limit;
+    }
+
+    public int getMaxConcurrentImports() {
+        return maxConcurrentImports;
+    }
+
+    public void setMaxConcurrentImports(int maxConcurrentImports) {
+        if (maxConcurrentImports < 1) {
+            throw new IllegalArgumentException("Maximum concurrent imports must be at least 1.");
+        }
+        this.maxConcurrentImports = maxConcurrentImports;
+    }
+
+    /**
+     * Sets the limit of files imported at once for processors of the given model type, overriding
+     * the default per-model limit.
+     *
+     * @param model model type
+     * @param maxConcurrentImports concurrency limit
+     */
+    public void setMaxConcurrentImports(Class<?> model, int maxConcurrentImports) {
+        if (maxConcurrentImports < 1) {
+            throw new IllegalArgumentException("Maximum concurrent imports must be at least 1.");
+        }
+        modelConcurrencyLimits.put(model, maxConcurrentImports);
+    }
+
+    public int getMaxConcurrentImportsPerModel() {
+        return maxConcurrentImportsPerModel;
+    }
+
+    /**
+     * Sets the default limit of files imported at once for any single processor model type.
+     *
+     * @param maxConcurrentImportsPerModel concurrency limit
+     */
+    public void setMaxConcurrentImportsPerModel(int maxConcurrentImportsPerModel) {
+        if (maxConcurrentImportsPerModel < 1) {
+            throw new IllegalArgumentException("Maximum concurrent imports must be at least 1.");
+        }
+        this.maxConcurrentImportsPerModel = maxConcurrentImportsPerModel;
+    }
+
+    /**
+     * Outcome of an {@link ImportTask}.
+     */
+    public enum ImportStatus {
+        SUCCESS,
+        FAILED,
+        SKIPPED
+    }
+
+    /**
+     * A single entry in an import manifest: a file, the data type used to resolve its processor,
+     * and the arguments passed to the processor.
+     */
+    public static class ImportTask {
+
+        private final File file;
+        private final String dataType;
+        private final Map<String, String> args;
+
+        public ImportTask(File file, String dataType) {
+            this(file, dataType, new HashMap<>());
+        }
+
+        public ImportTask(File file, String dataType, Map<String, String> args) {
+            this.file = file;
+            this.dataType = dataType;
+            this.args = args;
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        public String getDataType() {
+            return dataType;
+        }
+
+        public Map<String, String> getArgs() {
+            return args;
+        }
+
+    }
+
+    /**
+     * Result of running an {@link ImportTask}, with the exception thrown if the import failed.
+     */
+    public static class ImportResult {
+
+        private final ImportTask task;
+        private final ImportStatus status;
+        private final Throwable error;
+
+        public ImportResult(ImportTask task, ImportStatus status, Throwable error) {
+            this.task = task;
+            this.status = status;
+            this.error = error;
+        }
+
+        public ImportTask getTask() {
+            return task;
+        }
+
+        public ImportStatus getStatus() {
+            return status;
+        }
+
+        public Throwable getError() {
+            return error;
+        }
+
+        public boolean isSuccessful() {
+            return status == ImportStatus.SUCCESS;
+        }
+
+    }
+
+}
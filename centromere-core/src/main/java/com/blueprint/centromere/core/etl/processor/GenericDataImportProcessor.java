@@ -24,6 +24,17 @@ import com.blueprint.centromere.core.model.Model;
 import com.blueprint.centromere.core.model.ModelSupport;
 import java.io.File;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.validation.BindingResult;
@@ -36,11 +47,31 @@ import org.springframework.validation.Validator;
  * Map)} methods can be overridden to handle data set or data file metadata persistence,
  * pre/post-processing, or other maintenance tasks.
  *
+ * <p>By default, records are read, validated and written one at a time, on the calling thread.
+ * With the {@code processing-mode=pipelined} argument, reading, validation and writing overlap:
+ * a reader thread feeds records to a pool of {@code processing-threads} validation workers, and
+ * validated records are written on the calling thread.  At most {@code processing-queue-size}
+ * records are in flight at once, so a slow writer holds back the reader.  Records are written in
+ * the order they are read, unless {@code ordered-output=false}, in which case they are written as
+ * soon as they are validated.  The reader and writer are only ever used by one thread at a time,
+ * so they need not be thread-safe, but the {@link Validator} must be.  Invalid records fail the
+ * run, or are skipped with {@code skip-invalid-records=true}, in both modes.
+ *
  * @author woemler
  */
 public class GenericDataImportProcessor<T extends Model<?>>
     implements DataProcessor<T>, ModelSupport<T> {
 
+    public static final String SKIP_INVALID_RECORDS_ARG = "skip-invalid-records";
+    public static final String PROCESSING_MODE_ARG = "processing-mode";
+    public static final String PROCESSING_THREADS_ARG = "processing-threads";
+    public static final String PROCESSING_QUEUE_SIZE_ARG = "processing-queue-size";
+    public static final String ORDERED_OUTPUT_ARG = "ordered-output";
+
+    public static final String SEQUENTIAL_MODE = "sequential";
+    public static final String PIPELINED_MODE = "pipelined";
+    public static final int DEFAULT_PROCESSING_QUEUE_SIZE = 1000;
+
     private static final Logger LOGGER = LoggerFactory.getLogger(GenericDataImportProcessor.class);
 
     private final Class<T> model;
@@ -204,13 +235,26 @@ public class GenericDataImportProcessor<T extends Model<?>>
 
     /**
      * Processes all of the incoming records.  Filters and validates records, if the appropriate
-     * components are set.
+     * components are set.  Records are processed sequentially, or by a pipeline of reader,
+     * validation and writer stages, depending upon the {@code processing-mode} argument.
      *
      * @throws DataProcessingException processing exception
      */
     protected void processRecords(File file, Map<String, String> args)
         throws DataProcessingException {
 
+        String mode = args.getOrDefault(PROCESSING_MODE_ARG, SEQUENTIAL_MODE).trim();
+        boolean skipInvalid = Boolean.parseBoolean(
+            args.getOrDefault(SKIP_INVALID_RECORDS_ARG, "false"));
+
+        if (PIPELINED_MODE.equalsIgnoreCase(mode)) {
+            processRecordsPipelined(args, skipInvalid);
+            return;
+        } else if (!SEQUENTIAL_MODE.equalsIgnoreCase(mode)) {
+            throw new DataProcessingException(
+                String.format("Invalid value for argument %s: %s", PROCESSING_MODE_ARG, mode));
+        }
+
         LOGGER.debug("Processing records.");
 
         T record = reader.readRecord();
@@ -220,28 +264,176 @@ public class GenericDataImportProcessor<T extends Model<?>>
 
             recordCount++;
 
-            if (validator != null) {
-                DataBinder dataBinder = new DataBinder(record);
-                dataBinder.setValidator(validator);
-                dataBinder.validate();
-                BindingResult bindingResult = dataBinder.getBindingResult();
-                if (bindingResult.hasErrors()) {
-                    LOGGER.warn(String.format("Record failed validation: %s", record.toString()));
-                    if (Boolean.parseBoolean(args.getOrDefault("skip-invalid-records", "false"))) {
+            if (validateRecord(record, skipInvalid)) {
+                writer.writeRecord(record);
+            }
+
+            record = reader.readRecord();
+
+        }
+
+    }
+
+    /**
+     * Validates a single record, if a {@link Validator} is set.  Must be safe to call from multiple
+     * threads at once.
+     *
+     * @param record record to validate
+     * @param skipInvalid if true, invalid records are skipped, rather than failing the run
+     * @return true if the record should be written, false if it should be skipped
+     * @throws DataProcessingException if the record is invalid and may not be skipped
+     */
+    protected boolean validateRecord(T record, boolean skipInvalid)
+        throws DataProcessingException {
+        if (validator == null) {
+            return true;
+        }
+        DataBinder dataBinder = new DataBinder(record);
+        dataBinder.setValidator(validator);
+        dataBinder.validate();
+        BindingResult bindingResult = dataBinder.getBindingResult();
+        if (!bindingResult.hasErrors()) {
+            return true;
+        }
+        LOGGER.warn(String.format("Record failed validation: %s", record.toString()));
+        if (skipInvalid) {
+            return false;
+        }
+        isInFailedState = true;
+        throw new DataProcessingException(bindingResult.toString());
+    }
+
+    /**
+     * Processes all of the incoming records with separate reader, validation and writer stages,
+     * connected by a queue of records in flight.  The queue is bounded by a semaphore, whose
+     * permits are taken by the reader and returned by the writer.
+     *
+     * @throws DataProcessingException processing exception
+     */
+    private void processRecordsPipelined(Map<String, String> args, boolean skipInvalid)
+        throws DataProcessingException {
+
+        int threads = getIntArg(args, PROCESSING_THREADS_ARG,
+            Runtime.getRuntime().availableProcessors());
+        int queueSize = getIntArg(args, PROCESSING_QUEUE_SIZE_ARG, DEFAULT_PROCESSING_QUEUE_SIZE);
+        boolean ordered = Boolean.parseBoolean(args.getOrDefault(ORDERED_OUTPUT_ARG, "true"));
+        LOGGER.debug(String.format("Processing records with %d validation threads, queue size %d, "
+            + "ordered output: %s", threads, queueSize, ordered));
+
+        Semaphore permits = new Semaphore(queueSize);
+        BlockingQueue<Future<T>> results = new LinkedBlockingQueue<>();
+        CompletableFuture<T> endOfRecords = new CompletableFuture<>();
+        AtomicBoolean aborted = new AtomicBoolean(false);
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        ExecutorService readerStage = Executors.newSingleThreadExecutor();
+
+        try {
+
+            Future<Integer> reading = readerStage.submit(() -> {
+                int count = 0;
+                try {
+                    T record = reader.readRecord();
+                    while (record != null) {
+                        permits.acquire();
+                        if (aborted.get()) {
+                            break;
+                        }
+                        count++;
+                        T current = record;
+                        CompletableFuture<T> result = CompletableFuture.supplyAsync(
+                            () -> validateOrSkip(current, skipInvalid), workers);
+                        if (ordered) {
+                            results.put(result);
+                        } else {
+                            result.whenComplete((validated, e) -> results.add(result));
+                        }
                         record = reader.readRecord();
-                        continue;
-                    } else {
-                        isInFailedState = true;
-                        throw new DataProcessingException(bindingResult.toString());
                     }
+                } finally {
+                    results.add(endOfRecords);
+                }
+                return count;
+            });
+
+            int processed = 0;
+            Integer total = null;
+            while (total == null || processed < total) {
+                Future<T> result = results.take();
+                if (result == endOfRecords) {
+                    total = getResult(reading);
+                    continue;
                 }
+                T record = getResult(result);
+                processed++;
+                permits.release();
+                if (record != null) {
+                    writer.writeRecord(record);
+                }
+            }
+            recordCount = processed;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataProcessingException("Record processing was interrupted.", e);
+        } finally {
+            aborted.set(true);
+            permits.release();
+            workers.shutdownNow();
+            readerStage.shutdown();
+            try {
+                readerStage.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
-            writer.writeRecord(record);
+        }
 
-            record = reader.readRecord();
+    }
+
+    private T validateOrSkip(T record, boolean skipInvalid) {
+        try {
+            return validateRecord(record, skipInvalid) ? record : null;
+        } catch (DataProcessingException e) {
+            throw new CompletionException(e);
+        }
+    }
 
+    /**
+     * Waits for the result of a pipeline stage, rethrowing its failure as it would be thrown by
+     * sequential processing.
+     */
+    private static <R> R getResult(Future<R> future)
+        throws DataProcessingException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof DataProcessingException) {
+                throw (DataProcessingException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new DataProcessingException(cause);
         }
+    }
 
+    private static int getIntArg(Map<String, String> args, String name, int defaultValue)
+        throws DataProcessingException {
+        String value = args.get(name);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed > 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            LOGGER.debug(String.format("Argument %s is not an integer: %s", name, value));
+        }
+        throw new DataProcessingException(
+            String.format("Invalid value for argument %s: %s", name, value));
     }
 
     public Class<T> getModel() {
@@ -28,6 +28,7 @@ import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
@@ -36,11 +37,17 @@ import org.springframework.context.ApplicationContextAware;
  * Registry bean for mapping input file data types to their appropriate {@link DataProcessor} beans.
  * Uses the {@link DataTypes} annotation of existing processor classes to identify valid beans.
  *
+ * Processor beans may be singletons or prototype-scoped.  Prototype beans are registered once,
+ * using an instance created after all singletons are initialized, and
+ * {@link #getProcessorInstanceByDataType(String)} can then be used to obtain a new instance, with
+ * its own reader, writer, and record-processing state, for each file processed.
+ *
  * @author woemler
  * @since 0.5.0
  */
 public class ModelProcessorBeanRegistry<T extends DataProcessor<?>>
-    implements ModelDataProcessorRegistry<T>, BeanPostProcessor, ApplicationContextAware {
+    implements ModelDataProcessorRegistry<T>, BeanPostProcessor, ApplicationContextAware,
+    SmartInitializingSingleton {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ModelProcessorBeanRegistry.class);
 
@@ -49,6 +56,8 @@ public class ModelProcessorBeanRegistry<T extends DataProcessor<?>>
     private Map<String, Class<? extends Model<?>>> modelMap = new HashMap<>();
     private Map<String, String> dataTypeDescriptionMap = new HashMap<>();
     private Map<Class<? extends Model<?>>, List<T>> modelProcessorMap = new HashMap<>();
+    private Map<String, String> dataTypeBeanNameMap = new HashMap<>();
+    private Set<String> registeredBeanNames = new HashSet<>();
 
     /**
      * Fetches {@link DataProcessor} bean instance that is mapped to the supplied data type.
@@ -61,6 +70,44 @@ public class ModelProcessorBeanRegistry<T extends DataProcessor<?>>
         return dataTypeMap.getOrDefault(dataType, null);
     }
 
+    /**
+     * Fetches a {@link DataProcessor} instance for a single run against the supplied data type. If
+     * the registered bean is prototype-scoped, a new instance is created from the
+     * {@link ApplicationContext}, otherwise the shared registered bean is returned.
+     *
+     * @param dataType data type identifier.
+     * @return processor instance associated with the data type, or null if none is registered.
+     * @throws ModelRegistryException if a new processor instance cannot be created
+     */
+    @SuppressWarnings("unchecked")
+    public T getProcessorInstanceByDataType(String dataType) throws ModelRegistryException {
+        if (!isPrototypeDataType(dataType)) {
+            return getProcessorByDataType(dataType);
+        }
+        String beanName = dataTypeBeanNameMap.get(dataType);
+        try {
+            return (T) applicationContext.getBean(beanName);
+        } catch (BeansException e) {
+            throw new ModelRegistryException(String.format("Unable to create DataProcessor bean %s "
+                + "for data type %s", beanName, dataType), e);
+        }
+    }
+
+    /**
+     * Tests whether the {@link DataProcessor} bean registered for the supplied data type is
+     * prototype-scoped, meaning that {@link #getProcessorInstanceByDataType(String)} will return a
+     * new instance on each call.
+     *
+     * @param dataType data type identifier.
+     * @return true if the processor is prototype-scoped.
+     */
+    public boolean isPrototypeDataType(String dataType) {
+        String beanName = dataTypeBeanNameMap.get(dataType);
+        return beanName != null && applicationContext != null
+            && applicationContext.containsBeanDefinition(beanName)
+            && applicationContext.isPrototype(beanName);
+    }
+
     /**
      * Adds a mapping for the submitted {@link DataProcessor} bean, associating it with any
      * annotated data types (found in {@link DataTypes} annotations), and it's target {@link Model}
@@ -68,8 +115,27 @@ public class ModelProcessorBeanRegistry<T extends DataProcessor<?>>
      *
      * @param component data processor bean
      */
-    @SuppressWarnings("unchecked")
     void registerBean(T component) {
+        registerBean(component, null);
+    }
+
+    /**
+     * Adds a mapping for the submitted {@link DataProcessor} bean, and records the bean name, so
+     * that later instances of the same prototype bean are not registered again.
+     *
+     * @param component data processor bean
+     * @param beanName name of the bean, if known
+     */
+    @SuppressWarnings("unchecked")
+    void registerBean(T component, String beanName) {
+
+        if (beanName != null) {
+            if (registeredBeanNames.contains(beanName)) {
+                LOGGER.debug(String.format("DataProcessor bean already registered: %s", beanName));
+                return;
+            }
+            registeredBeanNames.add(beanName);
+        }
 
         List<T> processors = new ArrayList<>();
 
@@ -91,6 +157,9 @@ public class ModelProcessorBeanRegistry<T extends DataProcessor<?>>
                         dataTypeDescriptionMap.put(dataType, dataTypes.description().equals("")
                             ? "No description given." : dataTypes.description());
                         modelMap.put(dataType, model);
+                        if (beanName != null) {
+                            dataTypeBeanNameMap.put(dataType, beanName);
+                        }
                         LOGGER.debug(
                             String.format("Registering DataProcessor bean %s for data type %s for "
                                     + "model %s", component.getClass().getName(), dataType,
@@ -139,7 +208,7 @@ public class ModelProcessorBeanRegistry<T extends DataProcessor<?>>
         throws BeansException {
         LOGGER.debug(String.format("Checking bean: %s", beanName));
         if (bean instanceof DataProcessor) {
-            this.registerBean((T) bean);
+            this.registerBean((T) bean, beanName);
         }
         return bean;
     }
@@ -150,19 +219,20 @@ public class ModelProcessorBeanRegistry<T extends DataProcessor<?>>
      */
     @SuppressWarnings("unchecked")
     public void addProcessorBeans() {
-        List<T> foundBeans = new ArrayList<>();
+        Map<String, T> foundBeans = new HashMap<>();
         for (Map.Entry entry :
             applicationContext.getBeansOfType(DataProcessor.class, false, false).entrySet()) {
             T bean = (T) entry.getValue();
             if (bean != null && bean.getModel() != null) {
-                foundBeans.add(bean);
+                foundBeans.put((String) entry.getKey(), bean);
             } else {
                 LOGGER.warn(
                     String.format("Found bean is null or has no set model: %s", entry.getKey()));
             }
         }
-        for (T bean : foundBeans) {
-            registerBean(bean);
+        for (Map.Entry<String, T> entry : foundBeans.entrySet()) {
+            T bean = entry.getValue();
+            registerBean(bean, entry.getKey());
             LOGGER.info(String.format("Registered DataProcessor bean %s for model %s",
                 bean.getClass().getName(), bean.getModel().getName()));
         }
@@ -230,6 +300,28 @@ public class ModelProcessorBeanRegistry<T extends DataProcessor<?>>
         return modelProcessorMap.getOrDefault(model, null);
     }
 
+    /**
+     * Prototype-scoped {@link DataProcessor} beans are not created during context initialization,
+     * so they would never pass through {@link #postProcessAfterInitialization(Object, String)}.
+     * Creates one instance of each unregistered prototype processor bean so that it is registered
+     * for its data types.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (applicationContext == null) {
+            return;
+        }
+        for (String beanName :
+            applicationContext.getBeanNamesForType(DataProcessor.class, true, false)) {
+            if (!registeredBeanNames.contains(beanName)
+                && applicationContext.isPrototype(beanName)) {
+                LOGGER.debug(
+                    String.format("Registering prototype DataProcessor bean: %s", beanName));
+                applicationContext.getBean(beanName);
+            }
+        }
+    }
+
     @Override
     public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
         this.applicationContext = applicationContext;
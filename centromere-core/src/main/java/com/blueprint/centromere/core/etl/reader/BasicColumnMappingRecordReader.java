@@ -19,21 +19,31 @@ package com.blueprint.centromere.core.etl.reader;
 import com.blueprint.centromere.core.exceptions.DataProcessingException;
 import com.blueprint.centromere.core.model.Model;
 import com.google.common.base.Joiner;
+import java.beans.PropertyDescriptor;
 import java.io.File;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.BeanUtils;
 import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
 import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.util.ReflectionUtils;
 
 /**
  * Generic {@link RecordReader} implementation that will use data file column headers to try to map
- * column values to {@link Model} fields.  Uses Spring's {@link org.springframework.beans.BeanWrapper}
- * and {@link ConversionService} to handle the text string-to-object conversion.
+ * column values to {@link Model} fields.  Uses Spring's {@link ConversionService} to handle the
+ * text string-to-object conversion.  When the header line is parsed, each mapped column is compiled
+ * into a binding with a pre-resolved property setter and conversion target, so that building a
+ * record from a line only requires a walk over the binding array.
  *
  * @author woemler
  * @since 0.4.3
@@ -43,11 +53,14 @@ public class BasicColumnMappingRecordReader<T extends Model<?>>
 
     private static final Logger LOGGER
         = LoggerFactory.getLogger(BasicColumnMappingRecordReader.class);
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final TypeDescriptor STRING_TYPE = TypeDescriptor.valueOf(String.class);
 
     private ConversionService conversionService = new DefaultConversionService();
     private Map<String, Class<?>> fieldTypeMap = new HashMap<>();
     private Map<String, String> fieldNameMap = new HashMap<>();
-    private Map<Integer, String> columnIndexMap = new HashMap<>();
+    private ColumnBinding[] columnBindings = new ColumnBinding[0];
+    private MethodHandle constructor;
     private boolean headerFlag = true;
 
     public BasicColumnMappingRecordReader(Class<T> model, String delimiter,
@@ -133,12 +146,37 @@ public class BasicColumnMappingRecordReader<T extends Model<?>>
      */
     protected void parseHeader(List<String> line) {
         determineMappableModelFields();
+        columnBindings = new ColumnBinding[line.size()];
         for (int i = 0; i < line.size(); i++) {
             String name = getMatchedHeaderFieldName(line.get(i));
             if (name != null) {
-                columnIndexMap.put(i, name);
+                columnBindings[i] = ColumnBinding.create(this.getModel(), name,
+                    fieldTypeMap.get(name), conversionService);
             }
         }
+        if (constructor == null) {
+            constructor = getModelConstructor(this.getModel());
+        }
+    }
+
+    /**
+     * Resolves a handle for the default constructor of the model class, or returns null if the
+     * class has no accessible default constructor.
+     *
+     * @param model model class
+     * @return constructor handle, or null.
+     */
+    private static MethodHandle getModelConstructor(Class<?> model) {
+        try {
+            Constructor<?> defaultConstructor = model.getDeclaredConstructor();
+            ReflectionUtils.makeAccessible(defaultConstructor);
+            return LOOKUP.unreflectConstructor(defaultConstructor)
+                .asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            LOGGER.warn(String.format("Model class %s has no accessible default constructor.",
+                model.getName()));
+            return null;
+        }
     }
 
     /**
@@ -153,9 +191,9 @@ public class BasicColumnMappingRecordReader<T extends Model<?>>
             LOGGER.warn("Column header has no name.");
             return null;
         }
+        String normalized = headerName.toLowerCase().replaceAll("[\\W\\s_-]", "");
         for (Map.Entry<String, String> entry : fieldNameMap.entrySet()) {
-            if (headerName.toLowerCase().replaceAll("[\\W\\s_-]", "")
-                .equals(entry.getKey().toLowerCase())) {
+            if (normalized.equals(entry.getKey().toLowerCase())) {
                 return entry.getValue();
             }
         }
@@ -172,45 +210,37 @@ public class BasicColumnMappingRecordReader<T extends Model<?>>
     @SuppressWarnings("unchecked")
     protected T getRecordFromLine(List<String> line) throws DataProcessingException {
 
-        BeanWrapperImpl wrapper = new BeanWrapperImpl(this.getModel());
+        T record = createRecord();
+        ColumnBinding[] bindings = columnBindings;
+        int count = Math.min(line.size(), bindings.length);
 
-        for (int i = 0; i < line.size(); i++) {
-
-            if (!columnIndexMap.containsKey(i)) {
-                continue;
+        for (int i = 0; i < count; i++) {
+            ColumnBinding binding = bindings[i];
+            if (binding != null) {
+                String value = line.get(i);
+                binding.set(record, value.isEmpty() ? null : binding.convert(value));
             }
-
-            String fieldName = columnIndexMap.get(i);
-            Class<?> type = fieldTypeMap.get(fieldName);
-
-            if (line.get(i).equals("")) {
-                wrapper.setPropertyValue(fieldName, null);
-            } else {
-                wrapper.setPropertyValue(fieldName, convertFieldValue(line.get(i), type));
-            }
-
         }
 
-        return (T) wrapper.getWrappedInstance();
+        return record;
     }
 
     /**
-     * Converts a string value from a parsed file to the appropriate type required for the {@link
-     * Model} field.  Throws an exception if conversion cannot be applied.
+     * Creates a new, empty instance of the model class.
      *
-     * @param s string column value
-     * @param type type to convert to
-     * @return converted object
+     * @return new model instance
      */
-    private Object convertFieldValue(String s, Class<?> type) throws DataProcessingException {
-        if (type.equals(String.class)) {
-            return s;
+    @SuppressWarnings("unchecked")
+    private T createRecord() throws DataProcessingException {
+        if (constructor == null) {
+            throw new DataProcessingException(String.format(
+                "Unable to create instance of class %s", this.getModel().getName()));
         }
-        if (conversionService.canConvert(String.class, type)) {
-            return conversionService.convert(s, type);
-        } else {
-            throw new DataProcessingException(String.format("Cannot convert String type to %s.",
-                type.getName()));
+        try {
+            return (T) (Object) constructor.invokeExact();
+        } catch (Throwable e) {
+            throw new DataProcessingException(String.format(
+                "Unable to create instance of class %s", this.getModel().getName()), e);
         }
     }
 
@@ -231,4 +261,90 @@ public class BasicColumnMappingRecordReader<T extends Model<?>>
         this.conversionService = conversionService;
     }
 
+    /**
+     * Mapping of a single file column to a model property, with its property setter and type
+     * conversion resolved when the header is parsed.
+     */
+    private static final class ColumnBinding {
+
+        private final String fieldName;
+        private final TypeDescriptor type;
+        private final MethodHandle setter;
+        private final boolean primitive;
+        private final ConversionService conversionService;
+
+        private ColumnBinding(String fieldName, TypeDescriptor type, MethodHandle setter,
+            boolean primitive, ConversionService conversionService) {
+            this.fieldName = fieldName;
+            this.type = type;
+            this.setter = setter;
+            this.primitive = primitive;
+            this.conversionService = conversionService;
+        }
+
+        /**
+         * Creates the binding for a model property.  The conversion service is only retained if it
+         * is required and able to convert strings into the property type, and the setter is only
+         * resolved if the property is writable, so that the failure can be reported when a value
+         * is bound, as it would be for any other invalid value.
+         */
+        static ColumnBinding create(Class<?> model, String fieldName, Class<?> fieldType,
+            ConversionService conversionService) {
+            TypeDescriptor type = TypeDescriptor.valueOf(fieldType);
+            ConversionService converter = !fieldType.equals(String.class)
+                && conversionService.canConvert(STRING_TYPE, type) ? conversionService : null;
+            MethodHandle setter = null;
+            PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(model, fieldName);
+            Method method = descriptor != null ? descriptor.getWriteMethod() : null;
+            if (method != null) {
+                try {
+                    ReflectionUtils.makeAccessible(method);
+                    setter = LOOKUP.unreflect(method)
+                        .asType(MethodType.methodType(void.class, Object.class, Object.class));
+                } catch (IllegalAccessException | IllegalArgumentException e) {
+                    LOGGER.warn(String.format("Unable to resolve setter for property %s: %s",
+                        fieldName, e.getMessage()));
+                }
+            }
+            return new ColumnBinding(fieldName, type, setter,
+                method != null && method.getParameterTypes()[0].isPrimitive(), converter);
+        }
+
+        /**
+         * Converts a non-empty string column value to the property type.  Throws an exception if
+         * conversion cannot be applied.
+         *
+         * @param s string column value
+         * @return converted object
+         */
+        Object convert(String s) throws DataProcessingException {
+            if (type.getType().equals(String.class)) {
+                return s;
+            }
+            if (conversionService == null) {
+                throw new DataProcessingException(String.format(
+                    "Cannot convert String type to %s.", type.getType().getName()));
+            }
+            return conversionService.convert(s, STRING_TYPE, type);
+        }
+
+        void set(Object instance, Object value) throws DataProcessingException {
+            if (setter == null) {
+                throw new DataProcessingException(String.format("Property %s is not writable.",
+                    fieldName));
+            }
+            if (value == null && primitive) {
+                throw new DataProcessingException(String.format(
+                    "Cannot assign empty value to primitive property %s.", fieldName));
+            }
+            try {
+                setter.invokeExact(instance, value);
+            } catch (Throwable e) {
+                throw new DataProcessingException(String.format(
+                    "Unable to assign value %s to property %s", value, fieldName), e);
+            }
+        }
+
+    }
+
 }
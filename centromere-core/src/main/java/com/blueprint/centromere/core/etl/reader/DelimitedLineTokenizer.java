@@ -0,0 +1,474 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blueprint.centromere.core.etl.reader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Splits UTF-8 delimited text read from a {@link ReadableByteChannel} into lines and columns,
+ * without allocating objects for each line.  Lines are scanned in a reused byte buffer, and each
+ * line is exposed as a set of column offsets into that buffer.  Since line breaks, quotes, and the
+ * delimiter are ASCII characters, which never occur within multi-byte UTF-8 characters, lines are
+ * split without decoding them.  Columns of plain ASCII lines are read directly from the line
+ * bytes, and only lines containing other characters are decoded, into a reused character buffer.
+ *
+ * The {@link CharSequence} views returned by {@link #getColumn(int)} are reused, and are only valid
+ * until the next call to {@link #next()}.  Column values are trimmed of leading and trailing
+ * whitespace.  Lines may end with {@code \n}, {@code \r\n}, or {@code \r}.  When quoting is
+ * enabled, fields follow RFC-4180: fields enclosed in double quotes may contain delimiters, line
+ * breaks, and escaped ({@code ""}) quotes.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+public class DelimitedLineTokenizer implements Closeable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private static final byte QUOTE = '"';
+    private static final byte[] LINE_BREAK = {'\n'};
+    private static final int INITIAL_COLUMNS = 32;
+
+    private final ReadableByteChannel channel;
+    private final CharsetDecoder decoder;
+    private final ByteBuffer buffer;
+    private final byte delimiter;
+    private final boolean quoted;
+
+    private boolean endOfInput;
+    private boolean skipLineFeed;
+    private long lineNumber;
+
+    private byte[] line = new byte[1024];
+    private int lineLength;
+    private int lineBits;
+    private ByteBuffer lineBuffer = ByteBuffer.wrap(line);
+
+    private char[] chars = new char[1024];
+    private CharBuffer charBuffer = CharBuffer.wrap(chars);
+
+    private int columnCount;
+    private int[] starts = new int[INITIAL_COLUMNS];
+    private int[] ends = new int[INITIAL_COLUMNS];
+    private int[] untrimmedLengths = new int[INITIAL_COLUMNS];
+    private int[] charStarts = new int[INITIAL_COLUMNS];
+    private int[] charEnds = new int[INITIAL_COLUMNS];
+    private Column[] columns = new Column[INITIAL_COLUMNS];
+
+    public DelimitedLineTokenizer(ReadableByteChannel channel, char delimiter, boolean quoted,
+        int bufferSize) {
+        if (!isSupportedDelimiter(String.valueOf(delimiter)) || quoted && delimiter == QUOTE) {
+            throw new IllegalArgumentException(
+                String.format("Unsupported delimiter character: '%s'", delimiter));
+        }
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be greater than 0.");
+        }
+        this.channel = channel;
+        this.decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.buffer.flip();
+        this.delimiter = (byte) delimiter;
+        this.quoted = quoted;
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new Column(i);
+        }
+    }
+
+    public DelimitedLineTokenizer(ReadableByteChannel channel, char delimiter, boolean quoted) {
+        this(channel, delimiter, quoted, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Tests whether the tokenizer supports the given delimiter.
+     *
+     * @param delimiter delimiter string
+     * @return true if the delimiter is a single ASCII character, other than a line break
+     */
+    public static boolean isSupportedDelimiter(String delimiter) {
+        return delimiter != null && delimiter.length() == 1 && delimiter.charAt(0) <= 0x7F
+            && delimiter.charAt(0) != '\n' && delimiter.charAt(0) != '\r';
+    }
+
+    /**
+     * Advances to the next line of the input and splits it into columns.
+     *
+     * @return true if a line was read, false if the end of the input has been reached
+     * @throws IOException if the channel cannot be read
+     */
+    public boolean next() throws IOException {
+        lineLength = 0;
+        lineBits = 0;
+        columnCount = 0;
+        if (!readPhysicalLine(!quoted)) {
+            return false;
+        }
+        lineNumber++;
+        if (quoted) {
+            splitQuoted();
+        } else {
+            addColumn(columnCount == 0 ? 0 : ends[columnCount - 1] + 1, lineLength);
+            trimColumns();
+        }
+        if (lineBits < 0) {
+            decodeColumns();
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of columns in the current line.  An empty line has a single, empty
+     * column.
+     *
+     * @return column count
+     */
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * Returns a view of the trimmed value of a column in the current line.  The returned object is
+     * reused, and its contents change when the next line is read.
+     *
+     * @param index column index
+     * @return column value
+     */
+    public CharSequence getColumn(int index) {
+        checkIndex(index);
+        return columns[index];
+    }
+
+    /**
+     * Returns the trimmed value of a column in the current line as a new {@link String}.
+     *
+     * @param index column index
+     * @return column value
+     */
+    public String getString(int index) {
+        checkIndex(index);
+        if (lineBits < 0) {
+            return new String(chars, charStarts[index], charEnds[index] - charStarts[index]);
+        }
+        return new String(line, starts[index], ends[index] - starts[index],
+            StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Returns the length of a column in the current line, in bytes and before trimming.
+     *
+     * @param index column index
+     * @return untrimmed column length
+     */
+    int getUntrimmedLength(int index) {
+        checkIndex(index);
+        return untrimmedLengths[index];
+    }
+
+    /**
+     * Returns all of the columns in the current line as new {@link String} values.
+     *
+     * @return list of column values
+     */
+    public List<String> toList() {
+        List<String> values = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            values.add(getString(i));
+        }
+        return values;
+    }
+
+    /**
+     * Returns the number of lines read so far.  Quoted fields containing line breaks count as a
+     * single line.
+     *
+     * @return line number of the current line
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Appends the next line of input, minus its terminator, to the line buffer.  When splitting on
+     * every delimiter, the untrimmed column boundaries are recorded in the same pass.
+     *
+     * @param split true to record delimiter positions as columns
+     * @return false if the end of the input was reached before any line was found
+     */
+    private boolean readPhysicalLine(boolean split) throws IOException {
+        boolean found = false;
+        while (true) {
+            if (!buffer.hasRemaining() && !fill()) {
+                return found;
+            }
+            byte[] bytes = buffer.array();
+            int position = buffer.position();
+            int limit = buffer.limit();
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (bytes[position] == '\n') {
+                    buffer.position(position + 1);
+                    continue;
+                }
+            }
+            found = true;
+            byte separator = delimiter;
+            int offset = lineLength - position;
+            int bits = 0;
+            int end = position;
+            while (end < limit) {
+                byte b = bytes[end];
+                if (b == '\n' || b == '\r') {
+                    break;
+                }
+                if (split && b == separator) {
+                    int index = columnCount;
+                    addColumn(index == 0 ? 0 : ends[index - 1] + 1, end + offset);
+                }
+                bits |= b;
+                end++;
+            }
+            lineBits |= bits;
+            append(bytes, position, end - position);
+            if (end < limit) {
+                skipLineFeed = bytes[end] == '\r';
+                buffer.position(end + 1);
+                return true;
+            }
+            buffer.position(limit);
+        }
+    }
+
+    /**
+     * Reads more bytes from the channel into the emptied buffer.
+     *
+     * @return false if the end of the input has been reached
+     */
+    private boolean fill() throws IOException {
+        if (endOfInput) {
+            return false;
+        }
+        buffer.clear();
+        int read = 0;
+        while (read == 0) {
+            read = channel.read(buffer);
+        }
+        buffer.flip();
+        if (read < 0) {
+            endOfInput = true;
+            return false;
+        }
+        return true;
+    }
+
+    private void append(byte[] bytes, int offset, int length) {
+        if (lineLength + length > line.length) {
+            line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + length));
+            lineBuffer = ByteBuffer.wrap(line);
+        }
+        System.arraycopy(bytes, offset, line, lineLength, length);
+        lineLength += length;
+    }
+
+    /**
+     * Splits the current line into RFC-4180 fields.  Quoted fields are unescaped in place in the
+     * line buffer, so that every column remains a contiguous range of it.  Additional lines are
+     * read while a quoted field is left open at the end of the line.
+     */
+    private void splitQuoted() throws IOException {
+        int read = 0;
+        int write = 0;
+        while (true) {
+            int start = write;
+            int first = read;
+            while (first < lineLength && line[first] != delimiter && isWhitespace(line[first])) {
+                first++;
+            }
+            if (first < lineLength && line[first] == QUOTE) {
+                read = first + 1;
+                while (true) {
+                    if (read == lineLength) {
+                        append(LINE_BREAK, 0, 1);
+                        if (!readPhysicalLine(false)) {
+                            lineLength--;
+                            break;
+                        }
+                    }
+                    byte b = line[read];
+                    if (b == QUOTE) {
+                        if (read + 1 < lineLength && line[read + 1] == QUOTE) {
+                            line[write++] = QUOTE;
+                            read += 2;
+                        } else {
+                            read++;
+                            break;
+                        }
+                    } else {
+                        line[write++] = b;
+                        read++;
+                    }
+                }
+            }
+            while (read < lineLength && line[read] != delimiter) {
+                line[write++] = line[read++];
+            }
+            addColumn(start, write);
+            if (read < lineLength) {
+                read++;
+            } else {
+                break;
+            }
+        }
+        trimColumns();
+    }
+
+    /**
+     * Records the untrimmed offsets of a column in the line buffer.
+     */
+    private void addColumn(int start, int end) {
+        int index = columnCount;
+        if (index == starts.length) {
+            growColumns();
+        }
+        starts[index] = start;
+        ends[index] = end;
+        columnCount = index + 1;
+    }
+
+    /**
+     * Trims leading and trailing whitespace from the recorded columns.
+     */
+    private void trimColumns() {
+        byte[] bytes = line;
+        for (int i = 0; i < columnCount; i++) {
+            int start = starts[i];
+            int end = ends[i];
+            untrimmedLengths[i] = end - start;
+            while (start < end && isWhitespace(bytes[start])) {
+                start++;
+            }
+            while (end > start && isWhitespace(bytes[end - 1])) {
+                end--;
+            }
+            starts[i] = start;
+            ends[i] = end;
+        }
+    }
+
+    /**
+     * Decodes the columns of a line containing non-ASCII characters into the character buffer.
+     * UTF-8 never produces more characters than bytes, so the buffer is sized before decoding.
+     */
+    private void decodeColumns() {
+        if (lineLength > chars.length) {
+            chars = new char[Math.max(chars.length * 2, lineLength)];
+            charBuffer = CharBuffer.wrap(chars);
+        }
+        charBuffer.clear();
+        for (int i = 0; i < columnCount; i++) {
+            lineBuffer.limit(ends[i]);
+            lineBuffer.position(starts[i]);
+            charStarts[i] = charBuffer.position();
+            decoder.reset();
+            decoder.decode(lineBuffer, charBuffer, true);
+            decoder.flush(charBuffer);
+            charEnds[i] = charBuffer.position();
+        }
+    }
+
+    private void growColumns() {
+        int size = starts.length * 2;
+        starts = Arrays.copyOf(starts, size);
+        ends = Arrays.copyOf(ends, size);
+        untrimmedLengths = Arrays.copyOf(untrimmedLengths, size);
+        charStarts = Arrays.copyOf(charStarts, size);
+        charEnds = Arrays.copyOf(charEnds, size);
+        columns = Arrays.copyOf(columns, size);
+        for (int i = size / 2; i < size; i++) {
+            columns[i] = new Column(i);
+        }
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b >= 0 && b <= ' ';
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= columnCount) {
+            throw new IndexOutOfBoundsException(String.format("Column index %d is outside bounds "
+                + "of current line. Line length = %d", index, columnCount));
+        }
+    }
+
+    /**
+     * Reusable view of a single column in the current line, reading either the ASCII line bytes
+     * or the decoded characters.
+     */
+    private final class Column implements CharSequence {
+
+        private final int index;
+
+        private Column(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public int length() {
+            return lineBits < 0 ? charEnds[index] - charStarts[index] : ends[index] - starts[index];
+        }
+
+        @Override
+        public char charAt(int i) {
+            if (i < 0 || i >= length()) {
+                throw new IndexOutOfBoundsException(String.valueOf(i));
+            }
+            return lineBits < 0 ? chars[charStarts[index] + i] : (char) line[starts[index] + i];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > length() || start > end) {
+                throw new IndexOutOfBoundsException(
+                    String.format("start %d, end %d, length %d", start, end, length()));
+            }
+            return toString().substring(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return getString(index);
+        }
+
+    }
+
+}
@@ -19,14 +19,14 @@ package com.blueprint.centromere.core.etl.reader;
 import com.blueprint.centromere.core.exceptions.DataProcessingException;
 import com.blueprint.centromere.core.model.Model;
 import com.blueprint.centromere.core.model.ModelSupport;
-import com.opencsv.CSVReader;
 import java.io.BufferedReader;
-import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -38,6 +38,12 @@ import org.slf4j.LoggerFactory;
  * the file object opening and closing in the {@code doBefore} and {@code doAfter} methods, as well
  * as line parsing for the appropriate delimiter type file readers.
  *
+ * Files with single ASCII character delimiters are read with a {@link DelimitedLineTokenizer}, with
+ * RFC-4180 quoting enabled for comma-delimited files.  Subclasses may read the columns of each
+ * line without copying them, using {@link #getNextLineView()}, or as a list of strings, using
+ * {@link #getNextLine()}.  Other delimiters are treated as regular expressions, and are only
+ * supported by {@link #getNextLine()}.
+ *
  * @author woemler
  */
 public abstract class DelimitedTextFileRecordReader<T extends Model<?>>
@@ -49,7 +55,8 @@ public abstract class DelimitedTextFileRecordReader<T extends Model<?>>
     private final Class<T> model;
     private final String delimiter;
 
-    private Closeable reader;
+    private DelimitedLineTokenizer tokenizer;
+    private BufferedReader reader;
 
     public DelimitedTextFileRecordReader(Class<T> model, String delimiter) {
         this.model = model;
@@ -91,9 +98,10 @@ public abstract class DelimitedTextFileRecordReader<T extends Model<?>>
      */
     protected void open(File file) throws DataProcessingException {
         try {
-            if (",".equals(delimiter)) {
-                reader = new CSVReader(new BufferedReader(new InputStreamReader(
-                    new FileInputStream(file), StandardCharsets.UTF_8)));
+            if (DelimitedLineTokenizer.isSupportedDelimiter(delimiter)) {
+                tokenizer = new DelimitedLineTokenizer(
+                    FileChannel.open(file.toPath(), StandardOpenOption.READ),
+                    delimiter.charAt(0), ",".equals(delimiter));
             } else {
                 reader = new BufferedReader(new InputStreamReader(
                     new FileInputStream(file), StandardCharsets.UTF_8));
@@ -107,32 +115,63 @@ public abstract class DelimitedTextFileRecordReader<T extends Model<?>>
      * Closes the target file, if a reader exists.
      */
     protected void close() {
+        if (tokenizer != null) {
+            try {
+                tokenizer.close();
+            } catch (IOException e) {
+                LOGGER.debug(e.getMessage());
+            }
+            tokenizer = null;
+        }
         if (reader != null) {
             try {
                 reader.close();
             } catch (IOException e) {
                 LOGGER.debug(e.getMessage());
             }
+            reader = null;
         }
     }
 
     /**
-     * Returns the next line from the file.
+     * Advances to the next line of the file and returns the tokenizer positioned on it, so that its
+     * columns can be read without allocating new strings.  The tokenizer's column views are only
+     * valid until the next line is read.
+     *
+     * @return tokenizer positioned on the next line, or null if the end of the file is reached
+     * @throws IOException if the file cannot be read
+     */
+    protected DelimitedLineTokenizer getNextLineView() throws IOException {
+        if (tokenizer == null) {
+            throw new UnsupportedOperationException(String.format("Line views require an open file "
+                + "with a single ASCII character delimiter, delimiter: '%s'", delimiter));
+        }
+        return tokenizer.next() ? tokenizer : null;
+    }
+
+    /**
+     * Returns the next line from the file.  For files that are not comma-delimited, trailing empty
+     * columns are dropped, consistent with {@link String#split(String)}.
      */
     protected List<String> getNextLine() throws IOException {
 
         List<String> bits = new ArrayList<>();
 
-        if (",".equals(delimiter)) {
-            String[] line = ((CSVReader) reader).readNext();
-            if (line == null) {
+        if (tokenizer != null) {
+            if (!tokenizer.next()) {
                 return null;
             }
-            for (String bit : line) {
-                bits.add(bit.trim());
+            int count = tokenizer.getColumnCount();
+            if (!",".equals(delimiter) && count > 1) {
+                while (count > 0 && tokenizer.getUntrimmedLength(count - 1) == 0) {
+                    count--;
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                bits.add(tokenizer.getString(i));
             }
         } else {
-            String line = ((BufferedReader) reader).readLine();
+            String line = reader.readLine();
             if (line == null) {
                 return null;
             }
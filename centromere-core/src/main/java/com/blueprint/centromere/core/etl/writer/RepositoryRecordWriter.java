@@ -30,7 +30,10 @@ import java.util.Map;
 /**
  * Simple implementation of {@link RecordWriter}, that writes all records directly to the database
  * using a {@link ModelRepository} instance.  Can be configured to write using an insert, update, or
- * upsert (save) operation.
+ * upsert (save) operation.  If the repository has caching enabled with {@link
+ * com.blueprint.centromere.core.repository.ModelCache}, pass the instance returned by the {@link
+ * com.blueprint.centromere.core.repository.ModelRepositoryRegistry}, so that written records are
+ * evicted from the cache immediately, rather than when the cached entries expire.
  *
  * @author woemler
  */
@@ -95,13 +98,7 @@ public class RepositoryRecordWriter<T extends Model<I>, I extends Serializable>
         } else if (writeMode.equals(WriteMode.UPDATE)) {
             repository.update(records);
         } else {
-            for (T record : records) {
-                if (record.getId() != null && repository.existsById(record.getId())) {
-                    repository.update(record);
-                } else {
-                    repository.insert(record);
-                }
-            }
+            repository.upsert(records);
         }
     }
 
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blueprint.centromere.core.model;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@link Model} string field, or collection of strings, as one that is frequently queried
+ * without regard to case, using the {@link
+ * com.blueprint.centromere.core.repository.Evaluation#EQUALS_IGNORE_CASE} and {@link
+ * com.blueprint.centromere.core.repository.Evaluation#STARTS_WITH_IGNORE_CASE} evaluations.
+ * Repository implementations may maintain and index a normalized copy of the field's values, so
+ * that these queries do not require a scan of every record.  Case-insensitive queries on fields
+ * without this annotation are still supported, but may be evaluated less efficiently.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface CaseInsensitive {
+
+}
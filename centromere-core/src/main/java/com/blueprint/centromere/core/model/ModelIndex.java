@@ -0,0 +1,54 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.blueprint.centromere.core.model;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares an index on one or more fields of a {@link Model} class, for databases that support
+ * them.  Fields are indexed in the order listed, so compound indexes should list the fields
+ * queried for equality first.  Fields annotated with {@link Linked} are indexed individually
+ * without a declaration, unless they lead a declared index.  Keys of {@link java.util.Map} fields
+ * are indexed by naming them with a dot-separated path, eg. {@code attributes.isKinase}.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@Repeatable(ModelIndexes.class)
+public @interface ModelIndex {
+
+    /**
+     * Names of the model properties to index, in index key order.
+     */
+    String[] fields();
+
+    /**
+     * When set to {@code true}, duplicate values of the indexed fields are rejected.
+     */
+    boolean unique() default false;
+
+    /**
+     * Index name, generated by the database if empty.
+     */
+    String name() default "";
+
+}
@@ -111,6 +111,27 @@ public final class ModelReflectionUtils {
         return fields;
     }
 
+    /**
+     * Returns a collection of {@link Field} objects for all attributes of the requested type that
+     * are annotated with {@link CaseInsensitive}.
+     *
+     * @param model model to inspect
+     * @return list of fields with annotations
+     */
+    public static List<Field> getCaseInsensitiveFields(Class<?> model) {
+        List<Field> fields = new ArrayList<>();
+        Class<?> currentClass = model;
+        while (currentClass.getSuperclass() != null) {
+            for (Field field : currentClass.getDeclaredFields()) {
+                if (field.isAnnotationPresent(CaseInsensitive.class)) {
+                    fields.add(field);
+                }
+            }
+            currentClass = currentClass.getSuperclass();
+        }
+        return fields;
+    }
+
     /**
      * Returns a list of {@link Field} objects with {@link Linked} annotations found present with
      * matching relationship names.
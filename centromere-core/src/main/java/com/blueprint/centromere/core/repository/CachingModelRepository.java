@@ -0,0 +1,535 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.blueprint.centromere.core.repository;
+
+import com.blueprint.centromere.core.model.Model;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.util.Assert;
+
+/**
+ * Read-through caching decorator for {@link ModelRepository} implementations.  Records fetched by
+ * ID, and the results of unpaged {@link #find(Iterable)} and {@link #find(Iterable, Sort)} queries,
+ * are cached in size- and time-bounded caches, with query results keyed by their normalized
+ * {@link QueryCriteria} and sort order.  Paged, streamed, aggregate and projected queries are
+ * passed through to the underlying repository.
+ *
+ * <p>Records written or deleted through this repository are evicted from the record cache, along
+ * with every cached query result that contained the record, or whose criteria the written record
+ * now satisfies.  Writes made directly to the underlying repository, or to the database, are not
+ * observed: this includes {@code RepositoryRecordWriter} instances created with the repository
+ * bean, rather than the instance from the {@link ModelRepositoryRegistry}, and imports run by other
+ * processes.  Cached entries therefore always expire after a fixed time, which bounds how long
+ * such writes go unseen, and {@link #invalidateAll()} may be called to discard them sooner.
+ *
+ * <p>Cached records are shared between all callers, and are returned without being copied.  They
+ * must not be modified; copy a record before changing it, and write it back through this
+ * repository.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+public class CachingModelRepository<T extends Model<I>, I extends Serializable>
+    implements ModelRepository<T, I> {
+
+    private final ModelRepository<T, I> repository;
+    private final Cache<I, Optional<T>> entityCache;
+    private final Cache<QueryKey, CachedQuery<T>> queryCache;
+    private final Object lock = new Object();
+    private long version;
+
+    /**
+     * Creates a new caching repository.
+     *
+     * @param repository repository to cache the records of
+     * @param maximumSize maximum number of records, and separately of query results, to cache
+     * @param expireAfterWrite number of seconds after which a cached entry expires, which must be
+     *   positive
+     */
+    public CachingModelRepository(ModelRepository<T, I> repository, long maximumSize,
+        long expireAfterWrite) {
+        Assert.isTrue(expireAfterWrite > 0, "Cache expiry time must be a positive number.");
+        this.repository = repository;
+        this.entityCache = CacheBuilder.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite, TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+        this.queryCache = CacheBuilder.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite, TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+    }
+
+    /* Cached reads */
+
+    @Override
+    public Optional<T> findById(I id) {
+        Optional<T> cached = entityCache.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        long current = getVersion();
+        Optional<T> entity = repository.findById(id);
+        synchronized (lock) {
+            if (current == version) {
+                entityCache.put(id, entity);
+            }
+        }
+        return entity;
+    }
+
+    @Override
+    public Optional<T> findById(I id, Projection projection) {
+        if (projection == null || projection.isAllFields()) {
+            return findById(id);
+        }
+        return repository.findById(id, projection);
+    }
+
+    @Override
+    public List<T> find(Iterable<QueryCriteria> queryCriterias) {
+        return find(queryCriterias, Sort.unsorted());
+    }
+
+    @Override
+    public List<T> find(Iterable<QueryCriteria> queryCriterias, Sort sort) {
+        QueryKey key = new QueryKey(queryCriterias, sort);
+        CachedQuery<T> cached = queryCache.getIfPresent(key);
+        if (cached != null) {
+            return new ArrayList<>(cached.records);
+        }
+        long current = getVersion();
+        List<T> records = new ArrayList<>();
+        if (sort == null || sort.isUnsorted()) {
+            repository.find(queryCriterias).forEach(records::add);
+        } else {
+            repository.find(queryCriterias, sort).forEach(records::add);
+        }
+        synchronized (lock) {
+            if (current == version) {
+                queryCache.put(key, new CachedQuery<>(key.criterias, records));
+            }
+        }
+        return new ArrayList<>(records);
+    }
+
+    @Override
+    public Iterable<T> find(Iterable<QueryCriteria> queryCriterias, Sort sort,
+        Projection projection) {
+        if (projection == null || projection.isAllFields()) {
+            return find(queryCriterias, sort);
+        }
+        return repository.find(queryCriterias, sort, projection);
+    }
+
+    /**
+     * Hinted queries bypass the cache, so that the hinted index is actually used.
+     */
+    @Override
+    public Iterable<T> find(Iterable<QueryCriteria> queryCriterias, Sort sort,
+        Projection projection, String hint) {
+        if (hint == null) {
+            return find(queryCriterias, sort, projection);
+        }
+        return repository.find(queryCriterias, sort, projection, hint);
+    }
+
+    /* Pass-through reads */
+
+    @Override
+    public Page<T> find(Iterable<QueryCriteria> queryCriterias, Pageable pageable) {
+        return repository.find(queryCriterias, pageable);
+    }
+
+    @Override
+    public Page<T> find(Iterable<QueryCriteria> queryCriterias, Pageable pageable,
+        Projection projection) {
+        return repository.find(queryCriterias, pageable, projection);
+    }
+
+    @Override
+    public Page<T> find(Iterable<QueryCriteria> queryCriterias, Pageable pageable,
+        Projection projection, String hint) {
+        return repository.find(queryCriterias, pageable, projection, hint);
+    }
+
+    @Override
+    public Slice<T> findSlice(Iterable<QueryCriteria> queryCriterias, Pageable pageable) {
+        return repository.findSlice(queryCriterias, pageable);
+    }
+
+    @Override
+    public Slice<T> findSlice(Iterable<QueryCriteria> queryCriterias, Pageable pageable,
+        Projection projection) {
+        return repository.findSlice(queryCriterias, pageable, projection);
+    }
+
+    @Override
+    public Slice<T> findSlice(Iterable<QueryCriteria> queryCriterias, Pageable pageable,
+        Projection projection, String hint) {
+        return repository.findSlice(queryCriterias, pageable, projection, hint);
+    }
+
+    @Override
+    public boolean isRawJsonSupported() {
+        return repository.isRawJsonSupported();
+    }
+
+    @Override
+    public RawJsonResults findRawJson(Iterable<QueryCriteria> queryCriterias, Sort sort,
+        Projection projection, String hint) {
+        return repository.findRawJson(queryCriterias, sort, projection, hint);
+    }
+
+    @Override
+    public ContinuationPage<T> findAfter(Iterable<QueryCriteria> queryCriterias, Sort sort,
+        ContinuationToken token, int size) {
+        return repository.findAfter(queryCriterias, sort, token, size);
+    }
+
+    @Override
+    public CloseableIterator<T> stream(Iterable<QueryCriteria> queryCriterias, Sort sort) {
+        return repository.stream(queryCriterias, sort);
+    }
+
+    @Override
+    public QueryPlan explain(Iterable<QueryCriteria> queryCriterias, Sort sort) {
+        return repository.explain(queryCriterias, sort);
+    }
+
+    @Override
+    public QueryPlan explain(Iterable<QueryCriteria> queryCriterias, Sort sort, String hint) {
+        return repository.explain(queryCriterias, sort, hint);
+    }
+
+    @Override
+    public long count(Iterable<QueryCriteria> criterias) {
+        return repository.count(criterias);
+    }
+
+    @Override
+    public long count() {
+        return repository.count();
+    }
+
+    @Override
+    public Set<Object> distinct(String field) {
+        return repository.distinct(field);
+    }
+
+    @Override
+    public Set<Object> distinct(String field, Iterable<QueryCriteria> criterias) {
+        return repository.distinct(field, criterias);
+    }
+
+    @Override
+    public Set<Object> distinct(String field, Iterable<QueryCriteria> criterias,
+        Pageable pageable) {
+        return repository.distinct(field, criterias, pageable);
+    }
+
+    @Override
+    public List<GroupSummary> groupBy(String field, Iterable<QueryCriteria> criterias,
+        String valueField) {
+        return repository.groupBy(field, criterias, valueField);
+    }
+
+    @Override
+    public Iterable<T> findAll(Sort sort) {
+        return repository.findAll(sort);
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        return repository.findAll(pageable);
+    }
+
+    @Override
+    public Iterable<T> findAll() {
+        return repository.findAll();
+    }
+
+    @Override
+    public boolean existsById(I id) {
+        return repository.existsById(id);
+    }
+
+    @Override
+    public Iterable<T> findAllById(Iterable<I> ids) {
+        return repository.findAllById(ids);
+    }
+
+    /* Writes */
+
+    @Override
+    public <S extends T> S insert(S entity) {
+        S inserted = repository.insert(entity);
+        evict(Collections.singletonList(inserted));
+        return inserted;
+    }
+
+    @Override
+    public <S extends T> Iterable<S> insert(Iterable<S> entities) {
+        Iterable<S> inserted = repository.insert(entities);
+        evict(inserted);
+        return inserted;
+    }
+
+    @Override
+    public <S extends T> S update(S entity) {
+        S updated = repository.update(entity);
+        evict(Collections.singletonList(updated));
+        return updated;
+    }
+
+    @Override
+    public <S extends T> Iterable<S> update(Iterable<S> entities) {
+        Iterable<S> updated = repository.update(entities);
+        evict(updated);
+        return updated;
+    }
+
+    @Override
+    public <S extends T> Iterable<S> upsert(Iterable<S> entities) {
+        Iterable<S> upserted = repository.upsert(entities);
+        evict(upserted);
+        return upserted;
+    }
+
+    @Override
+    public <S extends T> S save(S entity) {
+        S saved = repository.save(entity);
+        evict(Collections.singletonList(saved));
+        return saved;
+    }
+
+    @Override
+    public <S extends T> Iterable<S> saveAll(Iterable<S> entities) {
+        Iterable<S> saved = repository.saveAll(entities);
+        evict(saved);
+        return saved;
+    }
+
+    @Override
+    public void deleteById(I id) {
+        repository.deleteById(id);
+        evictIds(Collections.singleton(id));
+    }
+
+    @Override
+    public void delete(T entity) {
+        repository.delete(entity);
+        evictIds(Collections.singleton(entity.getId()));
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        repository.deleteAll(entities);
+        Set<I> ids = new HashSet<>();
+        for (T entity : entities) {
+            ids.add(entity.getId());
+        }
+        evictIds(ids);
+    }
+
+    @Override
+    public void deleteAll() {
+        repository.deleteAll();
+        invalidateAll();
+    }
+
+    /* Cache management */
+
+    /**
+     * Evicts the written records, and any cached query results they may have changed: those
+     * containing a record with the same ID, and those whose criteria the record now satisfies.
+     */
+    private void evict(Iterable<? extends T> entities) {
+        List<T> written = new ArrayList<>();
+        Set<I> ids = new HashSet<>();
+        for (T entity : entities) {
+            written.add(entity);
+            ids.add(entity.getId());
+        }
+        synchronized (lock) {
+            version++;
+            entityCache.invalidateAll(ids);
+            queryCache.asMap().values().removeIf(query -> query.containsAny(ids)
+                || written.stream().anyMatch(query.predicate));
+        }
+    }
+
+    /**
+     * Evicts deleted records, and the cached query results that contained them.
+     */
+    private void evictIds(Set<I> ids) {
+        synchronized (lock) {
+            version++;
+            entityCache.invalidateAll(ids);
+            queryCache.asMap().values().removeIf(query -> query.containsAny(ids));
+        }
+    }
+
+    /**
+     * Discards all cached records and query results.  Should be called after the underlying
+     * repository has been modified without going through this repository, eg. by a data import.
+     */
+    public void invalidateAll() {
+        synchronized (lock) {
+            version++;
+            entityCache.invalidateAll();
+            queryCache.invalidateAll();
+        }
+    }
+
+    /**
+     * Returns the number of writes made through this repository.  Results read from the
+     * underlying repository are only cached if no write completed while they were being read.
+     */
+    private long getVersion() {
+        synchronized (lock) {
+            return version;
+        }
+    }
+
+    /**
+     * Returns the cache of records, keyed by ID.
+     */
+    public Cache<I, Optional<T>> getEntityCache() {
+        return entityCache;
+    }
+
+    /**
+     * Returns the cache of query results, keyed by normalized query criteria and sort order.
+     */
+    public Cache<?, ?> getQueryCache() {
+        return queryCache;
+    }
+
+    /**
+     * Returns the underlying, uncached repository.
+     */
+    public ModelRepository<T, I> getRepository() {
+        return repository;
+    }
+
+    @Override
+    public Class<T> getModel() {
+        return repository.getModel();
+    }
+
+    /**
+     * Query result cache key.  Criteria are copied, de-duplicated and sorted, so that the same
+     * query submitted with its parameters in a different order shares a cache entry.
+     */
+    private static final class QueryKey {
+
+        private static final Comparator<QueryCriteria> ORDER = Comparator
+            .comparing(QueryCriteria::getKey, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(QueryCriteria::getEvaluation,
+                Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(criteria -> String.valueOf(criteria.getValue()));
+
+        private final List<QueryCriteria> criterias;
+        private final Sort sort;
+
+        QueryKey(Iterable<QueryCriteria> queryCriterias, Sort sort) {
+            Set<QueryCriteria> unique = new HashSet<>();
+            for (QueryCriteria criteria : queryCriterias) {
+                if (criteria != null) {
+                    unique.add(new QueryCriteria(criteria.getKey(), criteria.getValue(),
+                        criteria.getEvaluation()));
+                }
+            }
+            List<QueryCriteria> sorted = new ArrayList<>(unique);
+            sorted.sort(ORDER);
+            this.criterias = Collections.unmodifiableList(sorted);
+            this.sort = sort != null ? sort : Sort.unsorted();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof QueryKey)) {
+                return false;
+            }
+            QueryKey that = (QueryKey) o;
+            return criterias.equals(that.criterias) && sort.equals(that.sort);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(criterias, sort);
+        }
+
+        @Override
+        public String toString() {
+            return "QueryKey{"
+                + "criterias=" + criterias
+                + ", sort=" + sort
+                + '}';
+        }
+    }
+
+    /**
+     * Cached query result, with the IDs of the returned records and the compiled query criteria,
+     * used to decide whether a write affects the result.
+     */
+    private static final class CachedQuery<T extends Model<?>> {
+
+        private final List<T> records;
+        private final Set<Object> ids = new HashSet<>();
+        private final Predicate<Object> predicate;
+
+        CachedQuery(List<QueryCriteria> criterias, List<T> records) {
+            this.records = Collections.unmodifiableList(records);
+            this.predicate = QueryCriteriaMatcher.compile(criterias);
+            for (T record : records) {
+                ids.add(record.getId());
+            }
+        }
+
+        boolean containsAny(Set<?> keys) {
+            for (Object key : keys) {
+                if (ids.contains(key)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blueprint.centromere.core.repository;
+
+import java.util.Collections;
+import java.util.List;
+import org.springframework.data.domain.Sort;
+
+/**
+ * A single page of records fetched using keyset pagination, along with the {@link
+ * ContinuationToken} required to fetch the following page.  Unlike {@link
+ * org.springframework.data.domain.Page}, the total number of records and pages is not known.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+public class ContinuationPage<T> {
+
+    private final List<T> content;
+    private final ContinuationToken next;
+
+    public ContinuationPage(List<T> content, ContinuationToken next) {
+        this.content = Collections.unmodifiableList(content);
+        this.next = next;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public int getSize() {
+        return content.size();
+    }
+
+    /**
+     * Returns the token for the following page, or {@code null} if this is the last page.
+     */
+    public ContinuationToken getNext() {
+        return next;
+    }
+
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    /**
+     * Creates a page from up to {@code size + 1} records fetched in keyset order, where the
+     * presence of the extra record indicates that another page follows.
+     *
+     * @param records records fetched from the repository
+     * @param size requested page size
+     * @param sort keyset sort order the records were fetched in
+     * @param <T> model type
+     * @return page of at most {@code size} records
+     */
+    public static <T> ContinuationPage<T> of(List<T> records, int size, Sort sort) {
+        if (records.size() <= size) {
+            return new ContinuationPage<>(records, null);
+        }
+        List<T> content = records.subList(0, size);
+        return new ContinuationPage<>(content,
+            ContinuationToken.fromEntity(content.get(size - 1), sort));
+    }
+
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blueprint.centromere.core.repository;
+
+import com.blueprint.centromere.core.exceptions.QueryParameterException;
+import com.fasterxml.jackson.annotation.JsonValue;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.util.Assert;
+
+/**
+ * Opaque position marker for keyset (seek) pagination, see {@link
+ * ModelRepository#findAfter(Iterable, Sort, ContinuationToken, int)}.  A token records the sort
+ * order of a query and the sort key values of the last record returned, including the record ID,
+ * which is always used as the final sort key to guarantee a unique ordering.  The next page starts
+ * with the first record whose sort key follows these values, so it can be found with an index
+ * seek, rather than by skipping every preceding record.
+ *
+ * <p>Tokens are encoded as URL-safe Base64 strings.  Sort key values must be strings, numbers,
+ * booleans, dates or {@code null}, other values are encoded by their string representation.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+public final class ContinuationToken {
+
+    public static final String ID_FIELD = "id";
+
+    private static final byte VERSION = 1;
+
+    private static final byte NULL_VALUE = 0;
+    private static final byte STRING_VALUE = 1;
+    private static final byte INTEGER_VALUE = 2;
+    private static final byte LONG_VALUE = 3;
+    private static final byte DOUBLE_VALUE = 4;
+    private static final byte BOOLEAN_VALUE = 5;
+    private static final byte DATE_VALUE = 6;
+
+    private final Sort sort;
+    private final List<Object> values;
+
+    /**
+     * Creates a new token from a keyset sort order and the matching values of the last record
+     * on a page.
+     *
+     * @param sort keyset sort order, see {@link #getKeysetSort(Sort)}
+     * @param values sort key values, in the same order as {@code sort}
+     */
+    public ContinuationToken(Sort sort, List<Object> values) {
+        Assert.notNull(sort, "Sort must not be null.");
+        Assert.notNull(values, "Values must not be null.");
+        Assert.isTrue(sort.stream().count() == values.size(),
+            "The number of sort key values must match the number of sort orders.");
+        this.sort = sort;
+        this.values = Collections.unmodifiableList(new ArrayList<>(values));
+    }
+
+    /**
+     * Creates a token positioned at the supplied record.
+     *
+     * @param entity last record of a page
+     * @param sort keyset sort order, see {@link #getKeysetSort(Sort)}
+     * @return new token
+     */
+    public static ContinuationToken fromEntity(Object entity, Sort sort) {
+        List<Object> values = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            values.add(QueryCriteriaMatcher.getPropertyValue(entity, order.getProperty()));
+        }
+        return new ContinuationToken(sort, values);
+    }
+
+    /**
+     * Appends the record ID to a sort order, in ascending order, unless it is already sorted by
+     * ID, so that every record has a unique position.
+     *
+     * @param sort requested sort order, may be {@code null}
+     * @return sort order for keyset pagination
+     */
+    public static Sort getKeysetSort(Sort sort) {
+        Sort keysetSort = sort != null ? sort : Sort.unsorted();
+        if (keysetSort.getOrderFor(ID_FIELD) == null) {
+            keysetSort = keysetSort.and(Sort.by(Direction.ASC, ID_FIELD));
+        }
+        return keysetSort;
+    }
+
+    /**
+     * Decodes a token previously created with {@link #encode()}.
+     *
+     * @param token encoded token
+     * @return decoded token
+     * @throws QueryParameterException if the token is malformed
+     */
+    public static ContinuationToken decode(String token) {
+        try {
+            DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)));
+            if (in.readByte() != VERSION) {
+                throw new QueryParameterException("Unsupported continuation token version.");
+            }
+            int count = in.readUnsignedShort();
+            List<Sort.Order> orders = new ArrayList<>();
+            List<Object> values = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                String property = in.readUTF();
+                orders.add(in.readBoolean() ? Sort.Order.asc(property) : Sort.Order.desc(property));
+                values.add(readValue(in));
+            }
+            if (in.read() != -1) {
+                throw new QueryParameterException("Continuation token contains trailing data.");
+            }
+            return new ContinuationToken(Sort.by(orders), values);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new QueryParameterException(
+                String.format("Invalid continuation token: %s", token));
+        }
+    }
+
+    /**
+     * Encodes the token as a URL-safe string.
+     *
+     * @return encoded token
+     */
+    @JsonValue
+    public String encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeShort(values.size());
+            int i = 0;
+            for (Sort.Order order : sort) {
+                out.writeUTF(order.getProperty());
+                out.writeBoolean(order.isAscending());
+                writeValue(out, values.get(i));
+                i = i + 1;
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to encode continuation token.", e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+
+    public List<Object> getValues() {
+        return values;
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL_VALUE);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            out.writeByte(INTEGER_VALUE);
+            out.writeInt(((Number) value).intValue());
+        } else if (value instanceof Long) {
+            out.writeByte(LONG_VALUE);
+            out.writeLong((Long) value);
+        } else if (value instanceof Number) {
+            out.writeByte(DOUBLE_VALUE);
+            out.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN_VALUE);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Date) {
+            out.writeByte(DATE_VALUE);
+            out.writeLong(((Date) value).getTime());
+        } else {
+            out.writeByte(STRING_VALUE);
+            out.writeUTF(value.toString());
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case NULL_VALUE:
+                return null;
+            case STRING_VALUE:
+                return in.readUTF();
+            case INTEGER_VALUE:
+                return in.readInt();
+            case LONG_VALUE:
+                return in.readLong();
+            case DOUBLE_VALUE:
+                return in.readDouble();
+            case BOOLEAN_VALUE:
+                return in.readBoolean();
+            case DATE_VALUE:
+                return new Date(in.readLong());
+            default:
+                throw new IOException(String.format("Unknown value type: %d", type));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ContinuationToken{"
+            + "sort=" + sort
+            + ", values=" + values
+            + '}';
+    }
+
+}
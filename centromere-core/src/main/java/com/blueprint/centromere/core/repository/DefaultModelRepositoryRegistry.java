@@ -19,20 +19,34 @@ package com.blueprint.centromere.core.repository;
 import com.blueprint.centromere.core.exceptions.ConfigurationException;
 import com.blueprint.centromere.core.exceptions.ModelRegistryException;
 import com.blueprint.centromere.core.model.Model;
-import java.util.ArrayList;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
 /**
  * Creates a registry of {@link ModelRepository} instances that have the {@link ModelResource}
  * annotation, and creates a map of {@link Model} classes to repositories, and model URIs to
  * repositories. This allows lookup of repository classes by model or by HTTP request URL.
+ * Lookups by model are resolved through an immutable {@link ModelTypeMap}, built once when the
+ * registry is initialized.  Repositories with caching enabled by {@link ModelResource#cache()} are
+ * registered wrapped in a {@link CachingModelRepository}.  If a {@link MeterRegistry} is available
+ * and repository metrics are enabled, or a slow query threshold is set, repositories are also
+ * wrapped in an {@link InstrumentedModelRepository}, beneath any cache, so that only operations
+ * that reach the database are timed.  Slow queries are explained by a single background thread,
+ * which holds a bounded number of pending queries and discards the plans of any more.
  *
  * @author woemler
  */
@@ -40,9 +54,16 @@ public class DefaultModelRepositoryRegistry implements ModelRepositoryRegistry {
 
     private static final Logger LOGGER
         = LoggerFactory.getLogger(DefaultModelRepositoryRegistry.class);
+    private static final int MAX_PENDING_EXPLAINS = 100;
 
     private final ApplicationContext context;
-    private Map<Class<? extends Model<?>>, ModelRepository<?, ?>> repositoryTypeMap = new HashMap<>();
+    private ModelTypeMap<ModelRepository<?, ?>> repositoryTypeMap
+        = new ModelTypeMap<>(Collections.emptyMap());
+    private MeterRegistry meterRegistry;
+    private QueryExplainer queryExplainer;
+    private boolean metricsEnabled = true;
+    private long slowQueryThreshold;
+    private ThreadPoolExecutor explainExecutor;
 
     public DefaultModelRepositoryRegistry(ApplicationContext context) {
         this.context = context;
@@ -57,48 +78,97 @@ public class DefaultModelRepositoryRegistry implements ModelRepositoryRegistry {
     @PostConstruct
     public void afterPropertiesSet() throws ConfigurationException {
 
+        Map<Class<? extends Model<?>>, ModelRepository<?, ?>> repositories = new HashMap<>();
+        if (slowQueryThreshold > 0 && queryExplainer != null && explainExecutor == null) {
+            CustomizableThreadFactory threadFactory
+                = new CustomizableThreadFactory("centromere-query-explainer-");
+            threadFactory.setDaemon(true);
+            explainExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(MAX_PENDING_EXPLAINS), threadFactory);
+        }
         for (Map.Entry<String, Object> entry :
             context.getBeansWithAnnotation(ModelResource.class).entrySet()) {
             Class<?> type = entry.getValue().getClass();
             ModelRepository repository = (ModelRepository) entry.getValue();
             Class<? extends Model<?>> model = repository.getModel();
-            if (repositoryTypeMap.containsKey(model)) {
+            if (repositories.containsKey(model)) {
                 throw new ModelRegistryException(String.format(
                     "Duplicate model registered for repository %s.  Does more than one repository have the"
                         + " same model?", model.getName()));
             }
-            repositoryTypeMap.put(model, repository);
+            if (metricsEnabled && meterRegistry != null || slowQueryThreshold > 0) {
+                repository = new InstrumentedModelRepository(repository,
+                    metricsEnabled ? meterRegistry : null, slowQueryThreshold, queryExplainer,
+                    explainExecutor);
+            }
+            ModelResource annotation = context
+                .findAnnotationOnBean(entry.getKey(), ModelResource.class);
+            if (annotation != null && annotation.cache().enabled()) {
+                repository = new CachingModelRepository(repository,
+                    annotation.cache().maximumSize(), annotation.cache().expireAfterWrite());
+                LOGGER.debug(String.format("Enabled caching for repository %s", type.getName()));
+            }
+            repositories.put(model, repository);
             LOGGER.debug(String.format("Registered repository %s for model %s",
                 type.getName(), model.getName()));
         }
+        repositoryTypeMap = new ModelTypeMap<>(repositories);
+    }
+
+    /**
+     * Stops the thread explaining slow queries, if one was started.
+     */
+    @PreDestroy
+    public void destroy() {
+        if (explainExecutor != null) {
+            explainExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Sets the registry used to record repository operation timers, if one is available.
+     */
+    @Autowired(required = false)
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Sets the explainer used to describe the plans of slow queries, if one is available.
+     */
+    @Autowired(required = false)
+    public void setQueryExplainer(QueryExplainer queryExplainer) {
+        this.queryExplainer = queryExplainer;
+    }
+
+    @Value("${centromere.repository.metrics.enabled:true}")
+    public void setMetricsEnabled(boolean metricsEnabled) {
+        this.metricsEnabled = metricsEnabled;
+    }
+
+    /**
+     * Sets the minimum duration, in milliseconds, of repository operations to be logged as slow
+     * queries.  A value of {@code 0} disables slow query logging.
+     */
+    @Value("${centromere.repository.slow-query-threshold:0}")
+    public void setSlowQueryThreshold(long slowQueryThreshold) {
+        this.slowQueryThreshold = slowQueryThreshold;
     }
 
     @Override
     public boolean isRegisteredModel(Class<?> model) {
-        for (Class<?> type : repositoryTypeMap.keySet()) {
-            if (model.isAssignableFrom(type)) {
-                return true;
-            }
-        }
-        return false;
+        return repositoryTypeMap.contains(model);
     }
 
     @Override
     public ModelRepository getRepositoryByModel(Class<? extends Model<?>> model)
         throws ModelRegistryException {
-        List<ModelRepository> repositories = new ArrayList<>();
-        for (Map.Entry<Class<? extends Model<?>>, ModelRepository<?, ?>> entry :
-            repositoryTypeMap.entrySet()) {
-            if (model.isAssignableFrom(entry.getKey())) {
-                repositories.add(entry.getValue());
-            }
-        }
-        if (repositories.size() > 1) {
+        if (repositoryTypeMap.count(model) > 1) {
             throw new ModelRegistryException(String.format("Type %s matches "
                 + "more than one registered repository.  Is this a superclass with multiple model "
                 + "subclasses?", model.getName()));
         }
-        return repositories.size() > 0 ? repositories.get(0) : null;
+        return repositoryTypeMap.get(model);
     }
 
     @Override
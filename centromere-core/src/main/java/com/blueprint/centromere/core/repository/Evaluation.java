@@ -23,7 +23,12 @@ import java.util.List;
  * List of evaluations that all {@link ModelRepository} implementations should be able to support
  * via {@link QueryCriteria} queries. Some evaluations are naturally restricted to certain data
  * types. The evaluation suffixes are used to create dynamic query options by merging the model
- * field name and the appropriate evaluation suffix.
+ * field name and the appropriate evaluation suffix.  The {@link #ANY}, {@link #ALL} and {@link
+ * #NOT} evaluations combine nested criteria, and have no suffix; they are created with {@link
+ * QueryCriteria#any(QueryCriteria...)}, {@link QueryCriteria#all(QueryCriteria...)} and {@link
+ * QueryCriteria#not(QueryCriteria...)}.  The {@link #EQUALS_IGNORE_CASE} and {@link
+ * #STARTS_WITH_IGNORE_CASE} evaluations compare string values without regard to case, and are
+ * best supported on fields marked with {@link com.blueprint.centromere.core.model.CaseInsensitive}.
  *
  * @author woemler
  * @since 0.5.0
@@ -37,6 +42,8 @@ public enum Evaluation {
     NOT_LIKE,
     STARTS_WITH,
     ENDS_WITH,
+    EQUALS_IGNORE_CASE,
+    STARTS_WITH_IGNORE_CASE,
     GREATER_THAN,
     LESS_THAN,
     GREATER_THAN_EQUALS,
@@ -48,7 +55,10 @@ public enum Evaluation {
     IS_NULL,
     NOT_NULL,
     IS_TRUE,
-    IS_FALSE;
+    IS_FALSE,
+    ANY,
+    ALL,
+    NOT;
 
     public static final String EQUALS_SUFFIX = "Equals";
     public static final String IN_SUFFIX = "In";
@@ -58,6 +68,8 @@ public enum Evaluation {
     public static final String NOT_LIKE_SUFFIX = "NotLike";
     public static final String STARTS_WITH_SUFFIX = "StartsWith";
     public static final String ENDS_WITH_SUFFIX = "EndsWith";
+    public static final String EQUALS_IGNORE_CASE_SUFFIX = "EqualsIgnoreCase";
+    public static final String STARTS_WITH_IGNORE_CASE_SUFFIX = "StartsWithIgnoreCase";
     public static final String GREATER_THAN_SUFFIX = "GreaterThan";
     public static final String LESS_THAN_SUFFIX = "LessThan";
     public static final String GREATER_THAN_EQUALS_SUFFIX = "GreaterThanOrEquals";
@@ -76,7 +88,7 @@ public enum Evaluation {
         STARTS_WITH_SUFFIX, ENDS_WITH_SUFFIX, GREATER_THAN_EQUALS_SUFFIX, GREATER_THAN_SUFFIX,
         LESS_THAN_SUFFIX, LESS_THAN_EQUALS_SUFFIX, BETWEEN_INCLUSIVE_SUFFIX, BETWEEN_SUFFIX,
         OUTSIDE_SUFFIX, OUTSIDE_INCLUSIVE_SUFFIX, IS_NULL_SUFFIX, IS_TRUE_SUFFIX, NOT_NULL_SUFFIX,
-        IS_FALSE_SUFFIX
+        IS_FALSE_SUFFIX, EQUALS_IGNORE_CASE_SUFFIX, STARTS_WITH_IGNORE_CASE_SUFFIX
     );
 
     /**
@@ -101,6 +113,10 @@ public enum Evaluation {
             return STARTS_WITH;
         } else if (ENDS_WITH_SUFFIX.equals(suffix)) {
             return ENDS_WITH;
+        } else if (EQUALS_IGNORE_CASE_SUFFIX.equals(suffix)) {
+            return EQUALS_IGNORE_CASE;
+        } else if (STARTS_WITH_IGNORE_CASE_SUFFIX.equals(suffix)) {
+            return STARTS_WITH_IGNORE_CASE;
         } else if (GREATER_THAN_SUFFIX.equals(suffix)) {
             return GREATER_THAN;
         } else if (LESS_THAN_SUFFIX.equals(suffix)) {
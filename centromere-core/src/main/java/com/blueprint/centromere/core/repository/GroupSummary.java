@@ -0,0 +1,93 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blueprint.centromere.core.repository;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
+/**
+ * Summary of a group of records sharing the same value of a field, as returned by {@link
+ * ModelRepository#groupBy(String, Iterable, String)}.  Includes the number of records in the group
+ * and, if a value field was requested, summary statistics of its numeric values.  Non-numeric and
+ * {@code null} values are ignored by the statistics.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+@JsonInclude(Include.NON_NULL)
+public class GroupSummary {
+
+    private final Object key;
+    private final long count;
+    private final Double min;
+    private final Double max;
+    private final Double sum;
+    private final Double avg;
+
+    public GroupSummary(Object key, long count) {
+        this(key, count, null, null, null, null);
+    }
+
+    public GroupSummary(Object key, long count, Double min, Double max, Double sum, Double avg) {
+        this.key = key;
+        this.count = count;
+        this.min = min;
+        this.max = max;
+        this.sum = sum;
+        this.avg = avg;
+    }
+
+    /**
+     * Returns the grouped field value shared by all records in the group.
+     */
+    public Object getKey() {
+        return key;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public Double getMin() {
+        return min;
+    }
+
+    public Double getMax() {
+        return max;
+    }
+
+    public Double getSum() {
+        return sum;
+    }
+
+    public Double getAvg() {
+        return avg;
+    }
+
+    @Override
+    public String toString() {
+        return "GroupSummary{"
+            + "key=" + key
+            + ", count=" + count
+            + ", min=" + min
+            + ", max=" + max
+            + ", sum=" + sum
+            + ", avg=" + avg
+            + '}';
+    }
+
+}
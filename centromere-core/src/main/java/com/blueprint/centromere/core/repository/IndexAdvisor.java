@@ -0,0 +1,41 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.blueprint.centromere.core.repository;
+
+import java.util.List;
+
+/**
+ * Observes the queries made by {@link ModelRepository} implementations and recommends indexes
+ * for the query shapes that the database could not serve from an existing index.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+public interface IndexAdvisor {
+
+    /**
+     * Returns the recommended indexes, most frequently needed first.
+     *
+     * @return index recommendations
+     */
+    List<IndexRecommendation> getRecommendations();
+
+    /**
+     * Discards all observations made so far.
+     */
+    void reset();
+
+}
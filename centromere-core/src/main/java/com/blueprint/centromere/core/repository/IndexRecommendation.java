@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.blueprint.centromere.core.repository;
+
+import java.util.List;
+
+/**
+ * Index recommended by an {@link IndexAdvisor} for a query shape: a combination of {@link
+ * QueryCriteria} keys and {@link Evaluation} types, regardless of the queried values.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+public class IndexRecommendation {
+
+    private final String model;
+    private final List<String> fields;
+    private final List<String> criteria;
+    private final long samples;
+    private final long collectionScans;
+
+    public IndexRecommendation(String model, List<String> fields, List<String> criteria,
+        long samples, long collectionScans) {
+        this.model = model;
+        this.fields = fields;
+        this.criteria = criteria;
+        this.samples = samples;
+        this.collectionScans = collectionScans;
+    }
+
+    /**
+     * Returns the name of the queried model class.
+     */
+    public String getModel() {
+        return model;
+    }
+
+    /**
+     * Returns the fields to index, in index key order.
+     */
+    public List<String> getFields() {
+        return fields;
+    }
+
+    /**
+     * Returns the query shape, as a list of {@code key:EVALUATION} pairs.
+     */
+    public List<String> getCriteria() {
+        return criteria;
+    }
+
+    /**
+     * Returns the number of sampled queries with this shape.
+     */
+    public long getSamples() {
+        return samples;
+    }
+
+    /**
+     * Returns the number of sampled queries with this shape that required a collection scan.
+     */
+    public long getCollectionScans() {
+        return collectionScans;
+    }
+
+    @Override
+    public String toString() {
+        return "IndexRecommendation{"
+            + "model='" + model + '\''
+            + ", fields=" + fields
+            + ", criteria=" + criteria
+            + ", samples=" + samples
+            + ", collectionScans=" + collectionScans
+            + '}';
+    }
+
+}
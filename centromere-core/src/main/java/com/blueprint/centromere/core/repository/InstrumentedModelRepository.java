@@ -0,0 +1,547 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.blueprint.centromere.core.repository;
+
+import com.blueprint.centromere.core.model.Model;
+import com.google.common.collect.Iterables;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.util.CloseableIterator;
+
+/**
+ * Timing decorator for {@link ModelRepository} implementations.  Each query and write is recorded
+ * by a {@code repository.operations} timer, tagged with the model name, the operation ({@code
+ * find}, {@code findById}, {@code count}, {@code distinct}, {@code groupBy}, {@code insert},
+ * {@code update} or {@code upsert}), the set of {@link Evaluation} types used by the query
+ * criteria, and a bucketed result size.  Timers are only recorded if a {@link MeterRegistry} is
+ * supplied, and are registered once per combination of tags.
+ *
+ * <p>If a slow query threshold is set, operations that take at least that long are logged with
+ * their normalized criteria and, for queries, a summary of the plan reported by the {@link
+ * QueryExplainer}, if one is supplied, for the same sort and index hint.  If an explain executor
+ * is also supplied, slow queries are explained and logged by it, rather than by the calling
+ * thread, and are logged without a plan if the executor rejects them.  Streamed queries and
+ * deletes are passed through to the underlying repository untimed.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+public class InstrumentedModelRepository<T extends Model<I>, I extends Serializable>
+    implements ModelRepository<T, I> {
+
+    public static final String METRIC_NAME = "repository.operations";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InstrumentedModelRepository.class);
+    private static final String NO_EVALUATIONS = "none";
+    private static final String ERROR_RESULTS = "error";
+
+    private final ModelRepository<T, I> repository;
+    private final MeterRegistry meterRegistry;
+    private final long slowQueryThreshold;
+    private final long slowQueryThresholdNanos;
+    private final QueryExplainer queryExplainer;
+    private final Executor explainExecutor;
+    private final String modelName;
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new instrumented repository.
+     *
+     * @param repository repository to instrument
+     * @param meterRegistry registry of operation timers, or {@code null} to only log slow queries
+     * @param slowQueryThreshold minimum duration of a logged operation, in milliseconds, or
+     *   {@code 0} to disable slow query logging
+     * @param queryExplainer explainer of slow queries, or {@code null} to omit query plans
+     */
+    public InstrumentedModelRepository(ModelRepository<T, I> repository,
+        MeterRegistry meterRegistry, long slowQueryThreshold, QueryExplainer queryExplainer) {
+        this(repository, meterRegistry, slowQueryThreshold, queryExplainer, null);
+    }
+
+    /**
+     * Creates a new instrumented repository, which explains slow queries on the supplied
+     * executor.
+     *
+     * @param repository repository to instrument
+     * @param meterRegistry registry of operation timers, or {@code null} to only log slow queries
+     * @param slowQueryThreshold minimum duration of a logged operation, in milliseconds, or
+     *   {@code 0} to disable slow query logging
+     * @param queryExplainer explainer of slow queries, or {@code null} to omit query plans
+     * @param explainExecutor executor that explains and logs slow queries, or {@code null} to
+     *   explain them on the calling thread
+     */
+    public InstrumentedModelRepository(ModelRepository<T, I> repository,
+        MeterRegistry meterRegistry, long slowQueryThreshold, QueryExplainer queryExplainer,
+        Executor explainExecutor) {
+        this.repository = repository;
+        this.meterRegistry = meterRegistry;
+        this.slowQueryThreshold = slowQueryThreshold;
+        this.slowQueryThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryThreshold);
+        this.queryExplainer = queryExplainer;
+        this.explainExecutor = explainExecutor;
+        this.modelName = repository.getModel().getSimpleName();
+    }
+
+    /* Timed reads */
+
+    @Override
+    public Optional<T> findById(I id) {
+        return record("findById", null, () -> repository.findById(id), r -> r.isPresent() ? 1 : 0);
+    }
+
+    @Override
+    public Optional<T> findById(I id, Projection projection) {
+        return record("findById", null, () -> repository.findById(id, projection),
+            r -> r.isPresent() ? 1 : 0);
+    }
+
+    @Override
+    public Iterable<T> find(Iterable<QueryCriteria> queryCriterias) {
+        return record("find", queryCriterias, () -> repository.find(queryCriterias),
+            Iterables::size);
+    }
+
+    @Override
+    public Iterable<T> find(Iterable<QueryCriteria> queryCriterias, Sort sort) {
+        return record("find", queryCriterias, sort, null,
+            () -> repository.find(queryCriterias, sort), Iterables::size);
+    }
+
+    @Override
+    public Iterable<T> find(Iterable<QueryCriteria> queryCriterias, Sort sort,
+        Projection projection) {
+        return record("find", queryCriterias, sort, null,
+            () -> repository.find(queryCriterias, sort, projection), Iterables::size);
+    }
+
+    @Override
+    public Iterable<T> find(Iterable<QueryCriteria> queryCriterias, Sort sort,
+        Projection projection, String hint) {
+        return record("find", queryCriterias, sort, hint,
+            () -> repository.find(queryCriterias, sort, projection, hint), Iterables::size);
+    }
+
+    @Override
+    public Page<T> find(Iterable<QueryCriteria> queryCriterias, Pageable pageable) {
+        return record("find", queryCriterias, pageable.getSort(), null,
+            () -> repository.find(queryCriterias, pageable), Page::getNumberOfElements);
+    }
+
+    @Override
+    public Page<T> find(Iterable<QueryCriteria> queryCriterias, Pageable pageable,
+        Projection projection) {
+        return record("find", queryCriterias, pageable.getSort(), null,
+            () -> repository.find(queryCriterias, pageable, projection),
+            Page::getNumberOfElements);
+    }
+
+    @Override
+    public Page<T> find(Iterable<QueryCriteria> queryCriterias, Pageable pageable,
+        Projection projection, String hint) {
+        return record("find", queryCriterias, pageable.getSort(), hint,
+            () -> repository.find(queryCriterias, pageable, projection, hint),
+            Page::getNumberOfElements);
+    }
+
+    @Override
+    public Slice<T> findSlice(Iterable<QueryCriteria> queryCriterias, Pageable pageable) {
+        return record("find", queryCriterias, pageable.getSort(), null,
+            () -> repository.findSlice(queryCriterias, pageable), Slice::getNumberOfElements);
+    }
+
+    @Override
+    public Slice<T> findSlice(Iterable<QueryCriteria> queryCriterias, Pageable pageable,
+        Projection projection) {
+        return record("find", queryCriterias, pageable.getSort(), null,
+            () -> repository.findSlice(queryCriterias, pageable, projection),
+            Slice::getNumberOfElements);
+    }
+
+    @Override
+    public Slice<T> findSlice(Iterable<QueryCriteria> queryCriterias, Pageable pageable,
+        Projection projection, String hint) {
+        return record("find", queryCriterias, pageable.getSort(), hint,
+            () -> repository.findSlice(queryCriterias, pageable, projection, hint),
+            Slice::getNumberOfElements);
+    }
+
+    @Override
+    public boolean isRawJsonSupported() {
+        return repository.isRawJsonSupported();
+    }
+
+    @Override
+    public RawJsonResults findRawJson(Iterable<QueryCriteria> queryCriterias, Sort sort,
+        Projection projection, String hint) {
+        return record("find", queryCriterias, sort, hint,
+            () -> repository.findRawJson(queryCriterias, sort, projection, hint),
+            RawJsonResults::size);
+    }
+
+    @Override
+    public ContinuationPage<T> findAfter(Iterable<QueryCriteria> queryCriterias, Sort sort,
+        ContinuationToken token, int size) {
+        return record("find", queryCriterias, sort, null,
+            () -> repository.findAfter(queryCriterias, sort, token, size),
+            page -> page.getContent().size());
+    }
+
+    /**
+     * Explain requests are diagnostic and are not recorded.
+     */
+    @Override
+    public QueryPlan explain(Iterable<QueryCriteria> queryCriterias, Sort sort) {
+        return repository.explain(queryCriterias, sort);
+    }
+
+    /**
+     * Explain requests are diagnostic and are not recorded.
+     */
+    @Override
+    public QueryPlan explain(Iterable<QueryCriteria> queryCriterias, Sort sort, String hint) {
+        return repository.explain(queryCriterias, sort, hint);
+    }
+
+    @Override
+    public long count(Iterable<QueryCriteria> criterias) {
+        return record("count", criterias, () -> repository.count(criterias), Long::longValue);
+    }
+
+    @Override
+    public long count() {
+        return record("count", null, repository::count, Long::longValue);
+    }
+
+    @Override
+    public Set<Object> distinct(String field) {
+        return record("distinct", null, () -> repository.distinct(field), Set::size);
+    }
+
+    @Override
+    public Set<Object> distinct(String field, Iterable<QueryCriteria> criterias) {
+        return record("distinct", criterias, () -> repository.distinct(field, criterias),
+            Set::size);
+    }
+
+    @Override
+    public Set<Object> distinct(String field, Iterable<QueryCriteria> criterias,
+        Pageable pageable) {
+        return record("distinct", criterias,
+            () -> repository.distinct(field, criterias, pageable), Set::size);
+    }
+
+    @Override
+    public List<GroupSummary> groupBy(String field, Iterable<QueryCriteria> criterias,
+        String valueField) {
+        return record("groupBy", criterias,
+            () -> repository.groupBy(field, criterias, valueField), List::size);
+    }
+
+    @Override
+    public Iterable<T> findAll(Sort sort) {
+        return record("find", null, () -> repository.findAll(sort), Iterables::size);
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        return record("find", null, () -> repository.findAll(pageable),
+            Page::getNumberOfElements);
+    }
+
+    @Override
+    public Iterable<T> findAll() {
+        return record("find", null, repository::findAll, Iterables::size);
+    }
+
+    @Override
+    public Iterable<T> findAllById(Iterable<I> ids) {
+        return record("findById", null, () -> repository.findAllById(ids), Iterables::size);
+    }
+
+    /* Timed writes */
+
+    @Override
+    public <S extends T> S insert(S entity) {
+        return record("insert", null, () -> repository.insert(entity), r -> 1);
+    }
+
+    @Override
+    public <S extends T> Iterable<S> insert(Iterable<S> entities) {
+        return record("insert", null, () -> repository.insert(entities), Iterables::size);
+    }
+
+    @Override
+    public <S extends T> S update(S entity) {
+        return record("update", null, () -> repository.update(entity), r -> 1);
+    }
+
+    @Override
+    public <S extends T> Iterable<S> update(Iterable<S> entities) {
+        return record("update", null, () -> repository.update(entities), Iterables::size);
+    }
+
+    @Override
+    public <S extends T> Iterable<S> upsert(Iterable<S> entities) {
+        return record("upsert", null, () -> repository.upsert(entities), Iterables::size);
+    }
+
+    @Override
+    public <S extends T> S save(S entity) {
+        return record("upsert", null, () -> repository.save(entity), r -> 1);
+    }
+
+    @Override
+    public <S extends T> Iterable<S> saveAll(Iterable<S> entities) {
+        return record("upsert", null, () -> repository.saveAll(entities), Iterables::size);
+    }
+
+    /* Pass-through operations */
+
+    @Override
+    public CloseableIterator<T> stream(Iterable<QueryCriteria> queryCriterias, Sort sort) {
+        return repository.stream(queryCriterias, sort);
+    }
+
+    @Override
+    public boolean existsById(I id) {
+        return repository.existsById(id);
+    }
+
+    @Override
+    public void deleteById(I id) {
+        repository.deleteById(id);
+    }
+
+    @Override
+    public void delete(T entity) {
+        repository.delete(entity);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        repository.deleteAll(entities);
+    }
+
+    @Override
+    public void deleteAll() {
+        repository.deleteAll();
+    }
+
+    /* Instrumentation */
+
+    /**
+     * Runs a repository operation, and records its duration and result size.  Failed operations
+     * are recorded with an {@code error} result size.
+     */
+    private <R> R record(String operation, Iterable<QueryCriteria> criterias, Supplier<R> call,
+        ToLongFunction<R> size) {
+        return record(operation, criterias, null, null, call, size);
+    }
+
+    /**
+     * Runs a repository query, and records its duration and result size.  The sort and index hint
+     * are used to explain the query, if it is slow.
+     */
+    private <R> R record(String operation, Iterable<QueryCriteria> criterias, Sort sort,
+        String hint, Supplier<R> call, ToLongFunction<R> size) {
+        long start = System.nanoTime();
+        R result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            record(operation, criterias, sort, hint, System.nanoTime() - start, ERROR_RESULTS);
+            throw e;
+        }
+        record(operation, criterias, sort, hint, System.nanoTime() - start,
+            getResultsTag(size.applyAsLong(result)));
+        return result;
+    }
+
+    private void record(String operation, Iterable<QueryCriteria> criterias, Sort sort,
+        String hint, long elapsed, String results) {
+        if (meterRegistry != null) {
+            getTimer(operation, getEvaluationsTag(criterias), results)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        }
+        if (slowQueryThreshold > 0 && elapsed >= slowQueryThresholdNanos) {
+            logSlowQuery(operation, criterias, sort, hint, elapsed);
+        }
+    }
+
+    /**
+     * Returns the timer for a combination of tags, registering it on first use.
+     */
+    private Timer getTimer(String operation, String evaluations, String results) {
+        String key = operation + "|" + evaluations + "|" + results;
+        Timer timer = timers.get(key);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(key, k -> Timer.builder(METRIC_NAME)
+                .tag("model", modelName)
+                .tag("operation", operation)
+                .tag("evaluations", evaluations)
+                .tag("results", results)
+                .register(meterRegistry));
+        }
+        return timer;
+    }
+
+    private void logSlowQuery(String operation, Iterable<QueryCriteria> criterias, Sort sort,
+        String hint, long elapsed) {
+        if (queryExplainer == null || criterias == null) {
+            logSlowQuery(operation, criterias, elapsed, null);
+        } else if (explainExecutor == null) {
+            logSlowQuery(operation, criterias, elapsed, explainQuery(criterias, sort, hint));
+        } else {
+            try {
+                explainExecutor.execute(() -> logSlowQuery(operation, criterias, elapsed,
+                    explainQuery(criterias, sort, hint)));
+            } catch (RejectedExecutionException e) {
+                logSlowQuery(operation, criterias, elapsed, "skipped");
+            }
+        }
+    }
+
+    private void logSlowQuery(String operation, Iterable<QueryCriteria> criterias, long elapsed,
+        String plan) {
+        LOGGER.warn(String.format("Slow %s on model %s took %d ms, criteria: %s, plan: %s",
+            operation, modelName, TimeUnit.NANOSECONDS.toMillis(elapsed),
+            getNormalizedCriteria(criterias), plan));
+    }
+
+    private String explainQuery(Iterable<QueryCriteria> criterias, Sort sort, String hint) {
+        try {
+            return queryExplainer.explain(repository.getModel(), criterias,
+                sort != null ? sort : Sort.unsorted(), hint);
+        } catch (RuntimeException e) {
+            return "unavailable: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Returns the sorted names of the evaluations used by the query criteria, including nested
+     * criteria, eg. {@code EQUALS,IN}.
+     */
+    private static String getEvaluationsTag(Iterable<QueryCriteria> criterias) {
+        if (criterias == null) {
+            return NO_EVALUATIONS;
+        }
+        Set<Evaluation> evaluations = EnumSet.noneOf(Evaluation.class);
+        addEvaluations(criterias, evaluations);
+        if (evaluations.isEmpty()) {
+            return NO_EVALUATIONS;
+        }
+        StringJoiner joiner = new StringJoiner(",");
+        for (Evaluation evaluation : evaluations) {
+            joiner.add(evaluation.name());
+        }
+        return joiner.toString();
+    }
+
+    private static void addEvaluations(Iterable<QueryCriteria> criterias,
+        Set<Evaluation> evaluations) {
+        for (QueryCriteria criteria : criterias) {
+            if (criteria != null && criteria.getEvaluation() != null) {
+                evaluations.add(criteria.getEvaluation());
+                addEvaluations(criteria.getCriterias(), evaluations);
+            }
+        }
+    }
+
+    /**
+     * Buckets result sizes by order of magnitude, to bound the number of distinct timers.
+     */
+    private static String getResultsTag(long size) {
+        if (size <= 1) {
+            return String.valueOf(Math.max(size, 0));
+        } else if (size <= 10) {
+            return "2-10";
+        } else if (size <= 100) {
+            return "11-100";
+        } else if (size <= 1000) {
+            return "101-1000";
+        } else if (size <= 10000) {
+            return "1001-10000";
+        }
+        return "10000+";
+    }
+
+    /**
+     * Renders the query criteria sorted by key, with collection values abbreviated to their
+     * size, so that log entries for the same query shape line up.
+     */
+    private static String getNormalizedCriteria(Iterable<QueryCriteria> criterias) {
+        if (criterias == null) {
+            return "[]";
+        }
+        List<String> normalized = new ArrayList<>();
+        for (QueryCriteria criteria : criterias) {
+            if (criteria == null) {
+                continue;
+            } else if (criteria.isComposite()) {
+                normalized.add(criteria.getEvaluation()
+                    + getNormalizedCriteria(criteria.getCriterias()));
+            } else {
+                Object value = criteria.getValue() instanceof Collection
+                    ? "[" + ((Collection<?>) criteria.getValue()).size() + " values]"
+                    : criteria.getValue();
+                normalized.add(criteria.getKey() + ":" + criteria.getEvaluation() + "=" + value);
+            }
+        }
+        Collections.sort(normalized);
+        return normalized.toString();
+    }
+
+    /**
+     * Returns the underlying, uninstrumented repository.
+     */
+    public ModelRepository<T, I> getRepository() {
+        return repository;
+    }
+
+    public long getSlowQueryThreshold() {
+        return slowQueryThreshold;
+    }
+
+    @Override
+    public Class<T> getModel() {
+        return repository.getModel();
+    }
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.blueprint.centromere.core.repository;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Caching options for a {@link ModelResource} repository, set with {@link ModelResource#cache()}.
+ * When enabled, the {@link DefaultModelRepositoryRegistry} wraps the repository in a {@link
+ * CachingModelRepository}, eg:
+ *
+ * <pre>
+ * &#64;ModelResource(value = "gene", cache = &#64;ModelCache(enabled = true, maximumSize = 50000))
+ * public interface GeneRepository extends ModelRepository&lt;Gene, String&gt; { }
+ * </pre>
+ *
+ * <p>Only writes made through the repository returned by the {@link ModelRepositoryRegistry} evict
+ * cached entries.  Writes made with the repository bean itself, eg. by a {@code
+ * RepositoryRecordWriter}, or by another process, are seen once the affected entries expire, after
+ * at most {@link #expireAfterWrite()} seconds.  Cached records are shared between callers, and must
+ * not be modified.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+@Target({})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ModelCache {
+
+    /**
+     * When set to {@code true}, records and query results are cached.
+     */
+    boolean enabled() default false;
+
+    /**
+     * Maximum number of records, and separately the maximum number of query results, to cache.
+     */
+    long maximumSize() default 10000L;
+
+    /**
+     * Number of seconds after which a cached record or query result expires.  This is the longest
+     * time for which writes that bypass the cache may go unseen, and must be positive.
+     */
+    long expireAfterWrite() default 60L;
+
+}
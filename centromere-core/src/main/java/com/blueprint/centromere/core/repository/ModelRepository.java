@@ -16,21 +16,21 @@
 
 package com.blueprint.centromere.core.repository;
 
-import com.blueprint.centromere.core.exceptions.QueryParameterException;
 import com.blueprint.centromere.core.model.Model;
 import com.blueprint.centromere.core.model.ModelSupport;
 import java.io.Serializable;
-import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.BeanWrapper;
-import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.repository.NoRepositoryBean;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.util.CloseableIterator;
 
 /**
  * The base {@link Model} repository interface, as an extension of Spring Data's core {@link
@@ -74,6 +74,176 @@ public interface ModelRepository<T extends Model<I>, I extends Serializable>
      */
     Page<T> find(Iterable<QueryCriteria> queryCriterias, Pageable pageable);
 
+    /**
+     * Searches for all records that satisfy the requested criteria, and returns them in the
+     * requested order, fetching only the fields selected by the projection.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @param sort {@link Sort}
+     * @param projection {@link Projection} describing the fields to fetch.
+     * @return all matching {@code T} records.
+     */
+    Iterable<T> find(Iterable<QueryCriteria> queryCriterias, Sort sort, Projection projection);
+
+    /**
+     * Searches for all records that satisfy the requested criteria, as in {@link #find(Iterable,
+     * Sort, Projection)}, forcing the query to use the named index.  Repositories that do not
+     * support index hints ignore it.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @param sort {@link Sort}
+     * @param projection {@link Projection} describing the fields to fetch.
+     * @param hint name of the index to use, or {@code null} to let the repository choose.
+     * @return all matching {@code T} records.
+     */
+    Iterable<T> find(Iterable<QueryCriteria> queryCriterias, Sort sort, Projection projection,
+        String hint);
+
+    /**
+     * Searches for all records that satisfy the requested criteria, and returns them as a paged
+     * collection, fetching only the fields selected by the projection.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @param pageable {@link Pageable}
+     * @param projection {@link Projection} describing the fields to fetch.
+     * @return {@link Page} containing the desired set of records.
+     */
+    Page<T> find(Iterable<QueryCriteria> queryCriterias, Pageable pageable, Projection projection);
+
+    /**
+     * Searches for all records that satisfy the requested criteria, and returns them as a paged
+     * collection, as in {@link #find(Iterable, Pageable, Projection)}, forcing the query to use the
+     * named index.  Repositories that do not support index hints ignore it.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @param pageable {@link Pageable}
+     * @param projection {@link Projection} describing the fields to fetch.
+     * @param hint name of the index to use, or {@code null} to let the repository choose.
+     * @return {@link Page} containing the desired set of records.
+     */
+    Page<T> find(Iterable<QueryCriteria> queryCriterias, Pageable pageable, Projection projection,
+        String hint);
+
+    /**
+     * Returns the record with the requested ID, fetching only the fields selected by the
+     * projection.
+     *
+     * @param id record ID
+     * @param projection {@link Projection} describing the fields to fetch.
+     * @return the matching record, if one exists.
+     */
+    Optional<T> findById(I id, Projection projection);
+
+    /**
+     * Searches for all records that satisfy the requested criteria, and returns them as a {@link
+     * Slice}.  Unlike {@link #find(Iterable, Pageable)}, the total number of matching records is
+     * not counted, only whether another slice follows this one is determined.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @param pageable {@link Pageable}
+     * @return {@link Slice} containing the desired set of records.
+     */
+    Slice<T> findSlice(Iterable<QueryCriteria> queryCriterias, Pageable pageable);
+
+    /**
+     * Searches for all records that satisfy the requested criteria, and returns them as a {@link
+     * Slice}, fetching only the fields selected by the projection.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @param pageable {@link Pageable}
+     * @param projection {@link Projection} describing the fields to fetch.
+     * @return {@link Slice} containing the desired set of records.
+     */
+    Slice<T> findSlice(Iterable<QueryCriteria> queryCriterias, Pageable pageable,
+        Projection projection);
+
+    /**
+     * Searches for all records that satisfy the requested criteria, and returns them as a {@link
+     * Slice}, as in {@link #findSlice(Iterable, Pageable, Projection)}, forcing the query to use
+     * the named index.  Repositories that do not support index hints ignore it.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @param pageable {@link Pageable}
+     * @param projection {@link Projection} describing the fields to fetch.
+     * @param hint name of the index to use, or {@code null} to let the repository choose.
+     * @return {@link Slice} containing the desired set of records.
+     */
+    Slice<T> findSlice(Iterable<QueryCriteria> queryCriterias, Pageable pageable,
+        Projection projection, String hint);
+
+    /**
+     * Returns {@code true} if the repository can return query results in the serialized form
+     * returned by the database, through {@link #findRawJson(Iterable, Sort, Projection, String)}.
+     */
+    boolean isRawJsonSupported();
+
+    /**
+     * Searches for all records that satisfy the requested criteria, as in {@link
+     * #find(Iterable, Sort, Projection, String)}, and returns them without converting them into
+     * model instances, so that they can be written straight to a JSON response.  Only supported if
+     * {@link #isRawJsonSupported()} returns {@code true}, otherwise an {@link
+     * UnsupportedOperationException} is thrown.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @param sort {@link Sort}
+     * @param projection {@link Projection} describing the fields to fetch.
+     * @param hint name of the index to use, or {@code null} to let the repository choose.
+     * @return {@link RawJsonResults} containing the matching records.
+     */
+    RawJsonResults findRawJson(Iterable<QueryCriteria> queryCriterias, Sort sort,
+        Projection projection, String hint);
+
+    /**
+     * Searches for a single page of records that satisfy the requested criteria, using keyset
+     * pagination.  Records are returned in the requested order, followed by ascending record ID,
+     * starting after the position marked by the continuation token.  Unlike {@link
+     * #find(Iterable, Pageable)}, the cost of fetching a page does not grow with its distance
+     * from the first page, and no total record count is performed.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @param sort {@link Sort}, ignored if a continuation token is supplied.
+     * @param token position of the last record of the previous page, or {@code null} to fetch
+     *   the first page.
+     * @param size maximum number of records to return.
+     * @return {@link ContinuationPage} containing the records and the token for the next page.
+     */
+    ContinuationPage<T> findAfter(Iterable<QueryCriteria> queryCriterias, Sort sort,
+        ContinuationToken token, int size);
+
+    /**
+     * Searches for all records that satisfy the requested criteria, and returns them in the
+     * requested order as a {@link CloseableIterator}.  Records are fetched from the underlying data
+     * source incrementally as the iterator is consumed, rather than being materialized all at once.
+     * The returned iterator must be closed by the caller once it is no longer needed.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @param sort {@link Sort}
+     * @return iterator over all matching {@code T} records.
+     */
+    CloseableIterator<T> stream(Iterable<QueryCriteria> queryCriterias, Sort sort);
+
+    /**
+     * Describes how the repository would answer a query for all records that satisfy the
+     * requested criteria, in the requested order.  The query may be executed, to report the work
+     * it performs, but no records are returned.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @param sort {@link Sort}
+     * @return {@link QueryPlan} describing the query execution.
+     */
+    QueryPlan explain(Iterable<QueryCriteria> queryCriterias, Sort sort);
+
+    /**
+     * Describes how the repository would answer a query, as in {@link #explain(Iterable, Sort)},
+     * when forced to use the named index.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @param sort {@link Sort}
+     * @param hint name of the index to use, or {@code null} to let the repository choose.
+     * @return {@link QueryPlan} describing the query execution.
+     */
+    QueryPlan explain(Iterable<QueryCriteria> queryCriterias, Sort sort, String hint);
+
     /**
      * Returns a count of all records that satify the requested criteria.
      *
@@ -83,48 +253,55 @@ public interface ModelRepository<T extends Model<I>, I extends Serializable>
     long count(Iterable<QueryCriteria> criterias);
 
     /**
-     * Returns a unsorted list of distinct values of the requested field.
+     * Returns a sorted set of distinct values of the requested field.
      *
      * @param field Model field name.
-     * @return Sorted list of distinct values of {@code field}.
-     */
-    default Set<Object> distinct(String field) {
-        Sort sort = new Sort(Sort.Direction.ASC, field);
-        HashSet<Object> distinct = new HashSet<>();
-        for (T obj : findAll(sort)) {
-            BeanWrapper wrapper = new BeanWrapperImpl(obj);
-            if (!wrapper.isReadableProperty(field)) {
-                throw new QueryParameterException(
-                    String.format("Submitted parameter is not valid entity "
-                        + "field: %s", field));
-            }
-            distinct.add(wrapper.getPropertyValue(field));
-        }
-        return distinct;
-    }
-
-    /**
-     * Returns a unsorted list of distinct values of the requested field, filtered using a {@link
+     * @return Sorted set of distinct values of {@code field}.
+     * @throws com.blueprint.centromere.core.exceptions.QueryParameterException if {@code field} is
+     *   not a valid model property.
+     */
+    Set<Object> distinct(String field);
+
+    /**
+     * Returns a sorted set of distinct values of the requested field, filtered using a {@link
      * QueryCriteria} based query.
      *
      * @param field Model field name.
      * @param criterias Query criteria to filter the field values by.
-     * @return Sorted list of distinct values of {@code field}.
-     */
-    default Set<Object> distinct(String field, Iterable<QueryCriteria> criterias) {
-        HashSet<Object> distinct = new HashSet<>();
-        Sort sort = new Sort(Sort.Direction.ASC, field);
-        for (T obj : find(criterias, sort)) {
-            BeanWrapper wrapper = new BeanWrapperImpl(obj);
-            if (!wrapper.isReadableProperty(field)) {
-                throw new QueryParameterException(
-                    String.format("Submitted parameter is not valid entity "
-                        + "field: %s", field));
-            }
-            distinct.add(wrapper.getPropertyValue(field));
-        }
-        return distinct;
-    }
+     * @return Sorted set of distinct values of {@code field}.
+     * @throws com.blueprint.centromere.core.exceptions.QueryParameterException if {@code field} is
+     *   not a valid model property.
+     */
+    Set<Object> distinct(String field, Iterable<QueryCriteria> criterias);
+
+    /**
+     * Returns a single page of the sorted, distinct values of the requested field, filtered using
+     * a {@link QueryCriteria} based query.  Only the offset and page size of the {@link Pageable}
+     * are considered, values are always returned in their natural ascending order.  Intended for
+     * fields with too many distinct values to be returned in a single response.
+     *
+     * @param field Model field name.
+     * @param criterias Query criteria to filter the field values by.
+     * @param pageable {@link Pageable} describing the requested slice of values.
+     * @return Sorted set of distinct values of {@code field}.
+     * @throws com.blueprint.centromere.core.exceptions.QueryParameterException if {@code field} is
+     *   not a valid model property.
+     */
+    Set<Object> distinct(String field, Iterable<QueryCriteria> criterias, Pageable pageable);
+
+    /**
+     * Groups the records that satisfy the requested criteria by the value of a field, and returns
+     * a summary of each group, sorted by the grouped value.  If a value field is supplied, the
+     * minimum, maximum, sum, and average of its numeric values are calculated for each group.
+     *
+     * @param field Model field name to group records by.
+     * @param criterias Query criteria to filter the records by.
+     * @param valueField Model field name to summarize, or {@code null} to only count records.
+     * @return summaries of each group, sorted by the grouped value.
+     * @throws com.blueprint.centromere.core.exceptions.QueryParameterException if {@code field} or
+     *   {@code valueField} is not a valid model property.
+     */
+    List<GroupSummary> groupBy(String field, Iterable<QueryCriteria> criterias, String valueField);
 
     /* Create records */
 
@@ -162,4 +339,13 @@ public interface ModelRepository<T extends Model<I>, I extends Serializable>
      */
     <S extends T> Iterable<S> update(Iterable<S> entities);
 
+    /**
+     * Inserts new records, or replaces existing records with the same ID, and returns their
+     * updated representations.  Records without an ID are always inserted.
+     *
+     * @param entities collection of records to be persisted.
+     * @return updated instances of the entity objects.
+     */
+    <S extends T> Iterable<S> upsert(Iterable<S> entities);
+
 }
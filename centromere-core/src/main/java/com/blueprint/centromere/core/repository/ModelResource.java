@@ -27,7 +27,8 @@ import java.lang.annotation.Target;
  * resource. The {@link #value()} and {@link #name()} attributes can be used interchangibly, to name
  * the resource in API documentation and generate a URI for accessing the resource. By setting the
  * {@link #ignored()} value to {@code true}, the repository should not be exposed as a public REST
- * resource, but a repository bean should still be created.
+ * resource, but a repository bean should still be created.  Records and query results can be cached
+ * by enabling the {@link #cache()} options.
  *
  * @author woemler
  */
@@ -51,4 +52,9 @@ public @interface ModelResource {
      */
     boolean ignored() default false;
 
+    /**
+     * Caching options for the repository.  Caching is disabled by default.
+     */
+    ModelCache cache() default @ModelCache;
+
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.blueprint.centromere.core.repository;
+
+import com.blueprint.centromere.core.model.Model;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable map of registered {@link Model} classes to values, used by the model registries to
+ * route requests.  A lookup by type resolves the single registered model that is the same as, or
+ * a subclass of, the requested type.  Each resolution is computed once per requested type and
+ * memoized in a {@link ClassValue}, so repeated lookups take constant time, regardless of the
+ * number of registered models, and do not allocate.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+public final class ModelTypeMap<V> {
+
+    private final Map<Class<? extends Model<?>>, V> map;
+    private final ClassValue<Resolution<V>> resolutions = new ClassValue<Resolution<V>>() {
+        @Override
+        protected Resolution<V> computeValue(Class<?> type) {
+            return resolve(type);
+        }
+    };
+
+    public ModelTypeMap(Map<Class<? extends Model<?>>, V> map) {
+        this.map = Collections.unmodifiableMap(new LinkedHashMap<>(map));
+    }
+
+    /**
+     * Returns the value registered for the requested type, or for its only registered subclass.
+     *
+     * @param type model type
+     * @return the registered value, or {@code null} if none, or more than one, registered model
+     *   matches.
+     */
+    public V get(Class<?> type) {
+        return resolutions.get(type).value;
+    }
+
+    /**
+     * Returns the number of registered models that are the same as, or a subclass of, the
+     * requested type.
+     *
+     * @param type model type
+     * @return number of matching registered models.
+     */
+    public int count(Class<?> type) {
+        return resolutions.get(type).matches;
+    }
+
+    /**
+     * Tests whether the requested type, or any of its subclasses, is a registered model.
+     *
+     * @param type model type
+     * @return true if at least one registered model matches.
+     */
+    public boolean contains(Class<?> type) {
+        return count(type) > 0;
+    }
+
+    /**
+     * Returns the registered model classes.
+     */
+    public Set<Class<? extends Model<?>>> keySet() {
+        return map.keySet();
+    }
+
+    /**
+     * Returns the registered values.
+     */
+    public Collection<V> values() {
+        return map.values();
+    }
+
+    private Resolution<V> resolve(Class<?> type) {
+        int matches = 0;
+        V value = null;
+        for (Map.Entry<Class<? extends Model<?>>, V> entry : map.entrySet()) {
+            if (type.isAssignableFrom(entry.getKey())) {
+                matches++;
+                value = entry.getValue();
+            }
+        }
+        return new Resolution<>(matches, matches == 1 ? value : null);
+    }
+
+    private static final class Resolution<V> {
+
+        private final int matches;
+        private final V value;
+
+        Resolution(int matches, V value) {
+            this.matches = matches;
+            this.value = value;
+        }
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blueprint.centromere.core.repository;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Describes the subset of model fields to be fetched by a query, either as a set of fields to
+ * include, or a set of fields to exclude.  The record ID is always fetched.  Fields that are not
+ * fetched are left unset in the returned model objects.  Repository implementations may ignore
+ * projections and fetch complete records.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+public final class Projection {
+
+    private static final Projection ALL_FIELDS
+        = new Projection(Collections.emptySet(), Collections.emptySet());
+
+    private final Set<String> includedFields;
+    private final Set<String> excludedFields;
+
+    private Projection(Set<String> includedFields, Set<String> excludedFields) {
+        this.includedFields = includedFields;
+        this.excludedFields = excludedFields;
+    }
+
+    /**
+     * Returns a projection that fetches every field.
+     */
+    public static Projection all() {
+        return ALL_FIELDS;
+    }
+
+    /**
+     * Returns a projection that fetches only the requested fields, along with the record ID.
+     *
+     * @param fields names of the fields to fetch
+     * @return new projection
+     */
+    public static Projection include(Collection<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return ALL_FIELDS;
+        }
+        return new Projection(Collections.unmodifiableSet(new LinkedHashSet<>(fields)),
+            Collections.emptySet());
+    }
+
+    /**
+     * Returns a projection that fetches all fields except for those requested.  The record ID
+     * cannot be excluded.
+     *
+     * @param fields names of the fields to omit
+     * @return new projection
+     */
+    public static Projection exclude(Collection<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return ALL_FIELDS;
+        }
+        return new Projection(Collections.emptySet(),
+            Collections.unmodifiableSet(new LinkedHashSet<>(fields)));
+    }
+
+    public Set<String> getIncludedFields() {
+        return includedFields;
+    }
+
+    public Set<String> getExcludedFields() {
+        return excludedFields;
+    }
+
+    /**
+     * Returns true if every field is fetched.
+     */
+    public boolean isAllFields() {
+        return includedFields.isEmpty() && excludedFields.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "Projection{"
+            + "includedFields=" + includedFields
+            + ", excludedFields=" + excludedFields
+            + '}';
+    }
+
+}
@@ -16,10 +16,20 @@
 
 package com.blueprint.centromere.core.repository;
 
+import com.blueprint.centromere.core.exceptions.QueryParameterException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * Simple representation of a database query evaluation that can be passed to generic {@link
- * ModelRepository} implementations.
+ * ModelRepository} implementations.  Criteria may be combined into composite criteria with {@link
+ * #any(QueryCriteria...)}, {@link #all(QueryCriteria...)} and {@link #not(QueryCriteria...)},
+ * which have no key, and hold their nested criteria as their value.  Composite criteria allow
+ * alternative conditions on several fields to be evaluated by a single query.
  *
  * @author woemler
  */
@@ -54,6 +64,82 @@ public class QueryCriteria {
         this.evaluation = Evaluation.EQUALS;
     }
 
+    /**
+     * Creates a composite criteria that matches records satisfying at least one of the nested
+     * criteria.
+     *
+     * @param criterias nested criteria
+     * @return composite criteria
+     */
+    public static QueryCriteria any(QueryCriteria... criterias) {
+        return any(Arrays.asList(criterias));
+    }
+
+    public static QueryCriteria any(Collection<QueryCriteria> criterias) {
+        return composite(criterias, Evaluation.ANY);
+    }
+
+    /**
+     * Creates a composite criteria that matches records satisfying every one of the nested
+     * criteria.
+     *
+     * @param criterias nested criteria
+     * @return composite criteria
+     */
+    public static QueryCriteria all(QueryCriteria... criterias) {
+        return all(Arrays.asList(criterias));
+    }
+
+    public static QueryCriteria all(Collection<QueryCriteria> criterias) {
+        return composite(criterias, Evaluation.ALL);
+    }
+
+    /**
+     * Creates a composite criteria that matches records satisfying none of the nested criteria.
+     *
+     * @param criterias nested criteria
+     * @return composite criteria
+     */
+    public static QueryCriteria not(QueryCriteria... criterias) {
+        return not(Arrays.asList(criterias));
+    }
+
+    public static QueryCriteria not(Collection<QueryCriteria> criterias) {
+        return composite(criterias, Evaluation.NOT);
+    }
+
+    private static QueryCriteria composite(Collection<QueryCriteria> criterias,
+        Evaluation evaluation) {
+        List<QueryCriteria> nested = new ArrayList<>();
+        for (QueryCriteria criteria : criterias) {
+            if (criteria != null) {
+                nested.add(criteria);
+            }
+        }
+        if (nested.isEmpty()) {
+            throw new QueryParameterException(String.format(
+                "Composite %s criteria require at least one nested criteria.", evaluation));
+        }
+        return new QueryCriteria(null, Collections.unmodifiableList(nested), evaluation);
+    }
+
+    /**
+     * Returns true if this criteria combines nested criteria, rather than evaluating a field.
+     */
+    public boolean isComposite() {
+        return evaluation == Evaluation.ANY || evaluation == Evaluation.ALL
+            || evaluation == Evaluation.NOT;
+    }
+
+    /**
+     * Returns the nested criteria of a composite criteria, or an empty list for other criteria.
+     */
+    @SuppressWarnings("unchecked")
+    public List<QueryCriteria> getCriterias() {
+        return isComposite() && value instanceof List ? (List<QueryCriteria>) value
+            : Collections.emptyList();
+    }
+
     public String getKey() {
         return key;
     }
@@ -78,6 +164,25 @@ public class QueryCriteria {
         this.evaluation = evaluation;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof QueryCriteria)) {
+            return false;
+        }
+        QueryCriteria that = (QueryCriteria) o;
+        return Objects.equals(key, that.key)
+            && Objects.equals(value, that.value)
+            && evaluation == that.evaluation;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(key, value, evaluation);
+    }
+
     @Override
     public String toString() {
         return "QueryCriteria{"
@@ -0,0 +1,350 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blueprint.centromere.core.repository;
+
+import com.blueprint.centromere.core.exceptions.QueryParameterException;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Evaluates {@link QueryCriteria} against model objects in memory, for {@link ModelRepository}
+ * implementations and components that cannot delegate filtering to a database.  Evaluation
+ * semantics follow those of the MongoDB implementation: criteria on collection-valued fields match
+ * if any element satisfies them, nested property paths may traverse {@link Map} keys, and numeric
+ * values are compared by value, regardless of their boxed type.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+public final class QueryCriteriaMatcher {
+
+    private QueryCriteriaMatcher() {
+    }
+
+    /**
+     * Compiles a collection of {@link QueryCriteria} into a single {@link Predicate}, which is
+     * satisfied when every criteria matches.  Regular expressions and value lists are prepared once,
+     * so the returned predicate can be efficiently applied to many objects.
+     *
+     * @param queryCriterias criteria to compile
+     * @return predicate testing model objects
+     */
+    public static Predicate<Object> compile(Iterable<QueryCriteria> queryCriterias) {
+        Predicate<Object> predicate = object -> true;
+        for (QueryCriteria queryCriteria : queryCriterias) {
+            if (queryCriteria != null) {
+                predicate = predicate.and(compile(queryCriteria));
+            }
+        }
+        return predicate;
+    }
+
+    /**
+     * Compiles a single {@link QueryCriteria} into a {@link Predicate}.
+     *
+     * @param queryCriteria criteria to compile
+     * @return predicate testing model objects
+     */
+    public static Predicate<Object> compile(QueryCriteria queryCriteria) {
+        if (queryCriteria.isComposite()) {
+            return compileComposite(queryCriteria);
+        }
+        String key = queryCriteria.getKey();
+        Predicate<Object> valuePredicate = compileValuePredicate(queryCriteria);
+        return object -> valuePredicate.test(getPropertyValue(object, key));
+    }
+
+    /**
+     * Tests whether an object satisfies all of the supplied criteria.
+     *
+     * @param object object to test
+     * @param queryCriterias criteria to apply
+     * @return true if all criteria are satisfied
+     */
+    public static boolean matches(Object object, Iterable<QueryCriteria> queryCriterias) {
+        return compile(queryCriterias).test(object);
+    }
+
+    /**
+     * Resolves a property value from an object using a dot-separated property path.  Path
+     * segments are resolved as {@link Map} keys when the current value is a map, and are applied to
+     * each element when the current value is a collection.  Unknown properties resolve to
+     * {@code null}.
+     *
+     * @param object object to inspect
+     * @param path property path, eg. {@code attributes.isKinase}
+     * @return the property value, or {@code null}
+     */
+    public static Object getPropertyValue(Object object, String path) {
+        Object current = object;
+        int start = 0;
+        while (current != null && start <= path.length()) {
+            int end = path.indexOf('.', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            current = getSegmentValue(current, path.substring(start, end));
+            start = end + 1;
+        }
+        return current;
+    }
+
+    /**
+     * Compares two property values, using the same ordering for all {@link ModelRepository}
+     * implementations that sort in memory. {@code null} values sort first, numbers are compared
+     * by value, other values of the same type by their natural order, and values of incomparable
+     * types by type name.
+     *
+     * @param left first value
+     * @param right second value
+     * @return comparison result
+     */
+    @SuppressWarnings("unchecked")
+    public static int compareValues(Object left, Object right) {
+        if (left == right) {
+            return 0;
+        } else if (left == null) {
+            return -1;
+        } else if (right == null) {
+            return 1;
+        } else if (left instanceof Number && right instanceof Number) {
+            return compareNumbers((Number) left, (Number) right);
+        } else if (isComparable(left, right)) {
+            return ((Comparable<Object>) left).compareTo(right);
+        } else {
+            return left.getClass().getName().compareTo(right.getClass().getName());
+        }
+    }
+
+    /**
+     * Tests whether two values are equal, treating numbers of different types as equal when they
+     * have the same value.
+     *
+     * @param left first value
+     * @param right second value
+     * @return true if equal
+     */
+    public static boolean valuesEqual(Object left, Object right) {
+        if (left instanceof Number && right instanceof Number) {
+            return compareNumbers((Number) left, (Number) right) == 0;
+        }
+        return Objects.equals(left, right);
+    }
+
+    /**
+     * Compiles the nested criteria of a composite criteria, and combines them according to its
+     * evaluation.
+     */
+    private static Predicate<Object> compileComposite(QueryCriteria queryCriteria) {
+        List<Predicate<Object>> predicates = new ArrayList<>();
+        for (QueryCriteria nested : queryCriteria.getCriterias()) {
+            predicates.add(compile(nested));
+        }
+        switch (queryCriteria.getEvaluation()) {
+            case ANY:
+                return object -> predicates.stream().anyMatch(p -> p.test(object));
+            case NOT:
+                return object -> predicates.stream().noneMatch(p -> p.test(object));
+            case ALL:
+            default:
+                return object -> predicates.stream().allMatch(p -> p.test(object));
+        }
+    }
+
+    private static Predicate<Object> compileValuePredicate(QueryCriteria queryCriteria) {
+        Object value = queryCriteria.getValue();
+        switch (queryCriteria.getEvaluation()) {
+            case NOT_EQUALS:
+                return anyElement(v -> valuesEqual(v, value)).negate();
+            case IN:
+                return anyElement(in(toCollection(value)));
+            case NOT_IN:
+                return anyElement(in(toCollection(value))).negate();
+            case IS_NULL:
+                return Objects::isNull;
+            case NOT_NULL:
+                return Objects::nonNull;
+            case IS_TRUE:
+                return anyElement(Boolean.TRUE::equals);
+            case IS_FALSE:
+                return anyElement(Boolean.FALSE::equals);
+            case GREATER_THAN:
+                return anyElement(v -> isOrdered(v, value) && compareValues(v, value) > 0);
+            case GREATER_THAN_EQUALS:
+                return anyElement(v -> isOrdered(v, value) && compareValues(v, value) >= 0);
+            case LESS_THAN:
+                return anyElement(v -> isOrdered(v, value) && compareValues(v, value) < 0);
+            case LESS_THAN_EQUALS:
+                return anyElement(v -> isOrdered(v, value) && compareValues(v, value) <= 0);
+            case BETWEEN:
+                return compileRange(value, Evaluation.GREATER_THAN, Evaluation.LESS_THAN, true);
+            case BETWEEN_INCLUSIVE:
+                return compileRange(value, Evaluation.GREATER_THAN_EQUALS,
+                    Evaluation.LESS_THAN_EQUALS, true);
+            case OUTSIDE:
+                return compileRange(value, Evaluation.LESS_THAN, Evaluation.GREATER_THAN, false);
+            case OUTSIDE_INCLUSIVE:
+                return compileRange(value, Evaluation.LESS_THAN_EQUALS,
+                    Evaluation.GREATER_THAN_EQUALS, false);
+            case LIKE:
+                return anyElement(like((String) value));
+            case NOT_LIKE:
+                return anyElement(like((String) value)).negate();
+            case STARTS_WITH:
+                return anyElement(v -> v instanceof String && ((String) v)
+                    .startsWith(String.valueOf(value)));
+            case ENDS_WITH:
+                return anyElement(v -> v instanceof String && ((String) v)
+                    .endsWith(String.valueOf(value)));
+            case EQUALS_IGNORE_CASE:
+                return anyElement(v -> v instanceof String && ((String) v)
+                    .equalsIgnoreCase(String.valueOf(value)));
+            case STARTS_WITH_IGNORE_CASE:
+                return anyElement(v -> v instanceof String && ((String) v)
+                    .regionMatches(true, 0, String.valueOf(value), 0,
+                        String.valueOf(value).length()));
+            case EQUALS:
+            default:
+                return anyElement(v -> valuesEqual(v, value));
+        }
+    }
+
+    /**
+     * Builds a range predicate from a two-element list of bounds, as two independent criteria,
+     * either both of which must match ({@code and}), or either of which may match.
+     */
+    private static Predicate<Object> compileRange(Object value, Evaluation lower, Evaluation upper,
+        boolean and) {
+        if (!(value instanceof List) || ((List<?>) value).size() != 2) {
+            throw new QueryParameterException(
+                String.format("Range evaluations require a list of two values: %s", value));
+        }
+        List<?> bounds = (List<?>) value;
+        Predicate<Object> first = compileValuePredicate(
+            new QueryCriteria(null, bounds.get(0), lower));
+        Predicate<Object> second = compileValuePredicate(
+            new QueryCriteria(null, bounds.get(1), upper));
+        return and ? first.and(second) : first.or(second);
+    }
+
+    private static Predicate<Object> like(String regex) {
+        Pattern pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
+        return v -> v instanceof String && pattern.matcher((String) v).find();
+    }
+
+    private static Predicate<Object> in(Collection<?> values) {
+        return v -> {
+            for (Object value : values) {
+                if (valuesEqual(v, value)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    /**
+     * Wraps a predicate so that it is applied to each element of a collection-valued property,
+     * and is satisfied if any element matches.
+     */
+    private static Predicate<Object> anyElement(Predicate<Object> predicate) {
+        return v -> {
+            if (v instanceof Collection) {
+                for (Object element : (Collection<?>) v) {
+                    if (predicate.test(element)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            return predicate.test(v);
+        };
+    }
+
+    private static Collection<?> toCollection(Object value) {
+        if (value instanceof Collection) {
+            return (Collection<?>) value;
+        } else if (value instanceof Object[]) {
+            List<Object> values = new ArrayList<>();
+            for (Object object : (Object[]) value) {
+                values.add(object);
+            }
+            return values;
+        }
+        List<Object> values = new ArrayList<>();
+        values.add(value);
+        return values;
+    }
+
+    private static boolean isOrdered(Object left, Object right) {
+        if (left == null || right == null) {
+            return false;
+        }
+        return left instanceof Number && right instanceof Number || isComparable(left, right);
+    }
+
+    private static boolean isComparable(Object left, Object right) {
+        return left instanceof Comparable && left.getClass().isInstance(right);
+    }
+
+    private static int compareNumbers(Number left, Number right) {
+        if (isIntegral(left) && isIntegral(right)) {
+            return Long.compare(left.longValue(), right.longValue());
+        }
+        return Double.compare(left.doubleValue(), right.doubleValue());
+    }
+
+    private static boolean isIntegral(Number number) {
+        return number instanceof Long || number instanceof Integer || number instanceof Short
+            || number instanceof Byte;
+    }
+
+    private static Object getSegmentValue(Object current, String segment) {
+        if (current instanceof Map) {
+            return ((Map<?, ?>) current).get(segment);
+        } else if (current instanceof Collection) {
+            List<Object> values = new ArrayList<>();
+            for (Object element : (Collection<?>) current) {
+                Object value = element != null ? getSegmentValue(element, segment) : null;
+                if (value instanceof Collection) {
+                    values.addAll((Collection<?>) value);
+                } else if (value != null) {
+                    values.add(value);
+                }
+            }
+            return values.isEmpty() ? null : values;
+        }
+        PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(current.getClass(),
+            segment);
+        if (descriptor == null || descriptor.getReadMethod() == null) {
+            return null;
+        }
+        Method method = descriptor.getReadMethod();
+        ReflectionUtils.makeAccessible(method);
+        return ReflectionUtils.invokeMethod(method, current);
+    }
+
+}
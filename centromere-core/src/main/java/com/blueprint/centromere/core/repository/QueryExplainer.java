@@ -0,0 +1,57 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.blueprint.centromere.core.repository;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * Describes how a database would execute a {@link QueryCriteria} based query, without executing
+ * it.  Used to annotate slow query log entries with the chosen query plan.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+public interface QueryExplainer {
+
+    /**
+     * Returns a short, human-readable summary of the plan chosen for a query, such as the
+     * sequence of plan stages and the indexes they use.
+     *
+     * @param model queried model class
+     * @param criterias query criteria
+     * @return query plan summary
+     */
+    String explain(Class<?> model, Iterable<QueryCriteria> criterias);
+
+    /**
+     * Returns a summary of the plan chosen for a sorted query, as in {@link #explain(Class,
+     * Iterable)}, optionally forced to use a named index.  By default, the sort and hint are
+     * ignored.
+     *
+     * @param model queried model class
+     * @param criterias query criteria
+     * @param sort query sort
+     * @param hint name of the index the query must use, or {@code null}
+     * @return query plan summary
+     */
+    default String explain(Class<?> model, Iterable<QueryCriteria> criterias, Sort sort,
+        String hint) {
+        return explain(model, criterias);
+    }
+
+}
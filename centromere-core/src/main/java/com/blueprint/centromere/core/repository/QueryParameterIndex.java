@@ -0,0 +1,248 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blueprint.centromere.core.repository;
+
+import com.blueprint.centromere.core.model.Model;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Immutable lookup table of the query parameters available for a {@link Model} class, used to
+ * resolve submitted request parameter names to their {@link QueryParameterDescriptor} and {@link
+ * Evaluation}.  Every valid combination of parameter name and {@link Evaluation} suffix is
+ * expanded when the index is built, so resolving a parameter is a single hash lookup.  Regex
+ * parameters for {@link Map} fields (eg. {@code attributes.\w+}) are indexed by their literal
+ * prefix.  Indexes for model classes are built once and cached, see {@link #forModel(Class)}.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+public final class QueryParameterIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueryParameterIndex.class);
+
+    private static final String MAP_FIELD_PATTERN_SUFFIX = ".\\w+";
+
+    private static final ClassValue<QueryParameterIndex> MODEL_INDEXES
+        = new ClassValue<QueryParameterIndex>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            protected QueryParameterIndex computeValue(Class<?> type) {
+                LOGGER.debug(String.format("Building query parameter index for model: %s",
+                    type.getName()));
+                return new QueryParameterIndex(QueryParameterUtil
+                    .getAvailableQueryParameters((Class<? extends Model<?>>) type).values());
+            }
+        };
+
+    private final Map<String, Binding> bindings;
+    private final Map<String, QueryParameterDescriptor> prefixes;
+    private final List<PatternBinding> patterns;
+
+    /**
+     * Builds a new index from a collection of parameter descriptors.  Where a parameter name with
+     * an evaluation suffix collides with the exact name of another parameter, the exact name takes
+     * precedence.
+     *
+     * @param descriptors parameter descriptors to index.
+     */
+    public QueryParameterIndex(Collection<QueryParameterDescriptor> descriptors) {
+
+        Map<String, Binding> exact = new HashMap<>();
+        Map<String, Binding> suffixed = new HashMap<>();
+        Map<String, QueryParameterDescriptor> prefixes = new HashMap<>();
+        List<PatternBinding> patterns = new ArrayList<>();
+
+        for (QueryParameterDescriptor descriptor : descriptors) {
+            String paramName = descriptor.getParamName();
+            if (descriptor.isRegexMatch()) {
+                if (isMapFieldPattern(paramName)) {
+                    prefixes.put(paramName.substring(0,
+                        paramName.length() - MAP_FIELD_PATTERN_SUFFIX.length()), descriptor);
+                } else {
+                    patterns.add(new PatternBinding(Pattern.compile(paramName), descriptor));
+                }
+                continue;
+            }
+            exact.put(paramName, new Binding(descriptor, descriptor.getEvaluation(),
+                descriptor.getQueryableFieldName(paramName)));
+            if (descriptor.isDynaimicParameters()) {
+                for (String suffix : Evaluation.SUFFIX_STRINGS) {
+                    suffixed.put(paramName + suffix, new Binding(descriptor,
+                        Evaluation.fromSuffix(suffix), descriptor.getQueryableFieldName(paramName)));
+                }
+            }
+        }
+
+        suffixed.putAll(exact);
+        this.bindings = Collections.unmodifiableMap(suffixed);
+        this.prefixes = Collections.unmodifiableMap(prefixes);
+        this.patterns = Collections.unmodifiableList(patterns);
+
+    }
+
+    /**
+     * Returns the cached index of query parameters for the requested model, building it on first
+     * use.
+     *
+     * @param model model class to index.
+     * @return the model's parameter index.
+     */
+    public static QueryParameterIndex forModel(Class<? extends Model<?>> model) {
+        return MODEL_INDEXES.get(model);
+    }
+
+    /**
+     * Resolves a submitted parameter name to its descriptor, evaluation and queryable field name.
+     *
+     * @param parameterName submitted parameter name.
+     * @return the matching {@link Binding}, or {@code null} if the parameter is not valid for the
+     *   indexed model.
+     */
+    public Binding resolve(String parameterName) {
+
+        Binding binding = bindings.get(parameterName);
+        if (binding != null) {
+            return binding;
+        }
+
+        int index = parameterName.indexOf('.');
+        if (index > 0 && !prefixes.isEmpty()) {
+            QueryParameterDescriptor descriptor = prefixes.get(parameterName.substring(0, index));
+            if (descriptor != null && isWordString(parameterName, index + 1)) {
+                return new Binding(descriptor, descriptor.getEvaluation(), parameterName);
+            }
+        }
+
+        for (PatternBinding pattern : patterns) {
+            if (pattern.pattern.matcher(parameterName).matches()) {
+                return new Binding(pattern.descriptor, pattern.descriptor.getEvaluation(),
+                    parameterName);
+            }
+        }
+
+        return null;
+
+    }
+
+    /**
+     * Tests whether a regex parameter name has the form produced for {@link Map} fields by {@link
+     * QueryParameterUtil#getAvailableQueryParameters(Class)}, a literal field name followed by
+     * {@code .\w+}.
+     */
+    private static boolean isMapFieldPattern(String paramName) {
+        if (!paramName.endsWith(MAP_FIELD_PATTERN_SUFFIX)
+            || paramName.length() == MAP_FIELD_PATTERN_SUFFIX.length()) {
+            return false;
+        }
+        return isWordString(paramName, 0, paramName.length() - MAP_FIELD_PATTERN_SUFFIX.length());
+    }
+
+    /**
+     * Tests whether the remainder of a string, starting at {@code start}, is non-empty and only
+     * contains characters matching the regex {@code \w} character class.
+     */
+    private static boolean isWordString(String s, int start) {
+        return isWordString(s, start, s.length());
+    }
+
+    private static boolean isWordString(String s, int start, int end) {
+        if (start >= end) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (!isWordCharacter(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isWordCharacter(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return true;
+        } else if (c >= 'A' && c <= 'Z') {
+            return true;
+        } else if (c >= '0' && c <= '9') {
+            return true;
+        }
+        return c == '_';
+    }
+
+    /**
+     * The result of resolving a request parameter name against a {@link QueryParameterIndex}.
+     */
+    public static final class Binding {
+
+        private final QueryParameterDescriptor descriptor;
+        private final Evaluation evaluation;
+        private final String fieldName;
+
+        Binding(QueryParameterDescriptor descriptor, Evaluation evaluation, String fieldName) {
+            this.descriptor = descriptor;
+            this.evaluation = evaluation;
+            this.fieldName = fieldName;
+        }
+
+        public QueryParameterDescriptor getDescriptor() {
+            return descriptor;
+        }
+
+        public Evaluation getEvaluation() {
+            return evaluation;
+        }
+
+        /**
+         * Returns the name of the field to be queried in the database layer.
+         */
+        public String getFieldName() {
+            return fieldName;
+        }
+
+        public Class<?> getType() {
+            return descriptor.getType();
+        }
+
+        @Override
+        public String toString() {
+            return "Binding{"
+                + "fieldName='" + fieldName + '\''
+                + ", evaluation=" + evaluation
+                + ", descriptor=" + descriptor
+                + '}';
+        }
+    }
+
+    private static final class PatternBinding {
+
+        private final Pattern pattern;
+        private final QueryParameterDescriptor descriptor;
+
+        PatternBinding(Pattern pattern, QueryParameterDescriptor descriptor) {
+            this.pattern = pattern;
+            this.descriptor = descriptor;
+        }
+    }
+
+}
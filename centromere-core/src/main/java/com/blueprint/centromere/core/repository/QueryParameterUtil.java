@@ -21,12 +21,13 @@ import com.blueprint.centromere.core.model.Ignored;
 import com.blueprint.centromere.core.model.Model;
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.convert.ConversionFailedException;
@@ -42,6 +43,32 @@ public final class QueryParameterUtil {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(QueryParameterUtil.class);
 
+    private static final ConversionService CONVERSION_SERVICE
+        = DefaultConversionService.getSharedInstance();
+
+    private static final Map<Class<?>, Function<String, Object>> PARSERS;
+
+    static {
+        Map<Class<?>, Function<String, Object>> parsers = new HashMap<>();
+        parsers.put(Integer.class, Integer::valueOf);
+        parsers.put(int.class, Integer::valueOf);
+        parsers.put(Long.class, Long::valueOf);
+        parsers.put(long.class, Long::valueOf);
+        parsers.put(Double.class, Double::valueOf);
+        parsers.put(double.class, Double::valueOf);
+        parsers.put(Boolean.class, QueryParameterUtil::parseBoolean);
+        parsers.put(boolean.class, QueryParameterUtil::parseBoolean);
+        PARSERS = Collections.unmodifiableMap(parsers);
+    }
+
+    private static final ClassValue<ParameterConverter> PARAMETER_CONVERTERS
+        = new ClassValue<ParameterConverter>() {
+            @Override
+            protected ParameterConverter computeValue(Class<?> type) {
+                return new ParameterConverter(type, PARSERS.get(type));
+            }
+        };
+
     private QueryParameterUtil() {
     }
 
@@ -206,6 +233,12 @@ public final class QueryParameterUtil {
             case ENDS_WITH:
                 return new QueryCriteria(param, convertParameter(values[0], type),
                     Evaluation.ENDS_WITH);
+            case EQUALS_IGNORE_CASE:
+                return new QueryCriteria(param, convertParameter(values[0], type),
+                    Evaluation.EQUALS_IGNORE_CASE);
+            case STARTS_WITH_IGNORE_CASE:
+                return new QueryCriteria(param, convertParameter(values[0], type),
+                    Evaluation.STARTS_WITH_IGNORE_CASE);
             default:
                 return null;
         }
@@ -230,6 +263,8 @@ public final class QueryParameterUtil {
                 Evaluation.NOT_LIKE,
                 Evaluation.STARTS_WITH,
                 Evaluation.ENDS_WITH,
+                Evaluation.EQUALS_IGNORE_CASE,
+                Evaluation.STARTS_WITH_IGNORE_CASE,
                 Evaluation.IS_NULL,
                 Evaluation.NOT_NULL
             ).contains(evaluation);
@@ -279,43 +314,101 @@ public final class QueryParameterUtil {
      * @param param param name
      * @param type object type
      */
-    private static Object convertParameter(Object param, Class<?> type,
-        ConversionService conversionService) {
-        if (conversionService.canConvert(param.getClass(), type)) {
-            try {
-                return conversionService.convert(param, type);
-            } catch (ConversionFailedException e) {
-                e.printStackTrace();
-                throw new QueryParameterException(
-                    String.format("Unable to convert parameter string to %s",
-                        type.getName()));
-            }
-        } else {
-            return param;
-        }
-    }
-
-    /**
-     * See {@link QueryParameterUtil#convertParameter(Object, Class, ConversionService)}.
-     */
     private static Object convertParameter(Object param, Class<?> type) {
-        ConversionService conversionService = new DefaultConversionService();
-        return convertParameter(param, type, conversionService);
+        return getParameterConverter(type).convert(param);
     }
 
     /**
      * Converts an array of objects into the appropriate type defined by the model field being
-     * queried.
+     * queried.  The converted values are returned as a fixed-size list backed by a single array.
      *
      * @param params parameter names
      * @param type object types
      */
     private static List<Object> convertParameterArray(Object[] params, Class<?> type) {
-        List<Object> objects = new ArrayList<>();
-        for (Object param : params) {
-            objects.add(convertParameter(param, type));
+        ParameterConverter converter = getParameterConverter(type);
+        Object[] converted = new Object[params.length];
+        for (int i = 0; i < params.length; i++) {
+            converted[i] = converter.convert(params[i]);
         }
-        return objects;
+        return Arrays.asList(converted);
+    }
+
+    /**
+     * Returns the cached {@link ParameterConverter} for the requested target type.
+     *
+     * @param type target type
+     */
+    private static ParameterConverter getParameterConverter(Class<?> type) {
+        return PARAMETER_CONVERTERS.get(type);
+    }
+
+    /**
+     * Parses boolean strings using the same values accepted by Spring's default string-to-boolean
+     * conversion.
+     */
+    private static Boolean parseBoolean(String value) {
+        switch (value.toLowerCase()) {
+            case "true":
+            case "on":
+            case "yes":
+            case "1":
+                return Boolean.TRUE;
+            case "false":
+            case "off":
+            case "no":
+            case "0":
+                return Boolean.FALSE;
+            default:
+                throw new IllegalArgumentException(
+                    String.format("Invalid boolean value: %s", value));
+        }
+    }
+
+    /**
+     * Converts request parameter values to a single target type.  Common types have a parsing fast
+     * path, and all other values are converted using the shared {@link ConversionService}.
+     */
+    private static final class ParameterConverter {
+
+        private final Class<?> type;
+        private final Function<String, Object> parser;
+
+        ParameterConverter(Class<?> type, Function<String, Object> parser) {
+            this.type = type;
+            this.parser = parser;
+        }
+
+        Object convert(Object param) {
+            if (type.isInstance(param)) {
+                return param;
+            }
+            if (parser != null && param instanceof String) {
+                String value = ((String) param).trim();
+                if (!value.isEmpty()) {
+                    try {
+                        return parser.apply(value);
+                    } catch (IllegalArgumentException e) {
+                        LOGGER.debug(String.format("Unable to parse parameter '%s' as %s, "
+                            + "falling back to conversion service", value, type.getName()));
+                    }
+                }
+            }
+            if (CONVERSION_SERVICE.canConvert(param.getClass(), type)) {
+                try {
+                    return CONVERSION_SERVICE.convert(param, type);
+                } catch (ConversionFailedException e) {
+                    LOGGER.warn(String.format("Unable to convert parameter '%s' to %s: %s",
+                        param, type.getName(), e.getMessage()));
+                    throw new QueryParameterException(
+                        String.format("Unable to convert parameter string to %s",
+                            type.getName()));
+                }
+            } else {
+                return param;
+            }
+        }
+
     }
 
 }
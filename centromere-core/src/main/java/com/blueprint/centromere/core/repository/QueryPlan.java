@@ -0,0 +1,125 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blueprint.centromere.core.repository;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import java.util.List;
+
+/**
+ * Description of how a {@link ModelRepository} executes a query, as returned by {@link
+ * ModelRepository#explain(Iterable, Sort, String)}.  Includes a summary of the chosen plan, the
+ * indexes it uses, and the work performed to answer the query.  Statistics that an implementation
+ * cannot report are {@code null}.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+@JsonInclude(Include.NON_NULL)
+public class QueryPlan {
+
+    private final String model;
+    private final String plan;
+    private final List<String> indexes;
+    private final boolean collectionScan;
+    private final Long documentsExamined;
+    private final Long keysExamined;
+    private final Long returned;
+    private final Long executionTimeMillis;
+    private final String hint;
+
+    public QueryPlan(String model, String plan, List<String> indexes, boolean collectionScan,
+        Long documentsExamined, Long keysExamined, Long returned, Long executionTimeMillis,
+        String hint) {
+        this.model = model;
+        this.plan = plan;
+        this.indexes = indexes;
+        this.collectionScan = collectionScan;
+        this.documentsExamined = documentsExamined;
+        this.keysExamined = keysExamined;
+        this.returned = returned;
+        this.executionTimeMillis = executionTimeMillis;
+        this.hint = hint;
+    }
+
+    /**
+     * Returns the name of the queried model class.
+     */
+    public String getModel() {
+        return model;
+    }
+
+    /**
+     * Returns the chosen plan, as its chain of stages, eg. {@code FETCH > IXSCAN[symbol_1]}.
+     */
+    public String getPlan() {
+        return plan;
+    }
+
+    /**
+     * Returns the names of the indexes used by the plan.
+     */
+    public List<String> getIndexes() {
+        return indexes;
+    }
+
+    /**
+     * Returns true if the plan reads every record of the model.
+     */
+    public boolean isCollectionScan() {
+        return collectionScan;
+    }
+
+    public Long getDocumentsExamined() {
+        return documentsExamined;
+    }
+
+    public Long getKeysExamined() {
+        return keysExamined;
+    }
+
+    public Long getReturned() {
+        return returned;
+    }
+
+    public Long getExecutionTimeMillis() {
+        return executionTimeMillis;
+    }
+
+    /**
+     * Returns the index hint the plan was forced to use, if any.
+     */
+    public String getHint() {
+        return hint;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryPlan{"
+            + "model='" + model + '\''
+            + ", plan='" + plan + '\''
+            + ", indexes=" + indexes
+            + ", collectionScan=" + collectionScan
+            + ", documentsExamined=" + documentsExamined
+            + ", keysExamined=" + keysExamined
+            + ", returned=" + returned
+            + ", executionTimeMillis=" + executionTimeMillis
+            + ", hint='" + hint + '\''
+            + '}';
+    }
+
+}
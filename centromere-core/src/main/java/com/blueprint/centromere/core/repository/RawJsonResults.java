@@ -0,0 +1,51 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.blueprint.centromere.core.repository;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.function.Predicate;
+
+/**
+ * Query results held in the serialized form returned by the database, as returned by {@link
+ * ModelRepository#findRawJson}.  The records can be written out as JSON directly, without first
+ * being converted into model instances.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+public interface RawJsonResults {
+
+    /**
+     * Returns the number of records in the results.
+     */
+    int size();
+
+    /**
+     * Writes the records as a JSON array of objects, one per record.  Object fields are named
+     * after the model properties they map to, and only the top-level properties accepted by the
+     * filter are written.  Fields without a value in the database are omitted, rather than written
+     * as {@code null}.
+     *
+     * @param writer target of the JSON output.
+     * @param propertyFilter test of which model properties to include.
+     * @throws IOException if the output cannot be written.
+     */
+    void write(Writer writer, Predicate<String> propertyFilter) throws IOException;
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blueprint.centromere.core.repository;
+
+import com.blueprint.centromere.core.model.Model;
+import com.blueprint.centromere.core.model.ModelSupport;
+import java.io.Serializable;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.reactive.ReactiveSortingRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link ModelRepository}, as an extension of Spring Data's {@link
+ * ReactiveSortingRepository} interface.  Query methods return {@link Flux} and {@link Mono}
+ * publishers, which emit records as they are read from the database, rather than blocking the
+ * calling thread until the full result has been fetched.  Nothing is executed until a publisher
+ * is subscribed to.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+@NoRepositoryBean
+public interface ReactiveModelRepository<T extends Model<I>, I extends Serializable>
+    extends ReactiveSortingRepository<T, I>, ModelSupport<T> {
+
+    /**
+     * Searches for all records that satisfy the requested criteria.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @return all matching {@code T} records.
+     */
+    Flux<T> find(Iterable<QueryCriteria> queryCriterias);
+
+    /**
+     * Searches for all records that satisfy the requested criteria, and returns them in the
+     * requested order.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @param sort {@link Sort}
+     * @return all matching {@code T} records.
+     */
+    Flux<T> find(Iterable<QueryCriteria> queryCriterias, Sort sort);
+
+    /**
+     * Searches for all records that satisfy the requested criteria, and returns those in the
+     * requested page.  The total number of matching records is not counted, use {@link
+     * #count(Iterable)} if it is required.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @param pageable {@link Pageable}
+     * @return matching {@code T} records in the requested page.
+     */
+    Flux<T> find(Iterable<QueryCriteria> queryCriterias, Pageable pageable);
+
+    /**
+     * Returns a count of all records that satify the requested criteria.
+     *
+     * @param criterias {@link QueryCriteria}
+     * @return a count of {@code T} records.
+     */
+    Mono<Long> count(Iterable<QueryCriteria> criterias);
+
+    /**
+     * Returns the distinct values of the requested field, in their natural ascending order.
+     *
+     * @param field Model field name.
+     * @return distinct values of {@code field}.
+     * @throws com.blueprint.centromere.core.exceptions.QueryParameterException if {@code field} is
+     *   not a valid model property.
+     */
+    Flux<Object> distinct(String field);
+
+    /**
+     * Returns the distinct values of the requested field, in their natural ascending order,
+     * filtered using a {@link QueryCriteria} based query.
+     *
+     * @param field Model field name.
+     * @param criterias Query criteria to filter the field values by.
+     * @return distinct values of {@code field}.
+     * @throws com.blueprint.centromere.core.exceptions.QueryParameterException if {@code field} is
+     *   not a valid model property.
+     */
+    Flux<Object> distinct(String field, Iterable<QueryCriteria> criterias);
+
+    /* Create records */
+
+    /**
+     * Creates a new record in the repository and emits the updated model object.
+     *
+     * @param entity instance of {@code T} to be persisted.
+     * @return updated instance of the entity.
+     */
+    <S extends T> Mono<S> insert(S entity);
+
+    /**
+     * Creates multiple new records and emits their updated representations.
+     *
+     * @param entities collection of records to be persisted.
+     * @return updated instances of the entity objects.
+     */
+    <S extends T> Flux<S> insert(Iterable<S> entities);
+
+    /* Update records */
+
+    /**
+     * Updates an existing record in the repository and emits its instance.
+     *
+     * @param entity updated record to be persisted in the repository.
+     * @return the updated entity object.
+     */
+    <S extends T> Mono<S> update(S entity);
+
+    /**
+     * Updates multiple records and emits their instances.
+     *
+     * @param entities collection of records to update.
+     * @return updated instances of the entity objects.
+     */
+    <S extends T> Flux<S> update(Iterable<S> entities);
+
+}
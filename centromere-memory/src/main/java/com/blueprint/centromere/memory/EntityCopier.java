@@ -0,0 +1,145 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blueprint.centromere.memory;
+
+import com.blueprint.centromere.core.repository.Projection;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Copies model objects field-by-field, so that records held by {@link MemoryModelRepository} are
+ * never shared with callers.  Collections, maps and dates are copied, while other field values,
+ * including collection elements, are shared.  Model classes must have a no-argument constructor.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+final class EntityCopier {
+
+    private static final ClassValue<List<Field>> FIELDS = new ClassValue<List<Field>>() {
+        @Override
+        protected List<Field> computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            Class<?> current = type;
+            while (current != null && current != Object.class) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers())) {
+                        ReflectionUtils.makeAccessible(field);
+                        fields.add(field);
+                    }
+                }
+                current = current.getSuperclass();
+            }
+            return Collections.unmodifiableList(fields);
+        }
+    };
+
+    private EntityCopier() {
+    }
+
+    /**
+     * Creates a copy of the submitted object, of the same type.
+     *
+     * @param source object to copy
+     * @param <S> object type
+     * @return new instance, with copied field values
+     */
+    @SuppressWarnings("unchecked")
+    static <S> S copy(S source) {
+        S target = (S) BeanUtils.instantiateClass(source.getClass());
+        for (Field field : FIELDS.get(source.getClass())) {
+            Object value = ReflectionUtils.getField(field, source);
+            Object copy = copyValue(value);
+            ReflectionUtils.setField(field, target,
+                copy == null || field.getType().isInstance(copy) ? copy : value);
+        }
+        return target;
+    }
+
+    /**
+     * Creates a copy of the submitted object, of the same type, in which only the fields selected
+     * by the projection are copied.  All other fields keep the values assigned by the no-argument
+     * constructor.  Fields are selected by their top-level name, so a field is copied in full if
+     * the projection includes any of its nested properties, and is only omitted if the field
+     * itself is excluded.
+     *
+     * @param source object to copy
+     * @param projection {@link Projection} describing the fields to copy
+     * @param <S> object type
+     * @return new instance, with copied field values
+     */
+    @SuppressWarnings("unchecked")
+    static <S> S copy(S source, Projection projection) {
+        S target = (S) BeanUtils.instantiateClass(source.getClass());
+        for (Field field : FIELDS.get(source.getClass())) {
+            if (!isSelected(field.getName(), projection)) {
+                continue;
+            }
+            Object value = ReflectionUtils.getField(field, source);
+            Object copy = copyValue(value);
+            ReflectionUtils.setField(field, target,
+                copy == null || field.getType().isInstance(copy) ? copy : value);
+        }
+        return target;
+    }
+
+    private static boolean isSelected(String fieldName, Projection projection) {
+        if (!projection.getIncludedFields().isEmpty()) {
+            for (String included : projection.getIncludedFields()) {
+                if (included.equals(fieldName) || included.startsWith(fieldName + ".")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return !projection.getExcludedFields().contains(fieldName);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object copyValue(Object value) {
+        if (value instanceof SortedSet) {
+            return new TreeSet<>((SortedSet<Object>) value);
+        } else if (value instanceof Set) {
+            return new LinkedHashSet<>((Set<?>) value);
+        } else if (value instanceof Collection) {
+            return new ArrayList<>((Collection<?>) value);
+        } else if (value instanceof SortedMap) {
+            return new TreeMap<>((SortedMap<Object, Object>) value);
+        } else if (value instanceof Map) {
+            return new LinkedHashMap<>((Map<?, ?>) value);
+        } else if (value instanceof Date) {
+            return ((Date) value).clone();
+        }
+        return value;
+    }
+
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blueprint.centromere.memory;
+
+import com.blueprint.centromere.core.repository.QueryCriteria;
+import com.blueprint.centromere.core.repository.QueryCriteriaMatcher;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Secondary index over a single model field, mapping field values to the IDs of the records that
+ * hold them.  Every indexed value is held in a hash table, for equality, {@code IN} and boolean
+ * lookups.  Numeric and string values are additionally held in sorted tables, for range and
+ * prefix lookups.  Collection-valued fields are indexed by each of their elements, and
+ * {@code null} values are not indexed.
+ *
+ * <p>Lookups may return IDs of records that do not satisfy the criteria, so results must always be
+ * re-evaluated with {@link QueryCriteriaMatcher}.  They never omit IDs of records that do.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+final class FieldIndex<I> {
+
+    private final String field;
+    private final Map<Object, Set<I>> values = new HashMap<>();
+    private final NavigableMap<Double, Set<I>> numbers = new TreeMap<>();
+    private final NavigableMap<String, Set<I>> strings = new TreeMap<>();
+
+    FieldIndex(String field) {
+        this.field = field;
+    }
+
+    String getField() {
+        return field;
+    }
+
+    /**
+     * Adds the indexed field values of a record.
+     *
+     * @param id record ID
+     * @param entity record to index
+     */
+    void add(I id, Object entity) {
+        Object value = QueryCriteriaMatcher.getPropertyValue(entity, field);
+        if (value instanceof Collection) {
+            for (Object element : (Collection<?>) value) {
+                addValue(id, element);
+            }
+        } else {
+            addValue(id, value);
+        }
+    }
+
+    /**
+     * Removes the indexed field values of a record, which must be the same record state that was
+     * previously added.
+     *
+     * @param id record ID
+     * @param entity record to remove from the index
+     */
+    void remove(I id, Object entity) {
+        Object value = QueryCriteriaMatcher.getPropertyValue(entity, field);
+        if (value instanceof Collection) {
+            for (Object element : (Collection<?>) value) {
+                removeValue(id, element);
+            }
+        } else {
+            removeValue(id, value);
+        }
+    }
+
+    void clear() {
+        values.clear();
+        numbers.clear();
+        strings.clear();
+    }
+
+    /**
+     * Returns the IDs of candidate records for a single criteria on this field.
+     *
+     * @param queryCriteria criteria to evaluate
+     * @return candidate record IDs, or {@code null} if the criteria cannot be answered by the
+     *   index, and all records must be scanned.  The returned set may be backed by the index, and
+     *   must not be modified.
+     */
+    Set<I> lookup(QueryCriteria queryCriteria) {
+        Object value = queryCriteria.getValue();
+        switch (queryCriteria.getEvaluation()) {
+            case EQUALS:
+                return value != null && !(value instanceof Collection) ? get(value) : null;
+            case IN:
+                return getAll(value);
+            case IS_TRUE:
+                return get(Boolean.TRUE);
+            case IS_FALSE:
+                return get(Boolean.FALSE);
+            case GREATER_THAN:
+            case GREATER_THAN_EQUALS:
+                return getRange(value, true);
+            case LESS_THAN:
+            case LESS_THAN_EQUALS:
+                return getRange(value, false);
+            case BETWEEN:
+            case BETWEEN_INCLUSIVE:
+                return getBounded(value, true);
+            case OUTSIDE:
+            case OUTSIDE_INCLUSIVE:
+                return getBounded(value, false);
+            case STARTS_WITH:
+                return value instanceof String ? getPrefixed((String) value) : null;
+            default:
+                return null;
+        }
+    }
+
+    private void addValue(I id, Object value) {
+        if (value == null || value instanceof Collection || value instanceof Map) {
+            return;
+        }
+        Object key = normalize(value);
+        Set<I> ids = values.get(key);
+        if (ids == null) {
+            ids = new HashSet<>();
+            values.put(key, ids);
+            if (key instanceof Double) {
+                numbers.put((Double) key, ids);
+            } else if (key instanceof String) {
+                strings.put((String) key, ids);
+            }
+        }
+        ids.add(id);
+    }
+
+    private void removeValue(I id, Object value) {
+        if (value == null || value instanceof Collection || value instanceof Map) {
+            return;
+        }
+        Object key = normalize(value);
+        Set<I> ids = values.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                values.remove(key);
+                if (key instanceof Double) {
+                    numbers.remove(key);
+                } else if (key instanceof String) {
+                    strings.remove(key);
+                }
+            }
+        }
+    }
+
+    private Set<I> get(Object value) {
+        Set<I> ids = values.get(normalize(value));
+        return ids != null ? ids : Collections.emptySet();
+    }
+
+    private Set<I> getAll(Object value) {
+        if (!(value instanceof Collection)) {
+            return null;
+        }
+        Set<I> ids = new HashSet<>();
+        for (Object element : (Collection<?>) value) {
+            if (element == null) {
+                return null;
+            }
+            ids.addAll(get(element));
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the IDs of records with values above or below the requested bound.  Bounds are
+     * always treated as inclusive, since numeric keys are normalized to {@link Double} values and
+     * may lose precision.
+     */
+    private Set<I> getRange(Object value, boolean above) {
+        Object key = normalize(value);
+        Map<?, Set<I>> range;
+        if (key instanceof Double) {
+            range = above ? numbers.tailMap((Double) key, true)
+                : numbers.headMap((Double) key, true);
+        } else if (key instanceof String) {
+            range = above ? strings.tailMap((String) key, true)
+                : strings.headMap((String) key, true);
+        } else {
+            return null;
+        }
+        Set<I> ids = new HashSet<>();
+        for (Set<I> set : range.values()) {
+            ids.addAll(set);
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the IDs of records with values inside of, or outside of, a two-element range.
+     */
+    private Set<I> getBounded(Object value, boolean inside) {
+        if (!(value instanceof List) || ((List<?>) value).size() != 2) {
+            return null;
+        }
+        List<?> bounds = (List<?>) value;
+        Set<I> lower = getRange(bounds.get(0), inside);
+        Set<I> upper = getRange(bounds.get(1), !inside);
+        if (lower == null || upper == null) {
+            return null;
+        }
+        if (inside) {
+            lower.retainAll(upper);
+        } else {
+            lower.addAll(upper);
+        }
+        return lower;
+    }
+
+    private Set<I> getPrefixed(String prefix) {
+        Set<I> ids = new HashSet<>();
+        for (Map.Entry<String, Set<I>> entry : strings.tailMap(prefix, true).entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            ids.addAll(entry.getValue());
+        }
+        return ids;
+    }
+
+    /**
+     * Numbers are indexed by their {@code double} value, so that values of different boxed types
+     * share the same keys, consistent with {@link QueryCriteriaMatcher#valuesEqual(Object,
+     * Object)}.
+     */
+    private static Object normalize(Object value) {
+        return value instanceof Number ? Double.valueOf(((Number) value).doubleValue()) : value;
+    }
+
+}
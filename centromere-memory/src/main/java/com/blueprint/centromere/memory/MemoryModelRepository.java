@@ -0,0 +1,1030 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blueprint.centromere.memory;
+
+import com.blueprint.centromere.core.exceptions.ModelPersistenceException;
+import com.blueprint.centromere.core.exceptions.QueryParameterException;
+import com.blueprint.centromere.core.model.Model;
+import com.blueprint.centromere.core.repository.ContinuationPage;
+import com.blueprint.centromere.core.repository.ContinuationToken;
+import com.blueprint.centromere.core.repository.Evaluation;
+import com.blueprint.centromere.core.repository.GroupSummary;
+import com.blueprint.centromere.core.repository.ModelRepository;
+import com.blueprint.centromere.core.repository.Projection;
+import com.blueprint.centromere.core.repository.QueryCriteria;
+import com.blueprint.centromere.core.repository.QueryCriteriaMatcher;
+import com.blueprint.centromere.core.repository.QueryParameterDescriptor;
+import com.blueprint.centromere.core.repository.QueryParameterUtil;
+import com.blueprint.centromere.core.repository.QueryPlan;
+import com.blueprint.centromere.core.repository.RawJsonResults;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.util.Assert;
+
+/**
+ * Implementation of {@link ModelRepository} that holds all records in memory, intended for small,
+ * frequently-read reference collections.  Every non-map field that is available as a query
+ * parameter (see {@link QueryParameterUtil#getAvailableQueryParameters(Class)}) is covered by a
+ * secondary index, which narrows the records evaluated for equality, {@code IN}, boolean, range
+ * and {@code STARTS_WITH} criteria.  All other criteria are evaluated by scanning the matching
+ * records with {@link QueryCriteriaMatcher}.  Records are returned in insertion order, unless
+ * sorted.
+ *
+ * <p>Records are copied when they are written and when they are read, so changes made to
+ * entity objects by callers are never visible to the repository until they are saved.  The
+ * repository can be populated from another data source using {@link #loadFrom(ModelRepository)}.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+public class MemoryModelRepository<T extends Model<I>, I extends Serializable>
+    implements ModelRepository<T, I> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MemoryModelRepository.class);
+
+    private final Class<T> model;
+    private final Supplier<I> idGenerator;
+    private final Map<I, Record<T>> records = new LinkedHashMap<>();
+    private final Map<String, FieldIndex<I>> indexes = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long sequence;
+
+    public MemoryModelRepository(Class<T> model) {
+        this(model, null);
+    }
+
+    /**
+     * Creates a new repository for the requested model, which assigns IDs to new records using
+     * the supplied generator.  If no generator is supplied, random UUID strings are assigned to
+     * models with {@link String} IDs, and sequential numbers to models with {@link Long} or
+     * {@link Integer} IDs.
+     *
+     * @param model model class
+     * @param idGenerator supplier of new record IDs, or {@code null} to use the default
+     */
+    public MemoryModelRepository(Class<T> model, Supplier<I> idGenerator) {
+        Assert.notNull(model, "Model class must not be null.");
+        this.model = model;
+        this.idGenerator = idGenerator != null ? idGenerator : getDefaultIdGenerator(model);
+        for (QueryParameterDescriptor descriptor
+            : QueryParameterUtil.getAvailableQueryParameters(model).values()) {
+            if (!descriptor.isRegexMatch()) {
+                indexes.put(descriptor.getFieldName(),
+                    new FieldIndex<>(descriptor.getFieldName()));
+            }
+        }
+        LOGGER.debug(String.format("Created in-memory repository for model %s with indexed "
+            + "fields: %s", model.getName(), indexes.keySet()));
+    }
+
+    /* Read operations */
+
+    @Override
+    public Optional<T> findById(I id) {
+        return findById(id, Projection.all());
+    }
+
+    /**
+     * Returns a copy of the record with the requested ID, in which only the fields selected by the
+     * projection are set.
+     *
+     * @param id record ID
+     * @param projection {@link Projection} describing the fields to fetch.
+     * @return the matching record, if one exists.
+     */
+    @Override
+    public Optional<T> findById(I id, Projection projection) {
+        lock.readLock().lock();
+        try {
+            Record<T> record = records.get(id);
+            return record != null ? Optional.of(copy(record.entity, projection))
+                : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean existsById(I id) {
+        lock.readLock().lock();
+        try {
+            return records.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<T> findAll() {
+        return find(Collections.emptyList());
+    }
+
+    @Override
+    public List<T> findAll(Sort sort) {
+        return find(Collections.emptyList(), sort);
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        return find(Collections.emptyList(), pageable);
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<I> ids) {
+        lock.readLock().lock();
+        try {
+            List<T> entities = new ArrayList<>();
+            for (I id : ids) {
+                Record<T> record = records.get(id);
+                if (record != null) {
+                    entities.add(EntityCopier.copy(record.entity));
+                }
+            }
+            return entities;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long count() {
+        lock.readLock().lock();
+        try {
+            return records.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long count(Iterable<QueryCriteria> criterias) {
+        lock.readLock().lock();
+        try {
+            return query(criterias, Sort.unsorted()).size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<T> find(Iterable<QueryCriteria> queryCriterias) {
+        return find(queryCriterias, Sort.unsorted());
+    }
+
+    @Override
+    public List<T> find(Iterable<QueryCriteria> queryCriterias, Sort sort) {
+        return find(queryCriterias, sort, Projection.all());
+    }
+
+    /**
+     * Searches for all records that satisfy the requested criteria, and returns copies of them in
+     * the requested order, in which only the fields selected by the projection are set.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @param sort {@link Sort}
+     * @param projection {@link Projection} describing the fields to fetch.
+     * @return all matching {@code T} records.
+     */
+    @Override
+    public List<T> find(Iterable<QueryCriteria> queryCriterias, Sort sort,
+        Projection projection) {
+        lock.readLock().lock();
+        try {
+            List<T> entities = new ArrayList<>();
+            for (T entity : query(queryCriterias, sort)) {
+                entities.add(copy(entity, projection));
+            }
+            return entities;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Searches for all records that satisfy the requested criteria, as in {@link #find(Iterable,
+     * Sort, Projection)}.  Index hints are ignored, since the candidate records are always chosen
+     * from every usable index.
+     */
+    @Override
+    public List<T> find(Iterable<QueryCriteria> queryCriterias, Sort sort, Projection projection,
+        String hint) {
+        return find(queryCriterias, sort, projection);
+    }
+
+    @Override
+    public Page<T> find(Iterable<QueryCriteria> queryCriterias, Pageable pageable) {
+        return find(queryCriterias, pageable, Projection.all());
+    }
+
+    /**
+     * Searches for all records that satisfy the requested criteria, and returns copies of them as
+     * a paged collection, in which only the fields selected by the projection are set.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @param pageable {@link Pageable}
+     * @param projection {@link Projection} describing the fields to fetch.
+     * @return {@link Page} containing the desired set of records.
+     */
+    @Override
+    public Page<T> find(Iterable<QueryCriteria> queryCriterias, Pageable pageable,
+        Projection projection) {
+        if (pageable == null || pageable.isUnpaged()) {
+            List<T> entities = find(queryCriterias, pageable != null ? pageable.getSort()
+                : Sort.unsorted(), projection);
+            return new PageImpl<>(entities);
+        }
+        lock.readLock().lock();
+        try {
+            List<T> matches = query(queryCriterias, pageable.getSort());
+            List<T> entities = new ArrayList<>();
+            long end = Math.min(matches.size(), pageable.getOffset() + pageable.getPageSize());
+            for (long i = pageable.getOffset(); i < end; i++) {
+                entities.add(copy(matches.get((int) i), projection));
+            }
+            return new PageImpl<>(entities, pageable, matches.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Searches for all records that satisfy the requested criteria, as in {@link #find(Iterable,
+     * Pageable, Projection)}.  Index hints are ignored.
+     */
+    @Override
+    public Page<T> find(Iterable<QueryCriteria> queryCriterias, Pageable pageable,
+        Projection projection, String hint) {
+        return find(queryCriterias, pageable, projection);
+    }
+
+    @Override
+    public Slice<T> findSlice(Iterable<QueryCriteria> queryCriterias, Pageable pageable) {
+        return findSlice(queryCriterias, pageable, Projection.all());
+    }
+
+    /**
+     * Searches for all records that satisfy the requested criteria, and returns copies of them as
+     * a {@link Slice}, in which only the fields selected by the projection are set.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @param pageable {@link Pageable}
+     * @param projection {@link Projection} describing the fields to fetch.
+     * @return {@link Slice} containing the desired set of records.
+     */
+    @Override
+    public Slice<T> findSlice(Iterable<QueryCriteria> queryCriterias, Pageable pageable,
+        Projection projection) {
+        if (pageable == null || pageable.isUnpaged()) {
+            List<T> entities = find(queryCriterias, pageable != null ? pageable.getSort()
+                : Sort.unsorted(), projection);
+            return new SliceImpl<>(entities);
+        }
+        lock.readLock().lock();
+        try {
+            List<T> matches = query(queryCriterias, pageable.getSort());
+            List<T> entities = new ArrayList<>();
+            long end = Math.min(matches.size(), pageable.getOffset() + pageable.getPageSize());
+            for (long i = pageable.getOffset(); i < end; i++) {
+                entities.add(copy(matches.get((int) i), projection));
+            }
+            return new SliceImpl<>(entities, pageable, end < matches.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Searches for all records that satisfy the requested criteria, as in {@link
+     * #findSlice(Iterable, Pageable, Projection)}.  Index hints are ignored.
+     */
+    @Override
+    public Slice<T> findSlice(Iterable<QueryCriteria> queryCriterias, Pageable pageable,
+        Projection projection, String hint) {
+        return findSlice(queryCriterias, pageable, projection);
+    }
+
+    /**
+     * Returns {@code false}, since records are held as model instances rather than serialized
+     * documents.
+     */
+    @Override
+    public boolean isRawJsonSupported() {
+        return false;
+    }
+
+    /**
+     * Raw JSON results are not supported by in-memory repositories.
+     *
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    public RawJsonResults findRawJson(Iterable<QueryCriteria> queryCriterias, Sort sort,
+        Projection projection, String hint) {
+        throw new UnsupportedOperationException(String.format(
+            "Raw JSON results are not supported by repository: %s", getClass().getName()));
+    }
+
+    /**
+     * Searches for a single page of records using keyset pagination.  Records are located by
+     * comparing their sort keys with the values in the continuation token, using the same
+     * ordering as {@link #find(Iterable, Sort)}, so pages remain stable when records before the
+     * current position are inserted or deleted.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @param sort {@link Sort}, ignored if a continuation token is supplied.
+     * @param token position of the last record of the previous page, or {@code null}.
+     * @param size maximum number of records to return.
+     * @return {@link ContinuationPage} containing the records and the token for the next page.
+     */
+    @Override
+    public ContinuationPage<T> findAfter(Iterable<QueryCriteria> queryCriterias, Sort sort,
+        ContinuationToken token, int size) {
+        Assert.isTrue(size > 0, "Page size must be a positive integer.");
+        Sort keysetSort = token != null ? token.getSort() : ContinuationToken.getKeysetSort(sort);
+        lock.readLock().lock();
+        try {
+            List<T> entities = new ArrayList<>();
+            for (T entity : query(queryCriterias, keysetSort)) {
+                if (token == null || compareToToken(entity, token) > 0) {
+                    entities.add(EntityCopier.copy(entity));
+                    if (entities.size() > size) {
+                        break;
+                    }
+                }
+            }
+            return ContinuationPage.of(entities, size, keysetSort);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the matching records, taken when this method is
+     * called.  Records are only copied as the iterator advances.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @param sort {@link Sort}
+     * @return iterator over all matching {@code T} records.
+     */
+    @Override
+    public CloseableIterator<T> stream(Iterable<QueryCriteria> queryCriterias, Sort sort) {
+        List<T> matches;
+        lock.readLock().lock();
+        try {
+            matches = query(queryCriterias, sort);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new SnapshotIterator<>(matches.iterator());
+    }
+
+    @Override
+    public QueryPlan explain(Iterable<QueryCriteria> queryCriterias, Sort sort) {
+        return explain(queryCriterias, sort, null);
+    }
+
+    /**
+     * Describes how a query would be answered from the in-memory store.  Queries with indexed
+     * criteria are reported as an {@code INDEX} lookup of the indexed fields, followed by
+     * filtering of the candidate records, and all other queries as a {@code SCAN} of every record.
+     * Index hints are ignored, since the candidate records are always chosen from every usable
+     * index.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @param sort {@link Sort}
+     * @param hint ignored.
+     * @return {@link QueryPlan} describing the query execution.
+     */
+    @Override
+    public QueryPlan explain(Iterable<QueryCriteria> queryCriterias, Sort sort, String hint) {
+        lock.readLock().lock();
+        try {
+            long start = System.nanoTime();
+            Set<I> candidates = getCandidates(queryCriterias);
+            long returned = query(queryCriterias, sort).size();
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            List<String> indexed = new ArrayList<>();
+            if (candidates != null) {
+                collectIndexedFields(queryCriterias, indexed);
+            }
+            StringBuilder plan = new StringBuilder(candidates == null ? "SCAN"
+                : String.format("INDEX[%s]", String.join(", ", indexed)));
+            plan.append(" > FILTER");
+            if (sort != null && sort.isSorted()) {
+                plan.append(" > SORT");
+            }
+            return new QueryPlan(model.getName(), plan.toString(), indexed, candidates == null,
+                (long) (candidates == null ? records.size() : candidates.size()), null, returned,
+                elapsed, null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Set<Object> distinct(String field) {
+        return distinct(field, Collections.emptyList(), Pageable.unpaged());
+    }
+
+    @Override
+    public Set<Object> distinct(String field, Iterable<QueryCriteria> criterias) {
+        return distinct(field, criterias, Pageable.unpaged());
+    }
+
+    /**
+     * Returns a single page of the sorted, distinct values of the requested field.  As with the
+     * MongoDB implementation, collection-valued fields are grouped by their whole value, rather
+     * than by their elements.
+     *
+     * @param field Model field name.
+     * @param criterias Query criteria to filter the field values by.
+     * @param pageable {@link Pageable} describing the requested slice of values.
+     * @return Sorted set of distinct values of {@code field}.
+     */
+    @Override
+    public Set<Object> distinct(String field, Iterable<QueryCriteria> criterias,
+        Pageable pageable) {
+
+        if (!new BeanWrapperImpl(model).isReadableProperty(field)) {
+            throw new QueryParameterException(
+                String.format("Submitted parameter is not valid entity field: %s", field));
+        }
+
+        Set<Object> values = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            for (T entity : query(criterias, Sort.unsorted())) {
+                values.add(QueryCriteriaMatcher.getPropertyValue(entity, field));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Object> sorted = new ArrayList<>(values);
+        sorted.sort(QueryCriteriaMatcher::compareValues);
+        int start = 0;
+        int end = sorted.size();
+        if (pageable != null && pageable.isPaged()) {
+            start = (int) Math.min(pageable.getOffset(), sorted.size());
+            end = Math.min(sorted.size(), start + pageable.getPageSize());
+        }
+        return new LinkedHashSet<>(sorted.subList(start, end));
+
+    }
+
+    /**
+     * Groups the records that satisfy the requested criteria by the value of a field, summarizing
+     * each group in a single pass over the matching records, without copying them.
+     *
+     * @param field Model field name to group records by.
+     * @param criterias Query criteria to filter the records by.
+     * @param valueField Model field name to summarize, or {@code null} to only count records.
+     * @return summaries of each group, sorted by the grouped value.
+     */
+    @Override
+    public List<GroupSummary> groupBy(String field, Iterable<QueryCriteria> criterias,
+        String valueField) {
+
+        BeanWrapperImpl wrapper = new BeanWrapperImpl(model);
+        if (!wrapper.isReadableProperty(field)) {
+            throw new QueryParameterException(
+                String.format("Submitted parameter is not valid entity field: %s", field));
+        }
+        if (valueField != null && !wrapper.isReadableProperty(valueField)) {
+            throw new QueryParameterException(
+                String.format("Submitted parameter is not valid entity field: %s", valueField));
+        }
+
+        Map<Object, GroupAccumulator> groups = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (T entity : query(criterias, Sort.unsorted())) {
+                Object key = QueryCriteriaMatcher.getPropertyValue(entity, field);
+                GroupAccumulator accumulator = groups
+                    .computeIfAbsent(key, k -> new GroupAccumulator());
+                accumulator.add(valueField != null
+                    ? QueryCriteriaMatcher.getPropertyValue(entity, valueField) : null);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Object> keys = new ArrayList<>(groups.keySet());
+        keys.sort(QueryCriteriaMatcher::compareValues);
+        List<GroupSummary> summaries = new ArrayList<>();
+        for (Object key : keys) {
+            GroupAccumulator accumulator = groups.get(key);
+            if (valueField == null) {
+                summaries.add(new GroupSummary(key, accumulator.count));
+            } else {
+                summaries.add(new GroupSummary(key, accumulator.count, accumulator.min,
+                    accumulator.max, accumulator.sum,
+                    accumulator.values > 0 ? accumulator.sum / accumulator.values : null));
+            }
+        }
+        return summaries;
+
+    }
+
+    /* Write operations */
+
+    /**
+     * Creates a new record in the repository.  If the entity has no ID, a new one is generated
+     * and assigned to it.
+     *
+     * @param entity instance of {@code T} to be persisted.
+     * @return the entity, with its ID assigned.
+     * @throws ModelPersistenceException if a record with the same ID already exists.
+     */
+    @Override
+    public <S extends T> S insert(S entity) {
+        lock.writeLock().lock();
+        try {
+            if (entity.getId() == null) {
+                entity.setId(generateId());
+            } else if (records.containsKey(entity.getId())) {
+                throw new ModelPersistenceException(
+                    String.format("Model record already exists in the repository,"
+                        + " and cannot be inserted: %s", entity.toString()));
+            }
+            put(entity);
+            return entity;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public <S extends T> List<S> insert(Iterable<S> entities) {
+        List<S> inserted = new ArrayList<>();
+        for (S entity : entities) {
+            inserted.add(insert(entity));
+        }
+        return inserted;
+    }
+
+    /**
+     * Updates an existing record in the repository and returns its instance.
+     *
+     * @param entity updated record to be persisted in the repository.
+     * @return the updated entity object.
+     * @throws ModelPersistenceException if the record does not exist.
+     */
+    @Override
+    public <S extends T> S update(S entity) {
+        lock.writeLock().lock();
+        try {
+            if (entity.getId() == null || !records.containsKey(entity.getId())) {
+                throw new ModelPersistenceException(
+                    String.format("Model record does not exist in the repository,"
+                        + " and cannot be updated: %s", entity.toString()));
+            }
+            put(entity);
+            return entity;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public <S extends T> List<S> update(Iterable<S> entities) {
+        List<S> updated = new ArrayList<>();
+        for (S entity : entities) {
+            updated.add(update(entity));
+        }
+        return updated;
+    }
+
+    /**
+     * Inserts a new record, or replaces an existing record with the same ID.
+     *
+     * @param entity record to save
+     * @return the entity, with its ID assigned.
+     */
+    @Override
+    public <S extends T> S save(S entity) {
+        lock.writeLock().lock();
+        try {
+            if (entity.getId() == null) {
+                entity.setId(generateId());
+            }
+            put(entity);
+            return entity;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public <S extends T> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        for (S entity : entities) {
+            saved.add(save(entity));
+        }
+        return saved;
+    }
+
+    @Override
+    public <S extends T> List<S> upsert(Iterable<S> entities) {
+        return saveAll(entities);
+    }
+
+    @Override
+    public void deleteById(I id) {
+        lock.writeLock().lock();
+        try {
+            Record<T> record = records.remove(id);
+            if (record != null) {
+                unindex(id, record.entity);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void delete(T entity) {
+        if (entity.getId() != null) {
+            deleteById(entity.getId());
+        }
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        for (T entity : entities) {
+            delete(entity);
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        lock.writeLock().lock();
+        try {
+            records.clear();
+            for (FieldIndex<I> index : indexes.values()) {
+                index.clear();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Saves every record held by another repository into this one, replacing any records with
+     * the same IDs.  Records are read from the source repository incrementally, using {@link
+     * ModelRepository#stream(Iterable, Sort)}.
+     *
+     * @param source repository to copy records from.
+     * @return the number of records loaded.
+     */
+    public long loadFrom(ModelRepository<? extends T, I> source) {
+        long count = 0L;
+        try (CloseableIterator<? extends T> iterator = source
+            .stream(Collections.emptyList(), Sort.unsorted())) {
+            while (iterator.hasNext()) {
+                save(iterator.next());
+                count = count + 1;
+            }
+        }
+        LOGGER.info(String.format("Loaded %d %s records from repository %s", count,
+            model.getSimpleName(), source.getClass().getName()));
+        return count;
+    }
+
+    @Override
+    public Class<T> getModel() {
+        return model;
+    }
+
+    /**
+     * Returns the names of the fields covered by secondary indexes.
+     */
+    public Set<String> getIndexedFields() {
+        return Collections.unmodifiableSet(indexes.keySet());
+    }
+
+    /**
+     * Finds the stored records matching the requested criteria, in the requested order.  Must be
+     * called while holding the read or write lock, and returns the stored instances, which must
+     * be copied before being returned to callers.
+     */
+    private List<T> query(Iterable<QueryCriteria> queryCriterias, Sort sort) {
+
+        Predicate<Object> predicate = QueryCriteriaMatcher.compile(queryCriterias);
+        Set<I> candidates = getCandidates(queryCriterias);
+
+        List<Record<T>> matches = new ArrayList<>();
+        if (candidates == null) {
+            matches.addAll(records.values());
+        } else {
+            for (I id : candidates) {
+                Record<T> record = records.get(id);
+                if (record != null) {
+                    matches.add(record);
+                }
+            }
+            matches.sort(Comparator.comparingLong(record -> record.sequence));
+        }
+
+        List<T> entities = new ArrayList<>();
+        for (Record<T> record : matches) {
+            if (predicate.test(record.entity)) {
+                entities.add(record.entity);
+            }
+        }
+        if (sort != null && sort.isSorted()) {
+            entities.sort(getComparator(sort));
+        }
+        return entities;
+
+    }
+
+    /**
+     * Intersects the index lookups of all indexed criteria.
+     *
+     * @return IDs of the candidate records, or {@code null} if no criteria could be answered by
+     *   an index.
+     */
+    private Set<I> getCandidates(Iterable<QueryCriteria> queryCriterias) {
+        Set<I> candidates = null;
+        for (QueryCriteria queryCriteria : queryCriterias) {
+            Set<I> ids = queryCriteria != null ? getCandidates(queryCriteria) : null;
+            if (ids == null) {
+                continue;
+            }
+            if (candidates == null) {
+                candidates = new HashSet<>(ids);
+            } else {
+                candidates.retainAll(ids);
+            }
+            if (candidates.isEmpty()) {
+                break;
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Looks up the candidate records of a single criteria.  Composite {@code ANY} criteria are
+     * answered by the union of their nested lookups, if every nested criteria is indexed, and
+     * {@code ALL} criteria by their intersection.
+     *
+     * @return IDs of the candidate records, or {@code null} if the criteria cannot be answered by
+     *   an index.
+     */
+    private Set<I> getCandidates(QueryCriteria queryCriteria) {
+        switch (queryCriteria.getEvaluation()) {
+            case ALL:
+                return getCandidates(queryCriteria.getCriterias());
+            case ANY:
+                Set<I> candidates = new HashSet<>();
+                for (QueryCriteria nested : queryCriteria.getCriterias()) {
+                    Set<I> ids = getCandidates(nested);
+                    if (ids == null) {
+                        return null;
+                    }
+                    candidates.addAll(ids);
+                }
+                return candidates;
+            case NOT:
+                return null;
+            default:
+                FieldIndex<I> index = indexes.get(queryCriteria.getKey());
+                return index != null ? index.lookup(queryCriteria) : null;
+        }
+    }
+
+    /**
+     * Collects the names of the indexed fields referenced by the criteria, including those nested
+     * in composite criteria.
+     */
+    private void collectIndexedFields(Iterable<QueryCriteria> queryCriterias, List<String> fields) {
+        for (QueryCriteria queryCriteria : queryCriterias) {
+            if (queryCriteria == null || queryCriteria.getEvaluation() == Evaluation.NOT) {
+                continue;
+            }
+            if (queryCriteria.isComposite()) {
+                collectIndexedFields(queryCriteria.getCriterias(), fields);
+            } else if (indexes.containsKey(queryCriteria.getKey())
+                && !fields.contains(queryCriteria.getKey())) {
+                fields.add(queryCriteria.getKey());
+            }
+        }
+    }
+
+    private Comparator<T> getComparator(Sort sort) {
+        Comparator<T> comparator = null;
+        for (Sort.Order order : sort) {
+            String property = order.getProperty();
+            Comparator<T> next = (left, right) -> QueryCriteriaMatcher.compareValues(
+                QueryCriteriaMatcher.getPropertyValue(left, property),
+                QueryCriteriaMatcher.getPropertyValue(right, property));
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator;
+    }
+
+    /**
+     * Compares the sort key values of a record with the position recorded in a continuation
+     * token, returning a positive value if the record follows it.
+     */
+    private int compareToToken(T entity, ContinuationToken token) {
+        int i = 0;
+        for (Sort.Order order : token.getSort()) {
+            int comparison = QueryCriteriaMatcher.compareValues(
+                QueryCriteriaMatcher.getPropertyValue(entity, order.getProperty()),
+                token.getValues().get(i));
+            if (comparison != 0) {
+                return order.isAscending() ? comparison : -comparison;
+            }
+            i = i + 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Copies a stored record, setting only the fields selected by the projection.  The record ID is
+     * always set.
+     */
+    private T copy(T entity, Projection projection) {
+        if (projection == null || projection.isAllFields()) {
+            return EntityCopier.copy(entity);
+        }
+        T copy = EntityCopier.copy(entity, projection);
+        copy.setId(entity.getId());
+        return copy;
+    }
+
+    /**
+     * Stores a copy of the entity, replacing and unindexing any existing record with the same ID.
+     * Must be called while holding the write lock.
+     */
+    private <S extends T> void put(S entity) {
+        I id = entity.getId();
+        T copy = EntityCopier.copy(entity);
+        Record<T> existing = records.get(id);
+        if (existing != null) {
+            unindex(id, existing.entity);
+            records.put(id, new Record<>(existing.sequence, copy));
+        } else {
+            sequence = sequence + 1;
+            records.put(id, new Record<>(sequence, copy));
+        }
+        for (FieldIndex<I> index : indexes.values()) {
+            index.add(id, copy);
+        }
+    }
+
+    private void unindex(I id, T entity) {
+        for (FieldIndex<I> index : indexes.values()) {
+            index.remove(id, entity);
+        }
+    }
+
+    private I generateId() {
+        I id = idGenerator.get();
+        if (id == null) {
+            throw new ModelPersistenceException(String.format("Unable to generate IDs for model "
+                + "%s, records must be assigned IDs before being saved.", model.getName()));
+        }
+        return id;
+    }
+
+    /**
+     * Creates the default ID generator, based upon the ID type of the model.
+     */
+    @SuppressWarnings("unchecked")
+    private static <I> Supplier<I> getDefaultIdGenerator(Class<?> model) {
+        Class<?> idType = ResolvableType.forClass(model).as(Model.class).getGeneric(0).resolve();
+        if (idType == null || String.class.equals(idType)) {
+            return () -> (I) UUID.randomUUID().toString();
+        } else if (Long.class.equals(idType)) {
+            AtomicLong counter = new AtomicLong();
+            return () -> (I) Long.valueOf(counter.incrementAndGet());
+        } else if (Integer.class.equals(idType)) {
+            AtomicLong counter = new AtomicLong();
+            return () -> (I) Integer.valueOf((int) counter.incrementAndGet());
+        } else if (UUID.class.equals(idType)) {
+            return () -> (I) UUID.randomUUID();
+        }
+        return () -> null;
+    }
+
+    /**
+     * A stored record, with the sequence number of its original insertion.
+     */
+    private static final class Record<T> {
+
+        private final long sequence;
+        private final T entity;
+
+        Record(long sequence, T entity) {
+            this.sequence = sequence;
+            this.entity = entity;
+        }
+    }
+
+    /**
+     * Running count and numeric statistics of a single group of records.
+     */
+    private static class GroupAccumulator {
+
+        private long count;
+        private long values;
+        private Double min;
+        private Double max;
+        private double sum;
+
+        void add(Object value) {
+            count = count + 1;
+            if (value instanceof Number) {
+                double number = ((Number) value).doubleValue();
+                min = min == null ? number : Math.min(min, number);
+                max = max == null ? number : Math.max(max, number);
+                sum = sum + number;
+                values = values + 1;
+            }
+        }
+
+    }
+
+    /**
+     * {@link CloseableIterator} over a snapshot of stored records, which copies each record as it
+     * is returned.
+     */
+    private static final class SnapshotIterator<T> implements CloseableIterator<T> {
+
+        private final Iterator<T> iterator;
+        private boolean closed;
+
+        SnapshotIterator(Iterator<T> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !closed && iterator.hasNext();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return EntityCopier.copy(iterator.next());
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+}
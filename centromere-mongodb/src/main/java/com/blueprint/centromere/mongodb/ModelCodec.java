@@ -0,0 +1,698 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blueprint.centromere.mongodb;
+
+import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.bson.BsonReader;
+import org.bson.BsonReaderMark;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.Document;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecConfigurationException;
+import org.bson.types.Binary;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.convert.CustomConversions;
+import org.springframework.data.mapping.PropertyHandler;
+import org.springframework.data.mapping.SimpleAssociationHandler;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.mapping.MongoSimpleTypes;
+import org.springframework.data.util.TypeInformation;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * {@link Codec} that reads and writes a mapped model class directly, bypassing the reflective
+ * {@link org.springframework.data.mongodb.core.convert.MappingMongoConverter}.  The document
+ * layout of each persistent property, its field name and value type, is resolved once from the
+ * mapping metadata, and properties are read and written with cached {@link MethodHandle}
+ * references to their fields, so that each decoded document costs only the instantiation of the
+ * model and one field assignment per document field.
+ *
+ * <p>Codecs are only created for classes whose properties can all be mapped the same way the
+ * converter would: simple values, enums, collections and string-keyed maps of supported values,
+ * and nested classes that are themselves supported.  Classes with properties of a type that has
+ * a custom conversion registered, database references, abstract or interface-typed properties,
+ * or without a default constructor are not supported, and {@link #create(Class, MongoConverter,
+ * CustomConversions)} returns {@code null}.  Documents whose {@code _class} type hint names a
+ * different class, such as a subclass of the model, are read by the converter instead, so that
+ * no fields are lost.  Encoded documents include the {@code _class} type hint, but not the
+ * normalized copies of {@link
+ * com.blueprint.centromere.core.model.CaseInsensitive} fields, which are added by {@link
+ * NormalizedFieldEventListener} when records are saved through {@code MongoOperations}.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+public final class ModelCodec<T> implements Codec<T> {
+
+    static final String ID_FIELD = "_id";
+    static final String TYPE_FIELD = "_class";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ModelCodec.class);
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final Codec<Document> DOCUMENT_CODEC = new DocumentCodec();
+    private static final CustomConversions STORE_CONVERSIONS
+        = new MongoCustomConversions(Collections.emptyList());
+    private static final List<Class<?>> STORED_TYPES = Arrays.asList(String.class,
+        Integer.class, Long.class, Double.class, Boolean.class, Date.class, ObjectId.class,
+        Decimal128.class, Binary.class, Document.class, List.class);
+
+    private final Class<T> type;
+    private final String typeHint;
+    private final MongoConverter converter;
+    private final Map<String, Property> properties = new LinkedHashMap<>();
+    private MethodHandle constructor;
+
+    private ModelCodec(Class<T> type, String typeHint, MongoConverter converter) {
+        this.type = type;
+        this.typeHint = typeHint;
+        this.converter = converter;
+    }
+
+    /**
+     * Creates a codec for the requested class, if all of its persistent properties can be read
+     * and written without the mapping converter.
+     *
+     * @param type mapped class
+     * @param converter converter describing the document layout of the class, which also reads
+     *     documents of other classes.
+     * @param conversions custom conversions registered with the converter.
+     * @return the class codec, or {@code null} if the class is not supported.
+     */
+    public static <T> ModelCodec<T> create(Class<T> type, MongoConverter converter,
+        CustomConversions conversions) {
+        return create(type, converter, conversions, new HashMap<>());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ModelCodec<T> create(Class<T> type, MongoConverter converter,
+        CustomConversions conversions, Map<Class<?>, ModelCodec<?>> codecs) {
+        if (codecs.containsKey(type)) {
+            return (ModelCodec<T>) codecs.get(type);
+        }
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers())
+            || MongoSimpleTypes.HOLDER.isSimpleType(type)
+            || hasCustomConversion(type, conversions)) {
+            return null;
+        }
+        MongoPersistentEntity<?> entity = converter.getMappingContext().getPersistentEntity(type);
+        if (entity == null) {
+            return null;
+        }
+        ModelCodec<T> codec = new ModelCodec<>(type, entity.getTypeAlias().isPresent()
+            ? entity.getTypeAlias().getValue().toString() : type.getName(), converter);
+        codecs.put(type, codec);
+        try {
+            Constructor<T> defaultConstructor = type.getDeclaredConstructor();
+            ReflectionUtils.makeAccessible(defaultConstructor);
+            codec.constructor = LOOKUP.unreflectConstructor(defaultConstructor)
+                .asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return unsupported(type, codecs, "no accessible default constructor");
+        }
+        List<String> unsupported = new ArrayList<>();
+        entity.doWithAssociations((SimpleAssociationHandler) association ->
+            unsupported.add(association.getInverse().getName()));
+        entity.doWithProperties((PropertyHandler<MongoPersistentProperty>) property -> {
+            Property mapped = Property.create(property, converter, conversions, codecs);
+            if (mapped == null) {
+                unsupported.add(property.getName());
+            } else {
+                codec.properties.put(mapped.fieldName, mapped);
+            }
+        });
+        if (!unsupported.isEmpty()) {
+            return unsupported(type, codecs, String.format("unsupported properties %s",
+                unsupported));
+        }
+        return codec;
+    }
+
+    private static <T> ModelCodec<T> unsupported(Class<T> type,
+        Map<Class<?>, ModelCodec<?>> codecs, String reason) {
+        LOGGER.debug(String.format("Unable to create codec for class %s: %s", type.getName(),
+            reason));
+        codecs.put(type, null);
+        return null;
+    }
+
+    /**
+     * Tests whether a custom conversion, other than the default conversions of the store, is
+     * registered for reading or writing values of the requested type.
+     */
+    private static boolean hasCustomConversion(Class<?> type, CustomConversions conversions) {
+        return hasConversion(type, conversions) && !hasConversion(type, STORE_CONVERSIONS);
+    }
+
+    private static boolean hasConversion(Class<?> type, CustomConversions conversions) {
+        if (conversions.hasCustomWriteTarget(type)) {
+            return true;
+        }
+        for (Class<?> storedType : STORED_TYPES) {
+            if (conversions.hasCustomReadTarget(storedType, type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public T decode(BsonReader reader, DecoderContext decoderContext) {
+        BsonReaderMark mark = reader.getMark();
+        Object instance = newInstance();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            String name = reader.readName();
+            if (TYPE_FIELD.equals(name) && reader.getCurrentBsonType() == BsonType.STRING) {
+                if (!typeHint.equals(reader.readString())) {
+                    mark.reset();
+                    return converter.read(type, DOCUMENT_CODEC.decode(reader, decoderContext));
+                }
+                continue;
+            }
+            Property property = properties.get(name);
+            if (property == null) {
+                reader.skipValue();
+            } else {
+                property.set(instance, property.value.decode(reader, decoderContext));
+            }
+        }
+        reader.readEndDocument();
+        return type.cast(instance);
+    }
+
+    @Override
+    public void encode(BsonWriter writer, T value, EncoderContext encoderContext) {
+        if (value.getClass() != type) {
+            Document document = new Document();
+            converter.write(value, document);
+            DOCUMENT_CODEC.encode(writer, document, encoderContext);
+            return;
+        }
+        writer.writeStartDocument();
+        Property id = properties.get(ID_FIELD);
+        if (id != null) {
+            writeProperty(writer, id, value, encoderContext);
+        }
+        if (encoderContext.isEncodingCollectibleDocument()) {
+            writer.writeString(TYPE_FIELD, typeHint);
+        }
+        for (Property property : properties.values()) {
+            if (property != id) {
+                writeProperty(writer, property, value, encoderContext);
+            }
+        }
+        writer.writeEndDocument();
+    }
+
+    private void writeProperty(BsonWriter writer, Property property, T value,
+        EncoderContext encoderContext) {
+        Object propertyValue = property.get(value);
+        if (propertyValue != null) {
+            writer.writeName(property.fieldName);
+            property.value.encode(writer, propertyValue, encoderContext);
+        }
+    }
+
+    @Override
+    public Class<T> getEncoderClass() {
+        return type;
+    }
+
+    /**
+     * Returns the document field names of the mapped properties.
+     */
+    public Set<String> getFieldNames() {
+        return properties.keySet();
+    }
+
+    private Object newInstance() {
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (Throwable e) {
+            throw new CodecConfigurationException(
+                String.format("Unable to create instance of class %s", type.getName()), e);
+        }
+    }
+
+    /**
+     * Mapped persistent property, with handles for reading and writing its field.
+     */
+    private static final class Property {
+
+        private final String fieldName;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+        private final boolean primitive;
+        private final ValueCodec value;
+
+        private Property(String fieldName, MethodHandle getter, MethodHandle setter,
+            boolean primitive, ValueCodec value) {
+            this.fieldName = fieldName;
+            this.getter = getter;
+            this.setter = setter;
+            this.primitive = primitive;
+            this.value = value;
+        }
+
+        static Property create(MongoPersistentProperty property, MongoConverter converter,
+            CustomConversions conversions, Map<Class<?>, ModelCodec<?>> codecs) {
+            Field field = property.getField();
+            if (field == null || Modifier.isFinal(field.getModifiers())
+                || property.isDbReference()) {
+                return null;
+            }
+            ValueCodec value = property.isIdProperty() && property.getType() == String.class
+                ? IdValueCodec.INSTANCE
+                : ValueCodec.forType(property.getTypeInformation(), converter, conversions,
+                    codecs);
+            if (value == null) {
+                return null;
+            }
+            try {
+                ReflectionUtils.makeAccessible(field);
+                return new Property(property.isIdProperty() ? ID_FIELD : property.getFieldName(),
+                    LOOKUP.unreflectGetter(field)
+                        .asType(MethodType.methodType(Object.class, Object.class)),
+                    LOOKUP.unreflectSetter(field)
+                        .asType(MethodType.methodType(void.class, Object.class, Object.class)),
+                    field.getType().isPrimitive(), value);
+            } catch (IllegalAccessException e) {
+                return null;
+            }
+        }
+
+        Object get(Object instance) {
+            try {
+                return (Object) getter.invokeExact(instance);
+            } catch (Throwable e) {
+                throw new CodecConfigurationException(
+                    String.format("Unable to read field %s", fieldName), e);
+            }
+        }
+
+        void set(Object instance, Object fieldValue) {
+            if (fieldValue == null && primitive) {
+                return;
+            }
+            try {
+                setter.invokeExact(instance, fieldValue);
+            } catch (Throwable e) {
+                throw new CodecConfigurationException(
+                    String.format("Unable to assign value %s to field %s", fieldValue, fieldName),
+                    e);
+            }
+        }
+
+    }
+
+    /**
+     * Reads and writes the values of a single property type.
+     */
+    private interface ValueCodec {
+
+        Object decode(BsonReader reader, DecoderContext decoderContext);
+
+        void encode(BsonWriter writer, Object value, EncoderContext encoderContext);
+
+        /**
+         * Returns the codec for values of the requested type, or {@code null} if the type is not
+         * supported.
+         */
+        static ValueCodec forType(TypeInformation<?> typeInformation, MongoConverter converter,
+            CustomConversions conversions, Map<Class<?>, ModelCodec<?>> codecs) {
+            if (typeInformation == null) {
+                return null;
+            }
+            Class<?> type = ClassUtils.resolvePrimitiveIfNecessary(typeInformation.getType());
+            if (hasCustomConversion(type, conversions)) {
+                return null;
+            } else if (type == Object.class || type == Serializable.class) {
+                return NaturalValueCodec.INSTANCE;
+            } else if (SimpleValueCodec.isSupported(type)) {
+                return new SimpleValueCodec(type);
+            } else if (Collection.class.isAssignableFrom(type)) {
+                Supplier<Collection<Object>> factory = getCollectionFactory(type);
+                ValueCodec element = forType(typeInformation.getComponentType(), converter,
+                    conversions, codecs);
+                return factory != null && element != null
+                    ? new CollectionValueCodec(factory, element) : null;
+            } else if (Map.class.isAssignableFrom(type)) {
+                Supplier<Map<String, Object>> factory = getMapFactory(type);
+                TypeInformation<?> keyType = typeInformation.getComponentType();
+                ValueCodec element = forType(typeInformation.getMapValueType(), converter,
+                    conversions, codecs);
+                return factory != null && element != null
+                    && (keyType == null || keyType.getType() == String.class)
+                    ? new MapValueCodec(factory, element) : null;
+            }
+            ModelCodec<?> nested = create(type, converter, conversions, codecs);
+            return nested != null ? new NestedValueCodec(nested) : null;
+        }
+
+        static Supplier<Collection<Object>> getCollectionFactory(Class<?> type) {
+            Supplier<Collection<Object>> list = ArrayList::new;
+            Supplier<Collection<Object>> set = LinkedHashSet::new;
+            if (type.isInstance(list.get())) {
+                return list;
+            } else if (type.isInstance(set.get())) {
+                return set;
+            }
+            return null;
+        }
+
+        static Supplier<Map<String, Object>> getMapFactory(Class<?> type) {
+            Supplier<Map<String, Object>> map = LinkedHashMap::new;
+            return type.isInstance(map.get()) ? map : null;
+        }
+
+    }
+
+    /**
+     * Values stored as native BSON types, converted to the property type as the converter would.
+     */
+    private static final class SimpleValueCodec implements ValueCodec {
+
+        private final Class<?> type;
+
+        SimpleValueCodec(Class<?> type) {
+            this.type = type;
+        }
+
+        static boolean isSupported(Class<?> type) {
+            return type == String.class || type == Integer.class || type == Long.class
+                || type == Double.class || type == Float.class || type == Short.class
+                || type == Byte.class || type == Boolean.class || type == Date.class
+                || type == ObjectId.class || type == Decimal128.class || type.isEnum();
+        }
+
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public Object decode(BsonReader reader, DecoderContext decoderContext) {
+            Object value = NaturalValueCodec.INSTANCE.decode(reader, decoderContext);
+            if (value == null || type.isInstance(value)) {
+                return value;
+            } else if (value instanceof Number) {
+                Number number = (Number) value;
+                if (type == Integer.class) {
+                    return number.intValue();
+                } else if (type == Long.class) {
+                    return number.longValue();
+                } else if (type == Double.class) {
+                    return number.doubleValue();
+                } else if (type == Float.class) {
+                    return number.floatValue();
+                } else if (type == Short.class) {
+                    return number.shortValue();
+                } else if (type == Byte.class) {
+                    return number.byteValue();
+                } else if (type == Decimal128.class) {
+                    return new Decimal128(new BigDecimal(number.toString()));
+                }
+            } else if (type == String.class) {
+                return value instanceof ObjectId ? ((ObjectId) value).toHexString()
+                    : value.toString();
+            } else if (type.isEnum() && value instanceof String) {
+                return Enum.valueOf((Class<? extends Enum>) type, (String) value);
+            }
+            throw new CodecConfigurationException(String.format(
+                "Unable to decode value %s as type %s", value, type.getName()));
+        }
+
+        @Override
+        public void encode(BsonWriter writer, Object value, EncoderContext encoderContext) {
+            NaturalValueCodec.INSTANCE.encode(writer, value, encoderContext);
+        }
+
+    }
+
+    /**
+     * String record IDs, which are stored as object IDs whenever they are valid object IDs.
+     */
+    private static final class IdValueCodec implements ValueCodec {
+
+        static final IdValueCodec INSTANCE = new IdValueCodec();
+
+        @Override
+        public Object decode(BsonReader reader, DecoderContext decoderContext) {
+            Object value = NaturalValueCodec.INSTANCE.decode(reader, decoderContext);
+            if (value instanceof ObjectId) {
+                return ((ObjectId) value).toHexString();
+            }
+            return value != null ? value.toString() : null;
+        }
+
+        @Override
+        public void encode(BsonWriter writer, Object value, EncoderContext encoderContext) {
+            String id = (String) value;
+            if (ObjectId.isValid(id)) {
+                writer.writeObjectId(new ObjectId(id));
+            } else {
+                writer.writeString(id);
+            }
+        }
+
+    }
+
+    /**
+     * Values of properties without a specific type, read as their natural Java representation.
+     */
+    private static final class NaturalValueCodec implements ValueCodec {
+
+        static final NaturalValueCodec INSTANCE = new NaturalValueCodec();
+
+        @Override
+        public Object decode(BsonReader reader, DecoderContext decoderContext) {
+            switch (reader.getCurrentBsonType()) {
+                case NULL:
+                    reader.readNull();
+                    return null;
+                case STRING:
+                    return reader.readString();
+                case INT32:
+                    return reader.readInt32();
+                case INT64:
+                    return reader.readInt64();
+                case DOUBLE:
+                    return reader.readDouble();
+                case BOOLEAN:
+                    return reader.readBoolean();
+                case DATE_TIME:
+                    return new Date(reader.readDateTime());
+                case OBJECT_ID:
+                    return reader.readObjectId();
+                case DECIMAL128:
+                    return reader.readDecimal128();
+                case ARRAY:
+                    List<Object> list = new ArrayList<>();
+                    reader.readStartArray();
+                    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                        list.add(decode(reader, decoderContext));
+                    }
+                    reader.readEndArray();
+                    return list;
+                case DOCUMENT:
+                    Document document = new Document();
+                    reader.readStartDocument();
+                    while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                        document.put(reader.readName(), decode(reader, decoderContext));
+                    }
+                    reader.readEndDocument();
+                    return document;
+                default:
+                    throw new CodecConfigurationException(String.format(
+                        "Unsupported BSON type: %s", reader.getCurrentBsonType()));
+            }
+        }
+
+        @Override
+        public void encode(BsonWriter writer, Object value, EncoderContext encoderContext) {
+            if (value == null) {
+                writer.writeNull();
+            } else if (value instanceof String) {
+                writer.writeString((String) value);
+            } else if (value instanceof Integer || value instanceof Short
+                || value instanceof Byte) {
+                writer.writeInt32(((Number) value).intValue());
+            } else if (value instanceof Long) {
+                writer.writeInt64((Long) value);
+            } else if (value instanceof Double || value instanceof Float) {
+                writer.writeDouble(((Number) value).doubleValue());
+            } else if (value instanceof Boolean) {
+                writer.writeBoolean((Boolean) value);
+            } else if (value instanceof Date) {
+                writer.writeDateTime(((Date) value).getTime());
+            } else if (value instanceof ObjectId) {
+                writer.writeObjectId((ObjectId) value);
+            } else if (value instanceof Decimal128) {
+                writer.writeDecimal128((Decimal128) value);
+            } else if (value instanceof Enum) {
+                writer.writeString(((Enum<?>) value).name());
+            } else if (value instanceof Collection) {
+                writer.writeStartArray();
+                for (Object element : (Collection<?>) value) {
+                    encode(writer, element, encoderContext);
+                }
+                writer.writeEndArray();
+            } else if (value instanceof Map) {
+                writer.writeStartDocument();
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                    writer.writeName(String.valueOf(entry.getKey()));
+                    encode(writer, entry.getValue(), encoderContext);
+                }
+                writer.writeEndDocument();
+            } else {
+                throw new CodecConfigurationException(String.format(
+                    "Unable to encode value of type %s", value.getClass().getName()));
+            }
+        }
+
+    }
+
+    private static final class CollectionValueCodec implements ValueCodec {
+
+        private final Supplier<Collection<Object>> factory;
+        private final ValueCodec element;
+
+        CollectionValueCodec(Supplier<Collection<Object>> factory, ValueCodec element) {
+            this.factory = factory;
+            this.element = element;
+        }
+
+        @Override
+        public Object decode(BsonReader reader, DecoderContext decoderContext) {
+            if (reader.getCurrentBsonType() != BsonType.ARRAY) {
+                return NaturalValueCodec.INSTANCE.decode(reader, decoderContext);
+            }
+            Collection<Object> collection = factory.get();
+            reader.readStartArray();
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                collection.add(element.decode(reader, decoderContext));
+            }
+            reader.readEndArray();
+            return collection;
+        }
+
+        @Override
+        public void encode(BsonWriter writer, Object value, EncoderContext encoderContext) {
+            writer.writeStartArray();
+            for (Object item : (Collection<?>) value) {
+                if (item == null) {
+                    writer.writeNull();
+                } else {
+                    element.encode(writer, item, encoderContext);
+                }
+            }
+            writer.writeEndArray();
+        }
+
+    }
+
+    private static final class MapValueCodec implements ValueCodec {
+
+        private final Supplier<Map<String, Object>> factory;
+        private final ValueCodec element;
+
+        MapValueCodec(Supplier<Map<String, Object>> factory, ValueCodec element) {
+            this.factory = factory;
+            this.element = element;
+        }
+
+        @Override
+        public Object decode(BsonReader reader, DecoderContext decoderContext) {
+            if (reader.getCurrentBsonType() != BsonType.DOCUMENT) {
+                return NaturalValueCodec.INSTANCE.decode(reader, decoderContext);
+            }
+            Map<String, Object> map = factory.get();
+            reader.readStartDocument();
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                map.put(reader.readName(), element.decode(reader, decoderContext));
+            }
+            reader.readEndDocument();
+            return map;
+        }
+
+        @Override
+        public void encode(BsonWriter writer, Object value, EncoderContext encoderContext) {
+            writer.writeStartDocument();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                writer.writeName(String.valueOf(entry.getKey()));
+                if (entry.getValue() == null) {
+                    writer.writeNull();
+                } else {
+                    element.encode(writer, entry.getValue(), encoderContext);
+                }
+            }
+            writer.writeEndDocument();
+        }
+
+    }
+
+    private static final class NestedValueCodec implements ValueCodec {
+
+        private final ModelCodec<?> codec;
+
+        NestedValueCodec(ModelCodec<?> codec) {
+            this.codec = codec;
+        }
+
+        @Override
+        public Object decode(BsonReader reader, DecoderContext decoderContext) {
+            if (reader.getCurrentBsonType() != BsonType.DOCUMENT) {
+                return NaturalValueCodec.INSTANCE.decode(reader, decoderContext);
+            }
+            return codec.decode(reader, decoderContext);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void encode(BsonWriter writer, Object value, EncoderContext encoderContext) {
+            ((ModelCodec<Object>) codec).encode(writer, value, encoderContext.getChildContext());
+        }
+
+    }
+
+}
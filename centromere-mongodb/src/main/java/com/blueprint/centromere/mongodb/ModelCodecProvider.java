@@ -0,0 +1,113 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blueprint.centromere.mongodb;
+
+import com.blueprint.centromere.core.model.Model;
+import com.blueprint.centromere.core.repository.ModelRepositoryRegistry;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.bson.codecs.Codec;
+import org.bson.codecs.configuration.CodecProvider;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.convert.CustomConversions;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+/**
+ * {@link CodecProvider} of {@link ModelCodec} instances for every model with a registered
+ * repository.  Codecs are created once per model, when first requested, and all registered models
+ * are checked once all singleton beans have been created, so that models which must still be read
+ * by the mapping converter are reported at startup.  The supplied {@link CustomConversions} must
+ * be those registered with the converter, so that models with custom-converted property types
+ * are left to the converter.  {@link MongoModelRepository} uses the codec of its model, if one is
+ * available, to decode query results.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+public class ModelCodecProvider implements CodecProvider, SmartInitializingSingleton {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ModelCodecProvider.class);
+
+    private final MongoConverter converter;
+    private final CustomConversions conversions;
+    private final ModelRepositoryRegistry registry;
+    private final Map<Class<?>, Optional<ModelCodec<?>>> codecs = new ConcurrentHashMap<>();
+    private boolean enabled = true;
+
+    public ModelCodecProvider(MongoConverter converter, CustomConversions conversions,
+        ModelRepositoryRegistry registry) {
+        this.converter = converter;
+        this.conversions = conversions;
+        this.registry = registry;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        for (Class<? extends Model<?>> model : registry.getRegisteredModels()) {
+            if (getCodec(model) != null) {
+                LOGGER.info(String.format("Created codec for model: %s", model.getName()));
+            } else {
+                LOGGER.info(String.format("Model %s is not supported by codecs, and will be read "
+                    + "by the mapping converter", model.getName()));
+            }
+        }
+    }
+
+    /**
+     * Returns the codec of the requested model, or {@code null} if codecs are disabled, the model
+     * has no registered repository, or the model cannot be mapped by a {@link ModelCodec}.
+     *
+     * @param model model class
+     * @return the model codec, if one is available.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ModelCodec<T> getCodec(Class<T> model) {
+        if (!enabled || model == null) {
+            return null;
+        }
+        Optional<ModelCodec<?>> codec = codecs.get(model);
+        if (codec == null) {
+            if (!registry.isRegisteredModel(model)) {
+                return null;
+            }
+            codec = codecs.computeIfAbsent(model,
+                type -> Optional.ofNullable(ModelCodec.create(type, converter, conversions)));
+        }
+        return (ModelCodec<T>) codec.orElse(null);
+    }
+
+    @Override
+    public <T> Codec<T> get(Class<T> clazz, CodecRegistry codecRegistry) {
+        return getCodec(clazz);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+}
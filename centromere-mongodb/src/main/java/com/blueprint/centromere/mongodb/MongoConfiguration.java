@@ -18,11 +18,17 @@ package com.blueprint.centromere.mongodb;
 
 import com.blueprint.centromere.core.repository.DefaultModelRepositoryRegistry;
 import com.blueprint.centromere.core.repository.ModelRepositoryRegistry;
+import java.util.Collections;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
+import org.springframework.data.convert.CustomConversions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
 
 /**
@@ -46,6 +52,44 @@ public class MongoConfiguration {
             return new DefaultModelRepositoryRegistry(applicationContext);
         }
 
+        @Bean
+        public MongoIndexManager mongoIndexManager(MongoOperations mongoOperations,
+            @Value("${centromere.mongodb.create-indexes:true}") boolean createIndexes) {
+            MongoIndexManager indexManager
+                = new MongoIndexManager(mongoOperations, modelRepositoryRegistry());
+            indexManager.setEnabled(createIndexes);
+            return indexManager;
+        }
+
+        @Bean
+        public MongoIndexAdvisor mongoIndexAdvisor(MongoOperations mongoOperations,
+            @Value("${centromere.mongodb.index-advisor.sample-rate:"
+                + MongoIndexAdvisor.DEFAULT_SAMPLE_RATE + "}") double sampleRate) {
+            return new MongoIndexAdvisor(mongoOperations, sampleRate);
+        }
+
+        @Bean
+        public ModelCodecProvider modelCodecProvider(MongoOperations mongoOperations,
+            ObjectProvider<CustomConversions> customConversions,
+            @Value("${centromere.mongodb.codecs.enabled:true}") boolean codecsEnabled) {
+            ModelCodecProvider codecProvider = new ModelCodecProvider(
+                mongoOperations.getConverter(), customConversions.getIfAvailable(
+                    () -> new MongoCustomConversions(Collections.emptyList())),
+                modelRepositoryRegistry());
+            codecProvider.setEnabled(codecsEnabled);
+            return codecProvider;
+        }
+
+        @Bean
+        public NormalizedFieldEventListener normalizedFieldEventListener() {
+            return new NormalizedFieldEventListener();
+        }
+
+        @Bean
+        public MongoQueryExplainer mongoQueryExplainer(MongoOperations mongoOperations) {
+            return new MongoQueryExplainer(mongoOperations);
+        }
+
     }
 
 }
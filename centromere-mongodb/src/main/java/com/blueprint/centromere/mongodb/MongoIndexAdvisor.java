@@ -0,0 +1,240 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.blueprint.centromere.mongodb;
+
+import com.blueprint.centromere.core.repository.Evaluation;
+import com.blueprint.centromere.core.repository.IndexAdvisor;
+import com.blueprint.centromere.core.repository.IndexRecommendation;
+import com.blueprint.centromere.core.repository.QueryCriteria;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * {@link IndexAdvisor} implementation that asks MongoDB to explain a random sample of the queries
+ * made by {@link MongoModelRepository} instances.  Queries are grouped by shape, the set of
+ * queried keys and {@link Evaluation} types, and each shape that was answered with a collection
+ * scan is reported as a recommended index.  Explanations run on a single background thread, and
+ * samples are dropped rather than queued when it falls behind, so sampling never delays the
+ * query being sampled.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+public class MongoIndexAdvisor implements IndexAdvisor, DisposableBean {
+
+    public static final double DEFAULT_SAMPLE_RATE = 0.01;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MongoIndexAdvisor.class);
+    private static final int MAX_PENDING_SAMPLES = 100;
+    private static final Set<Evaluation> EQUALITY_EVALUATIONS = EnumSet.of(Evaluation.EQUALS,
+        Evaluation.EQUALS_IGNORE_CASE, Evaluation.IN, Evaluation.IS_NULL, Evaluation.IS_TRUE,
+        Evaluation.IS_FALSE);
+    private static final Set<Evaluation> RANGE_EVALUATIONS = EnumSet.of(Evaluation.STARTS_WITH,
+        Evaluation.STARTS_WITH_IGNORE_CASE, Evaluation.GREATER_THAN,
+        Evaluation.GREATER_THAN_EQUALS, Evaluation.LESS_THAN, Evaluation.LESS_THAN_EQUALS,
+        Evaluation.BETWEEN, Evaluation.BETWEEN_INCLUSIVE, Evaluation.OUTSIDE,
+        Evaluation.OUTSIDE_INCLUSIVE);
+
+    private final MongoOperations mongoOperations;
+    private final double sampleRate;
+    private final ThreadPoolExecutor executor;
+    private final ConcurrentMap<QueryShape, ShapeStatistics> shapes = new ConcurrentHashMap<>();
+
+    public MongoIndexAdvisor(MongoOperations mongoOperations, double sampleRate) {
+        this.mongoOperations = mongoOperations;
+        this.sampleRate = sampleRate;
+        CustomizableThreadFactory threadFactory
+            = new CustomizableThreadFactory("centromere-index-advisor-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(MAX_PENDING_SAMPLES), threadFactory,
+            new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /**
+     * Submits a query for explanation, if it is selected by the sample rate.  Unfiltered queries
+     * are never sampled, since no index could serve them.
+     *
+     * @param model queried model class
+     * @param criterias criteria the query was built from
+     * @param query query sent to the database
+     */
+    public void sample(Class<?> model, Iterable<QueryCriteria> criterias, Query query) {
+        if (sampleRate <= 0 || criterias == null
+            || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        Map<String, Evaluation> evaluations = new TreeMap<>();
+        addEvaluations(criterias, evaluations);
+        if (evaluations.isEmpty()) {
+            return;
+        }
+        QueryShape shape = new QueryShape(model, evaluations);
+        Document filter = query.getQueryObject();
+        executor.execute(() -> explain(shape, filter));
+    }
+
+    /**
+     * Collects the key and evaluation of each field criteria, including those nested in composite
+     * criteria, whose fields are equally candidates for indexing.
+     */
+    private static void addEvaluations(Iterable<QueryCriteria> criterias,
+        Map<String, Evaluation> evaluations) {
+        for (QueryCriteria criteria : criterias) {
+            if (criteria == null) {
+                continue;
+            }
+            if (criteria.isComposite()) {
+                addEvaluations(criteria.getCriterias(), evaluations);
+            } else {
+                evaluations.putIfAbsent(criteria.getKey(), criteria.getEvaluation());
+            }
+        }
+    }
+
+    private void explain(QueryShape shape, Document filter) {
+        try {
+            boolean scan = MongoQueryUtils.isCollectionScan(
+                MongoQueryUtils.getWinningPlan(mongoOperations, shape.model, filter));
+            shapes.computeIfAbsent(shape, s -> new ShapeStatistics()).record(scan);
+        } catch (RuntimeException e) {
+            LOGGER.warn(String.format("Unable to explain query on model %s: %s",
+                shape.model.getName(), e.getMessage()));
+        }
+    }
+
+    /**
+     * Returns an index recommendation for each sampled query shape that required a collection
+     * scan, ordered by the number of collection scans observed.  Recommended index keys list the
+     * fields queried for equality first, followed by those queried by range, and then the rest.
+     *
+     * @return index recommendations
+     */
+    @Override
+    public List<IndexRecommendation> getRecommendations() {
+        List<IndexRecommendation> recommendations = new ArrayList<>();
+        for (Map.Entry<QueryShape, ShapeStatistics> entry : shapes.entrySet()) {
+            QueryShape shape = entry.getKey();
+            long scans = entry.getValue().collectionScans.sum();
+            if (scans == 0) {
+                continue;
+            }
+            List<String> criteria = new ArrayList<>();
+            Set<String> equality = new TreeSet<>();
+            Set<String> range = new TreeSet<>();
+            Set<String> other = new TreeSet<>();
+            for (Map.Entry<String, Evaluation> evaluation : shape.evaluations.entrySet()) {
+                criteria.add(evaluation.getKey() + ":" + evaluation.getValue());
+                if (EQUALITY_EVALUATIONS.contains(evaluation.getValue())) {
+                    equality.add(evaluation.getKey());
+                } else if (RANGE_EVALUATIONS.contains(evaluation.getValue())) {
+                    range.add(evaluation.getKey());
+                } else {
+                    other.add(evaluation.getKey());
+                }
+            }
+            List<String> fields = new ArrayList<>(equality);
+            fields.addAll(range);
+            fields.addAll(other);
+            recommendations.add(new IndexRecommendation(shape.model.getName(),
+                Collections.unmodifiableList(fields), Collections.unmodifiableList(criteria),
+                entry.getValue().samples.sum(), scans));
+        }
+        recommendations.sort(
+            Comparator.comparingLong(IndexRecommendation::getCollectionScans).reversed());
+        return recommendations;
+    }
+
+    @Override
+    public void reset() {
+        shapes.clear();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    private static final class QueryShape {
+
+        private final Class<?> model;
+        private final Map<String, Evaluation> evaluations;
+
+        QueryShape(Class<?> model, Map<String, Evaluation> evaluations) {
+            this.model = model;
+            this.evaluations = evaluations;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof QueryShape)) {
+                return false;
+            }
+            QueryShape that = (QueryShape) o;
+            return model.equals(that.model) && evaluations.equals(that.evaluations);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(model, evaluations);
+        }
+    }
+
+    private static final class ShapeStatistics {
+
+        private final LongAdder samples = new LongAdder();
+        private final LongAdder collectionScans = new LongAdder();
+
+        void record(boolean collectionScan) {
+            samples.increment();
+            if (collectionScan) {
+                collectionScans.increment();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.blueprint.centromere.mongodb;
+
+import com.blueprint.centromere.core.model.Model;
+import com.blueprint.centromere.core.model.ModelIndex;
+import com.blueprint.centromere.core.model.ModelReflectionUtils;
+import com.blueprint.centromere.core.repository.ModelRepositoryRegistry;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+
+/**
+ * Creates the indexes described by model metadata for every model with a registered repository,
+ * once all singleton beans have been created.  Each {@link ModelIndex} declaration becomes an
+ * index, and each {@link com.blueprint.centromere.core.model.Linked} field is indexed on its own,
+ * unless a declared index already begins with it.  The normalized copy of each {@link
+ * com.blueprint.centromere.core.model.CaseInsensitive} field is indexed in the same way.  Indexes
+ * that already exist are left as-is, so creation is safe to repeat on every startup.  Records
+ * that are missing the normalized copy of a case-insensitive value, such as those written before
+ * the field was marked, or by other clients, are then back-filled, since case-insensitive queries
+ * only consult the normalized copies.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+public class MongoIndexManager implements SmartInitializingSingleton {
+
+    /**
+     * Maximum number of records updated per round-trip by {@link #normalizeRecords()}.
+     */
+    public static final int BATCH_SIZE = 1000;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MongoIndexManager.class);
+
+    private final MongoOperations mongoOperations;
+    private final ModelRepositoryRegistry registry;
+    private boolean enabled = true;
+
+    public MongoIndexManager(MongoOperations mongoOperations, ModelRepositoryRegistry registry) {
+        this.mongoOperations = mongoOperations;
+        this.registry = registry;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) {
+            createIndexes();
+            normalizeRecords();
+        }
+    }
+
+    /**
+     * Creates the indexes of every registered model that do not exist yet.
+     */
+    public void createIndexes() {
+        for (Class<? extends Model<?>> model : registry.getRegisteredModels()) {
+            IndexOperations indexOperations = mongoOperations.indexOps(model);
+            for (Index index : getIndexes(model)) {
+                String name = indexOperations.ensureIndex(index);
+                LOGGER.info(String.format("Ensured index %s for model: %s", name, model.getName()));
+            }
+        }
+    }
+
+    /**
+     * Adds the missing normalized copies of case-insensitive field values to the records of every
+     * registered model, using unordered bulk updates of {@link #BATCH_SIZE} records at a time.
+     * Only records with a case-insensitive value that has no normalized copy are read, so this is
+     * cheap to repeat once the records are up to date.
+     */
+    public void normalizeRecords() {
+        for (Class<? extends Model<?>> model : registry.getRegisteredModels()) {
+            Query query = getUnnormalizedRecordsQuery(model);
+            if (query == null) {
+                continue;
+            }
+            long count = 0;
+            BulkOperations operations = mongoOperations.bulkOps(BulkMode.UNORDERED, model);
+            try (CloseableIterator<? extends Model<?>> iterator
+                = mongoOperations.stream(query, model)) {
+                while (iterator.hasNext()) {
+                    Model<?> record = iterator.next();
+                    Document document = new Document();
+                    NormalizedFields.apply(record, document);
+                    operations.updateOne(Query.query(Criteria.where("_id").is(record.getId())),
+                        Update.update(NormalizedFields.DOCUMENT_FIELD,
+                            document.get(NormalizedFields.DOCUMENT_FIELD)));
+                    count = count + 1;
+                    if (count % BATCH_SIZE == 0) {
+                        operations.execute();
+                        operations = mongoOperations.bulkOps(BulkMode.UNORDERED, model);
+                    }
+                }
+            }
+            if (count % BATCH_SIZE > 0) {
+                operations.execute();
+            }
+            if (count > 0) {
+                LOGGER.info(String.format("Normalized %d records for model: %s", count,
+                    model.getName()));
+            }
+        }
+    }
+
+    /**
+     * Returns a query for the records of the model that have a value in a case-insensitive field,
+     * but no normalized copy of it, or {@code null} if the model has no case-insensitive fields.
+     */
+    private Query getUnnormalizedRecordsQuery(Class<?> model) {
+        List<Field> fields = NormalizedFields.getFields(model);
+        if (fields.isEmpty()) {
+            return null;
+        }
+        List<Criteria> criterias = new ArrayList<>();
+        for (Field field : fields) {
+            criterias.add(Criteria.where(field.getName()).ne(null)
+                .and(NormalizedFields.getFieldName(field.getName())).is(null));
+        }
+        return new Query(new Criteria().orOperator(criterias.toArray(new Criteria[0])));
+    }
+
+    /**
+     * Returns the index definitions described by the metadata of the requested model.
+     *
+     * @param model model class
+     * @return index definitions, declared indexes first.
+     */
+    public static List<Index> getIndexes(Class<?> model) {
+        List<Index> indexes = new ArrayList<>();
+        Set<String> leadingFields = new HashSet<>();
+        for (ModelIndex declaration
+            : AnnotatedElementUtils.findMergedRepeatableAnnotations(model, ModelIndex.class)) {
+            if (declaration.fields().length == 0) {
+                continue;
+            }
+            Index index = new Index();
+            for (String field : declaration.fields()) {
+                index.on(field, Sort.Direction.ASC);
+            }
+            if (declaration.unique()) {
+                index.unique();
+            }
+            if (!"".equals(declaration.name())) {
+                index.named(declaration.name());
+            }
+            indexes.add(index.background());
+            leadingFields.add(declaration.fields()[0]);
+        }
+        for (Field field : ModelReflectionUtils.getLinkedModelFields(model)) {
+            if (leadingFields.add(field.getName())) {
+                indexes.add(new Index().on(field.getName(), Sort.Direction.ASC).background());
+            }
+        }
+        for (Field field : NormalizedFields.getFields(model)) {
+            String name = NormalizedFields.getFieldName(field.getName());
+            if (leadingFields.add(name)) {
+                indexes.add(new Index().on(name, Sort.Direction.ASC).background());
+            }
+        }
+        return indexes;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blueprint.centromere.mongodb;
+
+import com.mongodb.client.MongoCursor;
+import java.util.function.Function;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoExceptionTranslator;
+import org.springframework.data.util.CloseableIterator;
+
+/**
+ * {@link CloseableIterator} backed by an open MongoDB {@link MongoCursor}.  Documents are only
+ * converted to their model representation as they are requested, so the number of records held in
+ * memory is bounded by the cursor batch size, rather than by the size of the result set.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+class MongoModelCursor<D, T> implements CloseableIterator<T> {
+
+    private static final MongoExceptionTranslator EXCEPTION_TRANSLATOR
+        = new MongoExceptionTranslator();
+
+    private final MongoCursor<D> cursor;
+    private final Function<D, T> converter;
+
+    MongoModelCursor(MongoCursor<D> cursor, Function<D, T> converter) {
+        this.cursor = cursor;
+        this.converter = converter;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            return cursor.hasNext();
+        } catch (RuntimeException e) {
+            throw translateException(e);
+        }
+    }
+
+    @Override
+    public T next() {
+        try {
+            return converter.apply(cursor.next());
+        } catch (RuntimeException e) {
+            throw translateException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            cursor.close();
+        } catch (RuntimeException e) {
+            throw translateException(e);
+        }
+    }
+
+    private static RuntimeException translateException(RuntimeException e) {
+        DataAccessException translated = EXCEPTION_TRANSLATOR.translateExceptionIfPossible(e);
+        return translated != null ? translated : e;
+    }
+
+}
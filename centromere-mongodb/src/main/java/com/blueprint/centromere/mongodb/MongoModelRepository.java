@@ -17,28 +17,93 @@
 package com.blueprint.centromere.mongodb;
 
 import com.blueprint.centromere.core.exceptions.ModelPersistenceException;
+import com.blueprint.centromere.core.exceptions.QueryParameterException;
 import com.blueprint.centromere.core.model.Model;
+import com.blueprint.centromere.core.repository.ContinuationPage;
+import com.blueprint.centromere.core.repository.ContinuationToken;
+import com.blueprint.centromere.core.repository.Evaluation;
+import com.blueprint.centromere.core.repository.GroupSummary;
 import com.blueprint.centromere.core.repository.ModelRepository;
+import com.blueprint.centromere.core.repository.Projection;
 import com.blueprint.centromere.core.repository.QueryCriteria;
+import com.blueprint.centromere.core.repository.QueryCriteriaMatcher;
+import com.blueprint.centromere.core.repository.QueryPlan;
+import com.blueprint.centromere.core.repository.RawJsonResults;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
 import java.io.Serializable;
+import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.bson.codecs.RawBsonDocumentCodec;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.MongoMappingEvent;
 import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Field;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.repository.query.MongoEntityInformation;
 import org.springframework.data.mongodb.repository.support.SimpleMongoRepository;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
 
 /**
  * Base implementation of {@link ModelRepository} for MongoDB databases. Extends the Spring Data
  * MongoDB {@link SimpleMongoRepository} class.
  *
+ * <p>Finds and counts with an {@code IN} criteria of more than {@link #getInChunkSize()} values
+ * are split into sub-queries over chunks of the values, which run in parallel on the query
+ * executor, if one is configured.  Their results are merged in the requested sort order, and
+ * paged in memory, so each sub-query fetches at most the records up to the end of the requested
+ * page.  Sort properties omitted by a projection are fetched by the sub-queries, for merging, and
+ * then cleared from the results.
+ *
+ * <p>If a {@link ModelCodecProvider} is configured and supports the model, query results are
+ * decoded by its {@link ModelCodec}, directly from the driver's BSON reader, rather than first
+ * being read into generic documents and then mapped by the {@code MongoConverter}.  Lifecycle
+ * events of the mapping layer, such as {@code AfterConvertEvent}, are not published for records
+ * read this way.  Records are always written by the {@code MongoConverter}, and bulk updates and
+ * upserts publish the same mapping events as {@link MongoOperations#save(Object)}, through the
+ * configured {@link ApplicationEventPublisher}.
+ *
  * @author woemler
  * @since 0.5.0
  */
@@ -46,94 +111,1025 @@ public class MongoModelRepository<T extends Model<I>, I extends Serializable>
     extends SimpleMongoRepository<T, I>
     implements ModelRepository<T, I> {
 
+    public static final int DEFAULT_CURSOR_BATCH_SIZE = 1000;
+    public static final int DEFAULT_COUNT_THREADS = 4;
+    public static final int DEFAULT_BULK_WRITE_BATCH_SIZE = 1000;
+    public static final int DEFAULT_IN_CHUNK_SIZE = 5000;
+    public static final int DEFAULT_QUERY_THREADS = 4;
+
     private final MongoOperations mongoOperations;
+    private final MongoEntityInformation<T, I> metadata;
     private final Class<T> model;
+    private final Map<String, Document> indexKeys = new ConcurrentHashMap<>();
+    private int cursorBatchSize = DEFAULT_CURSOR_BATCH_SIZE;
+    private int bulkWriteBatchSize = DEFAULT_BULK_WRITE_BATCH_SIZE;
+    private int inChunkSize = DEFAULT_IN_CHUNK_SIZE;
+    private Executor countExecutor;
+    private Executor queryExecutor;
+    private ModelCodecProvider codecProvider;
+    private volatile Map<String, String> propertyNames;
+    private MongoIndexAdvisor indexAdvisor;
+    private ApplicationEventPublisher eventPublisher;
 
     public MongoModelRepository(MongoEntityInformation<T, I> metadata,
         MongoOperations mongoOperations) {
         super(metadata, mongoOperations);
         this.mongoOperations = mongoOperations;
+        this.metadata = metadata;
         this.model = metadata.getJavaType();
     }
 
     @Override
     public List<T> find(Iterable<QueryCriteria> queryCriterias) {
-        Criteria criteria = getQueryFromQueryCriteria(queryCriterias);
+        List<List<QueryCriteria>> chunks = getCriteriaChunks(queryCriterias);
+        if (chunks != null) {
+            return findChunked(chunks, Sort.unsorted(), Projection.all(), null, 0);
+        }
+        Criteria criteria = MongoQueryUtils.getQueryFromQueryCriteria(queryCriterias,
+            this.getModel());
         Query query = new Query();
         if (criteria != null) {
             query.addCriteria(criteria);
         }
-        return mongoOperations.find(query, this.getModel());
+        adviseIndexes(queryCriterias, query);
+        return findEntities(query);
     }
 
     @Override
     public List<T> find(Iterable<QueryCriteria> queryCriterias, Sort sort) {
-        Criteria criteria = getQueryFromQueryCriteria(queryCriterias);
+        return find(queryCriterias, sort, Projection.all());
+    }
+
+    /**
+     * Searches for all records that satisfy the requested criteria, and returns them in the
+     * requested order.  Only the fields selected by the projection are returned by the database.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @param sort {@link Sort}
+     * @param projection {@link Projection} describing the fields to fetch.
+     * @return all matching {@code T} records.
+     */
+    @Override
+    public List<T> find(Iterable<QueryCriteria> queryCriterias, Sort sort,
+        Projection projection) {
+        return find(queryCriterias, sort, projection, null);
+    }
+
+    /**
+     * Searches for all records that satisfy the requested criteria, as in {@link #find(Iterable,
+     * Sort, Projection)}, forcing the database to use the named index.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @param sort {@link Sort}
+     * @param projection {@link Projection} describing the fields to fetch.
+     * @param hint name of the index to use, or {@code null} to let the database choose.
+     * @return all matching {@code T} records.
+     */
+    @Override
+    public List<T> find(Iterable<QueryCriteria> queryCriterias, Sort sort,
+        Projection projection, String hint) {
+        List<List<QueryCriteria>> chunks = getCriteriaChunks(queryCriterias);
+        if (chunks != null) {
+            return findChunked(chunks, sort, projection, hint, 0);
+        }
+        Criteria criteria = MongoQueryUtils.getQueryFromQueryCriteria(queryCriterias,
+            this.getModel());
         Query query = new Query();
         if (criteria != null) {
             query.addCriteria(criteria);
         }
-        return mongoOperations.find(query.with(sort), this.getModel());
+        applyProjection(query, projection);
+        applyHint(query, hint);
+        adviseIndexes(queryCriterias, query);
+        return findEntities(query.with(sort));
     }
 
+    /**
+     * Searches for all records that satisfy the requested criteria, and returns them as a paged
+     * collection.  The total record count is not needed when it can be determined from the page
+     * content, such as when the first page is not full.  Without a count executor, the count is
+     * then skipped.  When a count executor is configured and the query is filtered, the count is
+     * instead started before the page query, to run concurrently with it, and is cancelled if it
+     * turns out not to be needed.  A count that has already started runs to completion, so
+     * requesting a {@link #findSlice(Iterable, Pageable)}, eg. with the {@code _count=false}
+     * request parameter, is the only way to avoid it entirely in this mode.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @param pageable {@link Pageable}
+     * @return {@link Page} containing the desired set of records.
+     */
     @Override
     public Page<T> find(Iterable<QueryCriteria> queryCriterias, Pageable pageable) {
-        Criteria criteria = getQueryFromQueryCriteria(queryCriterias);
+        return find(queryCriterias, pageable, Projection.all());
+    }
+
+    /**
+     * Searches for all records that satisfy the requested criteria, and returns them as a paged
+     * collection, as in {@link #find(Iterable, Pageable)}.  Only the fields selected by the
+     * projection are returned by the database.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @param pageable {@link Pageable}
+     * @param projection {@link Projection} describing the fields to fetch.
+     * @return {@link Page} containing the desired set of records.
+     */
+    @Override
+    public Page<T> find(Iterable<QueryCriteria> queryCriterias, Pageable pageable,
+        Projection projection) {
+        return find(queryCriterias, pageable, projection, null);
+    }
+
+    /**
+     * Searches for all records that satisfy the requested criteria, and returns them as a paged
+     * collection, as in {@link #find(Iterable, Pageable, Projection)}, forcing the page query to
+     * use the named index.  The total record count is not hinted.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @param pageable {@link Pageable}
+     * @param projection {@link Projection} describing the fields to fetch.
+     * @param hint name of the index to use, or {@code null} to let the database choose.
+     * @return {@link Page} containing the desired set of records.
+     */
+    @Override
+    public Page<T> find(Iterable<QueryCriteria> queryCriterias, Pageable pageable,
+        Projection projection, String hint) {
+        List<List<QueryCriteria>> chunks = getCriteriaChunks(queryCriterias);
+        if (chunks != null) {
+            if (pageable.isUnpaged()) {
+                return new PageImpl<>(
+                    findChunked(chunks, pageable.getSort(), projection, hint, 0));
+            }
+            List<T> entities = getChunkedPage(findChunked(chunks, getChunkedSort(pageable),
+                projection, hint, pageable.getOffset() + pageable.getPageSize()), pageable);
+            return PageableExecutionUtils.getPage(entities, pageable, () -> countChunked(chunks));
+        }
+        Criteria criteria = MongoQueryUtils.getQueryFromQueryCriteria(queryCriterias,
+            this.getModel());
+        Query query = new Query();
+        Query countQuery = new Query();
+        if (criteria != null) {
+            query.addCriteria(criteria);
+            countQuery.addCriteria(criteria);
+        }
+        applyProjection(query, projection);
+        applyHint(query, hint);
+        adviseIndexes(queryCriterias, query);
+        CompletableFuture<Long> total = null;
+        if (criteria != null && countExecutor != null && pageable.isPaged()) {
+            total = CompletableFuture.supplyAsync(() -> count(countQuery), countExecutor);
+        }
+        if (total == null) {
+            return PageableExecutionUtils.getPage(findEntities(query.with(pageable)), pageable,
+                () -> count(countQuery));
+        }
+        CompletableFuture<Long> count = total;
+        try {
+            return PageableExecutionUtils.getPage(findEntities(query.with(pageable)), pageable,
+                () -> join(count));
+        } finally {
+            count.cancel(false);
+        }
+    }
+
+    /**
+     * Searches for all records that satisfy the requested criteria, and returns them as a {@link
+     * Slice}.  One record beyond the requested page size is fetched to determine whether another
+     * slice follows, no count query is performed.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @param pageable {@link Pageable}
+     * @return {@link Slice} containing the desired set of records.
+     */
+    @Override
+    public Slice<T> findSlice(Iterable<QueryCriteria> queryCriterias, Pageable pageable) {
+        return findSlice(queryCriterias, pageable, Projection.all());
+    }
+
+    /**
+     * Searches for all records that satisfy the requested criteria, and returns them as a {@link
+     * Slice}, as in {@link #findSlice(Iterable, Pageable)}.  Only the fields selected by the
+     * projection are returned by the database.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @param pageable {@link Pageable}
+     * @param projection {@link Projection} describing the fields to fetch.
+     * @return {@link Slice} containing the desired set of records.
+     */
+    @Override
+    public Slice<T> findSlice(Iterable<QueryCriteria> queryCriterias, Pageable pageable,
+        Projection projection) {
+        return findSlice(queryCriterias, pageable, projection, null);
+    }
+
+    /**
+     * Searches for all records that satisfy the requested criteria, and returns them as a {@link
+     * Slice}, as in {@link #findSlice(Iterable, Pageable, Projection)}, forcing the database to use
+     * the named index.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @param pageable {@link Pageable}
+     * @param projection {@link Projection} describing the fields to fetch.
+     * @param hint name of the index to use, or {@code null} to let the database choose.
+     * @return {@link Slice} containing the desired set of records.
+     */
+    @Override
+    public Slice<T> findSlice(Iterable<QueryCriteria> queryCriterias, Pageable pageable,
+        Projection projection, String hint) {
+        List<List<QueryCriteria>> chunks = getCriteriaChunks(queryCriterias);
+        if (chunks != null) {
+            if (pageable.isUnpaged()) {
+                return new SliceImpl<>(
+                    findChunked(chunks, pageable.getSort(), projection, hint, 0));
+            }
+            List<T> entities = findChunked(chunks, getChunkedSort(pageable), projection, hint,
+                pageable.getOffset() + pageable.getPageSize() + 1);
+            boolean hasNext = entities.size() > pageable.getOffset() + pageable.getPageSize();
+            return new SliceImpl<>(getChunkedPage(entities, pageable), pageable, hasNext);
+        }
+        Criteria criteria = MongoQueryUtils.getQueryFromQueryCriteria(queryCriterias,
+            this.getModel());
+        Query query = new Query();
+        if (criteria != null) {
+            query.addCriteria(criteria);
+        }
+        applyProjection(query, projection);
+        applyHint(query, hint);
+        adviseIndexes(queryCriterias, query);
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(findEntities(query));
+        }
+        query.with(pageable).limit(pageable.getPageSize() + 1);
+        List<T> entities = findEntities(query);
+        boolean hasNext = entities.size() > pageable.getPageSize();
+        if (hasNext) {
+            entities = entities.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(entities, pageable, hasNext);
+    }
+
+    @Override
+    public boolean isRawJsonSupported() {
+        return true;
+    }
+
+    /**
+     * Searches for all records that satisfy the requested criteria, as in {@link #find(Iterable,
+     * Sort, Projection, String)}, and returns them as the raw BSON documents returned by the
+     * database.  Oversized {@code IN} criteria are not split into sub-queries.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @param sort {@link Sort}
+     * @param projection {@link Projection} describing the fields to fetch.
+     * @param hint name of the index to use, or {@code null} to let the database choose.
+     * @return {@link MongoRawJsonResults} containing the matching records.
+     */
+    @Override
+    public RawJsonResults findRawJson(Iterable<QueryCriteria> queryCriterias, Sort sort,
+        Projection projection, String hint) {
+        Criteria criteria = MongoQueryUtils.getQueryFromQueryCriteria(queryCriterias,
+            this.getModel());
+        Query query = new Query();
+        if (criteria != null) {
+            query.addCriteria(criteria);
+        }
+        applyProjection(query, projection);
+        applyHint(query, hint);
+        adviseIndexes(queryCriterias, query);
+        List<RawBsonDocument> documents = findDocuments(query.with(sort),
+            new RawBsonDocumentCodec());
+        return new MongoRawJsonResults(documents, getPropertyNames());
+    }
+
+    /**
+     * Returns the record with the requested ID.  Only the fields selected by the projection are
+     * returned by the database.
+     *
+     * @param id record ID
+     * @param projection {@link Projection} describing the fields to fetch.
+     * @return the matching record, if one exists.
+     */
+    @Override
+    public Optional<T> findById(I id, Projection projection) {
+        if (projection == null || projection.isAllFields()) {
+            return findById(id);
+        }
+        Query query = new Query(Criteria.where(metadata.getIdAttribute()).is(id));
+        applyProjection(query, projection);
+        return Optional.ofNullable(mongoOperations.findOne(query, this.getModel()));
+    }
+
+    /**
+     * Searches for a single page of records using keyset pagination.  The continuation token is
+     * translated into a range query on the sort key fields, so that the page can be located with
+     * an index seek, given an index on the sort fields, rather than by skipping preceding records.
+     * One record beyond the requested page size is fetched, to determine whether another page
+     * follows.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @param sort {@link Sort}, ignored if a continuation token is supplied.
+     * @param token position of the last record of the previous page, or {@code null}.
+     * @param size maximum number of records to return.
+     * @return {@link ContinuationPage} containing the records and the token for the next page.
+     */
+    @Override
+    public ContinuationPage<T> findAfter(Iterable<QueryCriteria> queryCriterias, Sort sort,
+        ContinuationToken token, int size) {
+        Assert.isTrue(size > 0, "Page size must be a positive integer.");
+        Sort keysetSort = token != null ? token.getSort() : ContinuationToken.getKeysetSort(sort);
+        List<Criteria> criteriaList = new ArrayList<>();
+        Criteria criteria = MongoQueryUtils.getQueryFromQueryCriteria(queryCriterias,
+            this.getModel());
+        if (criteria != null) {
+            criteriaList.add(criteria);
+        }
+        if (token != null) {
+            criteriaList.add(getKeysetCriteria(token));
+        }
+        Query query = new Query();
+        if (criteriaList.size() == 1) {
+            query.addCriteria(criteriaList.get(0));
+        } else if (criteriaList.size() > 1) {
+            query.addCriteria(new Criteria().andOperator(criteriaList.toArray(new Criteria[]{})));
+        }
+        query.with(keysetSort).limit(size + 1);
+        return ContinuationPage.of(findEntities(query), size, keysetSort);
+    }
+
+    /**
+     * Searches for all records that satisfy the requested criteria, and returns them in the
+     * requested order as a {@link CloseableIterator} backed by a MongoDB cursor.  Documents are
+     * retrieved from the server in batches of {@link #getCursorBatchSize()} records, and each is
+     * only mapped to {@code T} as the iterator advances.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @param sort {@link Sort}
+     * @return iterator over all matching {@code T} records.
+     */
+    @Override
+    public CloseableIterator<T> stream(Iterable<QueryCriteria> queryCriterias, Sort sort) {
+        Criteria criteria = MongoQueryUtils.getQueryFromQueryCriteria(queryCriterias,
+            this.getModel());
         Query query = new Query();
         if (criteria != null) {
             query.addCriteria(criteria);
         }
-        List<T> entities = mongoOperations.find(query.with(pageable), this.getModel());
-        long count = count(queryCriterias);
-        return new PageImpl<>(entities, pageable, count);
+        adviseIndexes(queryCriterias, query);
+        MongoPersistentEntity<?> entity = getPersistentEntity();
+        Document filter = new QueryMapper(mongoOperations.getConverter())
+            .getMappedObject(query.getQueryObject(), entity);
+        Document sortObject = getMappedSortObject(sort, entity);
+        ModelCodec<T> codec = getCodec();
+        if (codec != null) {
+            MongoCursor<T> cursor = mongoOperations.execute(metadata.getCollectionName(),
+                collection -> withCodec(collection, codec).find(filter, model)
+                    .sort(sortObject)
+                    .batchSize(cursorBatchSize)
+                    .iterator());
+            return new MongoModelCursor<>(cursor, Function.identity());
+        }
+        MongoCursor<Document> cursor = mongoOperations.execute(metadata.getCollectionName(),
+            collection -> collection.find(filter)
+                .sort(sortObject)
+                .batchSize(cursorBatchSize)
+                .iterator());
+        return new MongoModelCursor<>(cursor,
+            document -> mongoOperations.getConverter().read(model, document));
     }
 
     /**
-     * Returns a count of all records that satisfy the requested criteria.
+     * Returns a count of all records that satisfy the requested criteria.  Unfiltered counts are
+     * answered from the collection metadata, rather than by scanning the collection.
      *
      * @param queryCriterias {@link QueryCriteria}
      * @return a count of {@code T} records.
      */
     @Override
     public long count(Iterable<QueryCriteria> queryCriterias) {
-        Criteria criteria = getQueryFromQueryCriteria(queryCriterias);
+        List<List<QueryCriteria>> chunks = getCriteriaChunks(queryCriterias);
+        if (chunks != null) {
+            return countChunked(chunks);
+        }
+        Criteria criteria = MongoQueryUtils.getQueryFromQueryCriteria(queryCriterias,
+            this.getModel());
         Query query = new Query();
         if (criteria != null) {
             query.addCriteria(criteria);
         }
+        adviseIndexes(queryCriterias, query);
+        return count(query);
+    }
+
+    private long count(Query query) {
+        if (query.getQueryObject().isEmpty()) {
+            return mongoOperations.getCollection(mongoOperations.getCollectionName(model)).count();
+        }
         return mongoOperations.count(query, this.getModel());
     }
 
+    @Override
+    public QueryPlan explain(Iterable<QueryCriteria> queryCriterias, Sort sort) {
+        return explain(queryCriterias, sort, null);
+    }
+
+    /**
+     * Describes how the database answers a query for all records that satisfy the requested
+     * criteria, in the requested order.  The query is executed by the {@code explain} command,
+     * with {@code executionStats} verbosity, so that the reported counts reflect the work actually
+     * performed, but no records are returned.  Queries with oversized {@code IN} criteria are
+     * explained as a single query, although {@link #find(Iterable, Sort)} would split them.
+     *
+     * @param queryCriterias {@link QueryCriteria}
+     * @param sort {@link Sort}
+     * @param hint name of the index to use, or {@code null} to let the database choose.
+     * @return {@link QueryPlan} describing the query execution.
+     */
+    @Override
+    public QueryPlan explain(Iterable<QueryCriteria> queryCriterias, Sort sort, String hint) {
+        Criteria criteria = MongoQueryUtils.getQueryFromQueryCriteria(queryCriterias,
+            this.getModel());
+        Query query = new Query();
+        if (criteria != null) {
+            query.addCriteria(criteria);
+        }
+        if (sort != null) {
+            query.with(sort);
+        }
+        Document explanation = MongoQueryUtils.explain(mongoOperations, model,
+            query.getQueryObject(), query.getSortObject(), hint, "executionStats");
+        Document plan = MongoQueryUtils.getWinningPlan(explanation);
+        Object stats = explanation.get("executionStats");
+        Document executionStats = stats instanceof Document ? (Document) stats : new Document();
+        return new QueryPlan(model.getName(), MongoQueryUtils.getPlanSummary(plan),
+            MongoQueryUtils.getIndexNames(plan), MongoQueryUtils.isCollectionScan(plan),
+            getStatistic(executionStats, "totalDocsExamined"),
+            getStatistic(executionStats, "totalKeysExamined"),
+            getStatistic(executionStats, "nReturned"),
+            getStatistic(executionStats, "executionTimeMillis"),
+            hint);
+    }
+
+    private static Long getStatistic(Document executionStats, String name) {
+        Object value = executionStats.get(name);
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+
+    private void adviseIndexes(Iterable<QueryCriteria> queryCriterias, Query query) {
+        if (indexAdvisor != null) {
+            indexAdvisor.sample(model, queryCriterias, query);
+        }
+    }
+
+    /**
+     * Splits a query with an oversized {@code IN} criteria into sub-queries, each with at most
+     * {@link #getInChunkSize()} of its values.  Only criteria on single-valued, top-level
+     * properties are split, and duplicate values are removed before splitting, so that no record
+     * can match more than one sub-query, and the results and counts of the sub-queries can simply
+     * be combined.  If several criteria are oversized, the one with the most values is split.
+     *
+     * @param queryCriterias requested query criteria.
+     * @return criteria of each sub-query, or {@code null} if the query does not need splitting.
+     */
+    private List<List<QueryCriteria>> getCriteriaChunks(Iterable<QueryCriteria> queryCriterias) {
+        List<QueryCriteria> criteriaList = new ArrayList<>();
+        QueryCriteria oversized = null;
+        MongoPersistentEntity<?> entity = null;
+        for (QueryCriteria queryCriteria : queryCriterias) {
+            if (queryCriteria == null) {
+                continue;
+            }
+            criteriaList.add(queryCriteria);
+            if (queryCriteria.getEvaluation() != Evaluation.IN
+                || !(queryCriteria.getValue() instanceof Collection)
+                || ((Collection<?>) queryCriteria.getValue()).size() <= inChunkSize
+                || oversized != null && ((Collection<?>) oversized.getValue()).size()
+                    >= ((Collection<?>) queryCriteria.getValue()).size()) {
+                continue;
+            }
+            entity = entity != null ? entity : getPersistentEntity();
+            if (MongoQueryUtils.getSimpleFieldType(queryCriteria.getKey(), entity) != null) {
+                oversized = queryCriteria;
+            }
+        }
+        if (oversized == null) {
+            return null;
+        }
+        List<Object> values = new ArrayList<>(
+            new LinkedHashSet<>((Collection<?>) oversized.getValue()));
+        List<List<QueryCriteria>> chunks = new ArrayList<>();
+        for (int i = 0; i < values.size(); i = i + inChunkSize) {
+            List<QueryCriteria> chunk = new ArrayList<>(criteriaList);
+            chunk.set(criteriaList.indexOf(oversized), new QueryCriteria(oversized.getKey(),
+                values.subList(i, Math.min(values.size(), i + inChunkSize)), Evaluation.IN));
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    /**
+     * Runs the sub-queries of a split query, on the query executor if one is configured, and
+     * merges their results in the requested order.
+     *
+     * @param chunks criteria of each sub-query.
+     * @param sort requested sort order.
+     * @param projection {@link Projection} describing the fields to fetch.
+     * @param hint name of the index each sub-query must use, or {@code null}.
+     * @param limit maximum number of records fetched per sub-query, or {@code 0} for no limit.
+     * @return merged results of all sub-queries.
+     */
+    private List<T> findChunked(List<List<QueryCriteria>> chunks, Sort sort,
+        Projection projection, String hint, long limit) {
+        Projection chunkProjection = getChunkedProjection(projection, sort);
+        List<List<T>> results = executeChunks(chunks, chunk -> {
+            Query query = new Query(
+                MongoQueryUtils.getQueryFromQueryCriteria(chunk, this.getModel()));
+            applyProjection(query, chunkProjection);
+            applyHint(query, hint);
+            query.with(sort);
+            if (limit > 0) {
+                query.limit((int) Math.min(Integer.MAX_VALUE, limit));
+            }
+            return findEntities(query);
+        });
+        adviseIndexes(chunks.get(0), new Query(
+            MongoQueryUtils.getQueryFromQueryCriteria(chunks.get(0), this.getModel())));
+        List<T> entities = new ArrayList<>();
+        for (List<T> result : results) {
+            entities.addAll(result);
+        }
+        if (sort != null && sort.isSorted()) {
+            entities.sort(getComparator(sort));
+            clearFields(entities, getUnprojectedSortFields(projection, sort));
+        }
+        return entities;
+    }
+
+    /**
+     * Returns the projection used by the sub-queries of a split query.  Merged results are sorted
+     * in memory, so every sort property is fetched, even if the requested projection omits it.
+     * Sorting on a parent of an included field cannot be projected this way, and is rejected.
+     *
+     * @param projection requested projection.
+     * @param sort requested sort order.
+     * @return projection including every sort property.
+     */
+    private Projection getChunkedProjection(Projection projection, Sort sort) {
+        if (projection == null || projection.isAllFields() || sort == null || sort.isUnsorted()) {
+            return projection;
+        }
+        if (projection.getIncludedFields().isEmpty()) {
+            Set<String> fields = new LinkedHashSet<>();
+            for (String field : projection.getExcludedFields()) {
+                if (!isSortField(field, sort)) {
+                    fields.add(field);
+                }
+            }
+            return Projection.exclude(fields);
+        }
+        Set<String> fields = new LinkedHashSet<>(projection.getIncludedFields());
+        for (Sort.Order order : sort) {
+            String property = order.getProperty();
+            if (isIdField(property) || isIncluded(property, projection.getIncludedFields())) {
+                continue;
+            }
+            for (String field : projection.getIncludedFields()) {
+                if (field.startsWith(property + ".")) {
+                    throw new QueryParameterException(String.format("Cannot sort split query by "
+                        + "field %s, when only its child field %s is included", property, field));
+                }
+            }
+            fields.add(property);
+        }
+        return Projection.include(fields);
+    }
+
+    /**
+     * Returns the fields added to the sub-query projections of a split query by {@link
+     * #getChunkedProjection(Projection, Sort)}, which must be cleared from the merged records to
+     * match the requested projection.  For an included projection, this is the shortest path to
+     * each sort property that is not fetched by the requested projection.
+     */
+    private List<String> getUnprojectedSortFields(Projection projection, Sort sort) {
+        List<String> fields = new ArrayList<>();
+        if (projection == null || projection.isAllFields()) {
+            return fields;
+        }
+        if (projection.getIncludedFields().isEmpty()) {
+            for (String field : projection.getExcludedFields()) {
+                if (!isIdField(field) && isSortField(field, sort)) {
+                    fields.add(field);
+                }
+            }
+            return fields;
+        }
+        for (Sort.Order order : sort) {
+            String property = order.getProperty();
+            if (isIdField(property) || isIncluded(property, projection.getIncludedFields())) {
+                continue;
+            }
+            int index = property.indexOf('.');
+            String path = index < 0 ? property : property.substring(0, index);
+            while (path.length() < property.length()
+                && isIncludedParent(path, projection.getIncludedFields())) {
+                index = property.indexOf('.', path.length() + 1);
+                path = index < 0 ? property : property.substring(0, index);
+            }
+            fields.add(path);
+        }
+        return fields;
+    }
+
+    private boolean isIdField(String field) {
+        return metadata.getIdAttribute().equals(field) || "_id".equals(field);
+    }
+
+    private static boolean isIncluded(String property, Set<String> includedFields) {
+        for (String field : includedFields) {
+            if (property.equals(field) || property.startsWith(field + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isIncludedParent(String path, Set<String> includedFields) {
+        for (String field : includedFields) {
+            if (field.startsWith(path + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if the field is a sort property, or a parent or child of one.
+     */
+    private static boolean isSortField(String field, Sort sort) {
+        for (Sort.Order order : sort) {
+            String property = order.getProperty();
+            if (property.equals(field) || property.startsWith(field + ".")
+                || field.startsWith(property + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Resets the requested properties of each record to their default values.
+     */
+    private static void clearFields(List<?> entities, List<String> fields) {
+        if (fields.isEmpty()) {
+            return;
+        }
+        for (Object entity : entities) {
+            BeanWrapperImpl wrapper = new BeanWrapperImpl(entity);
+            for (String field : fields) {
+                if (wrapper.isWritableProperty(field)) {
+                    Class<?> type = wrapper.getPropertyType(field);
+                    wrapper.setPropertyValue(field, type != null && type.isPrimitive()
+                        ? Array.get(Array.newInstance(type, 1), 0) : null);
+                }
+            }
+        }
+    }
+
+    private long countChunked(List<List<QueryCriteria>> chunks) {
+        long total = 0L;
+        for (Long count : executeChunks(chunks, chunk -> count(new Query(
+            MongoQueryUtils.getQueryFromQueryCriteria(chunk, this.getModel()))))) {
+            total = total + count;
+        }
+        return total;
+    }
+
+    private <R> List<R> executeChunks(List<List<QueryCriteria>> chunks,
+        Function<List<QueryCriteria>, R> function) {
+        List<R> results = new ArrayList<>();
+        if (queryExecutor == null) {
+            for (List<QueryCriteria> chunk : chunks) {
+                results.add(function.apply(chunk));
+            }
+            return results;
+        }
+        List<CompletableFuture<R>> futures = new ArrayList<>();
+        for (List<QueryCriteria> chunk : chunks) {
+            futures.add(CompletableFuture.supplyAsync(() -> function.apply(chunk), queryExecutor));
+        }
+        for (CompletableFuture<R> future : futures) {
+            results.add(join(future));
+        }
+        return results;
+    }
+
+    /**
+     * Returns the sort order of a paged, split query.  Unsorted pages are ordered by record ID, so
+     * that the merged sub-query results can be consistently paged.
+     */
+    private Sort getChunkedSort(Pageable pageable) {
+        return pageable.getSort().isSorted() ? pageable.getSort()
+            : Sort.by(metadata.getIdAttribute());
+    }
+
+    private List<T> getChunkedPage(List<T> entities, Pageable pageable) {
+        int from = (int) Math.min(entities.size(), pageable.getOffset());
+        int to = (int) Math.min(entities.size(), pageable.getOffset() + pageable.getPageSize());
+        return entities.subList(from, to);
+    }
+
+    /**
+     * Orders merged records the same way as the database, comparing property values with {@link
+     * QueryCriteriaMatcher#compareValues(Object, Object)}.
+     */
+    private Comparator<T> getComparator(Sort sort) {
+        Comparator<T> comparator = null;
+        for (Sort.Order order : sort) {
+            String property = order.getProperty();
+            Comparator<T> next = (left, right) -> QueryCriteriaMatcher.compareValues(
+                QueryCriteriaMatcher.getPropertyValue(left, property),
+                QueryCriteriaMatcher.getPropertyValue(right, property));
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator;
+    }
+
+    private static <R> R join(CompletableFuture<R> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a sorted set of distinct values of the requested field.  Values are grouped and
+     * sorted by the database, rather than by fetching every matching record.
+     *
+     * @param field Model field name.
+     * @return Sorted set of distinct values of {@code field}.
+     */
+    @Override
+    public Set<Object> distinct(String field) {
+        return distinct(field, Collections.emptyList(), Pageable.unpaged());
+    }
+
+    /**
+     * Returns a sorted set of distinct values of the requested field, filtered using a {@link
+     * QueryCriteria} based query.
+     *
+     * @param field Model field name.
+     * @param criterias Query criteria to filter the field values by.
+     * @return Sorted set of distinct values of {@code field}.
+     */
+    @Override
+    public Set<Object> distinct(String field, Iterable<QueryCriteria> criterias) {
+        return distinct(field, criterias, Pageable.unpaged());
+    }
+
+    /**
+     * Returns a single page of the sorted, distinct values of the requested field, using a
+     * {@code $match}, {@code $group}, {@code $sort} aggregation pipeline, with {@code $skip} and
+     * {@code $limit} stages applied for paged requests.
+     *
+     * @param field Model field name.
+     * @param criterias Query criteria to filter the field values by.
+     * @param pageable {@link Pageable} describing the requested slice of values.
+     * @return Sorted set of distinct values of {@code field}.
+     */
+    @Override
+    public Set<Object> distinct(String field, Iterable<QueryCriteria> criterias,
+        Pageable pageable) {
+
+        if (!new BeanWrapperImpl(model).isReadableProperty(field)) {
+            throw new QueryParameterException(
+                String.format("Submitted parameter is not valid entity field: %s", field));
+        }
+
+        MongoPersistentEntity<?> entity = getPersistentEntity();
+        Document filter = MongoQueryUtils
+            .getMappedFilter(criterias, mongoOperations.getConverter(), entity);
+
+        List<Document> pipeline = new ArrayList<>();
+        if (!filter.isEmpty()) {
+            pipeline.add(new Document("$match", filter));
+        }
+        pipeline.add(new Document("$group",
+            new Document("_id", "$" + MongoQueryUtils.getMappedFieldName(field, entity))));
+        pipeline.add(new Document("$sort", new Document("_id", 1)));
+        if (pageable != null && pageable.isPaged()) {
+            if (pageable.getOffset() > 0) {
+                pipeline.add(new Document("$skip", pageable.getOffset()));
+            }
+            pipeline.add(new Document("$limit", pageable.getPageSize()));
+        }
+
+        Class<?> fieldType = MongoQueryUtils.getSimpleFieldType(field, entity);
+        return mongoOperations.execute(metadata.getCollectionName(), collection -> {
+            Set<Object> distinct = new LinkedHashSet<>();
+            for (Document document : collection.aggregate(pipeline).allowDiskUse(true)) {
+                distinct.add(MongoQueryUtils.convertToFieldType(document.get("_id"), fieldType,
+                    mongoOperations.getConverter().getConversionService()));
+            }
+            return distinct;
+        });
+
+    }
+
+    /**
+     * Groups records by the value of a field, using a {@code $match}, {@code $group}, {@code
+     * $sort} aggregation pipeline, so that only one summary document per group is returned by the
+     * database.  Disk use is allowed, for groupings too large to be held in memory by the server.
+     *
+     * @param field Model field name to group records by.
+     * @param criterias Query criteria to filter the records by.
+     * @param valueField Model field name to summarize, or {@code null} to only count records.
+     * @return summaries of each group, sorted by the grouped value.
+     */
+    @Override
+    public List<GroupSummary> groupBy(String field, Iterable<QueryCriteria> criterias,
+        String valueField) {
+
+        BeanWrapperImpl wrapper = new BeanWrapperImpl(model);
+        if (!wrapper.isReadableProperty(field)) {
+            throw new QueryParameterException(
+                String.format("Submitted parameter is not valid entity field: %s", field));
+        }
+        if (valueField != null && !wrapper.isReadableProperty(valueField)) {
+            throw new QueryParameterException(
+                String.format("Submitted parameter is not valid entity field: %s", valueField));
+        }
+
+        MongoPersistentEntity<?> entity = getPersistentEntity();
+        Document filter = MongoQueryUtils
+            .getMappedFilter(criterias, mongoOperations.getConverter(), entity);
+
+        Document group = new Document("_id",
+            "$" + MongoQueryUtils.getMappedFieldName(field, entity))
+            .append("count", new Document("$sum", 1));
+        if (valueField != null) {
+            String value = "$" + MongoQueryUtils.getMappedFieldName(valueField, entity);
+            group.append("min", new Document("$min", value))
+                .append("max", new Document("$max", value))
+                .append("sum", new Document("$sum", value))
+                .append("avg", new Document("$avg", value));
+        }
+
+        List<Document> pipeline = new ArrayList<>();
+        if (!filter.isEmpty()) {
+            pipeline.add(new Document("$match", filter));
+        }
+        pipeline.add(new Document("$group", group));
+        pipeline.add(new Document("$sort", new Document("_id", 1)));
+
+        Class<?> fieldType = MongoQueryUtils.getSimpleFieldType(field, entity);
+        return mongoOperations.execute(metadata.getCollectionName(), collection -> {
+            List<GroupSummary> groups = new ArrayList<>();
+            for (Document document : collection.aggregate(pipeline).allowDiskUse(true)) {
+                Object key = MongoQueryUtils.convertToFieldType(document.get("_id"), fieldType,
+                    mongoOperations.getConverter().getConversionService());
+                long count = ((Number) document.get("count")).longValue();
+                if (valueField == null) {
+                    groups.add(new GroupSummary(key, count));
+                } else {
+                    groups.add(new GroupSummary(key, count, getNumber(document, "min"),
+                        getNumber(document, "max"), getNumber(document, "sum"),
+                        getNumber(document, "avg")));
+                }
+            }
+            return groups;
+        });
+
+    }
+
     /**
-     * Updates an existing record in the repository and returns its instance.
+     * Updates an existing record in the repository and returns its instance.  The record is
+     * replaced in a single operation, without first checking that it exists.
      *
      * @param entity updated record to be persisted in the repository.
      * @return the updated entity object.
+     * @throws ModelPersistenceException if the record does not exist.
      */
     @Override
     public <S extends T> S update(S entity) {
-        if (entity.getId() != null && existsById(entity.getId())) {
-            mongoOperations.save(entity);
-            return entity;
-        } else {
-            throw new ModelPersistenceException(
-                String.format("Model record does not exist in the database,"
-                    + " and cannot be updated: %s", entity.toString()));
-        }
+        update(Collections.singletonList(entity));
+        return entity;
     }
 
     /**
-     * Updates multiple records and returns their instances.
+     * Updates multiple records and returns their instances.  Records are replaced using unordered
+     * bulk writes, sent in batches of {@link #getBulkWriteBatchSize()} records.  If any of the
+     * records do not exist, an exception is thrown once the batch containing them has been
+     * written, so the existing records in that batch and all preceding batches are updated, but
+     * no {@code AfterSaveEvent} is published for that batch.  Records of models with a version
+     * property are saved one at a time, with optimistic locking.
      *
      * @param entities collection of records to update.
      * @return updated instances of the entity objects.
+     * @throws ModelPersistenceException if any of the records do not exist.
      */
     @Override
-    public <S extends T> Iterable<S> update(Iterable<S> entities) {
+    public <S extends T> List<S> update(Iterable<S> entities) {
+        List<S> updated = new ArrayList<>();
         for (S entity : entities) {
-            this.update(entity);
+            if (entity.getId() == null) {
+                throw new ModelPersistenceException(
+                    String.format("Model record does not exist in the database,"
+                        + " and cannot be updated: %s", entity.toString()));
+            }
+            updated.add(entity);
+        }
+        replace(updated, false);
+        return updated;
+    }
+
+    /**
+     * Inserts new records, or replaces existing records with the same ID.  Records without an ID
+     * are inserted together, and assigned a new ID, while the remaining records are written with
+     * unordered bulk replacements, so that each batch of records requires a single round-trip.
+     * Records of models with a version property are saved one at a time, with optimistic locking.
+     *
+     * @param entities collection of records to be persisted.
+     * @return updated instances of the entity objects.
+     */
+    @Override
+    public <S extends T> List<S> upsert(Iterable<S> entities) {
+        List<S> upserted = new ArrayList<>();
+        List<S> inserts = new ArrayList<>();
+        List<S> replacements = new ArrayList<>();
+        for (S entity : entities) {
+            upserted.add(entity);
+            if (entity.getId() == null) {
+                inserts.add(entity);
+            } else {
+                replacements.add(entity);
+            }
+        }
+        if (!inserts.isEmpty()) {
+            mongoOperations.insert(inserts, model);
+        }
+        replace(replacements, true);
+        return upserted;
+    }
+
+    /**
+     * Replaces the documents matching the IDs of the supplied records, using unordered bulk
+     * writes.  The mapping events of {@link MongoOperations#save(Object)} are published for each
+     * record, so that event listeners, such as auditing and {@link NormalizedFieldEventListener},
+     * apply to replaced records as well.  Records of models with a version property are instead
+     * saved one at a time by {@link MongoOperations#save(Object, String)}, which enforces
+     * optimistic locking.
+     *
+     * @param entities records with IDs assigned.
+     * @param upsert inserts records that do not already exist, if true.
+     */
+    private void replace(List<? extends T> entities, boolean upsert) {
+        String collectionName = metadata.getCollectionName();
+        if (getPersistentEntity().hasVersionProperty()) {
+            for (T entity : entities) {
+                mongoOperations.save(entity, collectionName);
+            }
+            return;
+        }
+        UpdateOptions options = new UpdateOptions().upsert(upsert);
+        for (int i = 0; i < entities.size(); i = i + bulkWriteBatchSize) {
+            List<? extends T> batch = entities
+                .subList(i, Math.min(entities.size(), i + bulkWriteBatchSize));
+            List<Document> documents = new ArrayList<>();
+            List<WriteModel<Document>> requests = new ArrayList<>();
+            for (T entity : batch) {
+                publishEvent(new BeforeConvertEvent<>(entity, collectionName));
+                Document document = new Document();
+                mongoOperations.getConverter().write(entity, document);
+                publishEvent(new BeforeSaveEvent<>(entity, document, collectionName));
+                documents.add(document);
+                requests.add(new ReplaceOneModel<>(new Document("_id", document.get("_id")),
+                    document, options));
+            }
+            BulkWriteOptions writeOptions = new BulkWriteOptions().ordered(false);
+            BulkWriteResult result = mongoOperations.execute(collectionName,
+                collection -> collection.bulkWrite(requests, writeOptions));
+            if (!upsert && result.getMatchedCount() < batch.size()) {
+                throw new ModelPersistenceException(
+                    String.format("%d of %d model records do not exist in the database,"
+                        + " and cannot be updated", batch.size() - result.getMatchedCount(),
+                        batch.size()));
+            }
+            for (int j = 0; j < batch.size(); j++) {
+                publishEvent(new AfterSaveEvent<>(batch.get(j), documents.get(j),
+                    collectionName));
+            }
+        }
+    }
+
+    private void publishEvent(MongoMappingEvent<?> event) {
+        if (eventPublisher != null) {
+            eventPublisher.publishEvent(event);
         }
-        return entities;
     }
 
     /**
@@ -145,118 +1141,290 @@ public class MongoModelRepository<T extends Model<I>, I extends Serializable>
     }
 
     /**
-     * Converts a collection of {@link QueryCriteria} objects into Spring Data MongoDB {@link
-     * Criteria} objects, used to build a {@link Query}.
-     *
-     * @param queryCriterias list of query options to be converted.
-     * @return {@link Criteria} representation of the dataimport.
+     * Returns the number of documents fetched per round-trip by cursors opened in {@link
+     * #stream(Iterable, Sort)}.
      */
-    private Criteria getQueryFromQueryCriteria(Iterable<QueryCriteria> queryCriterias) {
-        List<Criteria> criteriaList = new ArrayList<>();
-        for (QueryCriteria queryCriteria : queryCriterias) {
-            Criteria criteria;
-            Pattern pattern;
-            if (queryCriteria != null) {
-                switch (queryCriteria.getEvaluation()) {
-                    case EQUALS:
-                        criteria = new Criteria(queryCriteria.getKey())
-                            .is(queryCriteria.getValue());
-                        break;
-                    case NOT_EQUALS:
-                        criteria = new Criteria(queryCriteria.getKey())
-                            .ne(queryCriteria.getValue());
-                        break;
-                    case IN:
-                        criteria = new Criteria(queryCriteria.getKey())
-                            .in((Collection) queryCriteria.getValue());
-                        break;
-                    case NOT_IN:
-                        criteria = new Criteria(queryCriteria.getKey())
-                            .nin((Collection) queryCriteria.getValue());
-                        break;
-                    case IS_NULL:
-                        criteria = new Criteria(queryCriteria.getKey()).is(null);
-                        break;
-                    case NOT_NULL:
-                        criteria = new Criteria(queryCriteria.getKey()).ne(null);
-                        break;
-                    case IS_TRUE:
-                        criteria = new Criteria(queryCriteria.getKey()).is(true);
-                        break;
-                    case IS_FALSE:
-                        criteria = new Criteria(queryCriteria.getKey()).is(false);
-                        break;
-                    case GREATER_THAN:
-                        criteria = new Criteria(queryCriteria.getKey())
-                            .gt(queryCriteria.getValue());
-                        break;
-                    case GREATER_THAN_EQUALS:
-                        criteria = new Criteria(queryCriteria.getKey())
-                            .gte(queryCriteria.getValue());
-                        break;
-                    case LESS_THAN:
-                        criteria = new Criteria(queryCriteria.getKey())
-                            .lt(queryCriteria.getValue());
-                        break;
-                    case LESS_THAN_EQUALS:
-                        criteria = new Criteria(queryCriteria.getKey())
-                            .lte(queryCriteria.getValue());
-                        break;
-                    case BETWEEN:
-                        criteria = new Criteria().andOperator(
-                            Criteria.where(queryCriteria.getKey())
-                                .gt(((List) queryCriteria.getValue()).get(0)),
-                            Criteria.where(queryCriteria.getKey())
-                                .lt(((List) queryCriteria.getValue()).get(1)));
-                        break;
-                    case OUTSIDE:
-                        criteria = new Criteria().orOperator(
-                            Criteria.where(queryCriteria.getKey())
-                                .lt(((List) queryCriteria.getValue()).get(0)),
-                            Criteria.where(queryCriteria.getKey())
-                                .gt(((List) queryCriteria.getValue()).get(1)));
-                        break;
-                    case BETWEEN_INCLUSIVE:
-                        criteria = new Criteria().andOperator(
-                            Criteria.where(queryCriteria.getKey())
-                                .gte(((List) queryCriteria.getValue()).get(0)),
-                            Criteria.where(queryCriteria.getKey())
-                                .lte(((List) queryCriteria.getValue()).get(1)));
-                        break;
-                    case OUTSIDE_INCLUSIVE:
-                        criteria = new Criteria().orOperator(
-                            Criteria.where(queryCriteria.getKey())
-                                .lte(((List) queryCriteria.getValue()).get(0)),
-                            Criteria.where(queryCriteria.getKey())
-                                .gte(((List) queryCriteria.getValue()).get(1)));
-                        break;
-                    case LIKE:
-                        pattern = Pattern
-                            .compile((String) queryCriteria.getValue(), Pattern.CASE_INSENSITIVE);
-                        criteria = new Criteria(queryCriteria.getKey()).regex(pattern);
-                        break;
-                    case NOT_LIKE:
-                        pattern = Pattern
-                            .compile((String) queryCriteria.getValue(), Pattern.CASE_INSENSITIVE);
-                        criteria = new Criteria(queryCriteria.getKey()).not().regex(pattern);
-                        break;
-                    case STARTS_WITH:
-                        criteria = new Criteria(queryCriteria.getKey())
-                            .regex("^" + queryCriteria.getValue());
-                        break;
-                    case ENDS_WITH:
-                        criteria = new Criteria(queryCriteria.getKey())
-                            .regex(queryCriteria.getValue() + "$");
-                        break;
-                    default:
-                        criteria = new Criteria(queryCriteria.getKey())
-                            .is(queryCriteria.getValue());
+    public int getCursorBatchSize() {
+        return cursorBatchSize;
+    }
+
+    public void setCursorBatchSize(int cursorBatchSize) {
+        Assert.isTrue(cursorBatchSize > 0, "Cursor batch size must be a positive integer.");
+        this.cursorBatchSize = cursorBatchSize;
+    }
+
+    /**
+     * Returns the maximum number of records written per round-trip by {@link #update(Iterable)}
+     * and {@link #upsert(Iterable)}.
+     */
+    public int getBulkWriteBatchSize() {
+        return bulkWriteBatchSize;
+    }
+
+    public void setBulkWriteBatchSize(int bulkWriteBatchSize) {
+        Assert.isTrue(bulkWriteBatchSize > 0, "Bulk write batch size must be a positive integer.");
+        this.bulkWriteBatchSize = bulkWriteBatchSize;
+    }
+
+    /**
+     * Returns the executor used to run total record counts concurrently with paged queries, or
+     * {@code null} if counts are run after the page query, on the calling thread.
+     */
+    public Executor getCountExecutor() {
+        return countExecutor;
+    }
+
+    public void setCountExecutor(Executor countExecutor) {
+        this.countExecutor = countExecutor;
+    }
+
+    /**
+     * Returns the maximum number of values of an {@code IN} criteria sent to the database in a
+     * single query.  Queries with larger value lists are split into sub-queries.
+     */
+    public int getInChunkSize() {
+        return inChunkSize;
+    }
+
+    public void setInChunkSize(int inChunkSize) {
+        Assert.isTrue(inChunkSize > 0, "IN criteria chunk size must be a positive integer.");
+        this.inChunkSize = inChunkSize;
+    }
+
+    /**
+     * Returns the executor used to run the sub-queries of split {@code IN} queries in parallel, or
+     * {@code null} if they are run in sequence, on the calling thread.
+     */
+    public Executor getQueryExecutor() {
+        return queryExecutor;
+    }
+
+    public void setQueryExecutor(Executor queryExecutor) {
+        this.queryExecutor = queryExecutor;
+    }
+
+    public MongoIndexAdvisor getIndexAdvisor() {
+        return indexAdvisor;
+    }
+
+    /**
+     * Sets the advisor that samples this repository's queries, or {@code null} to disable
+     * sampling.
+     */
+    public void setIndexAdvisor(MongoIndexAdvisor indexAdvisor) {
+        this.indexAdvisor = indexAdvisor;
+    }
+
+    public ModelCodecProvider getCodecProvider() {
+        return codecProvider;
+    }
+
+    /**
+     * Sets the provider of the codec used to decode query results, or {@code null} to decode all
+     * results with the {@code MongoConverter}.
+     */
+    public void setCodecProvider(ModelCodecProvider codecProvider) {
+        this.codecProvider = codecProvider;
+    }
+
+    public ApplicationEventPublisher getEventPublisher() {
+        return eventPublisher;
+    }
+
+    /**
+     * Sets the publisher of the mapping events of bulk updates and upserts, which should be the
+     * application context of the {@link MongoOperations}, or {@code null} to publish no events.
+     */
+    public void setEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Runs the query and returns the matching records, decoded by the model codec if one is
+     * available, or else by {@link MongoOperations#find(Query, Class)}.
+     */
+    private List<T> findEntities(Query query) {
+        ModelCodec<T> codec = getCodec();
+        if (codec == null) {
+            return mongoOperations.find(query, model);
+        }
+        return findDocuments(query, codec);
+    }
+
+    /**
+     * Runs the query and returns the matching documents, decoded by the supplied codec.
+     */
+    private <D> List<D> findDocuments(Query query, Codec<D> codec) {
+        MongoPersistentEntity<?> entity = getPersistentEntity();
+        QueryMapper queryMapper = new QueryMapper(mongoOperations.getConverter());
+        Document filter = queryMapper.getMappedObject(query.getQueryObject(), entity);
+        Document fields = queryMapper.getMappedFields(query.getFieldsObject(), entity);
+        Document sort = queryMapper.getMappedSort(query.getSortObject(), entity);
+        return mongoOperations.execute(metadata.getCollectionName(), collection -> {
+            FindIterable<D> iterable = withCodec(collection, codec)
+                .find(filter, codec.getEncoderClass())
+                .sort(sort);
+            if (!fields.isEmpty()) {
+                iterable.projection(fields);
+            }
+            if (query.getSkip() > 0) {
+                iterable.skip((int) query.getSkip());
+            }
+            if (query.getLimit() > 0) {
+                iterable.limit(query.getLimit());
+            }
+            if (StringUtils.hasText(query.getHint())) {
+                iterable.hint(getIndexKeys(collection, query.getHint()));
+            }
+            return iterable.into(new ArrayList<>());
+        });
+    }
+
+    /**
+     * Returns the key document of the named index, which the driver requires to hint a query.
+     * The keys of each index are looked up once, and cached.
+     */
+    private Document getIndexKeys(MongoCollection<?> collection, String name) {
+        return indexKeys.computeIfAbsent(name, indexName -> {
+            for (Document index : collection.listIndexes()) {
+                if (indexName.equals(index.getString("name"))) {
+                    return index.get("key", Document.class);
+                }
+            }
+            throw new QueryParameterException(String.format(
+                "No index named %s exists for model: %s", indexName, model.getName()));
+        });
+    }
+
+    private ModelCodec<T> getCodec() {
+        return codecProvider != null ? codecProvider.getCodec(model) : null;
+    }
+
+    private static MongoCollection<Document> withCodec(MongoCollection<Document> collection,
+        Codec<?> codec) {
+        return collection.withCodecRegistry(CodecRegistries.fromRegistries(
+            CodecRegistries.fromCodecs(codec), collection.getCodecRegistry()));
+    }
+
+    /**
+     * Returns the names of the model properties, keyed by the document fields they are mapped to.
+     */
+    private Map<String, String> getPropertyNames() {
+        if (propertyNames == null) {
+            Map<String, String> names = new HashMap<>();
+            for (MongoPersistentProperty property : getPersistentEntity()) {
+                names.put(property.getFieldName(), property.getName());
+            }
+            propertyNames = names;
+        }
+        return propertyNames;
+    }
+
+    private void applyHint(Query query, String hint) {
+        if (hint != null && !hint.trim().isEmpty()) {
+            query.withHint(hint);
+        }
+    }
+
+    /**
+     * Restricts the fields returned by a query to those selected by the projection.  The record
+     * ID is always returned.
+     */
+    private void applyProjection(Query query, Projection projection) {
+        if (projection == null || projection.isAllFields()) {
+            return;
+        }
+        Field fields = query.fields();
+        if (!projection.getIncludedFields().isEmpty()) {
+            for (String field : projection.getIncludedFields()) {
+                fields.include(field);
+            }
+        } else {
+            for (String field : projection.getExcludedFields()) {
+                if (!metadata.getIdAttribute().equals(field) && !"_id".equals(field)) {
+                    fields.exclude(field);
                 }
-                criteriaList.add(criteria);
             }
         }
-        return criteriaList.size() > 0 ?
-            new Criteria().andOperator(criteriaList.toArray(new Criteria[]{})) : null;
+    }
+
+    private MongoPersistentEntity<?> getPersistentEntity() {
+        return mongoOperations.getConverter().getMappingContext().getPersistentEntity(model);
+    }
+
+    /**
+     * Converts a {@link Sort} into a sort document, translating model property names into their
+     * mapped document field names.
+     *
+     * @param sort requested sort order.
+     * @param entity persistent entity metadata for the model, if available.
+     * @return sort document.
+     */
+    private Document getMappedSortObject(Sort sort, MongoPersistentEntity<?> entity) {
+        Document document = new Document();
+        if (sort == null) {
+            return document;
+        }
+        for (Sort.Order order : sort) {
+            document.put(MongoQueryUtils.getMappedFieldName(order.getProperty(), entity),
+                order.isAscending() ? 1 : -1);
+        }
+        return document;
+    }
+
+    private static Double getNumber(Document document, String key) {
+        Object value = document.get(key);
+        return value instanceof Number ? ((Number) value).doubleValue() : null;
+    }
+
+    /**
+     * Builds the criteria selecting records that follow the position of a continuation token in
+     * keyset order: for sort keys {@code k1..kn} with values {@code v1..vn}, a record follows if,
+     * for some {@code i}, it is equal on {@code k1..k(i-1)} and after {@code vi} on {@code ki}.
+     * MongoDB sorts {@code null} values before all others, so they are handled explicitly.  Token
+     * values for the ID property are converted back to their stored type, since range operators
+     * on {@code _id} are not converted by the query mapper, and a {@code String} never compares
+     * after an {@code ObjectId}.
+     *
+     * @param token continuation token.
+     * @return criteria matching all following records.
+     */
+    private Criteria getKeysetCriteria(ContinuationToken token) {
+        List<Sort.Order> orders = new ArrayList<>();
+        token.getSort().forEach(orders::add);
+        MongoPersistentProperty idProperty = getPersistentEntity().getIdProperty();
+        QueryMapper queryMapper = new QueryMapper(mongoOperations.getConverter());
+        List<Object> values = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            String property = orders.get(i).getProperty();
+            Object value = token.getValues().get(i);
+            boolean isId = "_id".equals(property)
+                || idProperty != null && idProperty.getName().equals(property);
+            values.add(isId && value != null ? queryMapper.convertId(value) : value);
+        }
+        List<Criteria> branches = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            List<Criteria> terms = new ArrayList<>();
+            for (int j = 0; j < i; j++) {
+                terms.add(Criteria.where(orders.get(j).getProperty()).is(values.get(j)));
+            }
+            Sort.Order order = orders.get(i);
+            Object value = values.get(i);
+            if (order.isAscending()) {
+                terms.add(value == null ? Criteria.where(order.getProperty()).ne(null)
+                    : Criteria.where(order.getProperty()).gt(value));
+            } else if (value != null) {
+                terms.add(new Criteria().orOperator(
+                    Criteria.where(order.getProperty()).lt(value),
+                    Criteria.where(order.getProperty()).is(null)));
+            } else {
+                continue;
+            }
+            branches.add(terms.size() == 1 ? terms.get(0)
+                : new Criteria().andOperator(terms.toArray(new Criteria[]{})));
+        }
+        return branches.size() == 1 ? branches.get(0)
+            : new Criteria().orOperator(branches.toArray(new Criteria[]{}));
     }
 
 }
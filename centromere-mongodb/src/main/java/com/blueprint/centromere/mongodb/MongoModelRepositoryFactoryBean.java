@@ -17,6 +17,15 @@
 package com.blueprint.centromere.mongodb;
 
 import java.io.Serializable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.mongodb.core.MongoOperations;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.query.MongoEntityInformation;
@@ -25,6 +34,7 @@ import org.springframework.data.mongodb.repository.support.MongoRepositoryFactor
 import org.springframework.data.repository.core.RepositoryInformation;
 import org.springframework.data.repository.core.RepositoryMetadata;
 import org.springframework.data.repository.core.support.RepositoryFactorySupport;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
 /**
  * Factory bean for creating {@link MongoModelRepository} beans.
@@ -32,25 +42,147 @@ import org.springframework.data.repository.core.support.RepositoryFactorySupport
  * @author woemler
  */
 public class MongoModelRepositoryFactoryBean<R extends MongoRepository<T, I>, T, I extends Serializable>
-    extends MongoRepositoryFactoryBean<R, T, I> {
+    extends MongoRepositoryFactoryBean<R, T, I> implements DisposableBean {
+
+    private int cursorBatchSize = MongoModelRepository.DEFAULT_CURSOR_BATCH_SIZE;
+    private int countThreads = MongoModelRepository.DEFAULT_COUNT_THREADS;
+    private int bulkWriteBatchSize = MongoModelRepository.DEFAULT_BULK_WRITE_BATCH_SIZE;
+    private int inChunkSize = MongoModelRepository.DEFAULT_IN_CHUNK_SIZE;
+    private int queryThreads = MongoModelRepository.DEFAULT_QUERY_THREADS;
+    private ExecutorService countExecutor;
+    private ExecutorService queryExecutor;
+    private MongoIndexAdvisor indexAdvisor;
+    private ModelCodecProvider codecProvider;
+    private ApplicationEventPublisher eventPublisher;
 
     public MongoModelRepositoryFactoryBean(Class<? extends R> repositoryInterface) {
         super(repositoryInterface);
     }
 
+    @Value("${centromere.mongodb.cursor-batch-size:"
+        + MongoModelRepository.DEFAULT_CURSOR_BATCH_SIZE + "}")
+    public void setCursorBatchSize(int cursorBatchSize) {
+        this.cursorBatchSize = cursorBatchSize;
+    }
+
+    @Value("${centromere.mongodb.bulk-write-batch-size:"
+        + MongoModelRepository.DEFAULT_BULK_WRITE_BATCH_SIZE + "}")
+    public void setBulkWriteBatchSize(int bulkWriteBatchSize) {
+        this.bulkWriteBatchSize = bulkWriteBatchSize;
+    }
+
+    /**
+     * Sets the maximum number of threads used to count total records concurrently with paged
+     * queries.  A value of {@code 0} disables concurrent counting.
+     */
+    @Value("${centromere.mongodb.count-threads:"
+        + MongoModelRepository.DEFAULT_COUNT_THREADS + "}")
+    public void setCountThreads(int countThreads) {
+        this.countThreads = countThreads;
+    }
+
+    /**
+     * Sets the maximum number of values of an {@code IN} criteria sent to the database in a single
+     * query, before the query is split.
+     */
+    @Value("${centromere.mongodb.in-chunk-size:"
+        + MongoModelRepository.DEFAULT_IN_CHUNK_SIZE + "}")
+    public void setInChunkSize(int inChunkSize) {
+        this.inChunkSize = inChunkSize;
+    }
+
+    /**
+     * Sets the maximum number of threads used to run the sub-queries of split {@code IN} queries
+     * in parallel.  A value of {@code 0} runs sub-queries in sequence.
+     */
+    @Value("${centromere.mongodb.query-threads:"
+        + MongoModelRepository.DEFAULT_QUERY_THREADS + "}")
+    public void setQueryThreads(int queryThreads) {
+        this.queryThreads = queryThreads;
+    }
+
+    /**
+     * Sets the advisor that samples the queries of created repositories, if one is configured.
+     */
+    @Autowired(required = false)
+    public void setIndexAdvisor(MongoIndexAdvisor indexAdvisor) {
+        this.indexAdvisor = indexAdvisor;
+    }
+
+    /**
+     * Sets the provider of the codecs used to decode query results, if one is configured.
+     */
+    @Autowired(required = false)
+    public void setCodecProvider(ModelCodecProvider codecProvider) {
+        this.codecProvider = codecProvider;
+    }
+
+    @Override
+    public void setApplicationEventPublisher(ApplicationEventPublisher publisher) {
+        super.setApplicationEventPublisher(publisher);
+        this.eventPublisher = publisher;
+    }
+
     @Override
     protected RepositoryFactorySupport getFactoryInstance(MongoOperations operations) {
-        return new MongoModelRepositoryFactory<>(operations);
+        if (countThreads > 0 && countExecutor == null) {
+            countExecutor = createExecutor("centromere-count-", countThreads);
+        }
+        if (queryThreads > 0 && queryExecutor == null) {
+            queryExecutor = createExecutor("centromere-query-", queryThreads);
+        }
+        return new MongoModelRepositoryFactory<>(operations, cursorBatchSize, bulkWriteBatchSize,
+            inChunkSize, countExecutor, queryExecutor, indexAdvisor, codecProvider, eventPublisher);
+    }
+
+    /**
+     * Creates a bounded thread pool, which runs tasks on the calling thread once all of its
+     * threads are busy.
+     */
+    private static ExecutorService createExecutor(String threadNamePrefix, int threads) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(threadNamePrefix);
+        threadFactory.setDaemon(true);
+        return new ThreadPoolExecutor(0, threads, 60L, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), threadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Override
+    public void destroy() {
+        if (countExecutor != null) {
+            countExecutor.shutdown();
+        }
+        if (queryExecutor != null) {
+            queryExecutor.shutdown();
+        }
     }
 
     private static class MongoModelRepositoryFactory<T, I extends Serializable>
         extends MongoRepositoryFactory {
 
         private final MongoOperations mongoOperations;
+        private final int cursorBatchSize;
+        private final int bulkWriteBatchSize;
+        private final int inChunkSize;
+        private final Executor countExecutor;
+        private final Executor queryExecutor;
+        private final MongoIndexAdvisor indexAdvisor;
+        private final ModelCodecProvider codecProvider;
+        private final ApplicationEventPublisher eventPublisher;
 
-        MongoModelRepositoryFactory(MongoOperations mongoOperations) {
+        MongoModelRepositoryFactory(MongoOperations mongoOperations, int cursorBatchSize,
+            int bulkWriteBatchSize, int inChunkSize, Executor countExecutor,
+            Executor queryExecutor, MongoIndexAdvisor indexAdvisor,
+            ModelCodecProvider codecProvider, ApplicationEventPublisher eventPublisher) {
             super(mongoOperations);
             this.mongoOperations = mongoOperations;
+            this.cursorBatchSize = cursorBatchSize;
+            this.bulkWriteBatchSize = bulkWriteBatchSize;
+            this.inChunkSize = inChunkSize;
+            this.countExecutor = countExecutor;
+            this.queryExecutor = queryExecutor;
+            this.indexAdvisor = indexAdvisor;
+            this.codecProvider = codecProvider;
+            this.eventPublisher = eventPublisher;
         }
 
         @SuppressWarnings("unchecked")
@@ -58,7 +190,17 @@ public class MongoModelRepositoryFactoryBean<R extends MongoRepository<T, I>, T,
         protected Object getTargetRepository(RepositoryInformation information) {
             MongoEntityInformation entityInformation = getEntityInformation(
                 information.getDomainType());
-            return new MongoModelRepository<>(entityInformation, mongoOperations);
+            MongoModelRepository repository
+                = new MongoModelRepository<>(entityInformation, mongoOperations);
+            repository.setCursorBatchSize(cursorBatchSize);
+            repository.setBulkWriteBatchSize(bulkWriteBatchSize);
+            repository.setInChunkSize(inChunkSize);
+            repository.setCountExecutor(countExecutor);
+            repository.setQueryExecutor(queryExecutor);
+            repository.setIndexAdvisor(indexAdvisor);
+            repository.setCodecProvider(codecProvider);
+            repository.setEventPublisher(eventPublisher);
+            return repository;
         }
 
         @Override
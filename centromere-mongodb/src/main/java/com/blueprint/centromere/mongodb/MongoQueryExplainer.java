@@ -0,0 +1,61 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.blueprint.centromere.mongodb;
+
+import com.blueprint.centromere.core.repository.QueryCriteria;
+import com.blueprint.centromere.core.repository.QueryExplainer;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * {@link QueryExplainer} implementation that summarizes the winning plan reported by the MongoDB
+ * {@code explain} command, as its chain of stages and the indexes used, eg. {@code FETCH >
+ * IXSCAN[geneId_1_sampleId_1]}.  Queries are planned, but not executed.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+public class MongoQueryExplainer implements QueryExplainer {
+
+    private final MongoOperations mongoOperations;
+
+    public MongoQueryExplainer(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public String explain(Class<?> model, Iterable<QueryCriteria> criterias) {
+        return explain(model, criterias, Sort.unsorted(), null);
+    }
+
+    @Override
+    public String explain(Class<?> model, Iterable<QueryCriteria> criterias, Sort sort,
+        String hint) {
+        Criteria criteria = MongoQueryUtils.getQueryFromQueryCriteria(criterias, model);
+        Query query = new Query().with(sort);
+        if (criteria != null) {
+            query.addCriteria(criteria);
+        }
+        return MongoQueryUtils.getPlanSummary(MongoQueryUtils.getWinningPlan(
+            MongoQueryUtils.explain(mongoOperations, model, query.getQueryObject(),
+                query.getSortObject(), hint, "queryPlanner")));
+    }
+
+}
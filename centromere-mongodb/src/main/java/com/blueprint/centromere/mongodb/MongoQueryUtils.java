@@ -0,0 +1,430 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blueprint.centromere.mongodb;
+
+import com.blueprint.centromere.core.repository.QueryCriteria;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.bson.Document;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Query translation helpers shared by the blocking and reactive MongoDB repository
+ * implementations.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+final class MongoQueryUtils {
+
+    private static final String REGEX_METACHARACTERS = "\\^$.|?*+()[]{}";
+
+    private MongoQueryUtils() {
+    }
+
+    /**
+     * Converts a collection of {@link QueryCriteria} objects into Spring Data MongoDB {@link
+     * Criteria} objects, used to build a {@link Query}.
+     *
+     * @param queryCriterias list of query options to be converted.
+     * @param model queried model class, or {@code null} if unknown.
+     * @return {@link Criteria} representation of the dataimport.
+     */
+    static Criteria getQueryFromQueryCriteria(Iterable<QueryCriteria> queryCriterias,
+        Class<?> model) {
+        List<QueryCriteria> criteriaList = new ArrayList<>();
+        for (QueryCriteria queryCriteria : queryCriterias) {
+            if (queryCriteria != null) {
+                criteriaList.add(queryCriteria);
+            }
+        }
+        return criteriaList.size() > 0
+            ? new Criteria().andOperator(getCriteria(criteriaList, model)) : null;
+    }
+
+    private static Criteria[] getCriteria(List<QueryCriteria> queryCriterias, Class<?> model) {
+        Criteria[] criteria = new Criteria[queryCriterias.size()];
+        for (int i = 0; i < criteria.length; i++) {
+            criteria[i] = getCriteria(queryCriterias.get(i), model);
+        }
+        return criteria;
+    }
+
+    /**
+     * Converts a single {@link QueryCriteria} into a Spring Data MongoDB {@link Criteria}.
+     * Composite criteria are translated into {@code $or}, {@code $and} and {@code $nor} operators
+     * over their nested criteria.  Prefix matches compile to anchored, escaped regular
+     * expressions, which MongoDB answers with an index range scan.  Case-insensitive matches on
+     * normalized fields compare against the lower-cased copies of their values, other fields fall
+     * back to case-insensitive regular expressions, which must examine every index key.
+     */
+    private static Criteria getCriteria(QueryCriteria queryCriteria, Class<?> model) {
+        Criteria criteria;
+        Pattern pattern;
+        switch (queryCriteria.getEvaluation()) {
+            case EQUALS:
+                criteria = new Criteria(queryCriteria.getKey())
+                    .is(queryCriteria.getValue());
+                break;
+            case NOT_EQUALS:
+                criteria = new Criteria(queryCriteria.getKey())
+                    .ne(queryCriteria.getValue());
+                break;
+            case IN:
+                criteria = new Criteria(queryCriteria.getKey())
+                    .in((Collection) queryCriteria.getValue());
+                break;
+            case NOT_IN:
+                criteria = new Criteria(queryCriteria.getKey())
+                    .nin((Collection) queryCriteria.getValue());
+                break;
+            case IS_NULL:
+                criteria = new Criteria(queryCriteria.getKey()).is(null);
+                break;
+            case NOT_NULL:
+                criteria = new Criteria(queryCriteria.getKey()).ne(null);
+                break;
+            case IS_TRUE:
+                criteria = new Criteria(queryCriteria.getKey()).is(true);
+                break;
+            case IS_FALSE:
+                criteria = new Criteria(queryCriteria.getKey()).is(false);
+                break;
+            case GREATER_THAN:
+                criteria = new Criteria(queryCriteria.getKey())
+                    .gt(queryCriteria.getValue());
+                break;
+            case GREATER_THAN_EQUALS:
+                criteria = new Criteria(queryCriteria.getKey())
+                    .gte(queryCriteria.getValue());
+                break;
+            case LESS_THAN:
+                criteria = new Criteria(queryCriteria.getKey())
+                    .lt(queryCriteria.getValue());
+                break;
+            case LESS_THAN_EQUALS:
+                criteria = new Criteria(queryCriteria.getKey())
+                    .lte(queryCriteria.getValue());
+                break;
+            case BETWEEN:
+                criteria = new Criteria().andOperator(
+                    Criteria.where(queryCriteria.getKey())
+                        .gt(((List) queryCriteria.getValue()).get(0)),
+                    Criteria.where(queryCriteria.getKey())
+                        .lt(((List) queryCriteria.getValue()).get(1)));
+                break;
+            case OUTSIDE:
+                criteria = new Criteria().orOperator(
+                    Criteria.where(queryCriteria.getKey())
+                        .lt(((List) queryCriteria.getValue()).get(0)),
+                    Criteria.where(queryCriteria.getKey())
+                        .gt(((List) queryCriteria.getValue()).get(1)));
+                break;
+            case BETWEEN_INCLUSIVE:
+                criteria = new Criteria().andOperator(
+                    Criteria.where(queryCriteria.getKey())
+                        .gte(((List) queryCriteria.getValue()).get(0)),
+                    Criteria.where(queryCriteria.getKey())
+                        .lte(((List) queryCriteria.getValue()).get(1)));
+                break;
+            case OUTSIDE_INCLUSIVE:
+                criteria = new Criteria().orOperator(
+                    Criteria.where(queryCriteria.getKey())
+                        .lte(((List) queryCriteria.getValue()).get(0)),
+                    Criteria.where(queryCriteria.getKey())
+                        .gte(((List) queryCriteria.getValue()).get(1)));
+                break;
+            case LIKE:
+                pattern = Pattern
+                    .compile((String) queryCriteria.getValue(), Pattern.CASE_INSENSITIVE);
+                criteria = new Criteria(queryCriteria.getKey()).regex(pattern);
+                break;
+            case NOT_LIKE:
+                pattern = Pattern
+                    .compile((String) queryCriteria.getValue(), Pattern.CASE_INSENSITIVE);
+                criteria = new Criteria(queryCriteria.getKey()).not().regex(pattern);
+                break;
+            case STARTS_WITH:
+                criteria = new Criteria(queryCriteria.getKey())
+                    .regex("^" + escapeRegex(String.valueOf(queryCriteria.getValue())));
+                break;
+            case ENDS_WITH:
+                criteria = new Criteria(queryCriteria.getKey())
+                    .regex(escapeRegex(String.valueOf(queryCriteria.getValue())) + "$");
+                break;
+            case EQUALS_IGNORE_CASE:
+                if (NormalizedFields.isNormalized(model, queryCriteria.getKey())) {
+                    criteria = new Criteria(NormalizedFields.getFieldName(queryCriteria.getKey()))
+                        .is(NormalizedFields.normalize(String.valueOf(queryCriteria.getValue())));
+                } else {
+                    pattern = Pattern.compile(
+                        "^" + escapeRegex(String.valueOf(queryCriteria.getValue())) + "$",
+                        Pattern.CASE_INSENSITIVE);
+                    criteria = new Criteria(queryCriteria.getKey()).regex(pattern);
+                }
+                break;
+            case STARTS_WITH_IGNORE_CASE:
+                if (NormalizedFields.isNormalized(model, queryCriteria.getKey())) {
+                    criteria = new Criteria(NormalizedFields.getFieldName(queryCriteria.getKey()))
+                        .regex("^" + escapeRegex(
+                            NormalizedFields.normalize(String.valueOf(queryCriteria.getValue()))));
+                } else {
+                    pattern = Pattern.compile(
+                        "^" + escapeRegex(String.valueOf(queryCriteria.getValue())),
+                        Pattern.CASE_INSENSITIVE);
+                    criteria = new Criteria(queryCriteria.getKey()).regex(pattern);
+                }
+                break;
+            case ANY:
+                criteria = new Criteria()
+                    .orOperator(getCriteria(queryCriteria.getCriterias(), model));
+                break;
+            case ALL:
+                criteria = new Criteria()
+                    .andOperator(getCriteria(queryCriteria.getCriterias(), model));
+                break;
+            case NOT:
+                criteria = new Criteria()
+                    .norOperator(getCriteria(queryCriteria.getCriterias(), model));
+                break;
+            default:
+                criteria = new Criteria(queryCriteria.getKey())
+                    .is(queryCriteria.getValue());
+        }
+        return criteria;
+    }
+
+    /**
+     * Escapes regular expression metacharacters in a literal value, with a backslash per
+     * character, so that the MongoDB query planner can still derive index bounds from a prefix.
+     */
+    static String escapeRegex(String value) {
+        StringBuilder builder = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (REGEX_METACHARACTERS.indexOf(c) > -1) {
+                builder.append('\\');
+            }
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Converts query criteria into a filter document, with property names mapped to document
+     * field names, for use in aggregation pipelines.
+     *
+     * @param criterias query criteria to convert.
+     * @param converter converter used to map property names and values.
+     * @param entity persistent entity metadata for the model, if available.
+     * @return filter document, empty if there are no criteria.
+     */
+    static Document getMappedFilter(Iterable<QueryCriteria> criterias, MongoConverter converter,
+        MongoPersistentEntity<?> entity) {
+        Criteria criteria = getQueryFromQueryCriteria(criterias,
+            entity != null ? entity.getType() : null);
+        Query query = new Query();
+        if (criteria != null) {
+            query.addCriteria(criteria);
+        }
+        return new QueryMapper(converter).getMappedObject(query.getQueryObject(), entity);
+    }
+
+    /**
+     * Translates a model property name into its mapped document field name.  For nested property
+     * paths, only the top-level property is translated.
+     *
+     * @param field model property name or path.
+     * @param entity persistent entity metadata for the model, if available.
+     * @return document field name.
+     */
+    static String getMappedFieldName(String field, MongoPersistentEntity<?> entity) {
+        if (entity == null) {
+            return field;
+        }
+        int index = field.indexOf('.');
+        String head = index > -1 ? field.substring(0, index) : field;
+        MongoPersistentProperty property = entity.getPersistentProperty(head);
+        if (property == null) {
+            return field;
+        }
+        return index > -1 ? property.getFieldName() + field.substring(index)
+            : property.getFieldName();
+    }
+
+    /**
+     * Returns the type of a simple, top-level property, or {@code null} for collections, maps,
+     * nested entities and unknown properties, whose values are returned as stored.
+     */
+    static Class<?> getSimpleFieldType(String field, MongoPersistentEntity<?> entity) {
+        MongoPersistentProperty property = entity != null
+            ? entity.getPersistentProperty(field) : null;
+        return property != null && !property.isCollectionLike()
+            && !property.isMap() && !property.isEntity() ? property.getType() : null;
+    }
+
+    /**
+     * Converts a value returned by an aggregation back to the type of the model property it was
+     * read from, eg. an {@code ObjectId} to a {@code String}.
+     */
+    static Object convertToFieldType(Object value, Class<?> fieldType,
+        ConversionService conversionService) {
+        if (value != null && fieldType != null
+            && !fieldType.isInstance(value)
+            && conversionService.canConvert(value.getClass(), fieldType)) {
+            return conversionService.convert(value, fieldType);
+        }
+        return value;
+    }
+
+    /**
+     * Asks the database which plan it would choose for a query, without running the query.
+     *
+     * @param mongoOperations operations used to run the explain command.
+     * @param model queried model class.
+     * @param filter unmapped query filter, as returned by {@link Query#getQueryObject()}.
+     * @return the winning plan, or {@code null} if the database did not report one.
+     */
+    static Document getWinningPlan(MongoOperations mongoOperations, Class<?> model,
+        Document filter) {
+        return getWinningPlan(explain(mongoOperations, model, filter, null, null, "queryPlanner"));
+    }
+
+    /**
+     * Returns the winning plan from the result of an {@code explain} command, or {@code null} if
+     * the database did not report one.
+     */
+    static Document getWinningPlan(Document explanation) {
+        Object planner = explanation.get("queryPlanner");
+        Object plan = planner instanceof Document ? ((Document) planner).get("winningPlan") : null;
+        return plan instanceof Document ? (Document) plan : null;
+    }
+
+    /**
+     * Runs the {@code explain} command for a {@code find} of the model collection.  With {@code
+     * queryPlanner} verbosity the query is only planned; with {@code executionStats} it is also
+     * executed, and the result reports the work performed.
+     *
+     * @param mongoOperations operations used to run the explain command.
+     * @param model queried model class.
+     * @param filter unmapped query filter, as returned by {@link Query#getQueryObject()}.
+     * @param sort unmapped sort, as returned by {@link Query#getSortObject()}, or {@code null}.
+     * @param hint name of the index the query must use, or {@code null}.
+     * @param verbosity explain verbosity mode.
+     * @return the result of the explain command.
+     */
+    static Document explain(MongoOperations mongoOperations, Class<?> model, Document filter,
+        Document sort, String hint, String verbosity) {
+        MongoPersistentEntity<?> entity = mongoOperations.getConverter().getMappingContext()
+            .getPersistentEntity(model);
+        QueryMapper mapper = new QueryMapper(mongoOperations.getConverter());
+        Document find = new Document("find", mongoOperations.getCollectionName(model))
+            .append("filter", mapper.getMappedObject(filter, entity));
+        if (sort != null && !sort.isEmpty()) {
+            find.append("sort", mapper.getMappedSort(sort, entity));
+        }
+        if (hint != null) {
+            find.append("hint", hint);
+        }
+        return mongoOperations.executeCommand(
+            new Document("explain", find).append("verbosity", verbosity));
+    }
+
+    /**
+     * Returns the names of all indexes used by any stage of the query plan.
+     */
+    static List<String> getIndexNames(Object plan) {
+        List<String> names = new ArrayList<>();
+        collectIndexNames(plan, names);
+        return names;
+    }
+
+    private static void collectIndexNames(Object plan, List<String> names) {
+        if (!(plan instanceof Document)) {
+            return;
+        }
+        Document stage = (Document) plan;
+        Object indexName = stage.get("indexName");
+        if (indexName != null && !names.contains(indexName.toString())) {
+            names.add(indexName.toString());
+        }
+        collectIndexNames(stage.get("inputStage"), names);
+        if (stage.get("inputStages") instanceof List) {
+            for (Object inputStage : (List<?>) stage.get("inputStages")) {
+                collectIndexNames(inputStage, names);
+            }
+        }
+    }
+
+    /**
+     * Returns true if any stage of the query plan scans the whole collection.
+     */
+    static boolean isCollectionScan(Object plan) {
+        if (!(plan instanceof Document)) {
+            return false;
+        }
+        Document stage = (Document) plan;
+        if ("COLLSCAN".equals(stage.get("stage")) || isCollectionScan(stage.get("inputStage"))) {
+            return true;
+        }
+        Object inputStages = stage.get("inputStages");
+        if (inputStages instanceof List) {
+            for (Object inputStage : (List<?>) inputStages) {
+                if (isCollectionScan(inputStage)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Summarizes a query plan as its chain of stages, with the name of each index used, eg. {@code
+     * FETCH > IXSCAN[geneId_1_sampleId_1]}.
+     */
+    static String getPlanSummary(Object plan) {
+        if (!(plan instanceof Document)) {
+            return "unknown";
+        }
+        Document stage = (Document) plan;
+        StringBuilder summary = new StringBuilder(String.valueOf(stage.get("stage")));
+        if (stage.get("indexName") != null) {
+            summary.append('[').append(stage.get("indexName")).append(']');
+        }
+        if (stage.get("inputStage") instanceof Document) {
+            summary.append(" > ").append(getPlanSummary(stage.get("inputStage")));
+        }
+        if (stage.get("inputStages") instanceof List) {
+            List<String> inputs = new ArrayList<>();
+            for (Object inputStage : (List<?>) stage.get("inputStages")) {
+                inputs.add(getPlanSummary(inputStage));
+            }
+            summary.append(" > (").append(String.join(", ", inputs)).append(')');
+        }
+        return summary.toString();
+    }
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.blueprint.centromere.mongodb;
+
+import com.blueprint.centromere.core.repository.RawJsonResults;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import org.bson.BsonBinaryReader;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonValueCodec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriter;
+import org.bson.json.JsonWriterSettings;
+
+/**
+ * {@link RawJsonResults} implementation that transcodes the raw BSON documents returned by
+ * MongoDB straight to JSON.  Top-level document fields are renamed to the model properties they
+ * are mapped to, and fields that are not mapped to a model property, such as the {@code _class}
+ * type hint, are skipped.  Values are written as Jackson writes them by default: object IDs as
+ * hex strings, and dates and 64-bit integers as plain numbers.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+public class MongoRawJsonResults implements RawJsonResults {
+
+    private static final JsonWriterSettings JSON_SETTINGS = JsonWriterSettings.builder()
+        .outputMode(JsonMode.RELAXED)
+        .objectIdConverter((value, writer) -> writer.writeString(value.toHexString()))
+        .dateTimeConverter((value, writer) -> writer.writeNumber(Long.toString(value)))
+        .int64Converter((value, writer) -> writer.writeNumber(Long.toString(value)))
+        .decimal128Converter((value, writer) -> writer.writeNumber(value.toString()))
+        .doubleConverter((value, writer) -> {
+            if (value.isNaN() || value.isInfinite()) {
+                writer.writeString(value.toString());
+            } else {
+                writer.writeNumber(value.toString());
+            }
+        })
+        .binaryConverter((value, writer) -> writer.writeString(
+            Base64.getEncoder().encodeToString(value.getData())))
+        .build();
+
+    private static final BsonValueCodec VALUE_CODEC = new BsonValueCodec();
+
+    private final List<RawBsonDocument> documents;
+    private final Map<String, String> propertyNames;
+
+    /**
+     * @param documents raw query results.
+     * @param propertyNames model property names, keyed by the document field they are mapped to.
+     */
+    public MongoRawJsonResults(List<RawBsonDocument> documents,
+        Map<String, String> propertyNames) {
+        this.documents = documents;
+        this.propertyNames = propertyNames;
+    }
+
+    @Override
+    public int size() {
+        return documents.size();
+    }
+
+    @Override
+    public void write(Writer writer, Predicate<String> propertyFilter) throws IOException {
+        writer.write('[');
+        boolean first = true;
+        for (RawBsonDocument document : documents) {
+            if (!first) {
+                writer.write(',');
+            }
+            writeDocument(document, writer, propertyFilter);
+            first = false;
+        }
+        writer.write(']');
+    }
+
+    private void writeDocument(RawBsonDocument document, Writer writer,
+        Predicate<String> propertyFilter) {
+        try (BsonBinaryReader reader = new BsonBinaryReader(document.getByteBuffer().asNIO())) {
+            JsonWriter jsonWriter = new JsonWriter(writer, JSON_SETTINGS);
+            reader.readStartDocument();
+            jsonWriter.writeStartDocument();
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                String property = propertyNames.get(reader.readName());
+                if (property == null || !propertyFilter.test(property)) {
+                    reader.skipValue();
+                    continue;
+                }
+                jsonWriter.writeName(property);
+                copyValue(reader, jsonWriter);
+            }
+            reader.readEndDocument();
+            jsonWriter.writeEndDocument();
+        }
+    }
+
+    /**
+     * Copies the current value of the reader to the writer, without materializing it.
+     */
+    private static void copyValue(BsonReader reader, BsonWriter writer) {
+        switch (reader.getCurrentBsonType()) {
+            case DOCUMENT:
+                writer.pipe(reader);
+                break;
+            case ARRAY:
+                reader.readStartArray();
+                writer.writeStartArray();
+                while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                    copyValue(reader, writer);
+                }
+                reader.readEndArray();
+                writer.writeEndArray();
+                break;
+            case STRING:
+                writer.writeString(reader.readString());
+                break;
+            case INT32:
+                writer.writeInt32(reader.readInt32());
+                break;
+            case INT64:
+                writer.writeInt64(reader.readInt64());
+                break;
+            case DOUBLE:
+                writer.writeDouble(reader.readDouble());
+                break;
+            case BOOLEAN:
+                writer.writeBoolean(reader.readBoolean());
+                break;
+            case DATE_TIME:
+                writer.writeDateTime(reader.readDateTime());
+                break;
+            case OBJECT_ID:
+                writer.writeObjectId(reader.readObjectId());
+                break;
+            case NULL:
+                reader.readNull();
+                writer.writeNull();
+                break;
+            default:
+                VALUE_CODEC.encode(writer, VALUE_CODEC.decode(reader,
+                    DecoderContext.builder().build()), EncoderContext.builder().build());
+        }
+    }
+
+}
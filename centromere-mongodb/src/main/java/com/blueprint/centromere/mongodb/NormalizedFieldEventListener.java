@@ -0,0 +1,40 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blueprint.centromere.mongodb;
+
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+
+/**
+ * Mapping event listener that adds normalized copies of the values of fields marked with {@link
+ * com.blueprint.centromere.core.model.CaseInsensitive} to every model document inserted or saved
+ * through a blocking or reactive MongoDB template.  Must be registered as a
+ * bean for case-insensitive queries against those fields to return records.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+public class NormalizedFieldEventListener extends AbstractMongoEventListener<Object> {
+
+    @Override
+    public void onBeforeSave(BeforeSaveEvent<Object> event) {
+        if (event.getDocument() != null) {
+            NormalizedFields.apply(event.getSource(), event.getDocument());
+        }
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blueprint.centromere.mongodb;
+
+import com.blueprint.centromere.core.model.ModelReflectionUtils;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.bson.Document;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Maintains lower-cased copies of the values of model fields marked with {@link
+ * com.blueprint.centromere.core.model.CaseInsensitive}, stored in a {@code _normalized}
+ * sub-document of each record, eg. {@code _normalized.symbol}.  Case-insensitive equality and
+ * prefix queries on these fields are answered by exact and anchored prefix matches against the
+ * normalized copies, which can use ordinary indexes.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+final class NormalizedFields {
+
+    static final String DOCUMENT_FIELD = "_normalized";
+
+    private static final Map<Class<?>, List<Field>> FIELDS = new ConcurrentHashMap<>();
+
+    private NormalizedFields() {
+    }
+
+    /**
+     * Returns the case-insensitive fields of the requested model, made accessible.
+     */
+    static List<Field> getFields(Class<?> model) {
+        return FIELDS.computeIfAbsent(model, type -> {
+            List<Field> fields = ModelReflectionUtils.getCaseInsensitiveFields(type);
+            fields.forEach(ReflectionUtils::makeAccessible);
+            return Collections.unmodifiableList(fields);
+        });
+    }
+
+    /**
+     * Tests whether normalized copies of the requested property's values are maintained.
+     *
+     * @param model model class, or {@code null} if unknown.
+     * @param property model property name.
+     * @return true if the property is case-insensitive.
+     */
+    static boolean isNormalized(Class<?> model, String property) {
+        if (model == null || property == null) {
+            return false;
+        }
+        for (Field field : getFields(model)) {
+            if (field.getName().equals(property)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the document field holding the normalized copy of a property's values.
+     */
+    static String getFieldName(String property) {
+        return DOCUMENT_FIELD + "." + property;
+    }
+
+    static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Adds the normalized copies of the entity's case-insensitive field values to its converted
+     * document, replacing any existing copies.
+     *
+     * @param entity model instance being written.
+     * @param document document the entity was converted to.
+     */
+    static void apply(Object entity, Document document) {
+        List<Field> fields = getFields(entity.getClass());
+        if (fields.isEmpty()) {
+            return;
+        }
+        Document normalized = new Document();
+        for (Field field : fields) {
+            Object value = normalizeValue(ReflectionUtils.getField(field, entity));
+            if (value != null) {
+                normalized.put(field.getName(), value);
+            }
+        }
+        document.put(DOCUMENT_FIELD, normalized);
+    }
+
+    private static Object normalizeValue(Object value) {
+        if (value instanceof String) {
+            return normalize((String) value);
+        } else if (value instanceof Collection) {
+            List<Object> values = new ArrayList<>();
+            for (Object item : (Collection<?>) value) {
+                values.add(normalizeValue(item));
+            }
+            return values;
+        }
+        return value;
+    }
+
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blueprint.centromere.mongodb;
+
+import com.blueprint.centromere.core.exceptions.ModelPersistenceException;
+import com.blueprint.centromere.core.exceptions.QueryParameterException;
+import com.blueprint.centromere.core.model.Model;
+import com.blueprint.centromere.core.repository.QueryCriteria;
+import com.blueprint.centromere.core.repository.ReactiveModelRepository;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.WriteModel;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.bson.Document;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.query.MongoEntityInformation;
+import org.springframework.data.mongodb.repository.support.SimpleReactiveMongoRepository;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Implementation of {@link ReactiveModelRepository} for MongoDB databases, using the reactive
+ * streams driver.  Extends the Spring Data MongoDB {@link SimpleReactiveMongoRepository} class.
+ * Queries are translated in the same way as in {@link MongoModelRepository}, but records are
+ * emitted as the driver receives them, so no thread is held while waiting on the database.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+public class ReactiveMongoModelRepository<T extends Model<I>, I extends Serializable>
+    extends SimpleReactiveMongoRepository<T, I>
+    implements ReactiveModelRepository<T, I> {
+
+    private final ReactiveMongoOperations mongoOperations;
+    private final MongoEntityInformation<T, I> metadata;
+    private final Class<T> model;
+    private int bulkWriteBatchSize = MongoModelRepository.DEFAULT_BULK_WRITE_BATCH_SIZE;
+
+    public ReactiveMongoModelRepository(MongoEntityInformation<T, I> metadata,
+        ReactiveMongoOperations mongoOperations) {
+        super(metadata, mongoOperations);
+        this.mongoOperations = mongoOperations;
+        this.metadata = metadata;
+        this.model = metadata.getJavaType();
+    }
+
+    @Override
+    public Flux<T> find(Iterable<QueryCriteria> queryCriterias) {
+        return mongoOperations.find(getQuery(queryCriterias), model);
+    }
+
+    @Override
+    public Flux<T> find(Iterable<QueryCriteria> queryCriterias, Sort sort) {
+        return mongoOperations.find(getQuery(queryCriterias).with(sort), model);
+    }
+
+    @Override
+    public Flux<T> find(Iterable<QueryCriteria> queryCriterias, Pageable pageable) {
+        return mongoOperations.find(getQuery(queryCriterias).with(pageable), model);
+    }
+
+    @Override
+    public Mono<Long> count(Iterable<QueryCriteria> queryCriterias) {
+        return mongoOperations.count(getQuery(queryCriterias), model);
+    }
+
+    @Override
+    public Flux<Object> distinct(String field) {
+        return distinct(field, Collections.emptyList());
+    }
+
+    /**
+     * Returns the distinct values of the requested field, using a {@code $match}, {@code $group},
+     * {@code $sort} aggregation pipeline.
+     *
+     * @param field Model field name.
+     * @param criterias Query criteria to filter the field values by.
+     * @return distinct values of {@code field}.
+     */
+    @Override
+    public Flux<Object> distinct(String field, Iterable<QueryCriteria> criterias) {
+
+        if (!new BeanWrapperImpl(model).isReadableProperty(field)) {
+            return Flux.error(new QueryParameterException(
+                String.format("Submitted parameter is not valid entity field: %s", field)));
+        }
+
+        MongoPersistentEntity<?> entity = mongoOperations.getConverter().getMappingContext()
+            .getPersistentEntity(model);
+        Document filter = MongoQueryUtils
+            .getMappedFilter(criterias, mongoOperations.getConverter(), entity);
+
+        List<Document> pipeline = new ArrayList<>();
+        if (!filter.isEmpty()) {
+            pipeline.add(new Document("$match", filter));
+        }
+        pipeline.add(new Document("$group",
+            new Document("_id", "$" + MongoQueryUtils.getMappedFieldName(field, entity))));
+        pipeline.add(new Document("$sort", new Document("_id", 1)));
+
+        Class<?> fieldType = MongoQueryUtils.getSimpleFieldType(field, entity);
+        return mongoOperations.execute(metadata.getCollectionName(),
+            collection -> collection.aggregate(pipeline).allowDiskUse(true))
+            .map(document -> MongoQueryUtils.convertToFieldType(document.get("_id"), fieldType,
+                mongoOperations.getConverter().getConversionService()));
+
+    }
+
+    /**
+     * Updates an existing record in the repository and emits its instance.  The record is
+     * replaced in a single operation, without first checking that it exists.
+     *
+     * @param entity updated record to be persisted in the repository.
+     * @return the updated entity object.
+     */
+    @Override
+    public <S extends T> Mono<S> update(S entity) {
+        return update(Collections.singletonList(entity)).next();
+    }
+
+    /**
+     * Updates multiple records and emits their instances.  Records are replaced using unordered
+     * bulk writes, sent in batches of {@link #getBulkWriteBatchSize()} records, and each batch is
+     * emitted once it has been written.  If any of the records in a batch do not exist, a {@link
+     * ModelPersistenceException} is signalled instead, and no further batches are written.
+     *
+     * @param entities collection of records to update.
+     * @return updated instances of the entity objects.
+     */
+    @Override
+    public <S extends T> Flux<S> update(Iterable<S> entities) {
+        List<S> updated = new ArrayList<>();
+        for (S entity : entities) {
+            if (entity.getId() == null) {
+                return Flux.error(new ModelPersistenceException(
+                    String.format("Model record does not exist in the database,"
+                        + " and cannot be updated: %s", entity.toString())));
+            }
+            updated.add(entity);
+        }
+        return Flux.fromIterable(updated)
+            .buffer(bulkWriteBatchSize)
+            .concatMap(this::replace);
+    }
+
+    /**
+     * Replaces the documents matching the IDs of a batch of records, with a single unordered
+     * bulk write, and emits the records once it has completed.
+     */
+    private <S extends T> Flux<S> replace(List<S> batch) {
+        List<WriteModel<Document>> requests = new ArrayList<>();
+        for (T entity : batch) {
+            Document document = new Document();
+            mongoOperations.getConverter().write(entity, document);
+            NormalizedFields.apply(entity, document);
+            requests.add(new ReplaceOneModel<>(new Document("_id", document.get("_id")),
+                document));
+        }
+        BulkWriteOptions writeOptions = new BulkWriteOptions().ordered(false);
+        return mongoOperations.execute(metadata.getCollectionName(),
+            collection -> collection.bulkWrite(requests, writeOptions))
+            .next()
+            .flatMapMany(result -> {
+                if (result.getMatchedCount() < batch.size()) {
+                    return Flux.<S>error(new ModelPersistenceException(
+                        String.format("%d of %d model records do not exist in the database,"
+                            + " and cannot be updated", batch.size() - result.getMatchedCount(),
+                            batch.size())));
+                }
+                return Flux.fromIterable(batch);
+            });
+    }
+
+    private Query getQuery(Iterable<QueryCriteria> queryCriterias) {
+        Criteria criteria = MongoQueryUtils.getQueryFromQueryCriteria(queryCriterias, model);
+        Query query = new Query();
+        if (criteria != null) {
+            query.addCriteria(criteria);
+        }
+        return query;
+    }
+
+    /**
+     * Returns the model class reference.
+     */
+    @Override
+    public Class<T> getModel() {
+        return model;
+    }
+
+    /**
+     * Returns the maximum number of records written per round-trip by {@link #update(Iterable)}.
+     */
+    public int getBulkWriteBatchSize() {
+        return bulkWriteBatchSize;
+    }
+
+    public void setBulkWriteBatchSize(int bulkWriteBatchSize) {
+        Assert.isTrue(bulkWriteBatchSize > 0, "Bulk write batch size must be a positive integer.");
+        this.bulkWriteBatchSize = bulkWriteBatchSize;
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blueprint.centromere.mongodb;
+
+import java.io.Serializable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.data.mongodb.repository.query.MongoEntityInformation;
+import org.springframework.data.mongodb.repository.support.ReactiveMongoRepositoryFactory;
+import org.springframework.data.mongodb.repository.support.ReactiveMongoRepositoryFactoryBean;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.core.RepositoryMetadata;
+import org.springframework.data.repository.core.support.RepositoryFactorySupport;
+
+/**
+ * Factory bean for creating {@link ReactiveMongoModelRepository} beans.  Should be set as the
+ * {@code repositoryFactoryBeanClass} of {@code EnableReactiveMongoRepositories}.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+public class ReactiveMongoModelRepositoryFactoryBean<R extends ReactiveMongoRepository<T, I>, T,
+    I extends Serializable> extends ReactiveMongoRepositoryFactoryBean<R, T, I> {
+
+    private int bulkWriteBatchSize = MongoModelRepository.DEFAULT_BULK_WRITE_BATCH_SIZE;
+
+    public ReactiveMongoModelRepositoryFactoryBean(Class<? extends R> repositoryInterface) {
+        super(repositoryInterface);
+    }
+
+    @Value("${centromere.mongodb.bulk-write-batch-size:"
+        + MongoModelRepository.DEFAULT_BULK_WRITE_BATCH_SIZE + "}")
+    public void setBulkWriteBatchSize(int bulkWriteBatchSize) {
+        this.bulkWriteBatchSize = bulkWriteBatchSize;
+    }
+
+    @Override
+    protected RepositoryFactorySupport getFactoryInstance(ReactiveMongoOperations operations) {
+        return new ReactiveMongoModelRepositoryFactory(operations, bulkWriteBatchSize);
+    }
+
+    private static class ReactiveMongoModelRepositoryFactory
+        extends ReactiveMongoRepositoryFactory {
+
+        private final ReactiveMongoOperations mongoOperations;
+        private final int bulkWriteBatchSize;
+
+        ReactiveMongoModelRepositoryFactory(ReactiveMongoOperations mongoOperations,
+            int bulkWriteBatchSize) {
+            super(mongoOperations);
+            this.mongoOperations = mongoOperations;
+            this.bulkWriteBatchSize = bulkWriteBatchSize;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        protected Object getTargetRepository(RepositoryInformation information) {
+            MongoEntityInformation entityInformation = getEntityInformation(
+                information.getDomainType());
+            ReactiveMongoModelRepository repository
+                = new ReactiveMongoModelRepository<>(entityInformation, mongoOperations);
+            repository.setBulkWriteBatchSize(bulkWriteBatchSize);
+            return repository;
+        }
+
+        @Override
+        protected Class<?> getRepositoryBaseClass(RepositoryMetadata metadata) {
+            return ReactiveMongoModelRepository.class;
+        }
+    }
+
+}
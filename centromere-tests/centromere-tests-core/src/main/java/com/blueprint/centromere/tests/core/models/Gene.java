@@ -16,8 +16,10 @@
 
 package com.blueprint.centromere.tests.core.models;
 
+import com.blueprint.centromere.core.model.CaseInsensitive;
 import com.blueprint.centromere.core.model.Ignored;
 import com.blueprint.centromere.core.model.Model;
+import com.blueprint.centromere.core.model.ModelIndex;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -26,8 +28,12 @@ import java.util.Map;
 import lombok.Data;
 
 @Data
+@ModelIndex(fields = "symbol")
+@ModelIndex(fields = "aliases")
+@ModelIndex(fields = "attributes.isKinase")
 public abstract class Gene<I extends Serializable> implements Attributes, Model<I> {
 
+    @CaseInsensitive
     private String symbol;
     private Integer entrezGeneId;
     private Integer taxId;
@@ -37,6 +43,7 @@ public abstract class Gene<I extends Serializable> implements Attributes, Model<
     private String geneType;
     @Ignored
     private String description;
+    @CaseInsensitive
     private List<String> aliases = new ArrayList<>();
     private Map<String, String> attributes = new HashMap<>();
     private Map<String, String> externalReferences = new HashMap<>();
@@ -18,6 +18,7 @@ package com.blueprint.centromere.tests.core.models;
 
 import com.blueprint.centromere.core.model.Linked;
 import com.blueprint.centromere.core.model.Model;
+import com.blueprint.centromere.core.model.ModelIndex;
 import java.io.Serializable;
 import lombok.Data;
 
@@ -25,6 +26,8 @@ import lombok.Data;
  * @author woemler
  */
 @Data
+@ModelIndex(fields = {"geneId", "sampleId"})
+@ModelIndex(fields = {"sampleId", "geneId"})
 public abstract class GeneExpression<I extends Serializable> implements Model<I> {
 
     @Linked(model = DataFile.class, rel = "dataFile", field = "id")
@@ -16,8 +16,10 @@
 
 package com.blueprint.centromere.tests.core.models;
 
+import com.blueprint.centromere.core.model.CaseInsensitive;
 import com.blueprint.centromere.core.model.Ignored;
 import com.blueprint.centromere.core.model.Model;
+import com.blueprint.centromere.core.model.ModelIndex;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -33,8 +35,10 @@ import lombok.Data;
  * @author woemler
  */
 @Data
+@ModelIndex(fields = "name")
 public abstract class Sample<I extends Serializable> implements Model<I>, Attributes {
 
+    @CaseInsensitive
     private String name;
     private String subjectId;
     private String sampleType;
@@ -45,6 +49,7 @@ public abstract class Sample<I extends Serializable> implements Model<I>, Attrib
     @Ignored
     private String notes;
     private Map<String, String> attributes = new HashMap<>();
+    @CaseInsensitive
     private List<String> aliases = new ArrayList<>();
 
     @Override
@@ -18,7 +18,9 @@ package com.blueprint.centromere.tests.core.repositories;
 
 import com.blueprint.centromere.core.repository.ModelRepository;
 import com.blueprint.centromere.core.repository.QueryCriteria;
+import com.blueprint.centromere.core.repository.QueryCriteriaMatcher;
 import com.blueprint.centromere.tests.core.models.Gene;
+import com.google.common.primitives.Ints;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -50,53 +52,41 @@ public interface GeneRepository<T extends Gene<I>, I extends Serializable>
 
     @Override
     default List<T> guess(@Param("keyword") String keyword) {
-        List<T> genes = new ArrayList<>();
-        QueryCriteria criteria = new QueryCriteria("geneId", keyword);
-        genes.addAll((List<T>) find(Collections.singleton(criteria)));
-        criteria = new QueryCriteria("referenceId", keyword);
-        genes.addAll((List<T>) find(Collections.singleton(criteria)));
-        criteria = new QueryCriteria("symbol", keyword);
-        genes.addAll((List<T>) find(Collections.singleton(criteria)));
-        criteria = new QueryCriteria("aliases", keyword);
-        genes.addAll((List<T>) find(Collections.singleton(criteria)));
-        return genes;
+        return (List<T>) find(Collections.singleton(QueryCriteria.any(getGuessCriteria(keyword))));
     }
 
+    /**
+     * Fetches all genes matching any of the guess criteria with a single query, and returns the
+     * one matching the highest priority criteria.
+     */
     @Override
     default Optional<T> bestGuess(String keyword) {
-
-        List<T> genes = new ArrayList<>();
-
-        QueryCriteria criteria = new QueryCriteria("geneId", keyword);
-        genes.addAll((List<T>) find(Collections.singleton(criteria)));
-        if (!genes.isEmpty()) {
-            return Optional.of(genes.get(0));
-        }
-
-        try {
-            criteria = new QueryCriteria("entrezGeneId", Integer.parseInt(keyword));
-            genes.addAll((List<T>) find(Collections.singleton(criteria)));
-            if (!genes.isEmpty()) {
-                return Optional.of(genes.get(0));
+        List<QueryCriteria> criterias = getGuessCriteria(keyword);
+        List<T> genes = (List<T>) find(Collections.singleton(QueryCriteria.any(criterias)));
+        for (QueryCriteria criteria : criterias) {
+            for (T gene : genes) {
+                if (QueryCriteriaMatcher.matches(gene, Collections.singleton(criteria))) {
+                    return Optional.of(gene);
+                }
             }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-
-        criteria = new QueryCriteria("symbol", keyword);
-        genes.addAll((List<T>) find(Collections.singleton(criteria)));
-        if (!genes.isEmpty()) {
-            return Optional.of(genes.get(0));
         }
-
-        criteria = new QueryCriteria("aliases", keyword);
-        genes.addAll((List<T>) find(Collections.singleton(criteria)));
-        if (!genes.isEmpty()) {
-            return Optional.of(genes.get(0));
-        }
-
         return Optional.empty();
+    }
 
+    /**
+     * Returns the criteria used to guess genes from a keyword, in order of priority.
+     */
+    static List<QueryCriteria> getGuessCriteria(String keyword) {
+        List<QueryCriteria> criterias = new ArrayList<>();
+        criterias.add(new QueryCriteria("geneId", keyword));
+        criterias.add(new QueryCriteria("referenceId", keyword));
+        Integer entrezGeneId = Ints.tryParse(keyword);
+        if (entrezGeneId != null) {
+            criterias.add(new QueryCriteria("entrezGeneId", entrezGeneId));
+        }
+        criterias.add(new QueryCriteria("symbol", keyword));
+        criterias.add(new QueryCriteria("aliases", keyword));
+        return criterias;
     }
 
 }
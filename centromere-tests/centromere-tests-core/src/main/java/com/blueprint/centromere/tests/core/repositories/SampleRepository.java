@@ -17,9 +17,10 @@
 package com.blueprint.centromere.tests.core.repositories;
 
 import com.blueprint.centromere.core.repository.ModelRepository;
+import com.blueprint.centromere.core.repository.QueryCriteria;
 import com.blueprint.centromere.tests.core.models.Sample;
 import java.io.Serializable;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.repository.NoRepositoryBean;
@@ -48,13 +49,12 @@ public interface SampleRepository<T extends Sample<I>, I extends Serializable>
 
     @Override
     default List<T> guess(@Param("keyword") String keyword) {
-        List<T> samples = new ArrayList<>();
-        samples.addAll(findByName(keyword));
-        samples.addAll(findByAliases(keyword));
-        samples.addAll(findByTissue(keyword));
-        samples.addAll(findByHistology(keyword));
-        samples.addAll(findBySampleType(keyword));
-        return samples;
+        return (List<T>) find(Collections.singleton(QueryCriteria.any(
+            new QueryCriteria("name", keyword),
+            new QueryCriteria("aliases", keyword),
+            new QueryCriteria("tissue", keyword),
+            new QueryCriteria("histology", keyword),
+            new QueryCriteria("sampleType", keyword))));
     }
 
     @Override
@@ -0,0 +1,125 @@
+package com.blueprint.centromere.tests.core.benchmark;
+
+import com.blueprint.centromere.core.etl.reader.DelimitedLineTokenizer;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the cost of reading and splitting a tab-delimited file with gene-info-like lines,
+ * comparing the original {@link BufferedReader} and {@link String#split(String)} parsing with
+ * {@link DelimitedLineTokenizer}, both when copying columns into lists of strings and when reading
+ * the reusable column views.  Run with the {@link #main(String[])} method from the test classpath.
+ *
+ * @author woemler
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DelimitedLineTokenizerBenchmark {
+
+    @Param({"15", "60"})
+    private int columnCount;
+
+    private File file;
+
+    @Setup
+    public void setup() throws IOException {
+        file = File.createTempFile("tokenizer-benchmark", ".txt");
+        try (PrintWriter writer = new PrintWriter(file, "UTF-8")) {
+            for (int i = 0; i < 20000; i++) {
+                StringBuilder line = new StringBuilder();
+                for (int j = 0; j < columnCount; j++) {
+                    if (j > 0) {
+                        line.append('\t');
+                    }
+                    line.append("value").append(i).append('|').append(j);
+                }
+                writer.println(line);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public int bufferedReaderSplit() throws IOException {
+        int count = 0;
+        try (BufferedReader reader
+            = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            while (line != null) {
+                List<String> bits = new ArrayList<>();
+                for (String bit : line.split("\t")) {
+                    bits.add(bit.trim());
+                }
+                count += bits.size();
+                line = reader.readLine();
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int tokenizerList() throws IOException {
+        int count = 0;
+        try (DelimitedLineTokenizer tokenizer = new DelimitedLineTokenizer(
+            FileChannel.open(file.toPath()), '\t', false)) {
+            while (tokenizer.next()) {
+                count += tokenizer.toList().size();
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int tokenizerViews() throws IOException {
+        int count = 0;
+        try (DelimitedLineTokenizer tokenizer = new DelimitedLineTokenizer(
+            FileChannel.open(file.toPath()), '\t', false)) {
+            while (tokenizer.next()) {
+                for (int i = 0; i < tokenizer.getColumnCount(); i++) {
+                    count += tokenizer.getColumn(i).length();
+                }
+            }
+        }
+        return count;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(DelimitedLineTokenizerBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.blueprint.centromere.tests.core.benchmark;
+
+import com.blueprint.centromere.core.model.Model;
+import com.blueprint.centromere.core.repository.ModelTypeMap;
+import com.blueprint.centromere.tests.core.TestGene;
+import com.blueprint.centromere.tests.core.models.Gene;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the cost of resolving a registered model by its superclass, as done for every request
+ * by the model registries, comparing the original scan of every registered model with the
+ * memoized lookups of {@link ModelTypeMap}, as the number of registered models grows.  Distinct
+ * array classes stand in for the additional registered models.  Run with the {@link
+ * #main(String[])} method from the test classpath.
+ *
+ * @author woemler
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelRegistryLookupBenchmark {
+
+    @Param({"8", "64", "250"})
+    private int modelCount;
+
+    private Map<Class<? extends Model<?>>, String> models;
+    private ModelTypeMap<String> modelTypeMap;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        models = new HashMap<>();
+        models.put(TestGene.class, "gene");
+        for (int i = 1; i < modelCount; i++) {
+            Class<?> type = Array.newInstance(Object.class, new int[i]).getClass();
+            models.put((Class<? extends Model<?>>) type, "model" + i);
+        }
+        modelTypeMap = new ModelTypeMap<>(models);
+    }
+
+    @Benchmark
+    public String scanRegisteredModels() {
+        List<String> matches = new ArrayList<>();
+        for (Map.Entry<Class<? extends Model<?>>, String> entry : models.entrySet()) {
+            if (Gene.class.isAssignableFrom(entry.getKey())) {
+                matches.add(entry.getValue());
+            }
+        }
+        return matches.size() > 0 ? matches.get(0) : null;
+    }
+
+    @Benchmark
+    public String modelTypeMap() {
+        return modelTypeMap.get(Gene.class);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(ModelRegistryLookupBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.blueprint.centromere.tests.core.benchmark;
+
+import com.blueprint.centromere.core.repository.Evaluation;
+import com.blueprint.centromere.core.repository.QueryCriteria;
+import com.blueprint.centromere.core.repository.QueryParameterUtil;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+
+/**
+ * Measures the per-value cost of converting {@code IN} query parameter values, comparing the
+ * original approach of creating a new {@link DefaultConversionService} for every value with the
+ * shared converter table in {@link QueryParameterUtil}.  Run with the {@link #main(String[])}
+ * method from the test classpath.
+ *
+ * @author woemler
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(QueryParameterConversionBenchmark.VALUE_COUNT)
+public class QueryParameterConversionBenchmark {
+
+    static final int VALUE_COUNT = 5000;
+
+    private String[] values;
+
+    @Setup
+    public void setup() {
+        values = new String[VALUE_COUNT];
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            values[i] = String.valueOf(i + 1);
+        }
+    }
+
+    @Benchmark
+    public List<Object> conversionServicePerValue() {
+        List<Object> objects = new ArrayList<>();
+        for (String value : values) {
+            ConversionService conversionService = new DefaultConversionService();
+            objects.add(conversionService.convert(value, Integer.class));
+        }
+        return objects;
+    }
+
+    @Benchmark
+    public QueryCriteria inCriteria() {
+        return QueryParameterUtil
+            .getQueryCriteriaFromParameter("entrezGeneId", values, Integer.class, Evaluation.IN);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(QueryParameterConversionBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+
+}
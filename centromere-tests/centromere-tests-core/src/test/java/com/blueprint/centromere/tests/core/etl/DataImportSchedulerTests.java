@@ -0,0 +1,342 @@
+package com.blueprint.centromere.tests.core.etl;
+
+import com.blueprint.centromere.core.etl.processor.DataImportScheduler;
+import com.blueprint.centromere.core.etl.processor.DataImportScheduler.ImportResult;
+import com.blueprint.centromere.core.etl.processor.DataImportScheduler.ImportStatus;
+import com.blueprint.centromere.core.etl.processor.DataImportScheduler.ImportTask;
+import com.blueprint.centromere.core.etl.processor.DataProcessor;
+import com.blueprint.centromere.core.etl.processor.DataTypes;
+import com.blueprint.centromere.core.etl.processor.ModelProcessorBeanRegistry;
+import com.blueprint.centromere.core.exceptions.DataProcessingException;
+import com.blueprint.centromere.core.model.Model;
+import com.blueprint.centromere.tests.core.TestGene;
+import com.blueprint.centromere.tests.core.models.Gene;
+import com.blueprint.centromere.tests.core.models.GeneExpression;
+import com.blueprint.centromere.tests.core.models.Sample;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Scope;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+/**
+ * @author woemler
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {DataImportSchedulerTests.SchedulerConfig.class})
+public class DataImportSchedulerTests {
+
+    private static final String GENE_INFO = "gene_info";
+    private static final String SAMPLE_INFO = "sample_info";
+    private static final String GENE_EXPRESSION = "gene_expression";
+
+    private static final List<String> EVENTS = Collections.synchronizedList(new ArrayList<>());
+    private static final List<Integer> GENE_RECORD_COUNTS
+        = Collections.synchronizedList(new ArrayList<>());
+    private static final Map<String, AtomicInteger> RUNNING = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicInteger> MAX_RUNNING = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ModelProcessorBeanRegistry<DataProcessor<?>> processorRegistry;
+
+    private File geneFile;
+
+    @Before
+    public void setup() throws Exception {
+        EVENTS.clear();
+        GENE_RECORD_COUNTS.clear();
+        RUNNING.clear();
+        MAX_RUNNING.clear();
+        geneFile = new ClassPathResource("Homo_sapiens.gene_info").getFile();
+    }
+
+    @Test
+    public void processorRegistryTest() throws Exception {
+        Assert.assertTrue(processorRegistry.isRegisteredDataType(GENE_INFO));
+        Assert.assertTrue(processorRegistry.isRegisteredDataType(SAMPLE_INFO));
+        Assert.assertTrue(processorRegistry.isRegisteredDataType(GENE_EXPRESSION));
+        Assert.assertTrue(processorRegistry.isPrototypeDataType(GENE_INFO));
+        Assert.assertFalse(processorRegistry.isPrototypeDataType(SAMPLE_INFO));
+        Assert.assertNotSame(processorRegistry.getProcessorInstanceByDataType(GENE_INFO),
+            processorRegistry.getProcessorInstanceByDataType(GENE_INFO));
+        Assert.assertSame(processorRegistry.getProcessorByDataType(SAMPLE_INFO),
+            processorRegistry.getProcessorInstanceByDataType(SAMPLE_INFO));
+        Assert.assertEquals(1, processorRegistry.getDataProcessorsByModel(TestGene.class).size());
+    }
+
+    @Test
+    public void dependencyOrderTest() throws Exception {
+
+        List<ImportTask> tasks = Arrays.asList(
+            new ImportTask(geneFile, GENE_EXPRESSION),
+            new ImportTask(geneFile, GENE_EXPRESSION),
+            new ImportTask(geneFile, GENE_INFO),
+            new ImportTask(geneFile, SAMPLE_INFO),
+            new ImportTask(geneFile, GENE_INFO),
+            new ImportTask(geneFile, SAMPLE_INFO),
+            new ImportTask(geneFile, GENE_INFO)
+        );
+        DataImportScheduler scheduler = new DataImportScheduler(processorRegistry, 4)
+            .addModelDependencies(GeneExpression.class, Gene.class, Sample.class);
+        List<ImportResult> results = scheduler.run(tasks);
+
+        Assert.assertEquals(tasks.size(), results.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            Assert.assertSame(tasks.get(i), results.get(i).getTask());
+            Assert.assertEquals(ImportStatus.SUCCESS, results.get(i).getStatus());
+        }
+
+        Assert.assertEquals(14, EVENTS.size());
+        int firstExpression = EVENTS.indexOf("start:" + GENE_EXPRESSION);
+        Assert.assertTrue(firstExpression > EVENTS.lastIndexOf("end:" + GENE_INFO));
+        Assert.assertTrue(firstExpression > EVENTS.lastIndexOf("end:" + SAMPLE_INFO));
+
+        Assert.assertEquals(Arrays.asList(5, 5, 5), GENE_RECORD_COUNTS);
+
+    }
+
+    @Test
+    public void concurrencyLimitTest() throws Exception {
+
+        List<ImportTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            tasks.add(new ImportTask(geneFile, GENE_INFO));
+            tasks.add(new ImportTask(geneFile, SAMPLE_INFO));
+            tasks.add(new ImportTask(geneFile, GENE_EXPRESSION));
+        }
+        DataImportScheduler scheduler = new DataImportScheduler(processorRegistry, 4);
+        scheduler.setMaxConcurrentImports(Gene.class, 2);
+        for (ImportResult result : scheduler.run(tasks)) {
+            Assert.assertTrue(result.isSuccessful());
+        }
+
+        Assert.assertTrue(MAX_RUNNING.get(GENE_INFO).get() <= 2);
+        Assert.assertEquals(1, MAX_RUNNING.get(SAMPLE_INFO).get());
+        Assert.assertTrue(MAX_RUNNING.get(GENE_EXPRESSION).get() <= 4);
+        Assert.assertEquals(Arrays.asList(5, 5, 5, 5), GENE_RECORD_COUNTS);
+
+        scheduler.setMaxConcurrentImportsPerModel(1);
+        MAX_RUNNING.clear();
+        scheduler.run(tasks);
+        Assert.assertEquals(1, MAX_RUNNING.get(GENE_EXPRESSION).get());
+
+    }
+
+    @Test
+    public void failedDependencyTest() throws Exception {
+
+        List<ImportTask> tasks = Arrays.asList(
+            new ImportTask(new File("missing.gene_info"), GENE_INFO),
+            new ImportTask(geneFile, SAMPLE_INFO),
+            new ImportTask(geneFile, GENE_EXPRESSION)
+        );
+        List<ImportResult> results = new DataImportScheduler(processorRegistry, 2)
+            .addModelDependencies(GeneExpression.class, Gene.class, Sample.class)
+            .run(tasks);
+
+        Assert.assertEquals(ImportStatus.FAILED, results.get(0).getStatus());
+        Assert.assertNotNull(results.get(0).getError());
+        Assert.assertEquals(ImportStatus.SUCCESS, results.get(1).getStatus());
+        Assert.assertEquals(ImportStatus.SKIPPED, results.get(2).getStatus());
+        Assert.assertFalse(EVENTS.contains("start:" + GENE_EXPRESSION));
+
+    }
+
+    @Test
+    public void invalidManifestTest() throws Exception {
+
+        Exception exception = null;
+        try {
+            new DataImportScheduler(processorRegistry)
+                .run(Collections.singletonList(new ImportTask(geneFile, "bad_type")));
+        } catch (DataProcessingException e) {
+            exception = e;
+        }
+        Assert.assertNotNull(exception);
+
+        exception = null;
+        try {
+            new DataImportScheduler(processorRegistry)
+                .addModelDependencies(Gene.class, Sample.class)
+                .addModelDependencies(Sample.class, Gene.class)
+                .run(Arrays.asList(new ImportTask(geneFile, GENE_INFO),
+                    new ImportTask(geneFile, SAMPLE_INFO)));
+        } catch (DataProcessingException e) {
+            exception = e;
+        }
+        Assert.assertNotNull(exception);
+        Assert.assertTrue(EVENTS.isEmpty());
+
+    }
+
+    private static void start(String dataType) {
+        EVENTS.add("start:" + dataType);
+        int running = RUNNING.computeIfAbsent(dataType, t -> new AtomicInteger()).incrementAndGet();
+        MAX_RUNNING.computeIfAbsent(dataType, t -> new AtomicInteger())
+            .accumulateAndGet(running, Math::max);
+    }
+
+    private static void end(String dataType) {
+        RUNNING.get(dataType).decrementAndGet();
+        EVENTS.add("end:" + dataType);
+    }
+
+    private static void pause() throws DataProcessingException {
+        try {
+            Thread.sleep(20);
+        } catch (InterruptedException e) {
+            throw new DataProcessingException(e);
+        }
+    }
+
+    @Configuration
+    public static class SchedulerConfig {
+
+        @Bean
+        @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+        public GeneInfoProcessor<TestGene, String> geneInfoProcessor() {
+            return new GeneInfoProcessor<>(TestGene.class, new GeneInfoReader<>(TestGene.class),
+                new TestWriter<TestGene>() {
+
+                    private int count = 0;
+
+                    @Override
+                    public void writeRecord(TestGene record) throws DataProcessingException {
+                        count++;
+                        pause();
+                    }
+
+                    @Override
+                    public void doBefore(File file, Map<String, String> args) {
+                        count = 0;
+                        start(GENE_INFO);
+                    }
+
+                    @Override
+                    public void doOnSuccess(File file, Map<String, String> args) {
+                        GENE_RECORD_COUNTS.add(count);
+                        end(GENE_INFO);
+                    }
+
+                });
+        }
+
+        @Bean
+        public SampleInfoProcessor sampleInfoProcessor() {
+            return new SampleInfoProcessor();
+        }
+
+        @Bean
+        @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+        public GeneExpressionProcessor geneExpressionProcessor() {
+            return new GeneExpressionProcessor();
+        }
+
+        @Bean
+        public ModelProcessorBeanRegistry<DataProcessor<?>> processorRegistry() {
+            return new ModelProcessorBeanRegistry<>();
+        }
+
+    }
+
+    public static class TestSample extends Sample<String> {
+
+        private String id;
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public void setId(String id) {
+            this.id = id;
+        }
+    }
+
+    public static class TestGeneExpression extends GeneExpression<String> {
+
+        private String id;
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public void setId(String id) {
+            this.id = id;
+        }
+    }
+
+    /**
+     * Processor that only records when each file starts and finishes processing.
+     */
+    public abstract static class EventProcessor<T extends Model<?>> implements DataProcessor<T> {
+
+        private final Class<T> model;
+        private final String dataType;
+
+        public EventProcessor(Class<T> model, String dataType) {
+            this.model = model;
+            this.dataType = dataType;
+        }
+
+        @Override
+        public void processFile(File file, Map<String, String> args)
+            throws DataProcessingException {
+            start(dataType);
+            pause();
+            end(dataType);
+        }
+
+        @Override
+        public void doBefore(File file, Map<String, String> args) {
+        }
+
+        @Override
+        public void doOnSuccess(File file, Map<String, String> args) {
+        }
+
+        @Override
+        public void doOnFailure(File file, Map<String, String> args) {
+        }
+
+        @Override
+        public Class<T> getModel() {
+            return model;
+        }
+    }
+
+    @DataTypes({SAMPLE_INFO})
+    public static class SampleInfoProcessor extends EventProcessor<TestSample> {
+
+        public SampleInfoProcessor() {
+            super(TestSample.class, SAMPLE_INFO);
+        }
+    }
+
+    @DataTypes({GENE_EXPRESSION})
+    public static class GeneExpressionProcessor extends EventProcessor<TestGeneExpression> {
+
+        public GeneExpressionProcessor() {
+            super(TestGeneExpression.class, GENE_EXPRESSION);
+        }
+    }
+
+}
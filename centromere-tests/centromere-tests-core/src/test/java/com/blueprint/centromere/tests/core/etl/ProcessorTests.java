@@ -1,15 +1,28 @@
 package com.blueprint.centromere.tests.core.etl;
 
 import com.blueprint.centromere.core.etl.processor.DataProcessor;
+import com.blueprint.centromere.core.etl.processor.GenericDataImportProcessor;
 import com.blueprint.centromere.core.etl.processor.ModelProcessorBeanRegistry;
+import com.blueprint.centromere.core.exceptions.DataProcessingException;
 import com.blueprint.centromere.tests.core.TestGene;
 import com.blueprint.centromere.tests.core.models.Sample;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
 
 /**
  * @author woemler
@@ -18,6 +31,25 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 @ContextConfiguration(classes = {ETLConfig.class})
 public class ProcessorTests {
 
+    private static final List<String> GENE_SYMBOLS
+        = Arrays.asList("A1BG", "A2M", "A2MP1", "NAT1", "NAT2");
+
+    private static final Validator PROTEIN_CODING_VALIDATOR = new Validator() {
+
+        @Override
+        public boolean supports(Class<?> type) {
+            return TestGene.class.isAssignableFrom(type);
+        }
+
+        @Override
+        public void validate(Object target, Errors errors) {
+            if (!"protein-coding".equals(((TestGene) target).getGeneType())) {
+                errors.reject("geneType.invalid");
+            }
+        }
+
+    };
+
     @Autowired(required = false)
     private ModelProcessorBeanRegistry processorBeanRegistry;
     @Autowired(required = false)
@@ -42,4 +74,75 @@ public class ProcessorTests {
         Assert.assertEquals(geneProcessor.getModel(), TestGene.class);
     }
 
+
+    @Test
+    public void sequentialProcessingTest() throws Exception {
+        Assert.assertEquals(GENE_SYMBOLS, processGenes(new HashMap<>(), null, new ArrayList<>()));
+    }
+
+    @Test
+    public void pipelinedProcessingTest() throws Exception {
+        Map<String, String> args = new HashMap<>();
+        args.put(GenericDataImportProcessor.PROCESSING_MODE_ARG,
+            GenericDataImportProcessor.PIPELINED_MODE);
+        args.put(GenericDataImportProcessor.PROCESSING_THREADS_ARG, "3");
+        args.put(GenericDataImportProcessor.PROCESSING_QUEUE_SIZE_ARG, "2");
+        Assert.assertEquals(GENE_SYMBOLS, processGenes(args, null, new ArrayList<>()));
+
+        args.put(GenericDataImportProcessor.ORDERED_OUTPUT_ARG, "false");
+        List<String> symbols = processGenes(args, null, new ArrayList<>());
+        Assert.assertEquals(GENE_SYMBOLS.size(), symbols.size());
+        Assert.assertEquals(new HashSet<>(GENE_SYMBOLS), new HashSet<>(symbols));
+    }
+
+    @Test
+    public void pipelinedInvalidRecordTest() throws Exception {
+        Map<String, String> args = new HashMap<>();
+        args.put(GenericDataImportProcessor.PROCESSING_MODE_ARG,
+            GenericDataImportProcessor.PIPELINED_MODE);
+        args.put(GenericDataImportProcessor.SKIP_INVALID_RECORDS_ARG, "true");
+        Assert.assertEquals(Arrays.asList("A1BG", "A2M", "NAT1", "NAT2"),
+            processGenes(args, PROTEIN_CODING_VALIDATOR, new ArrayList<>()));
+
+        args.put(GenericDataImportProcessor.SKIP_INVALID_RECORDS_ARG, "false");
+        List<String> symbols = new ArrayList<>();
+        Exception exception = null;
+        try {
+            processGenes(args, PROTEIN_CODING_VALIDATOR, symbols);
+        } catch (DataProcessingException e) {
+            exception = e;
+        }
+        Assert.assertNotNull(exception);
+        Assert.assertEquals(Arrays.asList("A1BG", "A2M"), symbols);
+    }
+
+    @Test
+    public void invalidProcessingModeTest() throws Exception {
+        Map<String, String> args = new HashMap<>();
+        args.put(GenericDataImportProcessor.PROCESSING_MODE_ARG, "parallel");
+        Exception exception = null;
+        try {
+            processGenes(args, null, new ArrayList<>());
+        } catch (DataProcessingException e) {
+            exception = e;
+        }
+        Assert.assertNotNull(exception);
+    }
+
+    private List<String> processGenes(Map<String, String> args, Validator validator,
+        List<String> symbols) throws Exception {
+        List<String> written = Collections.synchronizedList(symbols);
+        GeneInfoProcessor<TestGene, String> processor = new GeneInfoProcessor<>(TestGene.class,
+            new GeneInfoReader<>(TestGene.class), new TestWriter<TestGene>() {
+                @Override
+                public void writeRecord(TestGene record) {
+                    written.add(record.getSymbol());
+                }
+            }, validator);
+        File file = new ClassPathResource("Homo_sapiens.gene_info").getFile();
+        processor.doBefore(file, args);
+        processor.processFile(file, args);
+        return symbols;
+    }
+
 }
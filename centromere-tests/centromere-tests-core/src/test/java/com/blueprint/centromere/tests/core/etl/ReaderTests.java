@@ -1,9 +1,18 @@
 package com.blueprint.centromere.tests.core.etl;
 
+import com.blueprint.centromere.core.etl.reader.BasicColumnMappingRecordReader;
+import com.blueprint.centromere.core.etl.reader.DelimitedLineTokenizer;
+import com.blueprint.centromere.core.exceptions.DataProcessingException;
 import com.blueprint.centromere.tests.core.TestGene;
 import com.blueprint.centromere.tests.core.models.Gene;
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import org.junit.Assert;
@@ -90,4 +99,102 @@ public class ReaderTests {
 
     }
 
+    @Test
+    public void delimitedLineTokenizerTest() throws Exception {
+
+        String text = "a, b ,\"c,d\",\"say \"\"hi\"\"\"\r\n"
+            + "\"multi\nline\",,\r"
+            + "\r\n"
+            + "last, \u00e9t\u00e9 ";
+        DelimitedLineTokenizer tokenizer = new DelimitedLineTokenizer(
+            Channels.newChannel(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8))),
+            ',', true, 4);
+
+        Assert.assertTrue(tokenizer.next());
+        Assert.assertEquals(Arrays.asList("a", "b", "c,d", "say \"hi\""), tokenizer.toList());
+        CharSequence column = tokenizer.getColumn(1);
+        Assert.assertEquals(1, column.length());
+        Assert.assertEquals('b', column.charAt(0));
+
+        Assert.assertTrue(tokenizer.next());
+        Assert.assertEquals(Arrays.asList("multi\nline", "", ""), tokenizer.toList());
+        Assert.assertSame(column, tokenizer.getColumn(1));
+        Assert.assertEquals(0, column.length());
+
+        Assert.assertTrue(tokenizer.next());
+        Assert.assertEquals(Arrays.asList(""), tokenizer.toList());
+        Assert.assertTrue(tokenizer.next());
+        Assert.assertEquals("last", tokenizer.getColumn(0).toString());
+        Assert.assertEquals(3, tokenizer.getColumn(1).length());
+        Assert.assertEquals('\u00e9', tokenizer.getColumn(1).charAt(2));
+        Assert.assertEquals("\u00e9t\u00e9", tokenizer.getString(1));
+        Assert.assertEquals(4, tokenizer.getLineNumber());
+        Assert.assertFalse(tokenizer.next());
+        tokenizer.close();
+
+    }
+
+    @Test
+    public void tokenizedGeneInfoTest() throws Exception {
+
+        File file = GENE_INFO_FILE.getFile();
+        List<String> symbols = new ArrayList<>();
+        try (DelimitedLineTokenizer tokenizer = new DelimitedLineTokenizer(
+            FileChannel.open(file.toPath()), '\t', false)) {
+            while (tokenizer.next()) {
+                if (tokenizer.getColumn(0).charAt(0) != '#') {
+                    Assert.assertEquals(15, tokenizer.getColumnCount());
+                    symbols.add(tokenizer.getString(2));
+                }
+            }
+        }
+        Assert.assertEquals(Arrays.asList("A1BG", "A2M", "A2MP1", "NAT1", "NAT2"), symbols);
+
+    }
+
+    @Test
+    public void columnMappingReaderTest() throws Exception {
+
+        File file = File.createTempFile("column-mapping", ".txt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), Arrays.asList(
+            "Symbol\tEntrez_Gene_ID\ttax_id\tunknown\tgene-type",
+            "A1BG\t1\t9606\tfoo\tprotein-coding",
+            "",
+            "A2M\t\t9606\tbar",
+            "NAT1\tnone\t9606\tbaz\tprotein-coding"), StandardCharsets.UTF_8);
+
+        BasicColumnMappingRecordReader<TestGene> reader
+            = new BasicColumnMappingRecordReader<TestGene>(TestGene.class, "\t") {
+                @Override
+                protected boolean isSkippableLine(List<String> line) {
+                    return String.join("", line).trim().isEmpty();
+                }
+            };
+        reader.doBefore(file, new HashMap<>());
+
+        TestGene gene = reader.readRecord();
+        Assert.assertNotNull(gene);
+        Assert.assertEquals("A1BG", gene.getSymbol());
+        Assert.assertEquals(Integer.valueOf(1), gene.getEntrezGeneId());
+        Assert.assertEquals(Integer.valueOf(9606), gene.getTaxId());
+        Assert.assertEquals("protein-coding", gene.getGeneType());
+
+        TestGene second = reader.readRecord();
+        Assert.assertNotSame(gene, second);
+        Assert.assertEquals("A2M", second.getSymbol());
+        Assert.assertNull(second.getEntrezGeneId());
+        Assert.assertNull(second.getGeneType());
+
+        Exception exception = null;
+        try {
+            reader.readRecord();
+        } catch (DataProcessingException e) {
+            exception = e;
+        }
+        Assert.assertNotNull(exception);
+        reader.doOnFailure(file, new HashMap<>());
+
+    }
+
 }
@@ -0,0 +1,66 @@
+package com.blueprint.centromere.tests.core.repository;
+
+import com.blueprint.centromere.core.model.Model;
+import com.blueprint.centromere.core.repository.ModelTypeMap;
+import com.blueprint.centromere.tests.core.TestGene;
+import com.blueprint.centromere.tests.core.models.Gene;
+import com.blueprint.centromere.tests.core.models.Sample;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author woemler
+ */
+public class ModelTypeMapTests {
+
+    @Test
+    public void exactMatchTest() {
+        Map<Class<? extends Model<?>>, String> models = new HashMap<>();
+        models.put(TestGene.class, "gene");
+        ModelTypeMap<String> map = new ModelTypeMap<>(models);
+        Assert.assertEquals("gene", map.get(TestGene.class));
+        Assert.assertEquals(1, map.count(TestGene.class));
+        Assert.assertTrue(map.contains(TestGene.class));
+    }
+
+    @Test
+    public void subclassMatchTest() {
+        Map<Class<? extends Model<?>>, String> models = new HashMap<>();
+        models.put(TestGene.class, "gene");
+        ModelTypeMap<String> map = new ModelTypeMap<>(models);
+        Assert.assertEquals("gene", map.get(Gene.class));
+        Assert.assertEquals(1, map.count(Gene.class));
+        Assert.assertTrue(map.contains(Gene.class));
+        Assert.assertFalse(map.keySet().contains(Gene.class));
+    }
+
+    @Test
+    public void ambiguousMatchTest() {
+        Map<Class<? extends Model<?>>, String> models = new HashMap<>();
+        models.put(TestGene.class, "gene");
+        models.put(OtherTestGene.class, "othergene");
+        ModelTypeMap<String> map = new ModelTypeMap<>(models);
+        Assert.assertEquals(2, map.count(Gene.class));
+        Assert.assertNull(map.get(Gene.class));
+        Assert.assertTrue(map.contains(Gene.class));
+        Assert.assertEquals(2, map.count(TestGene.class));
+        Assert.assertEquals(1, map.count(OtherTestGene.class));
+        Assert.assertEquals("othergene", map.get(OtherTestGene.class));
+    }
+
+    @Test
+    public void unregisteredTypeTest() {
+        Map<Class<? extends Model<?>>, String> models = new HashMap<>();
+        models.put(TestGene.class, "gene");
+        ModelTypeMap<String> map = new ModelTypeMap<>(models);
+        Assert.assertNull(map.get(Sample.class));
+        Assert.assertEquals(0, map.count(Sample.class));
+        Assert.assertFalse(map.contains(Sample.class));
+    }
+
+    public static class OtherTestGene extends TestGene {
+    }
+
+}
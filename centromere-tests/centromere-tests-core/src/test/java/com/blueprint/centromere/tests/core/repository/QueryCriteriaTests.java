@@ -4,9 +4,11 @@ import com.blueprint.centromere.core.exceptions.QueryParameterException;
 import com.blueprint.centromere.core.repository.Evaluation;
 import com.blueprint.centromere.core.repository.QueryCriteria;
 import com.blueprint.centromere.core.repository.QueryParameterDescriptor;
+import com.blueprint.centromere.core.repository.QueryParameterIndex;
 import com.blueprint.centromere.core.repository.QueryParameterUtil;
 import com.blueprint.centromere.tests.core.TestGene;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import org.junit.Assert;
@@ -136,6 +138,38 @@ public class QueryCriteriaTests {
         Assert.assertTrue(!descriptorMap.containsKey("geneSymbol"));
     }
 
+    @Test
+    public void queryParameterIndexTest() {
+
+        QueryParameterIndex index = QueryParameterIndex.forModel(TestGene.class);
+        Assert.assertNotNull(index);
+        Assert.assertSame(index, QueryParameterIndex.forModel(TestGene.class));
+
+        QueryParameterIndex.Binding binding = index.resolve("symbol");
+        Assert.assertNotNull(binding);
+        Assert.assertEquals("symbol", binding.getFieldName());
+        Assert.assertEquals(Evaluation.EQUALS, binding.getEvaluation());
+        Assert.assertEquals(String.class, binding.getType());
+
+        binding = index.resolve("entrezGeneIdGreaterThanOrEquals");
+        Assert.assertNotNull(binding);
+        Assert.assertEquals("entrezGeneId", binding.getFieldName());
+        Assert.assertEquals(Evaluation.GREATER_THAN_EQUALS, binding.getEvaluation());
+        Assert.assertEquals(Integer.class, binding.getType());
+
+        binding = index.resolve("attributes.isKinase");
+        Assert.assertNotNull(binding);
+        Assert.assertEquals("attributes.isKinase", binding.getFieldName());
+        Assert.assertEquals(Evaluation.EQUALS, binding.getEvaluation());
+
+        Assert.assertNull(index.resolve("attributes"));
+        Assert.assertNull(index.resolve("attributes."));
+        Assert.assertNull(index.resolve("attributes.is-kinase"));
+        Assert.assertNull(index.resolve("symbolBadSuffix"));
+        Assert.assertNull(index.resolve("geneSymbol"));
+
+    }
+
     @Test
     public void parameterToCriteriaTest() {
 
@@ -178,4 +212,59 @@ public class QueryCriteriaTests {
 
     }
 
+    @Test
+    public void parameterConversionTest() {
+
+        QueryCriteria criteria = QueryParameterUtil
+            .getQueryCriteriaFromParameter("entrezGeneId", new Object[]{"1", " 2", "0x10"},
+                Integer.class, Evaluation.IN);
+        Assert.assertNotNull(criteria);
+        Assert.assertEquals(Evaluation.IN, criteria.getEvaluation());
+        Assert.assertEquals(Arrays.asList(1, 2, 16), criteria.getValue());
+
+        Assert.assertEquals(Boolean.TRUE, QueryParameterUtil.getQueryCriteriaFromParameter(
+            "flag", new Object[]{"yes"}, Boolean.class, Evaluation.EQUALS).getValue());
+        Assert.assertEquals(3L, QueryParameterUtil.getQueryCriteriaFromParameter(
+            "count", new Object[]{"3"}, long.class, Evaluation.EQUALS).getValue());
+        Assert.assertEquals(1.5, QueryParameterUtil.getQueryCriteriaFromParameter(
+            "score", new Object[]{"1.5"}, Double.class, Evaluation.GREATER_THAN).getValue());
+        Assert.assertNull(QueryParameterUtil.getQueryCriteriaFromParameter(
+            "entrezGeneId", new Object[]{""}, Integer.class, Evaluation.EQUALS).getValue());
+        Assert.assertEquals(" GeneA", QueryParameterUtil.getQueryCriteriaFromParameter(
+            "symbol", new Object[]{" GeneA"}, String.class, Evaluation.EQUALS).getValue());
+
+        Exception exception = null;
+        try {
+            QueryParameterUtil.getQueryCriteriaFromParameter("entrezGeneId",
+                new Object[]{"abc"}, Integer.class, Evaluation.EQUALS);
+        } catch (Exception e) {
+            exception = e;
+        }
+        Assert.assertNotNull(exception);
+        Assert.assertTrue(exception instanceof QueryParameterException);
+
+    }
+
+    @Test
+    public void compositeCriteriaTest() {
+        QueryCriteria symbol = new QueryCriteria("symbol", "GeneA");
+        QueryCriteria type = new QueryCriteria("geneType", "pseudo");
+        QueryCriteria criteria = QueryCriteria.any(symbol, null, QueryCriteria.not(type));
+        Assert.assertTrue(criteria.isComposite());
+        Assert.assertNull(criteria.getKey());
+        Assert.assertEquals(Evaluation.ANY, criteria.getEvaluation());
+        Assert.assertEquals(2, criteria.getCriterias().size());
+        Assert.assertEquals(Evaluation.NOT, criteria.getCriterias().get(1).getEvaluation());
+        Assert.assertEquals(Collections.singletonList(type),
+            criteria.getCriterias().get(1).getCriterias());
+        Assert.assertFalse(symbol.isComposite());
+        Assert.assertTrue(symbol.getCriterias().isEmpty());
+        Assert.assertEquals(criteria, QueryCriteria.any(symbol, QueryCriteria.not(type)));
+    }
+
+    @Test(expected = QueryParameterException.class)
+    public void emptyCompositeCriteriaTest() {
+        QueryCriteria.all(Collections.emptyList());
+    }
+
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blueprint.centromere.tests.memory;
+
+import com.blueprint.centromere.core.repository.DefaultModelRepositoryRegistry;
+import com.blueprint.centromere.core.repository.ModelRepositoryRegistry;
+import com.blueprint.centromere.tests.memory.repositories.MemoryDataFileRepository;
+import com.blueprint.centromere.tests.memory.repositories.MemoryDataSetRepository;
+import com.blueprint.centromere.tests.memory.repositories.MemoryGeneExpressionRepository;
+import com.blueprint.centromere.tests.memory.repositories.MemoryGeneRepository;
+import com.blueprint.centromere.tests.memory.repositories.MemorySampleRepository;
+import com.blueprint.centromere.tests.memory.repositories.MemoryUserRepository;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * @author woemler
+ */
+@Configuration
+public class MemoryRepositoryConfig {
+
+    @Bean
+    public MemoryGeneRepository geneRepository() {
+        return new MemoryGeneRepository();
+    }
+
+    @Bean
+    public MemorySampleRepository sampleRepository() {
+        return new MemorySampleRepository();
+    }
+
+    @Bean
+    public MemoryDataSetRepository dataSetRepository() {
+        return new MemoryDataSetRepository();
+    }
+
+    @Bean
+    public MemoryDataFileRepository dataFileRepository() {
+        return new MemoryDataFileRepository();
+    }
+
+    @Bean
+    public MemoryGeneExpressionRepository geneExpressionRepository() {
+        return new MemoryGeneExpressionRepository();
+    }
+
+    @Bean
+    public MemoryUserRepository userRepository() {
+        return new MemoryUserRepository();
+    }
+
+    @Bean
+    public ModelRepositoryRegistry modelRepositoryRegistry(ApplicationContext context) {
+        return new DefaultModelRepositoryRegistry(context);
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blueprint.centromere.tests.memory.repositories;
+
+import com.blueprint.centromere.core.repository.ModelResource;
+import com.blueprint.centromere.core.repository.QueryCriteria;
+import com.blueprint.centromere.memory.MemoryModelRepository;
+import com.blueprint.centromere.tests.core.repositories.DataFileRepository;
+import com.blueprint.centromere.tests.memory.models.MemoryDataFile;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * @author woemler
+ */
+@ModelResource("datafile")
+public class MemoryDataFileRepository extends MemoryModelRepository<MemoryDataFile, String>
+    implements DataFileRepository<MemoryDataFile, String> {
+
+    public MemoryDataFileRepository() {
+        super(MemoryDataFile.class);
+    }
+
+    @Override
+    public Optional<MemoryDataFile> findByFilePath(String filePath) {
+        List<MemoryDataFile> dataFiles = findByField("filePath", filePath);
+        return dataFiles.isEmpty() ? Optional.empty() : Optional.of(dataFiles.get(0));
+    }
+
+    @Override
+    public List<MemoryDataFile> findByDataType(String dataType) {
+        return findByField("dataType", dataType);
+    }
+
+    @Override
+    public List<MemoryDataFile> findByDataSetId(String dataSetId) {
+        return findByField("dataSetId", dataSetId);
+    }
+
+    @Override
+    public List<MemoryDataFile> findByModel(String model) {
+        return findByField("model", model);
+    }
+
+    private List<MemoryDataFile> findByField(String field, Object value) {
+        return find(Collections.singletonList(new QueryCriteria(field, value)));
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blueprint.centromere.tests.memory.repositories;
+
+import com.blueprint.centromere.core.repository.ModelResource;
+import com.blueprint.centromere.core.repository.QueryCriteria;
+import com.blueprint.centromere.memory.MemoryModelRepository;
+import com.blueprint.centromere.tests.core.repositories.DataSetRepository;
+import com.blueprint.centromere.tests.memory.models.MemoryDataSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * @author woemler
+ */
+@ModelResource("dataset")
+public class MemoryDataSetRepository extends MemoryModelRepository<MemoryDataSet, String>
+    implements DataSetRepository<MemoryDataSet, String> {
+
+    public MemoryDataSetRepository() {
+        super(MemoryDataSet.class);
+    }
+
+    @Override
+    public Optional<MemoryDataSet> findByName(String name) {
+        List<MemoryDataSet> dataSets = findByField("name", name);
+        return dataSets.isEmpty() ? Optional.empty() : Optional.of(dataSets.get(0));
+    }
+
+    @Override
+    public List<MemoryDataSet> findBySource(String source) {
+        return findByField("source", source);
+    }
+
+    @Override
+    public List<MemoryDataSet> findBySampleIds(String sampleId) {
+        return findByField("sampleIds", sampleId);
+    }
+
+    @Override
+    public List<MemoryDataSet> findByDataFileIds(String dataFileId) {
+        return findByField("dataFileIds", dataFileId);
+    }
+
+    private List<MemoryDataSet> findByField(String field, Object value) {
+        return find(Collections.singletonList(new QueryCriteria(field, value)));
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blueprint.centromere.tests.memory.repositories;
+
+import com.blueprint.centromere.core.repository.ModelResource;
+import com.blueprint.centromere.core.repository.QueryCriteria;
+import com.blueprint.centromere.memory.MemoryModelRepository;
+import com.blueprint.centromere.tests.core.repositories.GeneExpressionRepository;
+import com.blueprint.centromere.tests.memory.models.MemoryGeneExpression;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author woemler
+ */
+@ModelResource("geneexpression")
+public class MemoryGeneExpressionRepository
+    extends MemoryModelRepository<MemoryGeneExpression, String>
+    implements GeneExpressionRepository<MemoryGeneExpression, String> {
+
+    public MemoryGeneExpressionRepository() {
+        super(MemoryGeneExpression.class);
+    }
+
+    @Override
+    public List<MemoryGeneExpression> findBySampleId(String sampleId) {
+        return findByField("sampleId", sampleId);
+    }
+
+    @Override
+    public List<MemoryGeneExpression> findByDataFileId(String dataFileId) {
+        return findByField("dataFileId", dataFileId);
+    }
+
+    @Override
+    public List<MemoryGeneExpression> findByDataSetId(String dataSetId) {
+        return findByField("dataSetId", dataSetId);
+    }
+
+    @Override
+    public List<MemoryGeneExpression> findByGeneId(String geneId) {
+        return findByField("geneId", geneId);
+    }
+
+    private List<MemoryGeneExpression> findByField(String field, Object value) {
+        return find(Collections.singletonList(new QueryCriteria(field, value)));
+    }
+
+}
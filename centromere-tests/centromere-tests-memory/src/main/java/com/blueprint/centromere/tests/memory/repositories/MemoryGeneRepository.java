@@ -0,0 +1,56 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blueprint.centromere.tests.memory.repositories;
+
+import com.blueprint.centromere.core.repository.ModelResource;
+import com.blueprint.centromere.core.repository.QueryCriteria;
+import com.blueprint.centromere.memory.MemoryModelRepository;
+import com.blueprint.centromere.tests.core.repositories.GeneRepository;
+import com.blueprint.centromere.tests.memory.models.MemoryGene;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * @author woemler
+ */
+@ModelResource("gene")
+public class MemoryGeneRepository extends MemoryModelRepository<MemoryGene, String>
+    implements GeneRepository<MemoryGene, String> {
+
+    public MemoryGeneRepository() {
+        super(MemoryGene.class);
+    }
+
+    @Override
+    public List<MemoryGene> findBySymbol(String symbol) {
+        return find(Collections.singletonList(new QueryCriteria("symbol", symbol)));
+    }
+
+    @Override
+    public Optional<MemoryGene> findByEntrezGeneId(Integer entrezGeneId) {
+        List<MemoryGene> genes = find(
+            Collections.singletonList(new QueryCriteria("entrezGeneId", entrezGeneId)));
+        return genes.isEmpty() ? Optional.empty() : Optional.of(genes.get(0));
+    }
+
+    @Override
+    public List<MemoryGene> findByAliases(String alias) {
+        return find(Collections.singletonList(new QueryCriteria("aliases", alias)));
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blueprint.centromere.tests.memory.repositories;
+
+import com.blueprint.centromere.core.repository.ModelResource;
+import com.blueprint.centromere.core.repository.QueryCriteria;
+import com.blueprint.centromere.memory.MemoryModelRepository;
+import com.blueprint.centromere.tests.core.repositories.SampleRepository;
+import com.blueprint.centromere.tests.memory.models.MemorySample;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author woemler
+ */
+@ModelResource("sample")
+public class MemorySampleRepository extends MemoryModelRepository<MemorySample, String>
+    implements SampleRepository<MemorySample, String> {
+
+    public MemorySampleRepository() {
+        super(MemorySample.class);
+    }
+
+    @Override
+    public List<MemorySample> findByName(String name) {
+        return findByField("name", name);
+    }
+
+    @Override
+    public List<MemorySample> findBySubjectId(String subjectId) {
+        return findByField("subjectId", subjectId);
+    }
+
+    @Override
+    public List<MemorySample> findByAliases(String alias) {
+        return findByField("aliases", alias);
+    }
+
+    @Override
+    public List<MemorySample> findBySampleType(String sampleType) {
+        return findByField("sampleType", sampleType);
+    }
+
+    @Override
+    public List<MemorySample> findByTissue(String tissue) {
+        return findByField("tissue", tissue);
+    }
+
+    @Override
+    public List<MemorySample> findByHistology(String histology) {
+        return findByField("histology", histology);
+    }
+
+    @Override
+    public List<MemorySample> findBySpecies(String species) {
+        return findByField("species", species);
+    }
+
+    private List<MemorySample> findByField(String field, Object value) {
+        return find(Collections.singletonList(new QueryCriteria(field, value)));
+    }
+
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.blueprint.centromere.tests.memory.repositories;
+
+import com.blueprint.centromere.core.repository.ModelResource;
+import com.blueprint.centromere.core.repository.QueryCriteria;
+import com.blueprint.centromere.memory.MemoryModelRepository;
+import com.blueprint.centromere.tests.core.models.User;
+import com.blueprint.centromere.tests.core.repositories.UserRepository;
+import com.blueprint.centromere.tests.memory.models.MemoryUser;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * @author woemler
+ */
+@ModelResource("user")
+public class MemoryUserRepository extends MemoryModelRepository<MemoryUser, String>
+    implements UserRepository<MemoryUser, String> {
+
+    public MemoryUserRepository() {
+        super(MemoryUser.class);
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        List<MemoryUser> users = find(
+            Collections.singletonList(new QueryCriteria("username", username)));
+        return users.isEmpty() ? Optional.empty() : Optional.of(users.get(0));
+    }
+
+}
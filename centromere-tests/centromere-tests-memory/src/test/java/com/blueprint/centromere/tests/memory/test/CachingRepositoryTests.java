@@ -0,0 +1,169 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.blueprint.centromere.tests.memory.test;
+
+import com.blueprint.centromere.core.repository.CachingModelRepository;
+import com.blueprint.centromere.core.repository.ModelRepository;
+import com.blueprint.centromere.core.repository.QueryCriteria;
+import com.blueprint.centromere.tests.core.AbstractRepositoryTests;
+import com.blueprint.centromere.tests.core.models.Gene;
+import com.blueprint.centromere.tests.core.repositories.GeneRepository;
+import com.blueprint.centromere.tests.memory.MemoryRepositoryConfig;
+import com.blueprint.centromere.tests.memory.models.MemoryGene;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+/**
+ * @author woemler
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {
+    MemoryRepositoryConfig.class
+})
+public class CachingRepositoryTests extends AbstractRepositoryTests {
+
+    @Autowired
+    private GeneRepository geneRepository;
+
+    private CachingModelRepository repository;
+
+    @Before
+    @Override
+    public void setup() throws Exception {
+        super.setup();
+        repository = new CachingModelRepository((ModelRepository) geneRepository, 100L, 60L);
+    }
+
+    @Test
+    public void findByIdCacheTest() {
+        List<Gene> genes = (List<Gene>) geneRepository.findAll();
+        Serializable id = genes.get(0).getId();
+        Optional<Gene> optional = repository.findById(id);
+        Assert.assertTrue(optional.isPresent());
+        optional = repository.findById(id);
+        Assert.assertTrue(optional.isPresent());
+        Assert.assertEquals(1L, repository.getEntityCache().stats().hitCount());
+        Assert.assertEquals(1L, repository.getEntityCache().stats().missCount());
+    }
+
+    @Test
+    public void findCacheKeyNormalizationTest() {
+        QueryCriteria type = new QueryCriteria("geneType", "protein-coding");
+        QueryCriteria taxId = new QueryCriteria("taxId", 9606);
+        List<Gene> genes = (List<Gene>) repository.find(Arrays.asList(type, taxId));
+        Assert.assertEquals(3, genes.size());
+        genes = (List<Gene>) repository.find(Arrays.asList(taxId, type));
+        Assert.assertEquals(3, genes.size());
+        Assert.assertEquals(1L, repository.getQueryCache().stats().hitCount());
+        Assert.assertEquals(1L, repository.getQueryCache().size());
+    }
+
+    @Test
+    public void insertInvalidationTest() {
+        List<QueryCriteria> coding = Collections
+            .singletonList(new QueryCriteria("geneType", "protein-coding"));
+        List<QueryCriteria> pseudo = Collections
+            .singletonList(new QueryCriteria("geneType", "pseudo"));
+        Assert.assertEquals(3, ((List<Gene>) repository.find(coding)).size());
+        Assert.assertEquals(2, ((List<Gene>) repository.find(pseudo)).size());
+
+        Gene gene = new MemoryGene();
+        gene.setEntrezGeneId(100);
+        gene.setSymbol("TEST");
+        gene.setGeneType("pseudo");
+        repository.insert(gene);
+
+        Assert.assertEquals(1L, repository.getQueryCache().size());
+        Assert.assertEquals(3, ((List<Gene>) repository.find(coding)).size());
+        Assert.assertEquals(3, ((List<Gene>) repository.find(pseudo)).size());
+        Assert.assertEquals(1L, repository.getQueryCache().stats().hitCount());
+    }
+
+    @Test
+    public void updateInvalidationTest() {
+        List<QueryCriteria> coding = Collections
+            .singletonList(new QueryCriteria("geneType", "protein-coding"));
+        List<Gene> genes = (List<Gene>) repository.find(coding);
+        Assert.assertEquals(3, genes.size());
+        Serializable id = genes.get(0).getId();
+        Optional<Gene> optional = repository.findById(id);
+        Assert.assertTrue(optional.isPresent());
+
+        Optional<Gene> stored = geneRepository.findById(id);
+        Assert.assertTrue(stored.isPresent());
+        Gene gene = stored.get();
+        gene.setGeneType("pseudo");
+        repository.update(gene);
+
+        Assert.assertEquals(0L, repository.getQueryCache().size());
+        Assert.assertEquals(0L, repository.getEntityCache().size());
+        Assert.assertEquals(2, ((List<Gene>) repository.find(coding)).size());
+        optional = repository.findById(id);
+        Assert.assertTrue(optional.isPresent());
+        Assert.assertEquals("pseudo", optional.get().getGeneType());
+    }
+
+    @Test
+    public void deleteInvalidationTest() {
+        List<QueryCriteria> coding = Collections
+            .singletonList(new QueryCriteria("geneType", "protein-coding"));
+        List<QueryCriteria> pseudo = Collections
+            .singletonList(new QueryCriteria("geneType", "pseudo"));
+        List<Gene> genes = (List<Gene>) repository.find(coding);
+        Assert.assertEquals(2, ((List<Gene>) repository.find(pseudo)).size());
+        Serializable id = genes.get(0).getId();
+        repository.deleteById(id);
+        Assert.assertEquals(1L, repository.getQueryCache().size());
+        Assert.assertEquals(2, ((List<Gene>) repository.find(coding)).size());
+        Optional<Gene> optional = repository.findById(id);
+        Assert.assertFalse(optional.isPresent());
+    }
+
+    @Test
+    public void expiryTest() throws Exception {
+        CachingModelRepository expiring
+            = new CachingModelRepository((ModelRepository) geneRepository, 100L, 1L);
+        List<QueryCriteria> pseudo = Collections
+            .singletonList(new QueryCriteria("geneType", "pseudo"));
+        Assert.assertEquals(2, ((List<Gene>) expiring.find(pseudo)).size());
+
+        Gene gene = new MemoryGene();
+        gene.setEntrezGeneId(100);
+        gene.setSymbol("TEST");
+        gene.setGeneType("pseudo");
+        geneRepository.insert(gene);
+
+        Assert.assertEquals(2, ((List<Gene>) expiring.find(pseudo)).size());
+        Thread.sleep(1100L);
+        Assert.assertEquals(3, ((List<Gene>) expiring.find(pseudo)).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidExpiryTest() {
+        new CachingModelRepository((ModelRepository) geneRepository, 100L, 0L);
+    }
+
+}
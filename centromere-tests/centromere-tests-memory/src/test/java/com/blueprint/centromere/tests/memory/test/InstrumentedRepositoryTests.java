@@ -0,0 +1,168 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.blueprint.centromere.tests.memory.test;
+
+import com.blueprint.centromere.core.exceptions.QueryParameterException;
+import com.blueprint.centromere.core.repository.Evaluation;
+import com.blueprint.centromere.core.repository.InstrumentedModelRepository;
+import com.blueprint.centromere.core.repository.ModelRepository;
+import com.blueprint.centromere.core.repository.QueryCriteria;
+import com.blueprint.centromere.core.repository.QueryExplainer;
+import com.blueprint.centromere.tests.core.AbstractRepositoryTests;
+import com.blueprint.centromere.tests.core.models.Gene;
+import com.blueprint.centromere.tests.core.repositories.GeneRepository;
+import com.blueprint.centromere.tests.memory.MemoryRepositoryConfig;
+import com.blueprint.centromere.tests.memory.models.MemoryGene;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+/**
+ * @author woemler
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {
+    MemoryRepositoryConfig.class
+})
+public class InstrumentedRepositoryTests extends AbstractRepositoryTests {
+
+    @Autowired
+    private GeneRepository geneRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private InstrumentedModelRepository repository;
+
+    @Before
+    @Override
+    public void setup() throws Exception {
+        super.setup();
+        meterRegistry = new SimpleMeterRegistry();
+        repository = new InstrumentedModelRepository((ModelRepository) geneRepository,
+            meterRegistry, 0L, null);
+    }
+
+    @Test
+    public void findTimerTest() {
+        List<Gene> genes = (List<Gene>) repository.find(Arrays.asList(
+            new QueryCriteria("geneType", "protein-coding"),
+            new QueryCriteria("entrezGeneId", Arrays.asList(1, 2, 3), Evaluation.IN)));
+        Assert.assertEquals(2, genes.size());
+        Timer timer = meterRegistry.find(InstrumentedModelRepository.METRIC_NAME)
+            .tags("model", "MemoryGene", "operation", "find", "evaluations", "EQUALS,IN",
+                "results", "2-10")
+            .timer();
+        Assert.assertNotNull(timer);
+        Assert.assertEquals(1L, timer.count());
+    }
+
+    @Test
+    public void countTimerTest() {
+        Assert.assertEquals(5L, repository.count(Collections.emptyList()));
+        Assert.assertEquals(5L, repository.count());
+        Timer timer = meterRegistry.find(InstrumentedModelRepository.METRIC_NAME)
+            .tags("operation", "count", "evaluations", "none", "results", "2-10")
+            .timer();
+        Assert.assertNotNull(timer);
+        Assert.assertEquals(2L, timer.count());
+    }
+
+    @Test
+    public void failedOperationTimerTest() {
+        try {
+            repository.distinct("badField");
+            Assert.fail();
+        } catch (QueryParameterException e) {
+            Timer timer = meterRegistry.find(InstrumentedModelRepository.METRIC_NAME)
+                .tags("operation", "distinct", "results", "error")
+                .timer();
+            Assert.assertNotNull(timer);
+            Assert.assertEquals(1L, timer.count());
+        }
+    }
+
+    @Test
+    public void insertTimerTest() {
+        MemoryGene gene = new MemoryGene();
+        gene.setEntrezGeneId(100);
+        gene.setSymbol("TEST");
+        gene.setTaxId(9606);
+        gene.setGeneType("protein-coding");
+        repository.insert(gene);
+        Timer timer = meterRegistry.find(InstrumentedModelRepository.METRIC_NAME)
+            .tags("operation", "insert", "results", "1")
+            .timer();
+        Assert.assertNotNull(timer);
+        Assert.assertEquals(1L, timer.count());
+        Assert.assertNull(meterRegistry.find(InstrumentedModelRepository.METRIC_NAME)
+            .tags("operation", "update")
+            .timer());
+    }
+
+    @Test
+    public void slowQueryExplainTest() {
+        ModelRepository slowRepository = (ModelRepository) Proxy.newProxyInstance(
+            getClass().getClassLoader(), new Class<?>[]{ModelRepository.class},
+            (proxy, method, args) -> {
+                Thread.sleep(2L);
+                return method.invoke(geneRepository, args);
+            });
+        List<String> explained = new ArrayList<>();
+        QueryExplainer explainer = new QueryExplainer() {
+            @Override
+            public String explain(Class<?> model, Iterable<QueryCriteria> criterias) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public String explain(Class<?> model, Iterable<QueryCriteria> criterias, Sort sort,
+                String hint) {
+                explained.add(sort + ";" + hint);
+                return "plan";
+            }
+        };
+        List<Runnable> tasks = new ArrayList<>();
+        repository = new InstrumentedModelRepository(slowRepository, meterRegistry, 1L,
+            explainer, tasks::add);
+        List<QueryCriteria> criterias = Collections.singletonList(
+            new QueryCriteria("geneType", "protein-coding"));
+        repository.find(criterias, Sort.by("symbol"), null, "symbol_1");
+        Assert.assertEquals(1, tasks.size());
+        Assert.assertTrue(explained.isEmpty());
+        tasks.get(0).run();
+        Assert.assertEquals(Collections.singletonList("symbol: ASC;symbol_1"), explained);
+
+        repository = new InstrumentedModelRepository(slowRepository, meterRegistry, 1L,
+            explainer, task -> {
+                throw new RejectedExecutionException();
+            });
+        Assert.assertEquals(3, ((List<Gene>) repository.find(criterias)).size());
+        Assert.assertEquals(1, explained.size());
+    }
+
+}
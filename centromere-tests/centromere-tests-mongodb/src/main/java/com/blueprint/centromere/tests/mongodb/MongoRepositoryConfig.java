@@ -2,11 +2,18 @@ package com.blueprint.centromere.tests.mongodb;
 
 import com.blueprint.centromere.core.repository.DefaultModelRepositoryRegistry;
 import com.blueprint.centromere.core.repository.ModelRepositoryRegistry;
+import com.blueprint.centromere.mongodb.ModelCodecProvider;
+import com.blueprint.centromere.mongodb.MongoIndexAdvisor;
+import com.blueprint.centromere.mongodb.MongoIndexManager;
 import com.blueprint.centromere.mongodb.MongoModelRepository;
 import com.blueprint.centromere.mongodb.MongoModelRepositoryFactoryBean;
+import com.blueprint.centromere.mongodb.NormalizedFieldEventListener;
+import java.util.Collections;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
 
 /**
@@ -24,4 +31,27 @@ public class MongoRepositoryConfig {
         return new DefaultModelRepositoryRegistry(context);
     }
 
+    @Bean
+    public MongoIndexManager mongoIndexManager(MongoOperations mongoOperations,
+        ModelRepositoryRegistry modelRepositoryRegistry) {
+        return new MongoIndexManager(mongoOperations, modelRepositoryRegistry);
+    }
+
+    @Bean
+    public MongoIndexAdvisor mongoIndexAdvisor(MongoOperations mongoOperations) {
+        return new MongoIndexAdvisor(mongoOperations, 1.0);
+    }
+
+    @Bean
+    public ModelCodecProvider modelCodecProvider(MongoOperations mongoOperations,
+        ModelRepositoryRegistry modelRepositoryRegistry) {
+        return new ModelCodecProvider(mongoOperations.getConverter(),
+            new MongoCustomConversions(Collections.emptyList()), modelRepositoryRegistry);
+    }
+
+    @Bean
+    public NormalizedFieldEventListener normalizedFieldEventListener() {
+        return new NormalizedFieldEventListener();
+    }
+
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.blueprint.centromere.tests.mongodb;
+
+import com.blueprint.centromere.mongodb.ReactiveMongoModelRepository;
+import com.blueprint.centromere.mongodb.ReactiveMongoModelRepositoryFactoryBean;
+import com.mongodb.MongoClient;
+import com.mongodb.ServerAddress;
+import com.mongodb.reactivestreams.client.MongoClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
+
+/**
+ * Reactive repositories, sharing the database of {@link EmbeddedMongoDataSourceConfig}.
+ *
+ * @author woemler
+ */
+@Configuration
+@EnableReactiveMongoRepositories(
+    basePackages = {"com.blueprint.centromere.tests.mongodb.reactive"},
+    repositoryBaseClass = ReactiveMongoModelRepository.class,
+    repositoryFactoryBeanClass = ReactiveMongoModelRepositoryFactoryBean.class)
+public class ReactiveMongoRepositoryConfig {
+
+    @Bean
+    public ReactiveMongoTemplate reactiveMongoTemplate(MongoClient mongo) {
+        ServerAddress address = mongo.getAddress();
+        return new ReactiveMongoTemplate(MongoClients.create(
+            String.format("mongodb://%s:%d", address.getHost(), address.getPort())),
+            "centromere-test");
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.blueprint.centromere.tests.mongodb.benchmark;
+
+import com.blueprint.centromere.mongodb.ModelCodec;
+import com.blueprint.centromere.tests.mongodb.models.MongoGeneExpression;
+import com.mongodb.DBRef;
+import com.mongodb.MongoClient;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.bson.BsonBinaryReader;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.mongodb.core.convert.DbRefProxyHandler;
+import org.springframework.data.mongodb.core.convert.DbRefResolver;
+import org.springframework.data.mongodb.core.convert.DbRefResolverCallback;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+
+/**
+ * Measures the per-document throughput of decoding {@link MongoGeneExpression} records from raw
+ * BSON, as returned by the server, comparing the original path of decoding each document into a
+ * generic {@link Document} and mapping it with the {@link MappingMongoConverter}, with the direct
+ * decoding of {@link ModelCodec}.  Run with the {@link #main(String[])} method from the test
+ * classpath.
+ *
+ * @author woemler
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(ModelCodecBenchmark.DOCUMENT_COUNT)
+public class ModelCodecBenchmark {
+
+    static final int DOCUMENT_COUNT = 10000;
+
+    private final DecoderContext decoderContext = DecoderContext.builder().build();
+    private List<RawBsonDocument> documents;
+    private MappingMongoConverter converter;
+    private Codec<Document> documentCodec;
+    private ModelCodec<MongoGeneExpression> modelCodec;
+
+    @Setup
+    public void setup() {
+        MongoCustomConversions conversions = new MongoCustomConversions(Collections.emptyList());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(new UnsupportedDbRefResolver(), mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        documentCodec = MongoClient.getDefaultCodecRegistry().get(Document.class);
+        modelCodec = ModelCodec.create(MongoGeneExpression.class, converter, conversions);
+
+        documents = new ArrayList<>();
+        for (int i = 0; i < DOCUMENT_COUNT; i++) {
+            MongoGeneExpression expression = new MongoGeneExpression();
+            expression.setId(new ObjectId().toHexString());
+            expression.setGeneId(new ObjectId().toHexString());
+            expression.setSampleId(new ObjectId().toHexString());
+            expression.setDataFileId(new ObjectId().toHexString());
+            expression.setDataSetId(new ObjectId().toHexString());
+            expression.setValue(i * 1.5);
+            Document document = new Document();
+            converter.write(expression, document);
+            documents.add(new RawBsonDocument(document, documentCodec));
+        }
+    }
+
+    @Benchmark
+    public List<MongoGeneExpression> mappingConverter() {
+        List<MongoGeneExpression> expressions = new ArrayList<>(DOCUMENT_COUNT);
+        for (RawBsonDocument raw : documents) {
+            Document document = documentCodec.decode(
+                new BsonBinaryReader(raw.getByteBuffer().asNIO()), decoderContext);
+            expressions.add(converter.read(MongoGeneExpression.class, document));
+        }
+        return expressions;
+    }
+
+    @Benchmark
+    public List<MongoGeneExpression> modelCodec() {
+        List<MongoGeneExpression> expressions = new ArrayList<>(DOCUMENT_COUNT);
+        for (RawBsonDocument raw : documents) {
+            expressions.add(modelCodec.decode(
+                new BsonBinaryReader(raw.getByteBuffer().asNIO()), decoderContext));
+        }
+        return expressions;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(ModelCodecBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+
+    /**
+     * Placeholder resolver, since the benchmarked model has no database references.
+     */
+    private static class UnsupportedDbRefResolver implements DbRefResolver {
+
+        @Override
+        public Object resolveDbRef(MongoPersistentProperty property, DBRef dbref,
+            DbRefResolverCallback callback, DbRefProxyHandler proxyHandler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public DBRef createDbRef(org.springframework.data.mongodb.core.mapping.DBRef annotation,
+            MongoPersistentEntity<?> entity, Object id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Document fetch(DBRef dbRef) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Document> bulkFetch(List<DBRef> dbRefs) {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
+}
@@ -16,8 +16,17 @@
 
 package com.blueprint.centromere.tests.mongodb.test;
 
+import com.blueprint.centromere.core.exceptions.ModelPersistenceException;
+import com.blueprint.centromere.core.exceptions.QueryParameterException;
+import com.blueprint.centromere.core.repository.ContinuationPage;
+import com.blueprint.centromere.core.repository.ContinuationToken;
 import com.blueprint.centromere.core.repository.Evaluation;
+import com.blueprint.centromere.core.repository.GroupSummary;
+import com.blueprint.centromere.core.repository.IndexRecommendation;
+import com.blueprint.centromere.core.repository.Projection;
 import com.blueprint.centromere.core.repository.QueryCriteria;
+import com.blueprint.centromere.core.repository.QueryPlan;
+import com.blueprint.centromere.core.repository.RawJsonResults;
 import com.blueprint.centromere.tests.core.AbstractRepositoryTests;
 import com.blueprint.centromere.tests.core.models.Gene;
 import com.blueprint.centromere.tests.core.models.GeneExpression;
@@ -26,21 +35,60 @@ import com.blueprint.centromere.tests.core.repositories.GeneExpressionRepository
 import com.blueprint.centromere.tests.core.repositories.GeneRepository;
 import com.blueprint.centromere.tests.core.repositories.UserRepository;
 import com.blueprint.centromere.tests.mongodb.EmbeddedMongoDataSourceConfig;
+import com.blueprint.centromere.mongodb.ModelCodec;
+import com.blueprint.centromere.mongodb.ModelCodecProvider;
+import com.blueprint.centromere.mongodb.MongoIndexAdvisor;
+import com.blueprint.centromere.mongodb.MongoIndexManager;
+import com.blueprint.centromere.mongodb.MongoModelRepository;
+import com.blueprint.centromere.mongodb.MongoQueryExplainer;
 import com.blueprint.centromere.tests.mongodb.MongoRepositoryConfig;
 import com.blueprint.centromere.tests.mongodb.models.MongoGene;
+import com.blueprint.centromere.tests.mongodb.models.MongoGeneExpression;
+import com.blueprint.centromere.tests.mongodb.models.MongoUser;
+import com.mongodb.MongoClient;
+import com.mongodb.client.MongoCollection;
+import java.io.Serializable;
+import java.io.StringWriter;
+import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.data.util.CloseableIterator;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
@@ -60,6 +108,14 @@ public class GenericMongoRepositoryTests extends AbstractRepositoryTests {
     private GeneExpressionRepository expressionRepository;
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private MongoOperations mongoOperations;
+    @Autowired
+    private MongoIndexAdvisor indexAdvisor;
+    @Autowired
+    private ModelCodecProvider codecProvider;
+    @Autowired
+    private MongoIndexManager indexManager;
 
     @Test
     public void findByIdByBadIdTest() {
@@ -254,6 +310,133 @@ public class GenericMongoRepositoryTests extends AbstractRepositoryTests {
 
     }
 
+    @Test
+    public void findWithIncludedFieldsProjectionTest() {
+        List<Gene> genes = (List<Gene>) geneRepository.find(Collections.emptyList(),
+            Sort.by("entrezGeneId"), Projection.include(Collections.singletonList("symbol")));
+        Assert.assertTrue(genes.size() == 5);
+        Gene gene = genes.get(0);
+        Assert.assertNotNull(gene.getId());
+        Assert.assertEquals("GeneA", gene.getSymbol());
+        Assert.assertNull(gene.getEntrezGeneId());
+    }
+
+    @Test
+    public void findByIdWithExcludedFieldsProjectionTest() {
+        Optional<Gene> optional = geneRepository.findByEntrezGeneId(1);
+        Assert.assertTrue(optional.isPresent());
+        Serializable id = optional.get().getId();
+        optional = geneRepository
+            .findById(id, Projection.exclude(Arrays.asList("id", "symbol")));
+        Assert.assertTrue(optional.isPresent());
+        Gene gene = optional.get();
+        Assert.assertEquals(id, gene.getId());
+        Assert.assertNull(gene.getSymbol());
+        Assert.assertTrue(gene.getEntrezGeneId().equals(1));
+    }
+
+    @Test
+    public void pagedProjectionThroughRepositoryProxyTest() {
+        Assert.assertTrue(AopUtils.isAopProxy(geneRepository));
+        Page<Gene> page = geneRepository.find(Collections.emptyList(),
+            PageRequest.of(0, 2, Sort.by("entrezGeneId")),
+            Projection.exclude(Arrays.asList("symbol", "geneType")));
+        Assert.assertTrue(page.getTotalElements() == 5);
+        Assert.assertTrue(page.getContent().size() == 2);
+        Gene gene = page.getContent().get(0);
+        Assert.assertNotNull(gene.getId());
+        Assert.assertNull(gene.getSymbol());
+        Assert.assertNull(gene.getGeneType());
+        Assert.assertTrue(gene.getEntrezGeneId().equals(1));
+
+        Slice<Gene> slice = geneRepository.findSlice(Collections.emptyList(),
+            PageRequest.of(0, 2, Sort.by("entrezGeneId")),
+            Projection.include(Collections.singletonList("symbol")));
+        Assert.assertTrue(slice.hasNext());
+        gene = slice.getContent().get(0);
+        Assert.assertNotNull(gene.getId());
+        Assert.assertEquals("GeneA", gene.getSymbol());
+        Assert.assertNull(gene.getEntrezGeneId());
+        Assert.assertNull(gene.getGeneType());
+    }
+
+    @Test
+    public void findSliceTest() {
+        QueryCriteria criteria = new QueryCriteria("geneType", "protein-coding");
+        Slice<Gene> slice = geneRepository
+            .findSlice(Collections.singletonList(criteria), PageRequest.of(0, 2));
+        Assert.assertNotNull(slice);
+        Assert.assertTrue(slice.getNumberOfElements() == 2);
+        Assert.assertTrue(slice.hasNext());
+        slice = geneRepository
+            .findSlice(Collections.singletonList(criteria), PageRequest.of(1, 2));
+        Assert.assertTrue(slice.getNumberOfElements() == 1);
+        Assert.assertFalse(slice.hasNext());
+        Assert.assertTrue(slice.getContent().get(0).getEntrezGeneId().equals(4));
+    }
+
+    @Test
+    public void streamTest() {
+        List<Gene> genes = new ArrayList<>();
+        try (CloseableIterator<Gene> iterator = geneRepository
+            .stream(Collections.emptyList(), Sort.unsorted())) {
+            iterator.forEachRemaining(genes::add);
+        }
+        Assert.assertTrue(genes.size() == 5);
+    }
+
+    @Test
+    public void streamByQueryCriteriaSortedTest() {
+        QueryCriteria criteria = new QueryCriteria("geneType", "protein-coding");
+        Sort sort = new Sort(new Sort.Order(Sort.Direction.DESC, "entrezGeneId"));
+        List<Gene> genes = new ArrayList<>();
+        try (CloseableIterator<Gene> iterator = geneRepository
+            .stream(Collections.singletonList(criteria), sort)) {
+            iterator.forEachRemaining(genes::add);
+        }
+        Assert.assertTrue(genes.size() == 3);
+        Assert.assertTrue(genes.get(0).getEntrezGeneId().equals(4));
+        Assert.assertNotNull(genes.get(0).getId());
+        Assert.assertTrue(genes.get(2).getEntrezGeneId().equals(1));
+    }
+
+    @Test
+    public void findAfterTest() {
+        Sort sort = new Sort(new Sort.Order(Sort.Direction.DESC, "entrezGeneId"));
+        List<Integer> ids = new ArrayList<>();
+        ContinuationPage<Gene> page = geneRepository
+            .findAfter(Collections.emptyList(), sort, null, 2);
+        int pages = 1;
+        page.getContent().forEach(gene -> ids.add(gene.getEntrezGeneId()));
+        while (page.hasNext()) {
+            Assert.assertTrue(page.getSize() == 2);
+            ContinuationToken token = ContinuationToken.decode(page.getNext().encode());
+            page = geneRepository.findAfter(Collections.emptyList(), null, token, 2);
+            page.getContent().forEach(gene -> ids.add(gene.getEntrezGeneId()));
+            pages = pages + 1;
+        }
+        Assert.assertTrue(pages == 3);
+        Assert.assertEquals(Arrays.asList(5, 4, 3, 2, 1), ids);
+    }
+
+    @Test
+    public void findAfterByQueryCriteriaTest() {
+        QueryCriteria criteria = new QueryCriteria("geneType", "protein-coding");
+        ContinuationPage<Gene> page = geneRepository
+            .findAfter(Collections.singletonList(criteria), Sort.unsorted(), null, 2);
+        Assert.assertTrue(page.getSize() == 2);
+        Assert.assertTrue(page.hasNext());
+        page = geneRepository
+            .findAfter(Collections.singletonList(criteria), null, page.getNext(), 2);
+        Assert.assertTrue(page.getSize() == 1);
+        Assert.assertFalse(page.hasNext());
+    }
+
+    @Test(expected = QueryParameterException.class)
+    public void findAfterInvalidTokenTest() {
+        ContinuationToken.decode("notAValidToken");
+    }
+
     @Test
     public void findByCriteriaNotEqualsTest() {
         QueryCriteria criteria = new QueryCriteria("geneType", "protein-coding",
@@ -608,6 +791,46 @@ public class GenericMongoRepositoryTests extends AbstractRepositoryTests {
         Assert.assertTrue("TEST".equals(gene.getGeneType()));
     }
 
+    @Test
+    public void upsertMultipleTest() {
+        Optional<Gene> optional = geneRepository.findByEntrezGeneId(1);
+        Assert.assertTrue(optional.isPresent());
+        Gene existing = optional.get();
+        existing.setGeneType("TEST");
+        Gene gene = new MongoGene();
+        gene.setEntrezGeneId(100);
+        gene.setSymbol("TEST");
+        gene.setTaxId(9606);
+        gene.setChromosome("1");
+        gene.setGeneType("protein-coding");
+        List<Gene> genes = Arrays.asList(existing, gene);
+        geneRepository.upsert(genes);
+        Assert.assertTrue(geneRepository.count() == 6L);
+        Assert.assertNotNull(gene.getId());
+
+        optional = geneRepository.findByEntrezGeneId(1);
+        Assert.assertTrue(optional.isPresent());
+        Assert.assertTrue("TEST".equals(optional.get().getGeneType()));
+        optional = geneRepository.findByEntrezGeneId(100);
+        Assert.assertTrue(optional.isPresent());
+        Assert.assertEquals(gene.getId(), optional.get().getId());
+
+        gene.setGeneType("pseudo");
+        geneRepository.upsert(Collections.singletonList(gene));
+        Assert.assertTrue(geneRepository.count() == 6L);
+        optional = geneRepository.findByEntrezGeneId(100);
+        Assert.assertTrue(optional.isPresent());
+        Assert.assertTrue("pseudo".equals(optional.get().getGeneType()));
+    }
+
+    @Test(expected = ModelPersistenceException.class)
+    public void updateMissingRecordTest() {
+        Gene gene = new MongoGene();
+        gene.setEntrezGeneId(100);
+        gene.setSymbol("TEST");
+        geneRepository.update(Collections.singletonList(gene));
+    }
+
     @Test
     public void deleteTest() {
 
@@ -653,6 +876,487 @@ public class GenericMongoRepositoryTests extends AbstractRepositoryTests {
         Assert.assertTrue(geneSymbols.contains("GeneD"));
     }
 
+    @Test
+    public void distinctPagedTest() {
+        QueryCriteria criteria = new QueryCriteria("geneType", "protein-coding");
+        Set<Object> geneSymbols = geneRepository
+            .distinct("symbol", Collections.singletonList(criteria), PageRequest.of(1, 2));
+        Assert.assertNotNull(geneSymbols);
+        Assert.assertTrue(geneSymbols.size() == 1);
+        Assert.assertTrue(geneSymbols.contains("GeneD"));
+    }
+
+    @Test(expected = QueryParameterException.class)
+    public void distinctInvalidFieldTest() {
+        geneRepository.distinct("badField");
+    }
+
+    @Test
+    public void groupByTest() {
+        List<GroupSummary> groups = geneRepository
+            .groupBy("geneType", Collections.emptyList(), null);
+        Assert.assertTrue(groups.size() == 2);
+        Assert.assertEquals("protein-coding", groups.get(0).getKey());
+        Assert.assertTrue(groups.get(0).getCount() == 3);
+        Assert.assertNull(groups.get(0).getSum());
+        Assert.assertEquals("pseudo", groups.get(1).getKey());
+        Assert.assertTrue(groups.get(1).getCount() == 2);
+    }
+
+    @Test
+    public void groupByValueFieldTest() {
+        List<GroupSummary> groups = geneRepository
+            .groupBy("geneType", Collections.emptyList(), "entrezGeneId");
+        long count = 0;
+        double sum = 0.0;
+        for (GroupSummary group : groups) {
+            Assert.assertNotNull(group.getMin());
+            Assert.assertNotNull(group.getMax());
+            Assert.assertTrue(group.getMin() <= group.getMax());
+            Assert.assertEquals(group.getSum() / group.getCount(), group.getAvg(), 0.0001);
+            count = count + group.getCount();
+            sum = sum + group.getSum();
+        }
+        Assert.assertTrue(count == 5);
+        Assert.assertEquals(15.0, sum, 0.0001);
+    }
+
+    @Test(expected = QueryParameterException.class)
+    public void groupByInvalidFieldTest() {
+        geneRepository.groupBy("badField", Collections.emptyList(), null);
+    }
+
+    @Test
+    public void findByAnyCriteriaTest() {
+        QueryCriteria criteria = QueryCriteria.any(
+            new QueryCriteria("symbol", "GeneA"),
+            new QueryCriteria("entrezGeneId", Arrays.asList(3, 4), Evaluation.IN));
+        List<Gene> genes = (List<Gene>) geneRepository.find(Collections.singleton(criteria),
+            new Sort(Sort.Direction.ASC, "entrezGeneId"));
+        Assert.assertEquals(3, genes.size());
+        Assert.assertEquals("GeneA", genes.get(0).getSymbol());
+        Assert.assertEquals("GeneD", genes.get(2).getSymbol());
+        Assert.assertEquals(3L, geneRepository.count(Collections.singleton(criteria)));
+    }
+
+    @Test
+    public void findByNotCriteriaTest() {
+        QueryCriteria criteria = QueryCriteria.not(
+            new QueryCriteria("geneType", "pseudo"),
+            new QueryCriteria("symbol", "GeneA"));
+        List<Gene> genes = (List<Gene>) geneRepository.find(Collections.singleton(criteria),
+            new Sort(Sort.Direction.ASC, "entrezGeneId"));
+        Assert.assertEquals(2, genes.size());
+        Assert.assertEquals("GeneB", genes.get(0).getSymbol());
+        Assert.assertEquals("GeneD", genes.get(1).getSymbol());
+    }
+
+    @Test
+    public void findByNestedCriteriaTest() {
+        List<QueryCriteria> criterias = Arrays.asList(
+            new QueryCriteria("taxId", 9606),
+            QueryCriteria.any(
+                QueryCriteria.all(
+                    new QueryCriteria("geneType", "pseudo"),
+                    new QueryCriteria("entrezGeneId", 4, Evaluation.GREATER_THAN)),
+                new QueryCriteria("symbol", "GeneB")));
+        List<Gene> genes = (List<Gene>) geneRepository.find(criterias,
+            new Sort(Sort.Direction.ASC, "entrezGeneId"));
+        Assert.assertEquals(2, genes.size());
+        Assert.assertEquals("GeneB", genes.get(0).getSymbol());
+        Assert.assertEquals("GeneE", genes.get(1).getSymbol());
+    }
+
+    @Test
+    public void findByEscapedStartsWithTest() {
+        Gene gene = new MongoGene();
+        gene.setEntrezGeneId(100);
+        gene.setSymbol("GENE.1+");
+        gene.setTaxId(9606);
+        geneRepository.insert(gene);
+        gene = new MongoGene();
+        gene.setEntrezGeneId(101);
+        gene.setSymbol("GENEX1");
+        gene.setTaxId(9606);
+        geneRepository.insert(gene);
+
+        List<QueryCriteria> criterias = Collections.singletonList(
+            new QueryCriteria("symbol", "GENE.1", Evaluation.STARTS_WITH));
+        List<Gene> genes = (List<Gene>) geneRepository.find(criterias);
+        Assert.assertEquals(1, genes.size());
+        Assert.assertEquals("GENE.1+", genes.get(0).getSymbol());
+
+        String plan = new MongoQueryExplainer(mongoOperations).explain(MongoGene.class, criterias);
+        Assert.assertTrue(plan, plan.contains("IXSCAN[symbol_1]"));
+    }
+
+    @Test
+    public void findByCaseInsensitiveCriteriaTest() {
+        List<QueryCriteria> criterias = Collections.singletonList(
+            new QueryCriteria("symbol", "genea", Evaluation.EQUALS_IGNORE_CASE));
+        List<Gene> genes = (List<Gene>) geneRepository.find(criterias);
+        Assert.assertEquals(1, genes.size());
+        Assert.assertEquals("GeneA", genes.get(0).getSymbol());
+        String plan = new MongoQueryExplainer(mongoOperations).explain(MongoGene.class, criterias);
+        Assert.assertTrue(plan, plan.contains("IXSCAN[_normalized.symbol_1]"));
+
+        genes = (List<Gene>) geneRepository.find(Collections.singletonList(
+            new QueryCriteria("aliases", "ab", Evaluation.STARTS_WITH_IGNORE_CASE)));
+        Assert.assertEquals(1, genes.size());
+        Assert.assertEquals("GeneA", genes.get(0).getSymbol());
+
+        genes = (List<Gene>) geneRepository.find(Collections.singletonList(
+            new QueryCriteria("geneType", "PSEUDO", Evaluation.EQUALS_IGNORE_CASE)));
+        Assert.assertEquals(2, genes.size());
+    }
+
+    @Test
+    public void updateCaseInsensitiveFieldTest() {
+        Gene gene = (Gene) geneRepository.findByEntrezGeneId(1).get();
+        gene.setSymbol("Renamed");
+        geneRepository.update(Collections.singletonList(gene));
+
+        List<Gene> genes = (List<Gene>) geneRepository.find(Collections.singletonList(
+            new QueryCriteria("symbol", "RENAMED", Evaluation.EQUALS_IGNORE_CASE)));
+        Assert.assertEquals(1, genes.size());
+        Assert.assertEquals(1, (int) genes.get(0).getEntrezGeneId());
+        Assert.assertTrue(((List<Gene>) geneRepository.find(Collections.singletonList(
+            new QueryCriteria("symbol", "genea", Evaluation.EQUALS_IGNORE_CASE)))).isEmpty());
+    }
+
+    @Test
+    public void normalizeRecordsTest() {
+        mongoOperations.updateMulti(new Query(), new Update().unset("_normalized"),
+            MongoGene.class);
+        List<QueryCriteria> criterias = Collections.singletonList(
+            new QueryCriteria("symbol", "genea", Evaluation.EQUALS_IGNORE_CASE));
+        Assert.assertTrue(((List<Gene>) geneRepository.find(criterias)).isEmpty());
+
+        indexManager.normalizeRecords();
+        List<Gene> genes = (List<Gene>) geneRepository.find(criterias);
+        Assert.assertEquals(1, genes.size());
+        Assert.assertEquals("GeneA", genes.get(0).getSymbol());
+        genes = (List<Gene>) geneRepository.find(Collections.singletonList(
+            new QueryCriteria("aliases", "ab", Evaluation.STARTS_WITH_IGNORE_CASE)));
+        Assert.assertEquals(1, genes.size());
+        Assert.assertEquals(0, mongoOperations.count(
+            new Query(Criteria.where("_normalized").exists(false)), MongoGene.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void findByChunkedInCriteriaTest() {
+        MongoModelRepository<MongoGene, String> repository = new MongoModelRepository<>(
+            new MongoRepositoryFactory(mongoOperations).getEntityInformation(MongoGene.class),
+            mongoOperations);
+        repository.setInChunkSize(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        repository.setQueryExecutor(executor);
+        try {
+            List<QueryCriteria> criterias = Collections.singletonList(
+                new QueryCriteria("entrezGeneId", Arrays.asList(5, 4, 3, 2, 1), Evaluation.IN));
+            Assert.assertEquals(5, repository.find(criterias).size());
+            Assert.assertEquals(5L, repository.count(criterias));
+
+            List<MongoGene> genes = repository.find(criterias,
+                new Sort(Sort.Direction.DESC, "entrezGeneId"));
+            Assert.assertEquals(5, genes.size());
+            for (int i = 0; i < genes.size(); i++) {
+                Assert.assertEquals(5 - i, (int) genes.get(i).getEntrezGeneId());
+            }
+
+            Page<MongoGene> page = repository.find(criterias,
+                PageRequest.of(1, 2, new Sort(Sort.Direction.ASC, "entrezGeneId")));
+            Assert.assertEquals(5L, page.getTotalElements());
+            Assert.assertEquals(2, page.getContent().size());
+            Assert.assertEquals(3, (int) page.getContent().get(0).getEntrezGeneId());
+            Assert.assertEquals(4, (int) page.getContent().get(1).getEntrezGeneId());
+
+            Slice<MongoGene> slice = repository.findSlice(criterias,
+                PageRequest.of(2, 2, new Sort(Sort.Direction.ASC, "entrezGeneId")));
+            Assert.assertFalse(slice.hasNext());
+            Assert.assertEquals(1, slice.getContent().size());
+            Assert.assertEquals(5, (int) slice.getContent().get(0).getEntrezGeneId());
+
+            criterias = Arrays.asList(
+                new QueryCriteria("entrezGeneId", Arrays.asList(1, 2, 3, 4, 5), Evaluation.IN),
+                new QueryCriteria("geneType", "protein-coding"));
+            genes = repository.find(criterias, new Sort(Sort.Direction.ASC, "entrezGeneId"));
+            Assert.assertEquals(3, genes.size());
+            Assert.assertEquals(Arrays.asList(1, 2, 4), Arrays.asList(
+                genes.get(0).getEntrezGeneId(), genes.get(1).getEntrezGeneId(),
+                genes.get(2).getEntrezGeneId()));
+            Assert.assertEquals(3L, repository.count(criterias));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void updatePublishesMappingEventsTest() {
+        MongoModelRepository<MongoGene, String> repository = new MongoModelRepository<>(
+            new MongoRepositoryFactory(mongoOperations).getEntityInformation(MongoGene.class),
+            mongoOperations);
+        List<Object> events = new ArrayList<>();
+        repository.setEventPublisher(events::add);
+        MongoGene gene = (MongoGene) geneRepository.findByEntrezGeneId(1).get();
+        gene.setSymbol("Renamed");
+        repository.update(gene);
+        Assert.assertEquals(3, events.size());
+        Assert.assertTrue(events.get(0) instanceof BeforeConvertEvent);
+        Assert.assertTrue(events.get(1) instanceof BeforeSaveEvent);
+        Assert.assertTrue(events.get(2) instanceof AfterSaveEvent);
+        Assert.assertSame(gene, ((AfterSaveEvent<?>) events.get(2)).getSource());
+        Assert.assertEquals("Renamed",
+            ((AfterSaveEvent<?>) events.get(2)).getDocument().get("symbol"));
+    }
+
+    @Test
+    public void pagedFindCancelsUnneededCountTest() {
+        AtomicInteger counts = new AtomicInteger();
+        MongoOperations operations = (MongoOperations) Proxy.newProxyInstance(
+            getClass().getClassLoader(), new Class<?>[]{MongoOperations.class},
+            (proxy, method, args) -> {
+                if ("count".equals(method.getName())) {
+                    counts.incrementAndGet();
+                }
+                return method.invoke(mongoOperations, args);
+            });
+        MongoModelRepository<MongoGene, String> repository = new MongoModelRepository<>(
+            new MongoRepositoryFactory(mongoOperations).getEntityInformation(MongoGene.class),
+            operations);
+        List<Runnable> tasks = new ArrayList<>();
+        repository.setCountExecutor(tasks::add);
+        Page<MongoGene> page = repository.find(Collections.singletonList(
+            new QueryCriteria("geneType", "protein-coding")), PageRequest.of(0, 10));
+        Assert.assertEquals(3, page.getTotalElements());
+        Assert.assertEquals(1, tasks.size());
+        tasks.get(0).run();
+        Assert.assertEquals(0, counts.get());
+    }
+
+    @Test
+    public void findByChunkedInCriteriaWithDuplicateValuesTest() {
+        MongoModelRepository<MongoGene, String> repository = new MongoModelRepository<>(
+            new MongoRepositoryFactory(mongoOperations).getEntityInformation(MongoGene.class),
+            mongoOperations);
+        repository.setInChunkSize(2);
+        List<QueryCriteria> criterias = Collections.singletonList(
+            new QueryCriteria("entrezGeneId", Arrays.asList(1, 2, 2, 3), Evaluation.IN));
+        List<MongoGene> genes = repository.find(criterias,
+            new Sort(Sort.Direction.ASC, "entrezGeneId"));
+        Assert.assertEquals(3, genes.size());
+        Assert.assertEquals(Arrays.asList(1, 2, 3), Arrays.asList(
+            genes.get(0).getEntrezGeneId(), genes.get(1).getEntrezGeneId(),
+            genes.get(2).getEntrezGeneId()));
+        Assert.assertEquals(3L, repository.count(criterias));
+        Page<MongoGene> page = repository.find(criterias,
+            PageRequest.of(0, 2, new Sort(Sort.Direction.ASC, "entrezGeneId")));
+        Assert.assertEquals(3L, page.getTotalElements());
+    }
+
+    @Test
+    public void findByChunkedInCriteriaWithProjectionTest() {
+        MongoModelRepository<MongoGene, String> repository = new MongoModelRepository<>(
+            new MongoRepositoryFactory(mongoOperations).getEntityInformation(MongoGene.class),
+            mongoOperations);
+        repository.setInChunkSize(2);
+        List<QueryCriteria> criterias = Collections.singletonList(
+            new QueryCriteria("entrezGeneId", Arrays.asList(1, 2, 3, 4, 5), Evaluation.IN));
+
+        List<MongoGene> genes = (List<MongoGene>) repository.find(criterias,
+            new Sort(Sort.Direction.DESC, "entrezGeneId"),
+            Projection.include(Collections.singletonList("symbol")));
+        Assert.assertEquals(5, genes.size());
+        Assert.assertEquals(Arrays.asList("GeneE", "GeneD", "GeneC", "GeneB", "GeneA"),
+            genes.stream().map(Gene::getSymbol).collect(Collectors.toList()));
+        for (MongoGene gene : genes) {
+            Assert.assertNull(gene.getEntrezGeneId());
+            Assert.assertNull(gene.getGeneType());
+        }
+
+        genes = (List<MongoGene>) repository.find(criterias,
+            new Sort(Sort.Direction.DESC, "entrezGeneId"),
+            Projection.exclude(Collections.singletonList("entrezGeneId")));
+        Assert.assertEquals(Arrays.asList("GeneE", "GeneD", "GeneC", "GeneB", "GeneA"),
+            genes.stream().map(Gene::getSymbol).collect(Collectors.toList()));
+        for (MongoGene gene : genes) {
+            Assert.assertNull(gene.getEntrezGeneId());
+            Assert.assertNotNull(gene.getGeneType());
+        }
+
+        Page<MongoGene> page = repository.find(criterias,
+            PageRequest.of(1, 2, new Sort(Sort.Direction.ASC, "entrezGeneId")),
+            Projection.include(Collections.singletonList("symbol")));
+        Assert.assertEquals(5L, page.getTotalElements());
+        Assert.assertEquals(Arrays.asList("GeneC", "GeneD"), page.getContent().stream()
+            .map(Gene::getSymbol).collect(Collectors.toList()));
+        Assert.assertNull(page.getContent().get(0).getEntrezGeneId());
+    }
+
+    @Test(expected = QueryParameterException.class)
+    public void findByChunkedInCriteriaSortedByParentOfProjectionTest() {
+        MongoModelRepository<MongoGene, String> repository = new MongoModelRepository<>(
+            new MongoRepositoryFactory(mongoOperations).getEntityInformation(MongoGene.class),
+            mongoOperations);
+        repository.setInChunkSize(2);
+        repository.find(Collections.singletonList(
+            new QueryCriteria("entrezGeneId", Arrays.asList(1, 2, 3, 4, 5), Evaluation.IN)),
+            new Sort(Sort.Direction.ASC, "externalReferences"),
+            Projection.include(Collections.singletonList("externalReferences.Ensembl")));
+    }
+
+    @Test
+    public void explainTest() {
+        List<QueryCriteria> criterias = Collections.singletonList(
+            new QueryCriteria("symbol", "GeneA"));
+        QueryPlan plan = geneRepository.explain(criterias, Sort.unsorted());
+        Assert.assertNotNull(plan);
+        Assert.assertTrue(plan.getPlan(), plan.getPlan().contains("IXSCAN[symbol_1]"));
+        Assert.assertEquals(Collections.singletonList("symbol_1"), plan.getIndexes());
+        Assert.assertFalse(plan.isCollectionScan());
+        Assert.assertEquals(1L, (long) plan.getReturned());
+        Assert.assertEquals(1L, (long) plan.getDocumentsExamined());
+        Assert.assertNull(plan.getHint());
+
+        plan = geneRepository.explain(criterias, Sort.unsorted(), "_id_");
+        Assert.assertTrue(plan.getPlan(), plan.getPlan().contains("IXSCAN[_id_]"));
+        Assert.assertEquals("_id_", plan.getHint());
+        Assert.assertEquals(1L, (long) plan.getReturned());
+        Assert.assertEquals(5L, (long) plan.getDocumentsExamined());
+
+        plan = geneRepository.explain(Collections.singletonList(
+            new QueryCriteria("geneType", "pseudo")), Sort.unsorted());
+        Assert.assertTrue(plan.isCollectionScan());
+        Assert.assertEquals(2L, (long) plan.getReturned());
+    }
+
+    @Test
+    public void findWithHintTest() {
+        List<QueryCriteria> criterias = Collections.singletonList(
+            new QueryCriteria("symbol", "GeneA"));
+        List<Gene> genes = (List<Gene>) geneRepository.find(criterias, Sort.unsorted(),
+            Projection.all(), "_id_");
+        Assert.assertEquals(1, genes.size());
+        Assert.assertEquals("GeneA", genes.get(0).getSymbol());
+
+        Page<Gene> page = geneRepository.find(criterias, PageRequest.of(0, 10),
+            Projection.all(), "symbol_1");
+        Assert.assertEquals(1L, page.getTotalElements());
+        Assert.assertEquals("GeneA", page.getContent().get(0).getSymbol());
+    }
+
+    @Test(expected = QueryParameterException.class)
+    public void findWithInvalidHintTest() {
+        geneRepository.find(Collections.singletonList(new QueryCriteria("symbol", "GeneA")),
+            Sort.unsorted(), Projection.all(), "invalid_1");
+    }
+
+    @Test
+    public void modelCodecTest() {
+        Assert.assertNotNull(codecProvider.getCodec(MongoGene.class));
+        Assert.assertNotNull(codecProvider.getCodec(MongoGeneExpression.class));
+        Assert.assertNull(codecProvider.getCodec(MongoUser.class));
+        Assert.assertNull(codecProvider.getCodec(String.class));
+
+        ModelCodec<MongoGene> codec = codecProvider.getCodec(MongoGene.class);
+        MongoCollection<Document> collection = mongoOperations.getCollection(
+            mongoOperations.getCollectionName(MongoGene.class));
+        Document document = collection.find(new Document("symbol", "GeneA")).first();
+        Assert.assertNotNull(document);
+        MongoGene expected = mongoOperations.getConverter().read(MongoGene.class, document);
+        MongoGene decoded = codec.decode(new BsonDocumentReader(
+            document.toBsonDocument(Document.class, collection.getCodecRegistry())),
+            DecoderContext.builder().build());
+        Assert.assertEquals(expected.getId(), decoded.getId());
+        Assert.assertEquals(expected.getSymbol(), decoded.getSymbol());
+        Assert.assertEquals(expected.getEntrezGeneId(), decoded.getEntrezGeneId());
+        Assert.assertEquals(expected.getAliases(), decoded.getAliases());
+        Assert.assertEquals(expected.getAttributes(), decoded.getAttributes());
+
+        BsonDocument encoded = new BsonDocument();
+        codec.encode(new BsonDocumentWriter(encoded), decoded,
+            EncoderContext.builder().build());
+        MongoGene roundTrip = codec.decode(new BsonDocumentReader(encoded),
+            DecoderContext.builder().build());
+        Assert.assertEquals(decoded.getId(), roundTrip.getId());
+        Assert.assertEquals(decoded.getSymbol(), roundTrip.getSymbol());
+        Assert.assertEquals(decoded.getAliases(), roundTrip.getAliases());
+        Assert.assertEquals(decoded.getAttributes(), roundTrip.getAttributes());
+
+        MongoGene found = mongoOperations.findOne(
+            new Query(Criteria.where("symbol").is("GeneA")), MongoGene.class);
+        List<Gene> genes = (List<Gene>) geneRepository.find(Collections.singletonList(
+            new QueryCriteria("symbol", "GeneA")));
+        Assert.assertEquals(1, genes.size());
+        Assert.assertEquals(found.getId(), genes.get(0).getId());
+        Assert.assertEquals(found.getAliases(), genes.get(0).getAliases());
+        Assert.assertEquals(found.getExternalReferences(),
+            genes.get(0).getExternalReferences());
+    }
+
+    @Test
+    public void modelCodecSubclassTest() {
+        AnnotatedMongoGene gene = new AnnotatedMongoGene();
+        gene.setSymbol("GeneZ");
+        gene.setEntrezGeneId(26);
+        gene.setAnnotation("annotated");
+        Document document = new Document();
+        mongoOperations.getConverter().write(gene, document);
+
+        ModelCodec<MongoGene> codec = codecProvider.getCodec(MongoGene.class);
+        MongoGene decoded = codec.decode(new BsonDocumentReader(
+            document.toBsonDocument(Document.class, MongoClient.getDefaultCodecRegistry())),
+            DecoderContext.builder().build());
+        Assert.assertTrue(decoded instanceof AnnotatedMongoGene);
+        Assert.assertEquals("GeneZ", decoded.getSymbol());
+        Assert.assertEquals("annotated", ((AnnotatedMongoGene) decoded).getAnnotation());
+
+        mongoOperations.insert(gene, mongoOperations.getCollectionName(MongoGene.class));
+        List<Gene> genes = (List<Gene>) geneRepository.find(Collections.singletonList(
+            new QueryCriteria("symbol", "GeneZ")));
+        Assert.assertEquals(1, genes.size());
+        Assert.assertTrue(genes.get(0) instanceof AnnotatedMongoGene);
+        Assert.assertEquals("annotated", ((AnnotatedMongoGene) genes.get(0)).getAnnotation());
+    }
+
+    @Test
+    public void modelCodecCustomConversionTest() {
+        Assert.assertNotNull(ModelCodec.create(MongoGene.class, mongoOperations.getConverter(),
+            new MongoCustomConversions(Collections.emptyList())));
+        Assert.assertNull(ModelCodec.create(MongoGene.class, mongoOperations.getConverter(),
+            new MongoCustomConversions(Collections.singletonList(
+                new StringToIntegerConverter()))));
+    }
+
+    @Test
+    public void findRawJsonTest() throws Exception {
+        Assert.assertTrue(geneRepository.isRawJsonSupported());
+        Gene gene = (Gene) geneRepository.findByEntrezGeneId(1).get();
+        RawJsonResults results = geneRepository.findRawJson(Collections.singletonList(
+            new QueryCriteria("symbol", "GeneA")), Sort.unsorted(), Projection.all(), null);
+        Assert.assertEquals(1, results.size());
+        StringWriter writer = new StringWriter();
+        results.write(writer, property -> !"attributes".equals(property));
+        String json = writer.toString();
+        Assert.assertTrue(json, json.startsWith("[{") && json.endsWith("}]"));
+        Assert.assertTrue(json, json.contains(String.format("\"id\" : \"%s\"", gene.getId())));
+        Assert.assertTrue(json, json.contains("\"symbol\" : \"GeneA\""));
+        Assert.assertTrue(json, json.contains("\"entrezGeneId\" : 1"));
+        Assert.assertFalse(json, json.contains("_class"));
+        Assert.assertFalse(json, json.contains("attributes"));
+
+        results = geneRepository.findRawJson(Collections.singletonList(
+            new QueryCriteria("geneType", "pseudo")), Sort.by("entrezGeneId"),
+            Projection.include(Collections.singleton("symbol")), null);
+        writer = new StringWriter();
+        results.write(writer, property -> true);
+        Assert.assertEquals(2, results.size());
+        json = writer.toString();
+        Assert.assertTrue(json, json.indexOf("GeneC") < json.indexOf("GeneE"));
+        Assert.assertFalse(json, json.contains("entrezGeneId"));
+    }
+
     @Test
     public void guessGeneTest() throws Exception {
 
@@ -675,4 +1379,80 @@ public class GenericMongoRepositoryTests extends AbstractRepositoryTests {
 
     }
 
+    @Test
+    public void modelIndexesTest() {
+        List<List<String>> indexes = new ArrayList<>();
+        for (IndexInfo info : mongoOperations.indexOps(MongoGeneExpression.class).getIndexInfo()) {
+            List<String> fields = new ArrayList<>();
+            for (IndexField field : info.getIndexFields()) {
+                fields.add(field.getKey());
+            }
+            indexes.add(fields);
+        }
+        Assert.assertTrue(indexes.contains(Arrays.asList("geneId", "sampleId")));
+        Assert.assertTrue(indexes.contains(Arrays.asList("sampleId", "geneId")));
+        Assert.assertTrue(indexes.contains(Collections.singletonList("dataFileId")));
+        Assert.assertTrue(indexes.contains(Collections.singletonList("dataSetId")));
+        Assert.assertFalse(indexes.contains(Collections.singletonList("geneId")));
+    }
+
+    @Test
+    public void indexAdvisorTest() throws Exception {
+        indexAdvisor.reset();
+        List<QueryCriteria> criterias = Arrays.asList(
+            new QueryCriteria("geneType", "protein-coding"),
+            new QueryCriteria("entrezGeneId", 2, Evaluation.GREATER_THAN));
+        geneRepository.find(criterias);
+        List<String> shape = Arrays.asList("entrezGeneId:GREATER_THAN", "geneType:EQUALS");
+        IndexRecommendation recommendation = null;
+        for (int i = 0; i < 50 && recommendation == null; i++) {
+            Thread.sleep(100);
+            recommendation = getRecommendation(shape);
+        }
+        Assert.assertNotNull(recommendation);
+        Assert.assertEquals(MongoGene.class.getName(), recommendation.getModel());
+        Assert.assertEquals(Arrays.asList("geneType", "entrezGeneId"), recommendation.getFields());
+        Assert.assertEquals(1L, recommendation.getCollectionScans());
+
+        geneRepository.find(Collections.singletonList(
+            new QueryCriteria("attributes.isKinase", "Y")));
+        Thread.sleep(500);
+        Assert.assertNull(
+            getRecommendation(Collections.singletonList("attributes.isKinase:EQUALS")));
+    }
+
+    private IndexRecommendation getRecommendation(List<String> criteria) {
+        for (IndexRecommendation recommendation : indexAdvisor.getRecommendations()) {
+            if (recommendation.getCriteria().equals(criteria)) {
+                return recommendation;
+            }
+        }
+        return null;
+    }
+
+
+    public static class AnnotatedMongoGene extends MongoGene {
+
+        private String annotation;
+
+        public String getAnnotation() {
+            return annotation;
+        }
+
+        public void setAnnotation(String annotation) {
+            this.annotation = annotation;
+        }
+
+    }
+
+    @ReadingConverter
+    private static class StringToIntegerConverter implements Converter<String, Integer> {
+
+        @Override
+        public Integer convert(String source) {
+            return Integer.valueOf(source);
+        }
+
+    }
+
 }
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.blueprint.centromere.tests.mongodb.test;
+
+import com.blueprint.centromere.core.exceptions.ModelPersistenceException;
+import com.blueprint.centromere.core.exceptions.QueryParameterException;
+import com.blueprint.centromere.core.repository.QueryCriteria;
+import com.blueprint.centromere.tests.core.AbstractRepositoryTests;
+import com.blueprint.centromere.tests.core.models.Gene;
+import com.blueprint.centromere.tests.core.repositories.GeneRepository;
+import com.blueprint.centromere.tests.mongodb.EmbeddedMongoDataSourceConfig;
+import com.blueprint.centromere.tests.mongodb.MongoRepositoryConfig;
+import com.blueprint.centromere.tests.mongodb.ReactiveMongoRepositoryConfig;
+import com.blueprint.centromere.tests.mongodb.models.MongoGene;
+import com.blueprint.centromere.tests.mongodb.reactive.ReactiveMongoGeneRepository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+/**
+ * @author woemler
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = {
+    EmbeddedMongoDataSourceConfig.class,
+    MongoRepositoryConfig.class,
+    ReactiveMongoRepositoryConfig.class
+})
+@TestPropertySource(properties = {"centromere.mongodb.bulk-write-batch-size=2"})
+public class ReactiveMongoRepositoryTests extends AbstractRepositoryTests {
+
+    @Autowired
+    private ReactiveMongoGeneRepository reactiveGeneRepository;
+    @Autowired
+    private GeneRepository geneRepository;
+
+    @Test
+    public void findByQueryCriteriaTest() {
+        QueryCriteria criteria = new QueryCriteria("geneType", "protein-coding");
+        List<MongoGene> genes = reactiveGeneRepository.find(Collections.singletonList(criteria))
+            .collectList().block();
+        Assert.assertNotNull(genes);
+        Assert.assertEquals(3, genes.size());
+        for (MongoGene gene : genes) {
+            Assert.assertEquals("protein-coding", gene.getGeneType());
+        }
+    }
+
+    @Test
+    public void findSortedTest() {
+        QueryCriteria criteria = new QueryCriteria("geneType", "protein-coding");
+        Sort sort = new Sort(new Sort.Order(Sort.Direction.DESC, "entrezGeneId"));
+        List<MongoGene> genes = reactiveGeneRepository
+            .find(Collections.singletonList(criteria), sort).collectList().block();
+        Assert.assertNotNull(genes);
+        Assert.assertEquals(3, genes.size());
+        Assert.assertEquals("GeneD", genes.get(0).getSymbol());
+        Assert.assertEquals("GeneA", genes.get(2).getSymbol());
+    }
+
+    @Test
+    public void findPagedTest() {
+        QueryCriteria criteria = new QueryCriteria("geneType", "protein-coding");
+        Sort sort = new Sort(new Sort.Order(Sort.Direction.ASC, "entrezGeneId"));
+        List<MongoGene> genes = reactiveGeneRepository
+            .find(Collections.singletonList(criteria), PageRequest.of(1, 2, sort))
+            .collectList().block();
+        Assert.assertNotNull(genes);
+        Assert.assertEquals(1, genes.size());
+        Assert.assertEquals("GeneD", genes.get(0).getSymbol());
+    }
+
+    @Test
+    public void countByQueryCriteriaTest() {
+        QueryCriteria criteria = new QueryCriteria("geneType", "protein-coding");
+        Long count = reactiveGeneRepository.count(Collections.singletonList(criteria)).block();
+        Assert.assertNotNull(count);
+        Assert.assertEquals(3L, count.longValue());
+    }
+
+    @Test
+    public void distinctTest() {
+        List<Object> geneTypes = reactiveGeneRepository.distinct("geneType").collectList()
+            .block();
+        Assert.assertEquals(Arrays.asList("protein-coding", "pseudo"), geneTypes);
+        QueryCriteria criteria = new QueryCriteria("geneType", "pseudo");
+        List<Object> symbols = reactiveGeneRepository
+            .distinct("symbol", Collections.singletonList(criteria)).collectList().block();
+        Assert.assertEquals(Arrays.asList("GeneC", "GeneE"), symbols);
+    }
+
+    @Test(expected = QueryParameterException.class)
+    public void distinctInvalidFieldTest() {
+        reactiveGeneRepository.distinct("invalid").collectList().block();
+    }
+
+    @Test
+    public void insertTest() {
+        MongoGene gene = new MongoGene();
+        gene.setEntrezGeneId(100);
+        gene.setSymbol("TEST");
+        gene.setTaxId(9606);
+        gene.setChromosome("1");
+        gene.setGeneType("protein-coding");
+        MongoGene created = reactiveGeneRepository.insert(gene).block();
+        Assert.assertNotNull(created);
+        Assert.assertNotNull(created.getId());
+        Optional<Gene> optional = geneRepository.findByEntrezGeneId(100);
+        Assert.assertTrue(optional.isPresent());
+        Assert.assertEquals("TEST", optional.get().getSymbol());
+    }
+
+    @Test
+    public void updateTest() {
+        Optional<Gene> optional = geneRepository.findByEntrezGeneId(1);
+        Assert.assertTrue(optional.isPresent());
+        MongoGene gene = (MongoGene) optional.get();
+        gene.setChromosome("Y");
+        MongoGene updated = reactiveGeneRepository.update(gene).block();
+        Assert.assertNotNull(updated);
+        optional = geneRepository.findByEntrezGeneId(1);
+        Assert.assertTrue(optional.isPresent());
+        Assert.assertEquals("Y", optional.get().getChromosome());
+    }
+
+    @Test
+    public void updateBatchedTest() {
+        List<MongoGene> genes = new ArrayList<>();
+        for (Gene gene : (List<Gene>) geneRepository.findAll()) {
+            gene.setChromosome("Z");
+            genes.add((MongoGene) gene);
+        }
+        Assert.assertEquals(5, genes.size());
+        List<MongoGene> updated = reactiveGeneRepository.update(genes).collectList().block();
+        Assert.assertNotNull(updated);
+        Assert.assertEquals(5, updated.size());
+        for (Gene gene : (List<Gene>) geneRepository.findAll()) {
+            Assert.assertEquals("Z", gene.getChromosome());
+        }
+    }
+
+    @Test(expected = ModelPersistenceException.class)
+    public void updateWithoutIdTest() {
+        MongoGene gene = new MongoGene();
+        gene.setEntrezGeneId(100);
+        gene.setSymbol("TEST");
+        reactiveGeneRepository.update(gene).block();
+    }
+
+    @Test(expected = ModelPersistenceException.class)
+    public void updateMissingRecordTest() {
+        MongoGene gene = new MongoGene();
+        gene.setId("missing");
+        gene.setEntrezGeneId(100);
+        gene.setSymbol("TEST");
+        reactiveGeneRepository.update(Collections.singletonList(gene)).collectList().block();
+    }
+
+}
@@ -71,6 +71,14 @@ public class ModelAggregationControllerTests extends AbstractRepositoryTests {
             .andExpect(jsonPath("$[2]", is("GeneD")));
     }
 
+    @Test
+    public void findDistinctPaged() throws Exception {
+        mockMvc.perform(get("/api/aggregate/gene/distinct/symbol?geneType=protein-coding&_page=1&_size=2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0]", is("GeneD")));
+    }
+
     @Test
     public void findDistinctWithHal() throws Exception {
         mockMvc.perform(get("/api/aggregate/gene/distinct/geneType")
@@ -187,4 +195,35 @@ public class ModelAggregationControllerTests extends AbstractRepositoryTests {
             .andExpect(jsonPath("$.content.pseudo[0].geneType", is("pseudo")));
     }
 
+    @Test
+    public void groupByFieldSummary() throws Exception {
+        mockMvc.perform(get("/api/aggregate/gene/group/geneType?_summary=true"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].key", is("protein-coding")))
+            .andExpect(jsonPath("$[0].count", is(3)))
+            .andExpect(jsonPath("$[0]", not(hasKey("avg"))))
+            .andExpect(jsonPath("$[1].key", is("pseudo")))
+            .andExpect(jsonPath("$[1].count", is(2)));
+    }
+
+    @Test
+    public void groupByFieldValueSummary() throws Exception {
+        mockMvc.perform(get("/api/aggregate/gene/group/geneType?_value=entrezGeneId"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$[0].key", is("protein-coding")))
+            .andExpect(jsonPath("$[0].count", is(3)))
+            .andExpect(jsonPath("$[0]", hasKey("min")))
+            .andExpect(jsonPath("$[0]", hasKey("max")))
+            .andExpect(jsonPath("$[0]", hasKey("sum")))
+            .andExpect(jsonPath("$[0]", hasKey("avg")));
+    }
+
+    @Test
+    public void groupByInvalidValueField() throws Exception {
+        mockMvc.perform(get("/api/aggregate/gene/group/geneType?_value=bad"))
+            .andExpect(status().isBadRequest());
+    }
+
 }
@@ -16,6 +16,7 @@
 
 package com.blueprint.centromere.tests.ws.test;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.hasSize;
@@ -28,6 +29,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -301,6 +303,97 @@ public class ModelCrudControllerTests extends AbstractRepositoryTests {
             .andExpect(jsonPath("$", not(hasKey("links"))));
     }
 
+    @Test
+    public void findPagedWithoutCountWithHal() throws Exception {
+        mockMvc.perform(get("/api/search/gene?_page=0&_size=3&_count=false")
+            .accept(ApiMediaTypes.APPLICATION_HAL_JSON_VALUE))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Link", containsString("_page=1")))
+            .andExpect(jsonPath("$.content", hasSize(3)))
+            .andExpect(jsonPath("$.links", hasSize(2)))
+            .andExpect(jsonPath("$.links[1].rel", is("next")))
+            .andExpect(jsonPath("$", not(hasKey("page"))));
+    }
+
+    @Test
+    public void findPagedWithoutCountWithoutHal() throws Exception {
+        mockMvc.perform(get("/api/search/gene?_page=1&_size=3&_count=false"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content", hasSize(2)))
+            .andExpect(jsonPath("$.content[0].entrezGeneId", is(4)))
+            .andExpect(jsonPath("$.last", is(true)))
+            .andExpect(jsonPath("$", not(hasKey("totalElements"))));
+    }
+
+    @Test
+    public void findPagedInvalidCount() throws Exception {
+        mockMvc.perform(get("/api/search/gene?_page=0&_size=3&_count=maybe"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void findExplained() throws Exception {
+        mockMvc.perform(get("/api/search/gene?symbol=GeneA&_explain=true"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasKey("plan")))
+            .andExpect(jsonPath("$", hasKey("indexes")))
+            .andExpect(jsonPath("$.returned", is(1)))
+            .andExpect(jsonPath("$", not(hasKey("content"))));
+    }
+
+    @Test
+    public void findInvalidExplain() throws Exception {
+        mockMvc.perform(get("/api/search/gene?symbol=GeneA&_explain=maybe"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void findWithHint() throws Exception {
+        mockMvc.perform(get("/api/search/gene?symbol=GeneA&_hint=_id_"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].symbol", is("GeneA")));
+    }
+
+    @Test
+    public void findKeysetPagedWithoutHal() throws Exception {
+        MvcResult result = mockMvc.perform(
+            get("/api/search/gene?_cursor=&_size=2&_sort=entrezGeneId,desc"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Link", containsString("_cursor=")))
+            .andExpect(jsonPath("$", hasKey("content")))
+            .andExpect(jsonPath("$.content", hasSize(2)))
+            .andExpect(jsonPath("$.content[0].entrezGeneId", is(5)))
+            .andExpect(jsonPath("$", hasKey("next")))
+            .andReturn();
+        String next = JsonPath.parse(result.getResponse().getContentAsString()).read("$.next");
+        mockMvc.perform(get("/api/search/gene?_cursor=" + next + "&_size=2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content", hasSize(2)))
+            .andExpect(jsonPath("$.content[0].entrezGeneId", is(3)))
+            .andExpect(jsonPath("$.content[1].entrezGeneId", is(2)));
+    }
+
+    @Test
+    public void findKeysetPagedWithHal() throws Exception {
+        mockMvc.perform(get("/api/search/gene?_cursor=&_size=3")
+            .accept(ApiMediaTypes.APPLICATION_HAL_JSON_VALUE))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasKey("content")))
+            .andExpect(jsonPath("$.content", hasSize(3)))
+            .andExpect(jsonPath("$", hasKey("links")))
+            .andExpect(jsonPath("$.links", hasSize(2)))
+            .andExpect(jsonPath("$.links[1].rel", is("next")))
+            .andExpect(jsonPath("$.links[1].href", containsString("_cursor=")))
+            .andExpect(jsonPath("$", not(hasKey("page"))));
+    }
+
+    @Test
+    public void findKeysetPagedInvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/search/gene?_cursor=notAValidToken&_size=2"))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void findSortedWithHal() throws Exception {
         mockMvc.perform(get("/api/search/gene?_sort=symbol,desc").accept(
@@ -340,6 +433,30 @@ public class ModelCrudControllerTests extends AbstractRepositoryTests {
             .andExpect(jsonPath("$.code", is(400)));
     }
 
+    @Test
+    public void findByAnyCriteria() throws Exception {
+        mockMvc.perform(get("/api/search/gene?_any=symbol:GeneA;entrezGeneIdIn:3,4&_sort=symbol"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(3)))
+            .andExpect(jsonPath("$[0].symbol", is("GeneA")))
+            .andExpect(jsonPath("$[2].symbol", is("GeneD")));
+    }
+
+    @Test
+    public void findByNotCriteria() throws Exception {
+        mockMvc.perform(get("/api/search/gene?_not=geneType:pseudo;symbol:GeneA"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    public void invalidFindByAnyCriteria() throws Exception {
+        mockMvc.perform(get("/api/search/gene?_any=symbol:GeneA;badField:1"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/search/gene?_any=symbol"))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void findByStringStartsWith() throws Exception {
         mockMvc.perform(get("/api/search/gene?geneTypeStartsWith=protein"))
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.blueprint.centromere.tests.ws.test;
+
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.blueprint.centromere.tests.core.AbstractRepositoryTests;
+import com.blueprint.centromere.tests.core.models.Gene;
+import com.blueprint.centromere.tests.core.repositories.GeneRepository;
+import com.blueprint.centromere.tests.ws.WebTestInitializer;
+import com.blueprint.centromere.ws.config.ApiMediaTypes;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * @author woemler
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = WebTestInitializer.class, webEnvironment = WebEnvironment.RANDOM_PORT,
+    properties = {"centromere.web.api.raw-json-enabled=true"})
+@AutoConfigureMockMvc(secure = false)
+public class RawJsonResponseTests extends AbstractRepositoryTests {
+
+    @Autowired
+    private GeneRepository geneRepository;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void findRawJson() throws Exception {
+        Gene gene = (Gene) geneRepository.findByEntrezGeneId(1).get();
+        mockMvc.perform(get("/api/search/gene?_sort=entrezGeneId")
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+            .andExpect(jsonPath("$", hasSize(5)))
+            .andExpect(jsonPath("$[0].id", is(gene.getId())))
+            .andExpect(jsonPath("$[0].entrezGeneId", is(1)))
+            .andExpect(jsonPath("$[0].symbol", is("GeneA")))
+            .andExpect(jsonPath("$[0].aliases", hasSize(gene.getAliases().size())))
+            .andExpect(jsonPath("$[0]", not(hasKey("_id"))))
+            .andExpect(jsonPath("$[0]", not(hasKey("_class"))));
+    }
+
+    @Test
+    public void findRawJsonWithCriteria() throws Exception {
+        mockMvc.perform(get("/api/search/gene?geneType=pseudo&_format=json"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    public void findRawJsonWithIncludedFields() throws Exception {
+        mockMvc.perform(get("/api/search/gene?symbol=GeneA&_include=symbol,entrezGeneId"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].symbol", is("GeneA")))
+            .andExpect(jsonPath("$[0].entrezGeneId", is(1)))
+            .andExpect(jsonPath("$[0]", not(hasKey("id"))))
+            .andExpect(jsonPath("$[0]", not(hasKey("aliases"))));
+    }
+
+    @Test
+    public void findRawJsonWithExcludedFields() throws Exception {
+        mockMvc.perform(get("/api/search/gene?symbol=GeneA&_exclude=aliases,attributes"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].symbol", is("GeneA")))
+            .andExpect(jsonPath("$[0]", hasKey("id")))
+            .andExpect(jsonPath("$[0]", not(hasKey("aliases"))))
+            .andExpect(jsonPath("$[0]", not(hasKey("attributes"))));
+    }
+
+    @Test
+    public void findWithHalIsNotRaw() throws Exception {
+        mockMvc.perform(get("/api/search/gene").accept(ApiMediaTypes.APPLICATION_HAL_JSON_VALUE))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content", hasSize(5)))
+            .andExpect(jsonPath("$", hasKey("links")));
+    }
+
+    @Test
+    public void findTextIsNotRaw() throws Exception {
+        mockMvc.perform(get("/api/search/gene").accept(MediaType.TEXT_PLAIN))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_PLAIN));
+    }
+
+    @Test
+    public void findPagedIsNotRaw() throws Exception {
+        mockMvc.perform(get("/api/search/gene?_page=0&_size=2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content", hasSize(2)));
+    }
+
+}
@@ -440,7 +440,7 @@ public class SwaggerApiDocumentationTests {
             .andExpect(MockMvcResultMatchers
                 .jsonPath("$.paths./api/search/sample.get", Matchers.hasKey("parameters")))
             .andExpect(MockMvcResultMatchers
-                .jsonPath("$.paths./api/search/sample.get.parameters", Matchers.hasSize(16)))
+                .jsonPath("$.paths./api/search/sample.get.parameters", Matchers.hasSize(18)))
 
             ////// pagination parameters
             .andExpect(MockMvcResultMatchers
@@ -503,13 +503,11 @@ public class SwaggerApiDocumentationTests {
             .andExpect(MockMvcResultMatchers
                 .jsonPath("$.paths./api/search/sample.get.parameters[2].type",
                     Matchers.is("string")))
-
-            ////// filtering parameters
             .andExpect(MockMvcResultMatchers
                 .jsonPath("$.paths./api/search/sample.get.parameters[3]", Matchers.hasKey("name")))
             .andExpect(MockMvcResultMatchers
                 .jsonPath("$.paths./api/search/sample.get.parameters[3].name",
-                    Matchers.is("_include")))
+                    Matchers.is("_count")))
             .andExpect(MockMvcResultMatchers
                 .jsonPath("$.paths./api/search/sample.get.parameters[3]", Matchers.hasKey("in")))
             .andExpect(MockMvcResultMatchers
@@ -524,16 +522,58 @@ public class SwaggerApiDocumentationTests {
                 .jsonPath("$.paths./api/search/sample.get.parameters[3]", Matchers.hasKey("type")))
             .andExpect(MockMvcResultMatchers
                 .jsonPath("$.paths./api/search/sample.get.parameters[3].type",
-                    Matchers.is("string")))
+                    Matchers.is("boolean")))
             .andExpect(MockMvcResultMatchers
                 .jsonPath("$.paths./api/search/sample.get.parameters[4]", Matchers.hasKey("name")))
             .andExpect(MockMvcResultMatchers
                 .jsonPath("$.paths./api/search/sample.get.parameters[4].name",
-                    Matchers.is("_exclude")))
+                    Matchers.is("_cursor")))
+            .andExpect(MockMvcResultMatchers
+                .jsonPath("$.paths./api/search/sample.get.parameters[4]", Matchers.hasKey("in")))
+            .andExpect(MockMvcResultMatchers
+                .jsonPath("$.paths./api/search/sample.get.parameters[4].in", Matchers.is("query")))
+            .andExpect(MockMvcResultMatchers
+                .jsonPath("$.paths./api/search/sample.get.parameters[4]",
+                    Matchers.hasKey("required")))
+            .andExpect(MockMvcResultMatchers
+                .jsonPath("$.paths./api/search/sample.get.parameters[4].required",
+                    Matchers.is(false)))
+            .andExpect(MockMvcResultMatchers
+                .jsonPath("$.paths./api/search/sample.get.parameters[4]", Matchers.hasKey("type")))
+            .andExpect(MockMvcResultMatchers
+                .jsonPath("$.paths./api/search/sample.get.parameters[4].type",
+                    Matchers.is("string")))
+
+            ////// filtering parameters
             .andExpect(MockMvcResultMatchers
                 .jsonPath("$.paths./api/search/sample.get.parameters[5]", Matchers.hasKey("name")))
             .andExpect(MockMvcResultMatchers
                 .jsonPath("$.paths./api/search/sample.get.parameters[5].name",
+                    Matchers.is("_include")))
+            .andExpect(MockMvcResultMatchers
+                .jsonPath("$.paths./api/search/sample.get.parameters[5]", Matchers.hasKey("in")))
+            .andExpect(MockMvcResultMatchers
+                .jsonPath("$.paths./api/search/sample.get.parameters[5].in", Matchers.is("query")))
+            .andExpect(MockMvcResultMatchers
+                .jsonPath("$.paths./api/search/sample.get.parameters[5]",
+                    Matchers.hasKey("required")))
+            .andExpect(MockMvcResultMatchers
+                .jsonPath("$.paths./api/search/sample.get.parameters[5].required",
+                    Matchers.is(false)))
+            .andExpect(MockMvcResultMatchers
+                .jsonPath("$.paths./api/search/sample.get.parameters[5]", Matchers.hasKey("type")))
+            .andExpect(MockMvcResultMatchers
+                .jsonPath("$.paths./api/search/sample.get.parameters[5].type",
+                    Matchers.is("string")))
+            .andExpect(MockMvcResultMatchers
+                .jsonPath("$.paths./api/search/sample.get.parameters[6]", Matchers.hasKey("name")))
+            .andExpect(MockMvcResultMatchers
+                .jsonPath("$.paths./api/search/sample.get.parameters[6].name",
+                    Matchers.is("_exclude")))
+            .andExpect(MockMvcResultMatchers
+                .jsonPath("$.paths./api/search/sample.get.parameters[7]", Matchers.hasKey("name")))
+            .andExpect(MockMvcResultMatchers
+                .jsonPath("$.paths./api/search/sample.get.parameters[7].name",
                     Matchers.is("_format")))
 
             ////// attribute parameters
@@ -1,5 +1,13 @@
 package com.blueprint.centromere.ws.config;
 
+import com.blueprint.centromere.core.repository.CachingModelRepository;
+import com.blueprint.centromere.core.repository.IndexAdvisor;
+import com.blueprint.centromere.core.repository.ModelRepository;
+import com.blueprint.centromere.core.repository.ModelRepositoryRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
 
@@ -14,7 +22,37 @@ public class ActuatorConfig {
     @PropertySource("classpath:web-defaults.properties")
     public static class DefaultActuatorConfig {
 
-        //TODO: Custom monitoring components
+        /**
+         * Publishes the hit, miss, eviction and size metrics of each {@link
+         * CachingModelRepository} cache, eg. {@code cache.gets}, tagged with the cache name
+         * {@code repository.gene} and the cache type, {@code entity} or {@code query}.  The
+         * {@code metrics} endpoint is not exposed over the web by default, and should only be
+         * added to {@code management.endpoints.web.exposure.include} behind authentication.
+         */
+        @Bean
+        public MeterBinder repositoryCacheMetrics(ModelRepositoryRegistry repositoryRegistry) {
+            return registry -> {
+                for (ModelRepository<?, ?> repository
+                    : repositoryRegistry.getRegisteredModelRepositories()) {
+                    if (repository instanceof CachingModelRepository) {
+                        CachingModelRepository<?, ?> cachingRepository
+                            = (CachingModelRepository<?, ?>) repository;
+                        String name = "repository."
+                            + cachingRepository.getModel().getSimpleName().toLowerCase();
+                        GuavaCacheMetrics.monitor(registry, cachingRepository.getEntityCache(),
+                            name, "type", "entity");
+                        GuavaCacheMetrics.monitor(registry, cachingRepository.getQueryCache(),
+                            name, "type", "query");
+                    }
+                }
+            };
+        }
+
+        @Bean
+        public IndexAdvisorEndpoint indexAdvisorEndpoint(
+            ObjectProvider<IndexAdvisor> indexAdvisor) {
+            return new IndexAdvisorEndpoint(indexAdvisor.getIfAvailable());
+        }
 
     }
 
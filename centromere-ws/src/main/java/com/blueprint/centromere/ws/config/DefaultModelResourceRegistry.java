@@ -22,10 +22,10 @@ import com.blueprint.centromere.core.model.Model;
 import com.blueprint.centromere.core.repository.DefaultModelRepositoryRegistry;
 import com.blueprint.centromere.core.repository.ModelRepository;
 import com.blueprint.centromere.core.repository.ModelResource;
-import java.util.ArrayList;
+import com.blueprint.centromere.core.repository.ModelTypeMap;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import javax.annotation.PostConstruct;
 import org.slf4j.Logger;
@@ -48,7 +48,8 @@ public class DefaultModelResourceRegistry implements ModelResourceRegistry {
 
     private final ApplicationContext context;
 
-    private Map<String, Class<? extends Model<?>>> uriMap = new HashMap<>();
+    private Map<String, Class<? extends Model<?>>> uriMap = Collections.emptyMap();
+    private ModelTypeMap<String> modelUriMap = new ModelTypeMap<>(Collections.emptyMap());
 
     public DefaultModelResourceRegistry(ApplicationContext context) {
         this.context = context;
@@ -56,6 +57,8 @@ public class DefaultModelResourceRegistry implements ModelResourceRegistry {
 
     @PostConstruct
     public void afterPropertiesSet() throws ConfigurationException {
+        Map<String, Class<? extends Model<?>>> uris = new HashMap<>();
+        Map<Class<? extends Model<?>>, String> models = new HashMap<>();
         for (Map.Entry<String, Object> entry : context.getBeansWithAnnotation(ModelResource.class)
             .entrySet()) {
             Class<?> type = entry.getValue().getClass();
@@ -69,33 +72,32 @@ public class DefaultModelResourceRegistry implements ModelResourceRegistry {
             } else if (!annotation.value().trim().equals("")) {
                 name = annotation.value().toLowerCase();
             }
-            if (uriMap.containsKey(name)) {
+            if (uris.containsKey(name)) {
                 throw new ModelRegistryException(String.format("Duplicate URI "
                     + "registered for %s.  Does another model class have the same URI?", name));
             }
-            uriMap.put(name, model);
+            if (models.containsKey(model)) {
+                throw new ModelRegistryException(String.format("More than one URI applies to "
+                    + "model %s.  Does more than one resource have the same model?",
+                    model.getName()));
+            }
+            uris.put(name, model);
+            models.put(model, name);
             LOGGER.info(String.format("Registered resource %s for model %s",
                 type.getName(), model.getName()));
         }
+        uriMap = Collections.unmodifiableMap(uris);
+        modelUriMap = new ModelTypeMap<>(models);
     }
 
     @Override
     public String getUriByModel(Class<? extends Model<?>> model) throws ModelRegistryException {
-        List<String> uris = new ArrayList<>();
-        for (Map.Entry<String, Class<? extends Model<?>>> entry : uriMap.entrySet()) {
-            if (model.isAssignableFrom(entry.getValue())) {
-                uris.add(entry.getKey());
-            }
-        }
-        if (uris.isEmpty()) {
-            return null;
-        } else if (uris.size() == 1) {
-            return uris.get(0);
-        } else {
+        if (modelUriMap.count(model) > 1) {
             throw new ModelRegistryException(
                 String.format("More than one URI applies to model %s.  "
                     + "Is this a superclass with multiple model subclasses?", model.getName()));
         }
+        return modelUriMap.get(model);
     }
 
     @Override
@@ -115,11 +117,11 @@ public class DefaultModelResourceRegistry implements ModelResourceRegistry {
 
     @Override
     public boolean isRegisteredModel(Class<?> type) {
-        return uriMap.containsValue(type);
+        return modelUriMap.keySet().contains(type);
     }
 
     @Override
     public Collection<Class<? extends Model<?>>> getRegisteredModels() {
-        return uriMap.values();
+        return modelUriMap.keySet();
     }
 }
@@ -17,6 +17,7 @@
 package com.blueprint.centromere.ws.config;
 
 import com.blueprint.centromere.core.model.Model;
+import com.blueprint.centromere.core.repository.ContinuationPage;
 import com.blueprint.centromere.ws.controller.FilterableResource;
 import com.blueprint.centromere.ws.controller.ResponseEnvelope;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
@@ -30,6 +31,8 @@ import java.util.HashSet;
 import java.util.Set;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.hateoas.PagedResources;
 import org.springframework.hateoas.Resource;
 import org.springframework.hateoas.ResourceSupport;
@@ -105,6 +108,10 @@ public class FilteringTextMessageConverter extends AbstractHttpMessageConverter<
         }
         if (obj.getClass().equals(PageImpl.class)) {
             obj = ((Page) obj).getContent();
+        } else if (obj.getClass().equals(SliceImpl.class)) {
+            obj = ((Slice) obj).getContent();
+        } else if (obj instanceof ContinuationPage) {
+            obj = ((ContinuationPage) obj).getContent();
         }
 
         // If the object is not a collection, add it to one for easy iteration
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.blueprint.centromere.ws.config;
+
+import com.blueprint.centromere.core.repository.IndexAdvisor;
+import com.blueprint.centromere.core.repository.IndexRecommendation;
+import java.util.Collections;
+import java.util.List;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * Actuator endpoint that reports the indexes recommended by the configured {@link IndexAdvisor},
+ * available at {@code /actuator/indexes} when exposed.  A delete request discards the queries
+ * observed so far.  Reports no recommendations if no advisor is configured.  The endpoint is not
+ * exposed over the web by default; since it accepts delete requests, it should only be added to
+ * {@code management.endpoints.web.exposure.include} behind authentication.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+@Endpoint(id = "indexes")
+public class IndexAdvisorEndpoint {
+
+    private final IndexAdvisor indexAdvisor;
+
+    public IndexAdvisorEndpoint(IndexAdvisor indexAdvisor) {
+        this.indexAdvisor = indexAdvisor;
+    }
+
+    @ReadOperation
+    public List<IndexRecommendation> recommendations() {
+        if (indexAdvisor == null) {
+            return Collections.emptyList();
+        }
+        return indexAdvisor.getRecommendations();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        if (indexAdvisor != null) {
+            indexAdvisor.reset();
+        }
+    }
+
+}
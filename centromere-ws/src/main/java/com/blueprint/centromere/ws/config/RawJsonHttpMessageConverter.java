@@ -0,0 +1,71 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.blueprint.centromere.ws.config;
+
+import com.blueprint.centromere.ws.controller.RawJsonEnvelope;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+/**
+ * Message converter that writes the raw query results wrapped in a {@link RawJsonEnvelope}
+ * directly to the response body as JSON, applying the envelope's field filters as each record
+ * is transcoded, without creating model instances or passing through Jackson.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+public class RawJsonHttpMessageConverter extends AbstractHttpMessageConverter<RawJsonEnvelope> {
+
+    public RawJsonHttpMessageConverter() {
+        super(StandardCharsets.UTF_8, MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> aClass) {
+        return RawJsonEnvelope.class.isAssignableFrom(aClass);
+    }
+
+    @Override
+    protected RawJsonEnvelope readInternal(Class<? extends RawJsonEnvelope> aClass,
+        HttpInputMessage httpInputMessage) throws IOException, HttpMessageNotReadableException {
+        return null;
+    }
+
+    @Override
+    protected void writeInternal(RawJsonEnvelope envelope, HttpOutputMessage httpOutputMessage)
+        throws IOException, HttpMessageNotWritableException {
+        MediaType contentType = httpOutputMessage.getHeaders().getContentType();
+        Charset charset = contentType != null && contentType.getCharset() != null
+            ? contentType.getCharset() : getDefaultCharset();
+        Writer writer = new BufferedWriter(
+            new OutputStreamWriter(httpOutputMessage.getBody(), charset));
+        envelope.getEntity().write(writer, envelope::isIncluded);
+        writer.flush();
+    }
+
+}
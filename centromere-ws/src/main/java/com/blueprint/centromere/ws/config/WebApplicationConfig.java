@@ -100,7 +100,8 @@ public class WebApplicationConfig {
         @Bean
         public HttpMessageConverters customConverters() {
 
-            // JSON
+            // JSON, with raw query results written directly
+            RawJsonHttpMessageConverter rawJsonConverter = new RawJsonHttpMessageConverter();
             FilteringJackson2HttpMessageConverter jsonConverter
                 = new FilteringJackson2HttpMessageConverter();
             jsonConverter.setSupportedMediaTypes(ApiMediaTypes.getJsonMediaTypes());
@@ -118,7 +119,8 @@ public class WebApplicationConfig {
                     new MediaType("text", "plain", Charset.forName("utf-8")));
             textMessageConverter.setDelimiter("\t");
 
-            return new HttpMessageConverters(jsonConverter, xmlConverter, textMessageConverter);
+            return new HttpMessageConverters(rawJsonConverter, jsonConverter, xmlConverter,
+                textMessageConverter);
 
         }
 
@@ -18,9 +18,11 @@ package com.blueprint.centromere.ws.controller;
 
 import com.blueprint.centromere.core.exceptions.ModelRegistryException;
 import com.blueprint.centromere.core.model.Model;
+import com.blueprint.centromere.core.repository.GroupSummary;
 import com.blueprint.centromere.core.repository.ModelRepository;
 import com.blueprint.centromere.core.repository.ModelRepositoryRegistry;
 import com.blueprint.centromere.core.repository.QueryCriteria;
+import com.blueprint.centromere.core.repository.QueryPlan;
 import com.blueprint.centromere.ws.config.ApiMediaTypes;
 import com.blueprint.centromere.ws.config.ModelResourceRegistry;
 import com.blueprint.centromere.ws.exception.InvalidParameterException;
@@ -42,6 +44,8 @@ import org.springframework.beans.BeanWrapper;
 import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.Resource;
 import org.springframework.hateoas.Resources;
@@ -54,7 +58,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 
 /**
- * Controller methods for generic {@link Model} implementations and their search methods
+ * Controller methods for generic {@link Model} implementations and their search methods.  Each
+ * aggregation accepts the {@code _explain=true} parameter, which returns the {@link QueryPlan} of
+ * the query selecting the aggregated records, if explain requests are enabled.
  *
  * @author woemler
  * @since 0.5.0
@@ -75,11 +81,19 @@ public class ModelAggregationController {
     @Value("${centromere.web.api.root-url}")
     private String rootUrl;
 
+    @Value("${centromere.web.api.explain-enabled:false}")
+    private boolean explainEnabled;
+
+    @Value("${centromere.web.api.explain-authority:}")
+    private String explainAuthority;
+
     /**
      * {@code GET /api/aggregate/{model}/distinct/{field}} Fetches the distinct values of the model
-     * attribute, {@code field}, which fulfill the given query options.
+     * attribute, {@code field}, which fulfill the given query options.  If the request includes
+     * paging parameters, only the requested page of sorted values is returned.
      *
      * @param field Name of the model attribute to retrieve unique values of.
+     * @param pageable {@link Pageable}
      * @param request {@link HttpServletRequest}
      * @return List of distinct field values.
      */
@@ -98,6 +112,7 @@ public class ModelAggregationController {
     public <T extends Model<I>, I extends Serializable> ResponseEntity<ResponseEnvelope> findDistinct(
         @PathVariable("field") String field,
         @PathVariable("uri") String uri,
+        Pageable pageable,
         HttpServletRequest request) {
 
         Class<T> model;
@@ -128,7 +143,15 @@ public class ModelAggregationController {
 
         List<QueryCriteria> queryCriterias = RequestUtils
             .getQueryCriteriaFromFindDistinctRequest(model, request);
-        Set<Object> distinct = repository.distinct(field, queryCriterias);
+        if (RequestUtils.isExplainRequest(request)) {
+            return explain(repository, queryCriterias);
+        }
+        Set<Object> distinct;
+        if (RequestUtils.isPagedRequest(request)) {
+            distinct = repository.distinct(field, queryCriterias, pageable);
+        } else {
+            distinct = repository.distinct(field, queryCriterias);
+        }
         ResponseEnvelope envelope = null;
 
         if (ApiMediaTypes.isHalMediaType(request.getHeader("Accept"))) {
@@ -194,6 +217,9 @@ public class ModelAggregationController {
 
         List<QueryCriteria> queryCriterias = RequestUtils
             .getQueryCriteriaFromFindDistinctRequest(model, request);
+        if (RequestUtils.isExplainRequest(request)) {
+            return explain(repository, queryCriterias);
+        }
         Long count = repository.count(queryCriterias);
         Map<String, Object> responseObject = Collections.singletonMap("count", count);
         ResponseEnvelope envelope;
@@ -214,7 +240,10 @@ public class ModelAggregationController {
 
     /**
      * {@code GET /api/aggregate/{model}/group/{field}} Fetches a collection of records, grouped by
-     * the requested field.
+     * the requested field.  If the {@code _summary} parameter is supplied, only the number of
+     * records in each group is returned, and if the {@code _value} parameter names a numeric
+     * field, its minimum, maximum, sum and average values for each group are included.  Summaries
+     * are calculated by the repository, without fetching the grouped records.
      *
      * @param field Name of the model attribute to group records by.
      * @param request {@link HttpServletRequest}
@@ -264,7 +293,40 @@ public class ModelAggregationController {
         }
 
         List<QueryCriteria> queryCriterias = RequestUtils
-            .getQueryCriteriaFromFindDistinctRequest(model, request);
+            .getQueryCriteriaFromFindGroupRequest(model, request);
+        if (RequestUtils.isExplainRequest(request)) {
+            return explain(repository, queryCriterias);
+        }
+        Link selfLink = new Link(rootUrl + "/aggregate/" + uri + "/group/" + field +
+            (request.getQueryString() != null ? "?" + request.getQueryString() : ""), "self");
+
+        if (RequestUtils.isSummaryRequest(request)) {
+
+            String valueField = request.getParameter(ReservedRequestParameters.VALUE_PARAMETER);
+            if (valueField != null && valueField.trim().isEmpty()) {
+                valueField = null;
+            } else if (valueField != null && !wrapper.isReadableProperty(valueField.trim())) {
+                throw new InvalidParameterException(
+                    String.format("Requested field is not a valid model property: %s",
+                        valueField));
+            }
+
+            List<GroupSummary> summaries = repository.groupBy(field, queryCriterias,
+                valueField != null ? valueField.trim() : null);
+            LOGGER.info(String.format("Query returned %d group summaries", summaries.size()));
+
+            ResponseEnvelope envelope;
+            if (ApiMediaTypes.isHalMediaType(request.getHeader("Accept"))) {
+                Resources<GroupSummary> resources = new Resources<>(summaries);
+                resources.add(selfLink);
+                envelope = new ResponseEnvelope(resources);
+            } else {
+                envelope = new ResponseEnvelope(summaries);
+            }
+            return new ResponseEntity<>(envelope, HttpStatus.OK);
+
+        }
+
         Map<Object, List<T>> grouped = new LinkedHashMap<>();
         for (T record : repository.find(queryCriterias)) {
             wrapper = new BeanWrapperImpl(record);
@@ -281,8 +343,6 @@ public class ModelAggregationController {
 
         if (ApiMediaTypes.isHalMediaType(request.getHeader("Accept"))) {
 
-            Link selfLink = new Link(rootUrl + "/aggregate/" + uri + "/group/" + field +
-                (request.getQueryString() != null ? "?" + request.getQueryString() : ""), "self");
             Resource<Object> resource = new Resource<>(grouped);
             resource.add(selfLink);
             envelope = new ResponseEnvelope(resource);
@@ -296,4 +356,16 @@ public class ModelAggregationController {
         return new ResponseEntity<>(envelope, HttpStatus.OK);
     }
 
+    /**
+     * Returns the plan of the query selecting the records to be aggregated, in place of the
+     * aggregation results.
+     */
+    private ResponseEntity<ResponseEnvelope> explain(ModelRepository<?, ?> repository,
+        List<QueryCriteria> queryCriterias) {
+        RequestUtils.checkExplainPermitted(explainEnabled, explainAuthority);
+        QueryPlan plan = repository.explain(queryCriterias, Sort.unsorted());
+        LOGGER.info(String.format("Explained query: %s", plan));
+        return new ResponseEntity<>(new ResponseEnvelope(plan), HttpStatus.OK);
+    }
+
 }
@@ -17,12 +17,18 @@
 package com.blueprint.centromere.ws.controller;
 
 import com.blueprint.centromere.core.exceptions.ModelRegistryException;
+import com.blueprint.centromere.core.exceptions.QueryParameterException;
 import com.blueprint.centromere.core.model.Linked;
 import com.blueprint.centromere.core.model.Model;
 import com.blueprint.centromere.core.model.ModelReflectionUtils;
+import com.blueprint.centromere.core.repository.ContinuationPage;
+import com.blueprint.centromere.core.repository.ContinuationToken;
 import com.blueprint.centromere.core.repository.ModelRepository;
 import com.blueprint.centromere.core.repository.ModelRepositoryRegistry;
+import com.blueprint.centromere.core.repository.Projection;
 import com.blueprint.centromere.core.repository.QueryCriteria;
+import com.blueprint.centromere.core.repository.QueryPlan;
+import com.blueprint.centromere.core.repository.RawJsonResults;
 import com.blueprint.centromere.ws.config.ApiMediaTypes;
 import com.blueprint.centromere.ws.config.ModelResourceRegistry;
 import com.blueprint.centromere.ws.exception.InvalidParameterException;
@@ -32,6 +38,7 @@ import com.blueprint.centromere.ws.exception.RequestFailureException;
 import com.blueprint.centromere.ws.exception.ResourceNotFoundException;
 import com.blueprint.centromere.ws.exception.RestError;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
 import io.swagger.annotations.ApiImplicitParam;
 import io.swagger.annotations.ApiImplicitParams;
 import io.swagger.annotations.ApiParam;
@@ -40,11 +47,16 @@ import io.swagger.annotations.ApiResponses;
 import java.io.Serializable;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -55,11 +67,14 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedResources;
 import org.springframework.hateoas.Resources;
 import org.springframework.hateoas.mvc.ResourceAssemblerSupport;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -68,6 +83,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.util.UriComponentsBuilder;
 
 /**
  * Base model resource controller for standard CRUD operations and queries.
@@ -81,6 +97,8 @@ public class ModelCrudController {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ModelCrudController.class);
 
+    private static final List<String> RESOURCE_FIELDS = Arrays.asList("links", "content");
+
     @Autowired
     private ModelRepositoryRegistry repositoryRegistry;
 
@@ -99,6 +117,17 @@ public class ModelCrudController {
     @Value("${centromere.web.api.root-url}")
     private String rootUrl;
 
+    @Value("${centromere.web.api.explain-enabled:false}")
+    private boolean explainEnabled;
+
+    @Value("${centromere.web.api.explain-authority:}")
+    private String explainAuthority;
+
+    @Value("${centromere.web.api.raw-json-enabled:false}")
+    private boolean rawJsonEnabled;
+
+    private final Map<Class<?>, Set<String>> serializedProperties = new ConcurrentHashMap<>();
+
     /**
      * {@code GET /{id}} Fetches a single record by its primary I and returns it, or a {@code Not
      * Found} exception if not.
@@ -150,7 +179,10 @@ public class ModelCrudController {
         }
         Set<String> includedFields = RequestUtils.getIncludedFieldsFromRequest(request);
         Set<String> excludedFields = RequestUtils.getExcludedFieldsFromRequest(request);
-        Optional<T> optional = repository.findById(convertModelIdParameter(id, model));
+        Projection projection = getProjection(model, includedFields, excludedFields,
+            ApiMediaTypes.isHalMediaType(request.getHeader("Accept")));
+        Optional<T> optional = repository
+            .findById(convertModelIdParameter(id, model), projection);
         if (!optional.isPresent()) {
             throw new ResourceNotFoundException();
         }
@@ -168,7 +200,13 @@ public class ModelCrudController {
     /**
      * {@code GET /} Queries the repository using inputted query string paramters, defined within a
      * annotated {@link Model} classes.  Supports hypermedia, pagination, sorting, field filtering,
-     * and field exclusion.
+     * and field exclusion.  Requests with a {@code _cursor} parameter use keyset pagination, and
+     * the response includes a {@code next} link with the continuation token of the following page.
+     * Requests with {@code _explain=true} return the {@link QueryPlan} of the query instead of
+     * its results, if explain requests are enabled, and a {@code _hint} parameter forces the query
+     * to use the named index.  If raw JSON responses are enabled, unpaged plain JSON requests to
+     * repositories that support them are answered with the records returned by the database,
+     * transcoded straight to JSON, instead of serialized model instances.
      *
      * @param pagedResourcesAssembler {@link PagedResourcesAssembler}
      * @param request {@link HttpServletRequest}
@@ -190,6 +228,24 @@ public class ModelCrudController {
             dataType = "string",
             paramType = "query",
             example = "name,asc"),
+        @ApiImplicitParam(name = ReservedRequestParameters.COUNT_PARAMETER,
+            value = "Count total records for paged requests.",
+            defaultValue = "true",
+            dataType = "boolean",
+            paramType = "query"),
+        @ApiImplicitParam(name = ReservedRequestParameters.CURSOR_PARAMETER,
+            value = "Keyset pagination continuation token, empty for the first page.",
+            dataType = "string",
+            paramType = "query"),
+        @ApiImplicitParam(name = ReservedRequestParameters.EXPLAIN_PARAMETER,
+            value = "Return the query plan instead of the query results.",
+            defaultValue = "false",
+            dataType = "boolean",
+            paramType = "query"),
+        @ApiImplicitParam(name = ReservedRequestParameters.HINT_PARAMETER,
+            value = "Name of the index the query must use.",
+            dataType = "string",
+            paramType = "query"),
         @ApiImplicitParam(name = ReservedRequestParameters.INCLUDED_FIELDS_PARAMETER,
             value = "List of fields to be included in response objects",
             dataType = "string",
@@ -203,6 +259,7 @@ public class ModelCrudController {
         @ApiResponse(code = 200, message = "OK"),
         @ApiResponse(code = 400, message = "Invalid options", response = RestError.class),
         @ApiResponse(code = 401, message = "Unauthorized", response = RestError.class),
+        @ApiResponse(code = 403, message = "Forbidden", response = RestError.class),
         @ApiResponse(code = 404, message = "Record not found.", response = RestError.class)
     })
     @RequestMapping(
@@ -247,13 +304,90 @@ public class ModelCrudController {
 
         List<QueryCriteria> criterias = RequestUtils
             .getQueryCriteriaFromFindRequest(model, request);
+        Projection projection = getProjection(model, includedFields, excludedFields,
+            ApiMediaTypes.isHalMediaType(mediaType));
+
+        String hint = RequestUtils.getHint(request);
+
+        if (RequestUtils.isExplainRequest(request)) {
+            RequestUtils.checkExplainPermitted(explainEnabled, explainAuthority);
+            QueryPlan plan = repository.explain(criterias,
+                RequestUtils.isSortableRequest(request) ? pageable.getSort() : Sort.unsorted(),
+                hint);
+            LOGGER.info(String.format("Explained query: %s", plan));
+            return new ResponseEntity<>(new ResponseEnvelope(plan), HttpStatus.OK);
+        }
 
         Link selfLink = new Link(rootUrl + "/search/" + uri +
             (request.getQueryString() != null ? "?" + request.getQueryString() : ""), "self");
 
-        if (RequestUtils.isPagedRequest(request)) {
+        HttpHeaders headers = new HttpHeaders();
+
+        if (RequestUtils.isKeysetPagedRequest(request)) {
+
+            String cursor = request.getParameter(ReservedRequestParameters.CURSOR_PARAMETER);
+            ContinuationToken token = null;
+            if (cursor != null && !cursor.trim().isEmpty()) {
+                try {
+                    token = ContinuationToken.decode(cursor.trim());
+                } catch (QueryParameterException e) {
+                    throw new InvalidParameterException(e.getMessage());
+                }
+            }
+
+            ContinuationPage<T> page = repository.findAfter(criterias, pageable.getSort(), token,
+                pageable.getPageSize());
+            LOGGER.info(String.format("Query returned %d keyset-paged records, has next page: %s",
+                page.getSize(), page.hasNext()));
 
-            Page<T> page = repository.find(criterias, pageable);
+            Link nextLink = null;
+            if (page.hasNext()) {
+                nextLink = getNextLink(selfLink, ReservedRequestParameters.CURSOR_PARAMETER,
+                    page.getNext().encode());
+                headers.add(HttpHeaders.LINK, nextLink.toString());
+            }
+
+            if (ApiMediaTypes.isHalMediaType(mediaType)) {
+                List<FilterableResource> resourceList = assembler.toResources(page.getContent());
+                Resources<FilterableResource> resources = new Resources<>(resourceList);
+                resources.add(selfLink);
+                if (nextLink != null) {
+                    resources.add(nextLink);
+                }
+                envelope = new ResponseEnvelope(resources, includedFields, excludedFields);
+            } else {
+                envelope = new ResponseEnvelope(page, includedFields, excludedFields);
+            }
+
+        } else if (RequestUtils.isPagedRequest(request)
+            && !RequestUtils.isCountedRequest(request)) {
+
+            Slice<T> slice = repository.findSlice(criterias, pageable, projection, hint);
+            LOGGER.info(String.format("Query returned %d sliced records, has next slice: %s",
+                slice.getNumberOfElements(), slice.hasNext()));
+
+            Link nextLink = null;
+            if (slice.hasNext()) {
+                nextLink = getNextLink(selfLink, ReservedRequestParameters.PAGE_PARAMETER,
+                    slice.getNumber() + 1);
+                headers.add(HttpHeaders.LINK, nextLink.toString());
+            }
+
+            if (ApiMediaTypes.isHalMediaType(mediaType)) {
+                List<FilterableResource> resourceList = assembler.toResources(slice.getContent());
+                Resources<FilterableResource> resources = new Resources<>(resourceList);
+                resources.add(selfLink);
+                if (nextLink != null) {
+                    resources.add(nextLink);
+                }
+                envelope = new ResponseEnvelope(resources, includedFields, excludedFields);
+            } else {
+                envelope = new ResponseEnvelope(slice, includedFields, excludedFields);
+            }
+
+        } else if (RequestUtils.isPagedRequest(request)) {
+
+            Page<T> page = repository.find(criterias, pageable, projection, hint);
             LOGGER.info(String
                 .format("Query returned %d paged records, out of %d total", page.getSize(),
                     page.getTotalElements()));
@@ -270,14 +404,25 @@ public class ModelCrudController {
 
             }
 
+        } else if (rawJsonEnabled && repository.isRawJsonSupported()
+            && RequestUtils.isJsonRequest(request)) {
+
+            RawJsonResults results = repository.findRawJson(criterias,
+                RequestUtils.isSortableRequest(request) ? pageable.getSort() : Sort.unsorted(),
+                projection, hint);
+            LOGGER.info(String.format("Query returned %d raw records", results.size()));
+            envelope = new RawJsonEnvelope(results, includedFields, excludedFields,
+                getSerializedProperties(model));
+
         } else {
 
             List<T> entities;
 
             if (RequestUtils.isSortableRequest(request)) {
-                entities = (List<T>) repository.find(criterias, pageable.getSort());
+                entities = (List<T>) repository.find(criterias, pageable.getSort(), projection,
+                    hint);
             } else {
-                entities = (List<T>) repository.find(criterias);
+                entities = (List<T>) repository.find(criterias, Sort.unsorted(), projection, hint);
             }
             LOGGER.info(String.format("Query returned %d records", entities.size()));
 
@@ -292,7 +437,7 @@ public class ModelCrudController {
 
         }
 
-        return new ResponseEntity<>(envelope, HttpStatus.OK);
+        return new ResponseEntity<>(envelope, headers, HttpStatus.OK);
 
     }
 
@@ -583,6 +728,8 @@ public class ModelCrudController {
 
         ResponseEnvelope envelope;
         String mediaType = request.getHeader("Accept");
+        Projection projection = getProjection(relModel, includedFields, excludedFields,
+            ApiMediaTypes.isHalMediaType(mediaType));
 
         // Get the foreign key field values to be used in the query
         List<Object> foreignKeyValues;
@@ -607,7 +754,7 @@ public class ModelCrudController {
 
         if (RequestUtils.isPagedRequest(request)) {
 
-            Page<?> page = metaRepository.find(criterias, pageable);
+            Page<?> page = metaRepository.find(criterias, pageable, projection);
 
             if (ApiMediaTypes.isHalMediaType(mediaType)) {
 
@@ -627,9 +774,10 @@ public class ModelCrudController {
 
             if (RequestUtils.isSortableRequest(request)) {
                 entities = (List<? extends Model<?>>) metaRepository
-                    .find(criterias, pageable.getSort());
+                    .find(criterias, pageable.getSort(), projection);
             } else {
-                entities = (List<? extends Model<?>>) metaRepository.find(criterias);
+                entities = (List<? extends Model<?>>) metaRepository
+                    .find(criterias, Sort.unsorted(), projection);
             }
 
             if (ApiMediaTypes.isHalMediaType(mediaType)) {
@@ -736,6 +884,89 @@ public class ModelCrudController {
         }
     }
 
+    /**
+     * Translates the requested field inclusions and exclusions into a {@link Projection}, so that
+     * unwanted fields are not fetched from the repository.  Included fields that do not match a
+     * model field, other than the HAL {@code links} and {@code content} properties, are filtered
+     * during serialization instead, and no projection is applied.
+     * Fields required to create HAL links are always fetched.
+     *
+     * @param model model class being queried.
+     * @param includedFields fields requested for inclusion.
+     * @param excludedFields fields requested for exclusion.
+     * @param hal true if the response will include HAL links.
+     * @return projection of the fields to fetch.
+     */
+    private static Projection getProjection(Class<?> model, Set<String> includedFields,
+        Set<String> excludedFields, boolean hal) {
+        List<String> modelFields = ModelReflectionUtils.getPersistableNonEntityFieldNames(model);
+        Set<String> linkedFields = new HashSet<>();
+        if (hal) {
+            for (Field field : ModelReflectionUtils.getLinkedModelFields(model)) {
+                linkedFields.add(field.getName());
+            }
+        }
+        if (!includedFields.isEmpty()) {
+            Set<String> fields = new LinkedHashSet<>();
+            for (String field : includedFields) {
+                if (RESOURCE_FIELDS.contains(field)) {
+                    continue;
+                } else if (!modelFields.contains(field.split("\\.")[0])) {
+                    return Projection.all();
+                }
+                fields.add(field);
+            }
+            fields.addAll(linkedFields);
+            return Projection.include(fields);
+        } else if (!excludedFields.isEmpty()) {
+            Set<String> fields = new LinkedHashSet<>();
+            for (String field : excludedFields) {
+                if (modelFields.contains(field.split("\\.")[0])
+                    && !linkedFields.contains(field)) {
+                    fields.add(field);
+                }
+            }
+            return Projection.exclude(fields);
+        }
+        return Projection.all();
+    }
+
+    /**
+     * Returns the names of the model properties serialized by Jackson, excluding ignored and
+     * write-only properties, so that raw query results expose the same properties as serialized
+     * model instances.
+     *
+     * @param model model class being queried.
+     * @return names of the serialized properties.
+     */
+    private Set<String> getSerializedProperties(Class<?> model) {
+        return serializedProperties.computeIfAbsent(model, type -> {
+            Set<String> properties = new HashSet<>();
+            for (BeanPropertyDefinition property : objectMapper.getSerializationConfig()
+                .introspect(objectMapper.constructType(type)).findProperties()) {
+                if (property.couldSerialize()) {
+                    properties.add(property.getName());
+                }
+            }
+            return properties;
+        });
+    }
+
+    /**
+     * Creates a link to the following page of a collection, by replacing the paging parameter of
+     * the current request.
+     *
+     * @param selfLink link to the current page.
+     * @param parameter name of the paging parameter.
+     * @param value paging parameter value for the following page.
+     * @return link with the {@code next} relation.
+     */
+    private static Link getNextLink(Link selfLink, String parameter, Object value) {
+        return new Link(UriComponentsBuilder.fromUriString(selfLink.getHref())
+            .replaceQueryParam(parameter, value)
+            .build().toUriString(), Link.REL_NEXT);
+    }
+
     public ResourceAssemblerSupport<Model, FilterableResource> getAssembler() {
         return assembler;
     }
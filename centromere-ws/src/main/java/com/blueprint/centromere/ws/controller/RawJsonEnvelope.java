@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019 the original author or authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.blueprint.centromere.ws.controller;
+
+import com.blueprint.centromere.core.repository.RawJsonResults;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.util.Set;
+
+/**
+ * {@link ResponseEnvelope} for query results fetched with {@link
+ * com.blueprint.centromere.core.repository.ModelRepository#findRawJson}, which are transcoded
+ * straight to the response body by {@link
+ * com.blueprint.centromere.ws.config.RawJsonHttpMessageConverter}.  Along with the requested
+ * field filters, carries the names of the model properties that would be serialized by Jackson,
+ * so that properties hidden from the API stay hidden.
+ *
+ * @author woemler
+ * @since 0.6.0
+ */
+public class RawJsonEnvelope extends ResponseEnvelope {
+
+    private final Set<String> serializedProperties;
+
+    public RawJsonEnvelope(RawJsonResults results, Set<String> includedFields,
+        Set<String> excludedFields, Set<String> serializedProperties) {
+        super(results, includedFields, excludedFields);
+        this.serializedProperties = serializedProperties;
+    }
+
+    @Override
+    public RawJsonResults getEntity() {
+        return (RawJsonResults) super.getEntity();
+    }
+
+    @JsonIgnore
+    public Set<String> getSerializedProperties() {
+        return serializedProperties;
+    }
+
+    /**
+     * Returns {@code true} if the named model property should be written to the response.
+     */
+    public boolean isIncluded(String property) {
+        if (!serializedProperties.contains(property)) {
+            return false;
+        }
+        Set<String> includedFields = getIncludedFields();
+        if (includedFields != null && !includedFields.isEmpty()) {
+            return includedFields.contains(property);
+        }
+        Set<String> excludedFields = getExcludedFields();
+        return excludedFields == null || !excludedFields.contains(property);
+    }
+
+}
@@ -20,9 +20,11 @@ import com.blueprint.centromere.core.model.Model;
 import com.blueprint.centromere.core.repository.Evaluation;
 import com.blueprint.centromere.core.repository.QueryCriteria;
 import com.blueprint.centromere.core.repository.QueryParameterDescriptor;
+import com.blueprint.centromere.core.repository.QueryParameterIndex;
 import com.blueprint.centromere.core.repository.QueryParameterUtil;
 import com.blueprint.centromere.ws.exception.InvalidParameterException;
 import com.blueprint.centromere.ws.exception.ParameterMappingException;
+import com.blueprint.centromere.ws.exception.RequestForbiddenException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
@@ -32,6 +34,12 @@ import java.util.Set;
 import javax.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 
 /**
  * @author woemler
@@ -50,6 +58,7 @@ public final class RequestUtils {
         List<String> params = new ArrayList<>();
         params.addAll(ReservedRequestParameters.FIELD_FILTER_PARAMETERS);
         params.addAll(ReservedRequestParameters.PAGINATION_PARAMETERS);
+        params.addAll(ReservedRequestParameters.QUERY_PLAN_PARAMETERS);
         params.addAll(ReservedRequestParameters.OTHER_PARAMETERS);
         return params;
     }
@@ -64,10 +73,19 @@ public final class RequestUtils {
     public static List<String> findDistinctParameters() {
         List<String> params = new ArrayList<>();
         params.addAll(ReservedRequestParameters.FIELD_FILTER_PARAMETERS);
+        params.add(ReservedRequestParameters.PAGE_PARAMETER);
+        params.add(ReservedRequestParameters.SIZE_PARAMETER);
+        params.add(ReservedRequestParameters.EXPLAIN_PARAMETER);
         params.addAll(ReservedRequestParameters.OTHER_PARAMETERS);
         return params;
     }
 
+    public static List<String> findGroupParameters() {
+        List<String> params = findDistinctParameters();
+        params.addAll(ReservedRequestParameters.AGGREGATION_PARAMETERS);
+        return params;
+    }
+
     /**
      * Converts query string options in a {@link HttpServletRequest} to a list of {@link
      * QueryCriteria}, based upon the available model query options and the default {@code GET}
@@ -83,7 +101,7 @@ public final class RequestUtils {
                 model.getName(), request.getQueryString()));
 
         List<QueryCriteria> criteriaList = getQueryCriteriaFromRequest(
-            QueryParameterUtil.getAvailableQueryParameters(model),
+            QueryParameterIndex.forModel(model),
             findAllParameters(),
             request.getParameterMap());
 
@@ -106,10 +124,28 @@ public final class RequestUtils {
             "Generating QueryCriteria for 'findDistinct' request options: model=%s params=%s",
             model.getName(), request.getQueryString()));
         List<String> defaultParameters = findDistinctParameters();
-        Map<String, QueryParameterDescriptor> paramMap = QueryParameterUtil
-            .getAvailableQueryParameters(model);
-        List<QueryCriteria> criteriaList = getQueryCriteriaFromRequest(paramMap, defaultParameters,
-            request.getParameterMap());
+        List<QueryCriteria> criteriaList = getQueryCriteriaFromRequest(
+            QueryParameterIndex.forModel(model), defaultParameters, request.getParameterMap());
+        LOGGER.info(
+            String.format("Generated QueryCriteria for request: %s", criteriaList.toString()));
+        return criteriaList;
+    }
+
+    /**
+     * Converts query string options in a {@link HttpServletRequest} to a list of {@link
+     * QueryCriteria}, based upon the available model query options and the group operation
+     * endpoint options.
+     */
+    public static List<QueryCriteria> getQueryCriteriaFromFindGroupRequest(
+        Class<? extends Model<?>> model,
+        HttpServletRequest request
+    ) {
+        LOGGER.info(String.format(
+            "Generating QueryCriteria for 'findGroup' request options: model=%s params=%s",
+            model.getName(), request.getQueryString()));
+        List<String> defaultParameters = findGroupParameters();
+        List<QueryCriteria> criteriaList = getQueryCriteriaFromRequest(
+            QueryParameterIndex.forModel(model), defaultParameters, request.getParameterMap());
         LOGGER.info(
             String.format("Generated QueryCriteria for request: %s", criteriaList.toString()));
         return criteriaList;
@@ -131,7 +167,7 @@ public final class RequestUtils {
                 model.getName(), request.getQueryString()));
 
         List<QueryCriteria> criteriaList = getQueryCriteriaFromRequest(
-            QueryParameterUtil.getAvailableQueryParameters(model),
+            QueryParameterIndex.forModel(model),
             findAllParameters(),
             request.getParameterMap());
         criteriaList.add(new QueryCriteria(relField, relFieldValues, Evaluation.IN));
@@ -169,6 +205,24 @@ public final class RequestUtils {
         List<String> defaultParameters,
         Map<String, String[]> paramMap
     ) {
+        return getQueryCriteriaFromRequest(new QueryParameterIndex(validParams.values()),
+            defaultParameters, paramMap);
+    }
+
+    /**
+     * Extracts valid repository query options from a map of submitted request options, and
+     * generates a list of {@link QueryCriteria} for querying the database.
+     *
+     * @param parameterIndex index of valid query options for the target {@link Model}
+     * @param defaultParameters default query options for the given controller method
+     * @param paramMap map of options in the HTTP request
+     * @return list of query criteria
+     */
+    public static List<QueryCriteria> getQueryCriteriaFromRequest(
+        QueryParameterIndex parameterIndex,
+        List<String> defaultParameters,
+        Map<String, String[]> paramMap
+    ) {
 
         List<QueryCriteria> criteriaList = new ArrayList<>();
 
@@ -177,49 +231,86 @@ public final class RequestUtils {
             String paramName = entry.getKey();
             String[] paramValue = entry.getValue()[0] != null
                 ? entry.getValue()[0].split(",") : new String[]{""};
-            QueryCriteria criteria = null;
 
             if (defaultParameters.contains(paramName)) {
                 continue;
             }
 
-            for (Map.Entry<String, QueryParameterDescriptor> e : validParams.entrySet()) {
+            if (ReservedRequestParameters.COMPOSITE_CRITERIA_PARAMETERS.contains(paramName)) {
+                for (String group : entry.getValue()) {
+                    criteriaList.add(getCompositeQueryCriteria(parameterIndex, paramName, group));
+                }
+                continue;
+            }
+
+            criteriaList.add(getQueryCriteria(parameterIndex, paramName, paramValue));
+
+        }
 
-                QueryParameterDescriptor descriptor = e.getValue();
+        return criteriaList;
 
-                if (descriptor.parameterNameMatches(paramName)) {
+    }
 
-                    LOGGER.info(String.format("Request param '%s' matches model parameter: %s",
-                        paramName, descriptor.toString()));
+    /**
+     * Converts a single model query parameter into a {@link QueryCriteria}.
+     *
+     * @throws InvalidParameterException if the parameter is not a valid model query option.
+     */
+    private static QueryCriteria getQueryCriteria(QueryParameterIndex parameterIndex,
+        String paramName, String[] paramValue) {
 
-                    try {
-                        criteria = QueryParameterUtil.getQueryCriteriaFromParameter(
-                            descriptor.getQueryableFieldName(paramName),
-                            paramValue,
-                            descriptor.getType(),
-                            descriptor.getDynamicEvaluation(paramName));
-                        break;
-                    } catch (Exception ex) {
-                        throw new ParameterMappingException(ex.getMessage());
-                    }
+        QueryCriteria criteria = null;
+        QueryParameterIndex.Binding binding = parameterIndex.resolve(paramName);
 
-                }
+        if (binding != null) {
 
-            }
+            LOGGER.info(String.format("Request param '%s' matches model parameter: %s",
+                paramName, binding.getDescriptor().toString()));
 
-            if (criteria != null) {
-                criteriaList.add(criteria);
-            } else {
-                LOGGER.warn(
-                    String.format("Unable to map request parameter to available model options: "
-                        + "%s", paramName));
-                throw new InvalidParameterException("Invalid request parameter: " + paramName);
+            try {
+                criteria = QueryParameterUtil.getQueryCriteriaFromParameter(
+                    binding.getFieldName(),
+                    paramValue,
+                    binding.getType(),
+                    binding.getEvaluation());
+            } catch (Exception ex) {
+                throw new ParameterMappingException(ex.getMessage());
             }
 
         }
 
-        return criteriaList;
+        if (criteria == null) {
+            LOGGER.warn(
+                String.format("Unable to map request parameter to available model options: "
+                    + "%s", paramName));
+            throw new InvalidParameterException("Invalid request parameter: " + paramName);
+        }
+
+        return criteria;
+
+    }
 
+    /**
+     * Converts the value of a composite criteria parameter, a semicolon-separated list of {@code
+     * param:value} terms, into a single composite {@link QueryCriteria}, so that alternative
+     * conditions on several fields are evaluated by one query.
+     *
+     * @throws InvalidParameterException if a term is malformed, or names an invalid parameter.
+     */
+    private static QueryCriteria getCompositeQueryCriteria(QueryParameterIndex parameterIndex,
+        String paramName, String group) {
+        List<QueryCriteria> criterias = new ArrayList<>();
+        for (String term : group.split(";")) {
+            int separator = term.indexOf(':');
+            if (separator < 1) {
+                throw new InvalidParameterException(
+                    String.format("Invalid %s parameter term: %s", paramName, term));
+            }
+            criterias.add(getQueryCriteria(parameterIndex, term.substring(0, separator),
+                term.substring(separator + 1).split(",")));
+        }
+        return ReservedRequestParameters.NOT_PARAMETER.equals(paramName)
+            ? QueryCriteria.not(criterias) : QueryCriteria.any(criterias);
     }
 
     /**
@@ -264,6 +355,115 @@ public final class RequestUtils {
             || request.getParameterMap().containsKey(ReservedRequestParameters.SIZE_PARAMETER);
     }
 
+    /**
+     * Checks whether a paged request requires a total record count.  Counting is skipped when the
+     * {@code _count} parameter is {@code false}, in which case only a slice of records, without
+     * total record or page numbers, is returned.
+     */
+    public static boolean isCountedRequest(HttpServletRequest request) {
+        String count = request.getParameter(ReservedRequestParameters.COUNT_PARAMETER);
+        if (count == null || count.trim().isEmpty() || "true".equalsIgnoreCase(count.trim())) {
+            return true;
+        } else if ("false".equalsIgnoreCase(count.trim())) {
+            return false;
+        }
+        throw new InvalidParameterException(String.format("Invalid value for parameter %s: %s",
+            ReservedRequestParameters.COUNT_PARAMETER, count));
+    }
+
+    /**
+     * Checks whether the request asks for the query plan, rather than the query results.
+     */
+    public static boolean isExplainRequest(HttpServletRequest request) {
+        String explain = request.getParameter(ReservedRequestParameters.EXPLAIN_PARAMETER);
+        if (explain == null || "false".equalsIgnoreCase(explain.trim())) {
+            return false;
+        } else if (explain.trim().isEmpty() || "true".equalsIgnoreCase(explain.trim())) {
+            return true;
+        }
+        throw new InvalidParameterException(String.format("Invalid value for parameter %s: %s",
+            ReservedRequestParameters.EXPLAIN_PARAMETER, explain));
+    }
+
+    /**
+     * Verifies that the current user may request query plans.  Explain requests must be enabled,
+     * and if an authority is required, the authenticated user must have been granted it.
+     *
+     * @param enabled whether explain requests are enabled.
+     * @param authority authority required to explain queries, or an empty string if any user may.
+     * @throws RequestForbiddenException if the user may not request query plans.
+     */
+    public static void checkExplainPermitted(boolean enabled, String authority) {
+        if (!enabled) {
+            throw new RequestForbiddenException("Query plan requests are not enabled.");
+        }
+        if (authority == null || authority.trim().isEmpty()) {
+            return;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null) {
+            for (GrantedAuthority granted : authentication.getAuthorities()) {
+                if (authority.trim().equals(granted.getAuthority())) {
+                    return;
+                }
+            }
+        }
+        throw new RequestForbiddenException(
+            String.format("Query plan requests require authority: %s", authority.trim()));
+    }
+
+    /**
+     * Returns the name of the index the query is required to use, or {@code null} if the request
+     * does not include an index hint.
+     */
+    public static String getHint(HttpServletRequest request) {
+        String hint = request.getParameter(ReservedRequestParameters.HINT_PARAMETER);
+        return hint == null || hint.trim().isEmpty() ? null : hint.trim();
+    }
+
+    /**
+     * Checks whether the response to the request will be rendered as plain JSON, either because
+     * the {@code _format} parameter selects it, or because no format parameter is given and the
+     * most preferred media type in the {@code Accept} header, if any, includes {@code
+     * application/json}.
+     */
+    public static boolean isJsonRequest(HttpServletRequest request) {
+        String format = request.getParameter(ReservedRequestParameters.FORMAT_PARAMETER);
+        if (format != null && !format.trim().isEmpty()) {
+            return "json".equalsIgnoreCase(format.trim());
+        }
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.trim().isEmpty()) {
+            return true;
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        MediaType.sortBySpecificityAndQuality(mediaTypes);
+        return !mediaTypes.isEmpty() && mediaTypes.get(0).includes(MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * Checks the request parameters for indications of a keyset-paginated request.  An empty
+     * cursor value requests the first page.
+     */
+    public static boolean isKeysetPagedRequest(HttpServletRequest request) {
+        return request.getParameterMap().containsKey(ReservedRequestParameters.CURSOR_PARAMETER);
+    }
+
+    /**
+     * Checks the request parameters for indications of a grouped request that should return only
+     * group summaries, rather than the grouped records.
+     */
+    public static boolean isSummaryRequest(HttpServletRequest request) {
+        String summary = request.getParameter(ReservedRequestParameters.SUMMARY_PARAMETER);
+        return request.getParameterMap().containsKey(ReservedRequestParameters.VALUE_PARAMETER)
+            || summary != null && !"false".equalsIgnoreCase(summary.trim());
+    }
+
     /**
      * Checks the request parameters for indications of a sorted-response request.
      */
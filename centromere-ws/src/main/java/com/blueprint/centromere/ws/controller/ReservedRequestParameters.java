@@ -17,13 +17,42 @@ public final class ReservedRequestParameters {
         = Collections.unmodifiableList(Arrays.asList(
         INCLUDED_FIELDS_PARAMETER, EXCLUDED_FIELDS_PARAMETER));
 
+    /**
+     * Composite criteria parameters, each with a semicolon-separated list of {@code param:value}
+     * terms, eg. {@code _any=symbol:BRCA1;aliases:BRCA1}, where each {@code param} is a model
+     * query parameter.  {@code _any} matches records satisfying at least one term, and {@code
+     * _not} records satisfying none.  Each occurrence of the parameter is a separate group.
+     */
+    public static final String ANY_PARAMETER = "_any";
+    public static final String NOT_PARAMETER = "_not";
+    public static final List<String> COMPOSITE_CRITERIA_PARAMETERS
+        = Collections.unmodifiableList(Arrays.asList(ANY_PARAMETER, NOT_PARAMETER));
+
     public static final String PAGE_PARAMETER = "_page";
     public static final String SIZE_PARAMETER = "_size";
     public static final String SORT_PARAMETER = "_sort";
+    public static final String CURSOR_PARAMETER = "_cursor";
+    public static final String COUNT_PARAMETER = "_count";
 
     public static final List<String> PAGINATION_PARAMETERS
         = Collections.unmodifiableList(Arrays.asList(
-        PAGE_PARAMETER, SIZE_PARAMETER, SORT_PARAMETER));
+        PAGE_PARAMETER, SIZE_PARAMETER, SORT_PARAMETER, CURSOR_PARAMETER, COUNT_PARAMETER));
+
+    public static final String SUMMARY_PARAMETER = "_summary";
+    public static final String VALUE_PARAMETER = "_value";
+
+    public static final List<String> AGGREGATION_PARAMETERS
+        = Collections.unmodifiableList(Arrays.asList(SUMMARY_PARAMETER, VALUE_PARAMETER));
+
+    /**
+     * Diagnostic parameters.  {@code _explain=true} returns the plan the repository would use to
+     * answer the query, rather than the query results, and {@code _hint} names the index the
+     * query must use.
+     */
+    public static final String EXPLAIN_PARAMETER = "_explain";
+    public static final String HINT_PARAMETER = "_hint";
+    public static final List<String> QUERY_PLAN_PARAMETERS
+        = Collections.unmodifiableList(Arrays.asList(EXPLAIN_PARAMETER, HINT_PARAMETER));
 
     public static final String FORMAT_PARAMETER = "_format";
     public static final List<String> OTHER_PARAMETERS
@@ -92,6 +92,29 @@ final class ModelResourceParametersPluginUtil {
             .allowMultiple(false)
             .parameterAccess("")
             .build());
+        parameters.add(new ParameterBuilder()
+            .name(ReservedRequestParameters.COUNT_PARAMETER)
+            .type(typeResolver.resolve(Boolean.class))
+            .modelRef(new ModelRef("boolean"))
+            .parameterType("query")
+            .required(false)
+            .description("Count the total number of records for paged requests.  If false, "
+                + "only the requested page and whether a following page exists are returned.")
+            .defaultValue("true")
+            .allowMultiple(false)
+            .parameterAccess("")
+            .build());
+        parameters.add(new ParameterBuilder()
+            .name(ReservedRequestParameters.CURSOR_PARAMETER)
+            .type(typeResolver.resolve(String.class))
+            .modelRef(new ModelRef("string"))
+            .parameterType("query")
+            .required(false)
+            .description("Continuation token for keyset pagination.  Leave empty to fetch the "
+                + "first page, then use the token returned in the 'next' link.")
+            .allowMultiple(false)
+            .parameterAccess("")
+            .build());
         return parameters;
     }
 
@@ -195,11 +218,39 @@ final class ModelResourceParametersPluginUtil {
             .allowMultiple(false)
             .parameterAccess("")
             .build());
+        parameters.addAll(groupSummaryParameters(typeResolver));
         parameters.addAll(getModelParameters(model, typeResolver));
         parameters.addAll(formatParameters(typeResolver));
         return parameters;
     }
 
+    private static List<Parameter> groupSummaryParameters(TypeResolver typeResolver) {
+        List<Parameter> parameters = new ArrayList<>();
+        parameters.add(new ParameterBuilder()
+            .name(ReservedRequestParameters.SUMMARY_PARAMETER)
+            .type(typeResolver.resolve(Boolean.class))
+            .modelRef(new ModelRef("boolean"))
+            .parameterType("query")
+            .required(false)
+            .description("Return only the record count of each group, rather than the records.")
+            .defaultValue("false")
+            .allowMultiple(false)
+            .parameterAccess("")
+            .build());
+        parameters.add(new ParameterBuilder()
+            .name(ReservedRequestParameters.VALUE_PARAMETER)
+            .type(typeResolver.resolve(String.class))
+            .modelRef(new ModelRef("string"))
+            .parameterType("query")
+            .required(false)
+            .description("Numeric field to summarize for each group, with its minimum, maximum, "
+                + "sum and average values.  Implies a summary response.")
+            .allowMultiple(false)
+            .parameterAccess("")
+            .build());
+        return parameters;
+    }
+
     /**
      * GET /api/aggregate/{model}/count
      */
@@ -0,0 +1,15 @@
+package com.blueprint.centromere.ws.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Exception thrown when a request asks for an operation the user is not permitted to perform.
+ *
+ * @author woemler
+ */
+public class RequestForbiddenException extends RestException {
+
+    public RequestForbiddenException(String message) {
+        super(HttpStatus.FORBIDDEN, 403, message);
+    }
+}